@@ -0,0 +1,97 @@
+package com.sim_kar.sudoku_factory.gui;
+
+import com.sim_kar.sudoku_factory.sudoku.BitmaskSolver;
+import com.sim_kar.sudoku_factory.sudoku.Factory;
+import com.sim_kar.sudoku_factory.sudoku.GenerationMetrics;
+import com.sim_kar.sudoku_factory.sudoku.Position;
+import com.sim_kar.sudoku_factory.sudoku.Solver;
+import com.sim_kar.sudoku_factory.sudoku.SudokuFactory;
+import com.sim_kar.sudoku_factory.sudoku.SudokuGrader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work a {@link SudokuModel} does for every move in a game: the queries that
+ * {@link SudokuView#updateBoard()} makes, and a whole move that sets a value and then makes the
+ * same queries. Every thread plays its own game, so running with {@code -t} shows how many moves
+ * per second a server hosting many games can afford. Run with {@code -prof gc} to also report the
+ * allocation per move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+    @Param({"25", "33"})
+    public int clues;
+
+    private SudokuModel model;
+    private List<Position> editable;
+    private int next;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        Solver solver = new BitmaskSolver(new Random(0L));
+        Factory factory = new SudokuFactory(
+                solver,
+                new SudokuGrader(solver),
+                new GenerationMetrics(),
+                new Random(0L)
+        );
+        CountDownLatch latch = new CountDownLatch(1);
+        model = new SudokuModel(factory);
+        model.createPuzzle(clues, latch);
+        latch.await();
+
+        editable = new ArrayList<>();
+        for (int y = 0; y < 9; y++) {
+            for (int x = 0; x < 9; x++) {
+                Position position = new Position(x, y);
+                if (model.isEditable(position)) editable.add(position);
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<Position> getDuplicates() {
+        return model.getDuplicates();
+    }
+
+    @Benchmark
+    public Set<Position> getSectionsWithMistakes() {
+        return model.getSectionsWithMistakes();
+    }
+
+    /**
+     * Set the next empty tile to a value that cycles through 0-9, so that the board goes through
+     * both correct and incorrect states, and make the queries that follow a move.
+     */
+    @Benchmark
+    public void move(Blackhole blackhole) {
+        Position position = editable.get(next % editable.size());
+        int value = (next / editable.size()) % 10;
+        next++;
+
+        model.setValueAt(position, value);
+        blackhole.consume(model.getDuplicates());
+        blackhole.consume(model.getSectionsWithMistakes());
+    }
+}
@@ -0,0 +1,89 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the checks that are made on a {@link SudokuBoard} after every move in a game. The board
+ * is a fixed 29 clue puzzle, where a share of the empty tiles have been filled in by the player,
+ * some of them incorrectly. Run with {@code -prof gc} to also report the allocation per check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"0", "50", "100"})
+    public int filledPercent;
+
+    @Param({"0", "3"})
+    public int mistakes;
+
+    private Board board;
+
+    @Setup
+    public void setup() {
+        Solver solver = new BitmaskSolver(new Random(0L));
+        Factory factory = new SudokuFactory(
+                solver,
+                new SudokuGrader(solver),
+                new GenerationMetrics(),
+                new Random(0L)
+        );
+        board = factory.create(29);
+        fill(board, filledPercent, mistakes, new Random(0L));
+    }
+
+    /**
+     * Fill in a share of the empty tiles on a board the way a player would, with the given number
+     * of incorrect values among them.
+     *
+     * @param board the board to fill in
+     * @param filledPercent the share of the empty tiles to fill in, in percent
+     * @param mistakes the number of filled in tiles with an incorrect value
+     * @param random a Random used to choose the tiles and the incorrect values
+     */
+    static void fill(Board board, int filledPercent, int mistakes, Random random) {
+        List<Position> empty = new ArrayList<>();
+        for (Position position : SudokuFactory.getPositions()) {
+            if (board.getTile(position).isEditable()) empty.add(position);
+        }
+
+        Collections.shuffle(empty, random);
+        int filled = Math.max(mistakes, empty.size() * filledPercent / 100);
+
+        for (int i = 0; i < filled; i++) {
+            Tile tile = board.getTile(empty.get(i));
+            int value = tile.getCorrectValue();
+            if (i < mistakes) value = (value + random.nextInt(8)) % 9 + 1;
+
+            tile.setCurrentValue(value);
+        }
+    }
+
+    @Benchmark
+    public boolean isCorrect() {
+        return board.isCorrect();
+    }
+
+    @Benchmark
+    public List<Section> getIncorrectSections() {
+        return board.getIncorrectSections();
+    }
+}
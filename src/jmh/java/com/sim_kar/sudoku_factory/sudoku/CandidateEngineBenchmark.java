@@ -0,0 +1,73 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast each {@link CandidateEngine} computes the possible numbers of every tile of
+ * the puzzles in a {@link Corpus} group, which is what validating puzzles in bulk comes down to.
+ * The benchmark profile adds the incubating Vector API module to the JVM, so "vector" runs the
+ * {@link VectorCandidateEngine}. If it can't run, the setup fails rather than measuring the scalar
+ * engine under its name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateEngineBenchmark {
+    @Param({"scalar", "vector"})
+    public String engine;
+
+    @Param({"clues-33", "clues-25", "hard"})
+    public String group;
+
+    private CandidateEngine candidateEngine;
+    private int[][] values;
+    private int[][] usedInUnit;
+    private final int[] candidates = new int[81];
+    private final long[] singles = new long[2];
+    private int next;
+
+    @Setup
+    public void setup() {
+        candidateEngine = engine.equals("vector")
+                ? Corpus.getVectorEngine()
+                : new ScalarCandidateEngine();
+
+        int[][][] puzzles = Corpus.load(group);
+        int[][] unitsOfTiles = Layout.STANDARD.getUnitsOfTiles();
+        values = new int[puzzles.length][81];
+        usedInUnit = new int[puzzles.length][27];
+
+        for (int puzzle = 0; puzzle < puzzles.length; puzzle++) {
+            for (int tile = 0; tile < 81; tile++) {
+                int value = puzzles[puzzle][tile / 9][tile % 9];
+                values[puzzle][tile] = value;
+                if (value == 0) continue;
+
+                for (int unit : unitsOfTiles[tile]) {
+                    usedInUnit[puzzle][unit] |= 1 << (value - 1);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int compute() {
+        int puzzle = next;
+        next = (next + 1) % values.length;
+        return candidateEngine.compute(values[puzzle], usedInUnit[puzzle], candidates, singles);
+    }
+}
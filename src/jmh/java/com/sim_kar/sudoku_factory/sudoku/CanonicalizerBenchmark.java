@@ -0,0 +1,45 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link Canonicalizer} takes to find the canonical form of the puzzles in a
+ * {@link Corpus} group. Every operation works on the next puzzle in the group, so the score is
+ * the average time over the whole group.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanonicalizerBenchmark {
+    @Param({"clues-33", "clues-29", "clues-25", "hard"})
+    public String group;
+
+    private int[][][] puzzles;
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = Corpus.load(group);
+    }
+
+    @Benchmark
+    public Transformation getTransformation() {
+        int[][] puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return Canonicalizer.getTransformation(puzzle);
+    }
+}
@@ -0,0 +1,98 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * The checked-in puzzles that benchmarks run over, grouped by number of clues and hardness. Each
+ * group is a resource file in {@code corpus/} with one 81 character puzzle per line in row-major
+ * order, where '.' is an empty tile. Lines starting with '#' are comments.
+ */
+final class Corpus {
+    private static final int TABLE_CAPACITY = 1 << 12;
+
+    private Corpus() {}
+
+    /**
+     * Load the puzzles in a group.
+     *
+     * @param group the name of the group, e.g. "clues-25" or "hard"
+     * @return the puzzles in the group as 9x9 boards
+     * @throws IllegalArgumentException if there is no group with the given name
+     */
+    static int[][][] load(String group) throws IllegalArgumentException {
+        InputStream stream = Corpus.class.getResourceAsStream("/corpus/" + group + ".txt");
+        if (stream == null) {
+            throw new IllegalArgumentException("There is no corpus group named " + group);
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+            List<int[][]> puzzles = reader.lines()
+                    .filter(line -> !PuzzleText.isSkipped(line))
+                    .map(PuzzleText::toBoard)
+                    .collect(Collectors.toList());
+            return puzzles.toArray(new int[0][][]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Create a solver by the simple name of its class.
+     *
+     * @param engine "SudokuSolver", "BitmaskSolver", "BitmaskSolverWithTable" for a bitmask
+     *               solver with a {@link TranspositionTable} of 4096 boards, "BackjumpingSolver",
+     *               "BackjumpingSolverWithNogoods" for a backjumping solver that learns nogoods,
+     *               "PropagatingSolver", or "PropagatingSolverWithVectors" for a propagating
+     *               solver with the {@link VectorCandidateEngine}
+     * @param seed the seed of the solver's Random
+     * @return a new solver
+     * @throws IllegalStateException if the solver uses vectors, but the vector engine can't run
+     */
+    static Solver createSolver(String engine, long seed) {
+        switch (engine) {
+            case "SudokuSolver":
+                return new SudokuSolver(new Random(seed));
+            case "BitmaskSolver":
+                return new BitmaskSolver(new Random(seed));
+            case "BitmaskSolverWithTable":
+                return new BitmaskSolver(new Random(seed), new TranspositionTable(TABLE_CAPACITY));
+            case "BackjumpingSolver":
+                return new BackjumpingSolver(new Random(seed));
+            case "BackjumpingSolverWithNogoods":
+                return new BackjumpingSolver(new Random(seed), true);
+            case "PropagatingSolver":
+                return new PropagatingSolver(new Random(seed));
+            case "PropagatingSolverWithVectors":
+                return new PropagatingSolver(new Random(seed), getVectorEngine());
+            default:
+                throw new IllegalArgumentException("Unknown solver " + engine);
+        }
+    }
+
+    /**
+     * Get the {@link VectorCandidateEngine}, rather than letting
+     * {@link CandidateEngine#vectorized()} fall back to the scalar engine, which would be measured
+     * under the name of the vector engine.
+     *
+     * @return the vector engine
+     * @throws IllegalStateException if the vector engine can't run on this JVM
+     */
+    static CandidateEngine getVectorEngine() throws IllegalStateException {
+        CandidateEngine engine = CandidateEngine.vectorized();
+        if (engine instanceof ScalarCandidateEngine) {
+            throw new IllegalStateException("The vector engine can't run on this JVM, which needs "
+                    + "--add-modules jdk.incubator.vector and 256-bit SIMD registers");
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,112 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link SudokuFactory#create(int)} takes for different numbers of clues.
+ * Generation time depends heavily on the seed, so every puzzle is created with a fresh solver and
+ * factory seeded with the next of {@link #SEEDS} fixed seeds, which makes the runs repeatable and
+ * spreads the measurement over many different solutions.
+ * <br>
+ * {@link #create()} samples the time of single puzzles, which gives the mean and percentiles.
+ * {@link #createBatch(Pool)} creates a puzzle for every seed on a pool of threads, which gives the
+ * mean time per puzzle when a whole batch is created at once, e.g. to fill a puzzle bank. With a
+ * single thread it is the same work as creating the puzzles back to back, so comparing it with
+ * more threads shows how well creation scales.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FactoryBenchmark {
+    static final int SEEDS = 64;
+
+    @Param({"25", "27", "29", "31", "33"})
+    public int clues;
+
+    @Param({"SudokuSolver", "BitmaskSolver", "BitmaskSolverWithTable"})
+    public String engine;
+
+    private int next;
+
+    /**
+     * Create a puzzle with a factory and solver seeded with the given seed.
+     */
+    private Board create(long seed) {
+        Solver solver = Corpus.createSolver(engine, seed);
+        Factory factory = new SudokuFactory(
+                solver,
+                new SudokuGrader(solver),
+                new GenerationMetrics(),
+                new Random(seed)
+        );
+        return factory.create(clues);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Board create() {
+        long seed = next;
+        next = (next + 1) % SEEDS;
+        return create(seed);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OperationsPerInvocation(SEEDS)
+    public void createBatch(Pool pool, Blackhole blackhole)
+            throws ExecutionException, InterruptedException {
+        List<Future<Board>> boards = new ArrayList<>(SEEDS);
+        for (long seed = 0; seed < SEEDS; seed++) {
+            long finalSeed = seed;
+            boards.add(pool.executor.submit(() -> create(finalSeed)));
+        }
+
+        for (Future<Board> board : boards) {
+            blackhole.consume(board.get());
+        }
+    }
+
+    /**
+     * The threads a batch of puzzles is created on, which are shared by the whole run.
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"1", "4"})
+        public int threads;
+
+        private ExecutorService executor;
+
+        @Setup
+        public void setup() {
+            executor = Executors.newFixedThreadPool(threads);
+        }
+
+        @TearDown
+        public void teardown() {
+            executor.shutdownNow();
+        }
+    }
+}
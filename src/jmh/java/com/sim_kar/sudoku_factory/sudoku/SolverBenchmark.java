@@ -0,0 +1,67 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast each {@link Solver} engine solves and checks the uniqueness of the puzzles in
+ * a {@link Corpus} group. Every operation works on the next puzzle in the group, so the score is
+ * the throughput over the whole group. Run with {@code -prof gc} (the default of the benchmark
+ * profile) to also report the allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({
+            "SudokuSolver",
+            "BitmaskSolver",
+            "BackjumpingSolver",
+            "BackjumpingSolverWithNogoods",
+            "PropagatingSolver",
+            "PropagatingSolverWithVectors"
+    })
+    public String engine;
+
+    @Param({"clues-33", "clues-29", "clues-25", "hard"})
+    public String group;
+
+    private Solver solver;
+    private int[][][] puzzles;
+    private int next;
+
+    @Setup
+    public void setup() {
+        solver = Corpus.createSolver(engine, 0L);
+        puzzles = Corpus.load(group);
+    }
+
+    private int[][] nextPuzzle() {
+        int[][] puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return puzzle;
+    }
+
+    @Benchmark
+    public int[][] generate() {
+        return solver.generate(nextPuzzle());
+    }
+
+    @Benchmark
+    public boolean isUnique() {
+        return solver.isUnique(nextPuzzle());
+    }
+}
@@ -1,32 +1,70 @@
 package com.sim_kar.sudoku_factory;
 
+import com.sim_kar.sudoku_factory.cli.GenerateCommand;
+import com.sim_kar.sudoku_factory.cli.SolveCommand;
 import com.sim_kar.sudoku_factory.gui.Controller;
 import com.sim_kar.sudoku_factory.gui.Model;
 import com.sim_kar.sudoku_factory.gui.SudokuController;
 import com.sim_kar.sudoku_factory.gui.SudokuModel;
 import com.sim_kar.sudoku_factory.gui.SudokuView;
 import com.sim_kar.sudoku_factory.sudoku.Factory;
+import com.sim_kar.sudoku_factory.sudoku.GenerationMetrics;
+import com.sim_kar.sudoku_factory.sudoku.RecordingSolver;
 import com.sim_kar.sudoku_factory.sudoku.SudokuFactory;
 import com.sim_kar.sudoku_factory.sudoku.Solver;
+import com.sim_kar.sudoku_factory.sudoku.SudokuGrader;
 import com.sim_kar.sudoku_factory.sudoku.SudokuSolver;
+import javax.management.JMException;
 import java.awt.EventQueue;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
  * A Sudoku puzzle game application. Lets you generate new interactive Sudoku puzzles of varying
  * difficulty, which are displayed along with controls.
+ * <br>
+ * Can also be run without a user interface to generate puzzles in bulk, see
+ * {@link GenerateCommand}, or to check puzzles in bulk, see {@link SolveCommand}.
  */
 public class Sudoku {
     /**
-     * Run the game in a new window.
+     * Run the game in a new window, or run a command without a user interface if the first
+     * argument is the name of a command. The commands never load the user interface, so they can
+     * be run on machines without a display.
      *
-     * @param args not used
+     * @param args no arguments to run the game, or "generate" or "solve" followed by the
+     *             arguments of the command
      */
     public static void main(String... args) {
+        if ((args.length > 0) && args[0].equals("generate")) {
+            GenerateCommand.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if ((args.length > 0) && args[0].equals("solve")) {
+            SolveCommand.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         EventQueue.invokeLater(() -> {
             Random random = new Random();
-            Solver solver = new SudokuSolver(random);
-            Factory factory = new SudokuFactory(solver);
+            Solver solver = new RecordingSolver(new SudokuSolver(random));
+            GenerationMetrics metrics = new GenerationMetrics();
+            Factory factory = new SudokuFactory(
+                    solver,
+                    new SudokuGrader(solver),
+                    metrics,
+                    random
+            );
+
+            // the game works without metrics, so failing to expose them through JMX is reported
+            // like the errors of the commands, but the game is started anyway
+            try {
+                metrics.register("gui");
+            } catch (JMException e) {
+                System.err.println("The metrics could not be registered: " + e.getMessage());
+            }
+
             Model model = new SudokuModel(factory);
             Controller controller = new SudokuController(model);
             SudokuView view = new SudokuView(model, controller);
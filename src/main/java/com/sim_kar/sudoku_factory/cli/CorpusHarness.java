@@ -0,0 +1,190 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import com.sim_kar.sudoku_factory.io.PuzzleReader;
+import com.sim_kar.sudoku_factory.sudoku.Solver;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Solves every puzzle in a corpus with a {@link Solver}, and reports the number of nodes and the
+ * time each puzzle took, along with the throughput over the whole corpus. Used to stress solvers
+ * with puzzles that are known to be hard for them.
+ * <br>
+ * Three corpora are included: {@code seventeen} (puzzles with the fewest possible clues),
+ * {@code hardest} (puzzles known as the hardest for humans), and {@code pathological} (puzzles
+ * that are the worst case for row-major backtracking). Any puzzle file can also be solved.
+ */
+public class CorpusHarness {
+    private static final String[] CORPORA = {"seventeen", "hardest", "pathological"};
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private final Solver solver;
+    private final PrintStream out;
+
+    /**
+     * Create a new harness.
+     *
+     * @param solver the solver to solve puzzles with
+     * @param out where to print the report to
+     */
+    public CorpusHarness(Solver solver, PrintStream out) {
+        this.solver = solver;
+        this.out = out;
+    }
+
+    /**
+     * Solve every puzzle in a corpus and print the nodes and time of each, followed by a summary.
+     *
+     * @param name the name of the corpus, used in the report
+     * @param puzzles the puzzles of the corpus
+     * @return a summary of the work done
+     */
+    public Summary solve(String name, Stream<int[][]> puzzles) {
+        Summary summary = new Summary();
+        Iterator<int[][]> iterator = puzzles.iterator();
+
+        while (iterator.hasNext()) {
+            int[][] puzzle = iterator.next();
+            long nodes = solver.getNodeCount();
+            long start = System.nanoTime();
+            boolean solved = true;
+
+            try {
+                solver.generate(puzzle);
+            } catch (IllegalArgumentException e) {
+                solved = false;
+            }
+
+            long nanos = System.nanoTime() - start;
+            nodes = solver.getNodeCount() - nodes;
+            summary.add(nodes, nanos, solved);
+            out.printf("%s #%d: %d nodes, %.0f us, %s%n",
+                    name, summary.getPuzzles(), nodes, nanos / NANOS_PER_MICRO,
+                    solved ? "solved" : "no solution");
+        }
+
+        out.printf("%s: %d puzzles (%d solved), %d nodes, %.3f s, %.1f puzzles/s, %.0f nodes/s%n",
+                name, summary.getPuzzles(), summary.getSolved(), summary.getNodes(),
+                summary.getNanos() / NANOS_PER_SECOND, summary.getPuzzlesPerSecond(),
+                summary.getNodesPerSecond());
+        return summary;
+    }
+
+    /**
+     * Stream the puzzles of one of the included corpora.
+     *
+     * @param name "seventeen", "hardest" or "pathological"
+     * @return a lazy stream of puzzles, which must be closed
+     * @throws IllegalArgumentException if there is no corpus with the given name
+     * @throws IOException if the corpus can't be read
+     */
+    public static Stream<int[][]> corpus(String name) throws IOException {
+        InputStream input = CorpusHarness.class.getResourceAsStream("/corpus/" + name + ".txt");
+        if (input == null) throw new IllegalArgumentException("There is no corpus named " + name);
+
+        return PuzzleReader.puzzles(input);
+    }
+
+    /**
+     * Solve corpora and print a report.
+     * <br>
+     * Usage: {@code CorpusHarness [--solver bitmask|backtracking|backjumping|propagating|vector]
+     * [corpus or file...]}, where a corpus is one of the included corpora, and a file is any
+     * puzzle file, optionally compressed with gzip. By default, the included corpora are solved
+     * with the bitmask solver.
+     *
+     * @param args the options, and the corpora and files to solve
+     */
+    public static void main(String... args) {
+        String engine = Engines.BITMASK;
+        List<String> sources = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--solver") && (i + 1 < args.length)) {
+                engine = args[++i];
+            } else {
+                sources.add(args[i]);
+            }
+        }
+
+        if (sources.isEmpty()) sources.addAll(List.of(CORPORA));
+        CorpusHarness harness = new CorpusHarness(Engines.create(engine, new Random()), System.out);
+
+        for (String source : sources) {
+            try (Stream<int[][]> puzzles = List.of(CORPORA).contains(source)
+                    ? corpus(source)
+                    : PuzzleReader.puzzles(Path.of(source))) {
+                harness.solve(source, puzzles);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * The work done to solve a corpus.
+     */
+    public static class Summary {
+        private int puzzles;
+        private int solved;
+        private long nodes;
+        private long nanos;
+
+        private void add(long nodes, long nanos, boolean solved) {
+            this.puzzles++;
+            this.nodes += nodes;
+            this.nanos += nanos;
+            if (solved) this.solved++;
+        }
+
+        /**
+         * @return the number of puzzles in the corpus
+         */
+        public int getPuzzles() {
+            return puzzles;
+        }
+
+        /**
+         * @return the number of puzzles that were solved
+         */
+        public int getSolved() {
+            return solved;
+        }
+
+        /**
+         * @return the total number of nodes the solver visited
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * @return the total time spent solving, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return the number of puzzles per second, or 0 if no time was spent
+         */
+        public double getPuzzlesPerSecond() {
+            return (nanos == 0) ? 0 : puzzles * NANOS_PER_SECOND / nanos;
+        }
+
+        /**
+         * @return the number of nodes visited per second, or 0 if no time was spent
+         */
+        public double getNodesPerSecond() {
+            return (nanos == 0) ? 0 : nodes * NANOS_PER_SECOND / nanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import com.sim_kar.sudoku_factory.sudoku.BackjumpingSolver;
+import com.sim_kar.sudoku_factory.sudoku.BitmaskSolver;
+import com.sim_kar.sudoku_factory.sudoku.CandidateEngine;
+import com.sim_kar.sudoku_factory.sudoku.PropagatingSolver;
+import com.sim_kar.sudoku_factory.sudoku.Solver;
+import com.sim_kar.sudoku_factory.sudoku.SudokuSolver;
+import java.util.Random;
+
+/**
+ * Creates solvers by the names they are given on the command line.
+ */
+final class Engines {
+    static final String BITMASK = "bitmask";
+    static final String BACKTRACKING = "backtracking";
+    static final String BACKJUMPING = "backjumping";
+    static final String PROPAGATING = "propagating";
+    static final String VECTOR = "vector";
+
+    private Engines() {}
+
+    /**
+     * Create a new solver.
+     *
+     * @param name "bitmask" for a {@link BitmaskSolver}, "backtracking" for a
+     *             {@link SudokuSolver}, "backjumping" for a {@link BackjumpingSolver} that
+     *             learns nogoods, "propagating" for a {@link PropagatingSolver}, or "vector" for
+     *             a propagating solver that uses the Vector API if the JVM was started with
+     *             {@code --add-modules jdk.incubator.vector}
+     * @param random a Random used by the solver to generate solutions
+     * @return a new solver
+     * @throws IllegalArgumentException if there is no solver with the given name
+     */
+    static Solver create(String name, Random random) throws IllegalArgumentException {
+        switch (name) {
+            case BITMASK:
+                return new BitmaskSolver(random);
+            case BACKTRACKING:
+                return new SudokuSolver(random);
+            case BACKJUMPING:
+                return new BackjumpingSolver(random, true);
+            case PROPAGATING:
+                return new PropagatingSolver(random);
+            case VECTOR:
+                return new PropagatingSolver(random, CandidateEngine.vectorized());
+            default:
+                throw new IllegalArgumentException("Unknown solver: " + name);
+        }
+    }
+}
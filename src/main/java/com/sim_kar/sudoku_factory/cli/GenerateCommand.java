@@ -0,0 +1,312 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import com.sim_kar.sudoku_factory.sudoku.Board;
+import com.sim_kar.sudoku_factory.sudoku.DistinctFactory;
+import com.sim_kar.sudoku_factory.sudoku.GenerationMetrics;
+import com.sim_kar.sudoku_factory.sudoku.Grade;
+import com.sim_kar.sudoku_factory.sudoku.LatencyHistogram;
+import com.sim_kar.sudoku_factory.sudoku.LongHashSet;
+import com.sim_kar.sudoku_factory.sudoku.RatedFactory;
+import com.sim_kar.sudoku_factory.sudoku.Solver;
+import com.sim_kar.sudoku_factory.sudoku.SudokuFactory;
+import com.sim_kar.sudoku_factory.sudoku.SudokuGrader;
+import org.jetbrains.annotations.Nullable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates puzzles without a user interface, and writes them to a file with one puzzle line per
+ * puzzle (see {@link PuzzleText}). The puzzles are generated in parallel, and each thread collects
+ * its puzzles in its own buffer. A full buffer reserves the next region of the file and is written
+ * there, so the threads never wait for each other. The puzzles are written in the order their
+ * buffers fill up.
+ * <br>
+ * Every puzzle is generated with its own seed, which is derived from the seed of the run and the
+ * index of the puzzle, so the same run creates the same puzzles no matter the number of threads.
+ * <br>
+ * With {@code --dedup}, repeated puzzles are rejected before they are written and replaced by
+ * the next puzzle from the same seed, either when they are exactly the same ({@code exact}) or
+ * when they are transformations of each other ({@code canonical}). The threads share one
+ * {@link LongHashSet} of puzzle hashes sized for the count, so the memory taken is fixed up front.
+ * Which of two repeats is kept depends on which thread gets there first, so a run with dedup may
+ * create different puzzles with a different number of threads.
+ * <br>
+ * Usage: {@code generate --count N (--clues C | --grade GRADE) [--seed S] [--threads T]
+ * [--solver bitmask|backtracking|backjumping|propagating|vector] [--dedup none|exact|canonical]
+ * --output FILE}
+ */
+public class GenerateCommand {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int LINE_LENGTH = PuzzleText.LENGTH + 1;
+    private static final int MIN_CLUES = 25;
+    private static final int MAX_CLUES = 81;
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String DEDUP_NONE = "none";
+    private static final String DEDUP_EXACT = "exact";
+    private static final String DEDUP_CANONICAL = "canonical";
+    private int count;
+    private int clues;
+    @Nullable private Grade grade;
+    private long seed = System.nanoTime();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String engine = Engines.BITMASK;
+    private String dedup = DEDUP_NONE;
+    @Nullable private Path output;
+
+    /**
+     * Generate puzzles as given by the command line arguments, and exit with status 1 if the
+     * arguments are invalid.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String... args) {
+        try {
+            parse(args).run(System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: generate --count N (--clues C | --grade GRADE) [--seed S] "
+                    + "[--threads T] "
+                    + "[--solver bitmask|backtracking|backjumping|propagating|vector] "
+                    + "[--dedup none|exact|canonical] --output FILE");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parse command line arguments.
+     *
+     * @param args the command line arguments
+     * @return a command that generates puzzles as given by the arguments
+     * @throws IllegalArgumentException if an argument is unknown or invalid, or a required
+     *                                  argument is missing
+     */
+    static GenerateCommand parse(String... args) throws IllegalArgumentException {
+        GenerateCommand command = new GenerateCommand();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--count":
+                    command.count = Integer.parseInt(value);
+                    break;
+                case "--clues":
+                    command.clues = Integer.parseInt(value);
+                    break;
+                case "--grade":
+                    command.grade = Grade.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--seed":
+                    command.seed = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    command.threads = Integer.parseInt(value);
+                    break;
+                case "--solver":
+                    command.engine = value;
+                    break;
+                case "--dedup":
+                    command.dedup = value.toLowerCase(Locale.ROOT);
+                    break;
+                case "--output":
+                    command.output = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if (command.count < 1) throw new IllegalArgumentException("--count must be at least 1");
+        if (command.threads < 1) throw new IllegalArgumentException("--threads must be at least 1");
+        if (command.output == null) throw new IllegalArgumentException("--output is required");
+        if ((command.clues == 0) == (command.grade == null)) {
+            throw new IllegalArgumentException("Exactly one of --clues and --grade is required");
+        }
+        boolean cluesInRange = (command.clues >= MIN_CLUES) && (command.clues <= MAX_CLUES);
+        if ((command.grade == null) && !cluesInRange) {
+            throw new IllegalArgumentException("--clues must be between 25 and 81");
+        }
+        boolean dedupKnown = command.dedup.equals(DEDUP_NONE)
+                || command.dedup.equals(DEDUP_EXACT)
+                || command.dedup.equals(DEDUP_CANONICAL);
+        if (!dedupKnown) {
+            throw new IllegalArgumentException("--dedup must be none, exact or canonical");
+        }
+        Engines.create(command.engine, new Random());
+
+        return command;
+    }
+
+    /**
+     * Generate the puzzles, write them to the output file, and print the throughput and latency
+     * percentiles.
+     *
+     * @param out where to print the results to
+     * @return the latencies of the created puzzles
+     * @throws UncheckedIOException if the output file can't be written
+     */
+    LatencyHistogram run(PrintStream out) throws UncheckedIOException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        GenerationMetrics metrics = new GenerationMetrics();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong position = new AtomicLong();
+        LongHashSet created = dedup.equals(DEDUP_NONE) ? null : new LongHashSet(count);
+        LongAdder duplicates = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(output,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                workers.add(executor.submit(() -> {
+                    generate(next, channel, position, metrics, latencies, created, duplicates);
+                    return null;
+                }));
+            }
+
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        out.printf("%d puzzles in %.3f s with %d threads: %.1f puzzles/s%n",
+                count, seconds, threads, count / seconds);
+        out.printf("%d solutions generated, %d discarded, %d uniqueness checks%n",
+                metrics.getSolutionsGenerated(), metrics.getSolutionsDiscarded(),
+                metrics.getUniquenessChecks());
+        if (created != null) {
+            out.printf("%d repeated puzzles rejected, %d bytes of hashes%n",
+                    duplicates.sum(), created.getMemoryUsage());
+        }
+        for (double percentile : PERCENTILES) {
+            out.printf("p%s: %.0f us%n", format(percentile),
+                    latencies.getPercentile(percentile) / NANOS_PER_MICRO);
+        }
+
+        return latencies;
+    }
+
+    /**
+     * Generate puzzles until the count has been reached, and write them to the channel whenever
+     * the buffer of this thread is full.
+     */
+    private void generate(
+            AtomicInteger next,
+            FileChannel channel,
+            AtomicLong position,
+            GenerationMetrics metrics,
+            LatencyHistogram latencies,
+            @Nullable LongHashSet created,
+            LongAdder duplicates
+    ) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(LINE_LENGTH);
+        int index;
+
+        while ((index = next.getAndIncrement()) < count) {
+            long start = System.nanoTime();
+            Random random = new Random(mix(seed, index));
+            Solver solver = Engines.create(engine, random);
+            RatedFactory factory = new SudokuFactory(
+                    solver,
+                    new SudokuGrader(solver),
+                    metrics,
+                    random
+            );
+            DistinctFactory distinct = null;
+            if (created != null) {
+                distinct = new DistinctFactory(factory, created, dedup.equals(DEDUP_CANONICAL));
+                factory = distinct;
+            }
+            Board board = (grade == null) ? factory.create(clues) : factory.create(grade);
+            latencies.record(System.nanoTime() - start);
+            if (distinct != null) duplicates.add(distinct.getDuplicates());
+
+            line.setLength(0);
+            PuzzleText.appendLine(board.getPuzzle(), line);
+            line.append('\n');
+
+            if (buffer.remaining() < LINE_LENGTH) flush(buffer, channel, position);
+            for (int i = 0; i < LINE_LENGTH; i++) {
+                buffer.put((byte) line.charAt(i));
+            }
+        }
+
+        flush(buffer, channel, position);
+    }
+
+    /**
+     * Write everything in a buffer to a channel, and clear the buffer. The region of the file the
+     * buffer is written to is reserved first, so that a short write can't be followed by the
+     * buffer of another thread in the middle of a line.
+     *
+     * @param position the end of the regions of the file reserved so far
+     */
+    private static void flush(ByteBuffer buffer, FileChannel channel, AtomicLong position)
+            throws IOException {
+        buffer.flip();
+        long offset = position.getAndAdd(buffer.remaining());
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Derive the seed of a puzzle from the seed of the run and the index of the puzzle. Adjacent
+     * seeds give correlated numbers in {@link Random}, so the bits are mixed first.
+     */
+    static long mix(long seed, int index) {
+        long mixed = seed + (index * 0x9E3779B97F4A7C15L);
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    /**
+     * Format a percentile without trailing zeros, e.g. 50 and 99.9.
+     */
+    private static String format(double percentile) {
+        return (percentile == Math.rint(percentile))
+                ? Long.toString((long) percentile)
+                : Double.toString(percentile);
+    }
+}
@@ -0,0 +1,287 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import com.sim_kar.sudoku_factory.io.MappedLineReader;
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import com.sim_kar.sudoku_factory.sudoku.CachingSolver;
+import com.sim_kar.sudoku_factory.sudoku.Solver;
+import com.sim_kar.sudoku_factory.sudoku.SolverCache;
+import org.jetbrains.annotations.Nullable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks large files of puzzles for validity, solvability and uniqueness without a user
+ * interface. The input has one puzzle of 81 characters per line (see {@link PuzzleText}), and is
+ * read through memory-mapped segments. Blank lines and comments starting with '#' are skipped.
+ * <br>
+ * The puzzles are read in blocks, which are solved in parallel by threads that each have their
+ * own {@link Solver}. The results are written in the same order as the puzzles, one line per
+ * puzzle: {@code <solution> <solutions> <nodes> <status>}, where the solution is 81 characters or
+ * '-' if there is none, the number of solutions is capped at 2, the nodes are the number of nodes
+ * the solver visited, and the status is one of:
+ * <ul>
+ *     <li>{@code unique} - the puzzle has a single solution</li>
+ *     <li>{@code multiple} - the puzzle has more than one solution</li>
+ *     <li>{@code unsolvable} - the puzzle has no solution, e.g. because of duplicates</li>
+ *     <li>{@code invalid} - the line isn't a puzzle</li>
+ * </ul>
+ * <br>
+ * With {@code --cache SIZE}, the threads share a {@link SolverCache} of that many puzzles, so
+ * puzzles that are repeated in the input are only solved once, and with
+ * {@code --cache-key canonical}, so are puzzles that are transformations of each other. Puzzles
+ * answered by the cache are written with 0 nodes.
+ * <br>
+ * Usage: {@code solve --input FILE --output FILE [--threads T]
+ * [--solver bitmask|backtracking|backjumping|propagating|vector] [--cache SIZE]
+ * [--cache-key exact|canonical]}
+ */
+public class SolveCommand {
+    private static final int BLOCK_LINES = 4096;
+    private static final int LINE_CAPACITY = PuzzleText.LENGTH;
+    // the longest result line is a solution, a count, a long and a status, with separators
+    private static final int RESULT_CAPACITY = PuzzleText.LENGTH + 40;
+    private static final int BOARD_SIZE = 9;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final byte COMMENT = '#';
+    private static final String KEY_EXACT = "exact";
+    private static final String KEY_CANONICAL = "canonical";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String engine = Engines.BITMASK;
+    private int cacheSize;
+    private String cacheKey = KEY_EXACT;
+    @Nullable private Path input;
+    @Nullable private Path output;
+
+    /**
+     * Solve puzzles as given by the command line arguments, and exit with status 1 if the
+     * arguments are invalid.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String... args) {
+        try {
+            parse(args).run(System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: solve --input FILE --output FILE [--threads T] "
+                    + "[--solver bitmask|backtracking|backjumping|propagating|vector] "
+                    + "[--cache SIZE] [--cache-key exact|canonical]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parse command line arguments.
+     *
+     * @param args the command line arguments
+     * @return a command that solves puzzles as given by the arguments
+     * @throws IllegalArgumentException if an argument is unknown or invalid, or a required
+     *                                  argument is missing
+     */
+    static SolveCommand parse(String... args) throws IllegalArgumentException {
+        SolveCommand command = new SolveCommand();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--input":
+                    command.input = Path.of(value);
+                    break;
+                case "--output":
+                    command.output = Path.of(value);
+                    break;
+                case "--threads":
+                    command.threads = Integer.parseInt(value);
+                    break;
+                case "--solver":
+                    command.engine = value;
+                    break;
+                case "--cache":
+                    command.cacheSize = Integer.parseInt(value);
+                    break;
+                case "--cache-key":
+                    command.cacheKey = value.toLowerCase(Locale.ROOT);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if (command.threads < 1) throw new IllegalArgumentException("--threads must be at least 1");
+        if (command.input == null) throw new IllegalArgumentException("--input is required");
+        if (command.output == null) throw new IllegalArgumentException("--output is required");
+        if (command.cacheSize < 0) {
+            throw new IllegalArgumentException("--cache must not be negative");
+        }
+        if (!command.cacheKey.equals(KEY_EXACT) && !command.cacheKey.equals(KEY_CANONICAL)) {
+            throw new IllegalArgumentException("--cache-key must be exact or canonical");
+        }
+        Engines.create(command.engine, new Random());
+
+        return command;
+    }
+
+    /**
+     * Solve every puzzle in the input file, write the results to the output file, and print the
+     * throughput.
+     *
+     * @param out where to print the throughput to
+     * @return the number of solved puzzles
+     * @throws UncheckedIOException if the input can't be read, or the output can't be written
+     */
+    long run(PrintStream out) throws UncheckedIOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        SolverCache cache = (cacheSize == 0)
+                ? null
+                : new SolverCache(cacheSize, cacheKey.equals(KEY_CANONICAL));
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(() -> {
+            Solver solver = Engines.create(engine, new Random());
+            return (cache == null) ? solver : new CachingSolver(solver, cache);
+        });
+        // a few blocks per thread are in flight, so threads don't wait for the writer
+        Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+        long puzzles = 0;
+        long start = System.nanoTime();
+
+        try (MappedLineReader reader = new MappedLineReader(input);
+             FileChannel channel = FileChannel.open(output,
+                     StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (true) {
+                Block block = new Block();
+                if (!block.fill(reader)) break;
+
+                puzzles += block.lines;
+                pending.add(executor.submit(() -> block.solve(solvers.get())));
+                if (pending.size() >= 2 * threads) write(pending.remove().get(), channel);
+            }
+
+            while (!pending.isEmpty()) {
+                write(pending.remove().get(), channel);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        out.printf("%d puzzles in %.3f s with %d threads: %.0f puzzles/s%n",
+                puzzles, seconds, threads, puzzles / seconds);
+        if (cache != null) {
+            out.printf("cache: %d hits, %d misses (%.1f%%), %d evictions%n",
+                    cache.getHits(), cache.getMisses(), 100 * cache.getHitRate(),
+                    cache.getEvictions());
+        }
+        return puzzles;
+    }
+
+    /**
+     * Write everything in a buffer to a channel.
+     */
+    private static void write(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * A block of puzzle lines that is solved by a single thread. The lines are stored back to
+     * back in one array, so a block is only a few allocations no matter how many lines it has.
+     */
+    private static class Block {
+        private final byte[] data = new byte[BLOCK_LINES * LINE_CAPACITY];
+        private final int[] lengths = new int[BLOCK_LINES];
+        private int lines;
+
+        /**
+         * Read lines into this block until it is full or the input ends, skipping blank lines
+         * and comments.
+         *
+         * @return whether any lines were read
+         */
+        private boolean fill(MappedLineReader reader) throws IOException {
+            while (lines < BLOCK_LINES) {
+                int offset = lines * LINE_CAPACITY;
+                int length = reader.readLine(data, offset, LINE_CAPACITY);
+                if (length < 0) break;
+                if ((length == 0) || (data[offset] == COMMENT) || isBlank(offset, length)) {
+                    continue;
+                }
+
+                lengths[lines++] = length;
+            }
+            return lines > 0;
+        }
+
+        private boolean isBlank(int offset, int length) {
+            for (int i = offset; i < offset + Math.min(length, LINE_CAPACITY); i++) {
+                if (!Character.isWhitespace(data[i])) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Solve every puzzle in this block.
+         *
+         * @param solver the solver of the current thread
+         * @return the result lines, ready to be written
+         */
+        private ByteBuffer solve(Solver solver) {
+            StringBuilder results = new StringBuilder(lines * RESULT_CAPACITY);
+            int[][] puzzle = new int[BOARD_SIZE][BOARD_SIZE];
+
+            for (int line = 0; line < lines; line++) {
+                try {
+                    PuzzleText.toBoard(data, line * LINE_CAPACITY, lengths[line], puzzle);
+                } catch (IllegalArgumentException e) {
+                    results.append("- 0 0 invalid\n");
+                    continue;
+                }
+
+                long nodes = solver.getNodeCount();
+                int[][] solution;
+                try {
+                    solution = solver.generate(puzzle);
+                } catch (IllegalArgumentException e) {
+                    nodes = solver.getNodeCount() - nodes;
+                    results.append("- 0 ").append(nodes).append(" unsolvable\n");
+                    continue;
+                }
+
+                boolean unique = solver.isUnique(puzzle);
+                nodes = solver.getNodeCount() - nodes;
+                PuzzleText.appendLine(solution, results);
+                results.append(unique ? " 1 " : " 2 ")
+                        .append(nodes)
+                        .append(unique ? " unique\n" : " multiple\n");
+            }
+
+            return ByteBuffer.wrap(results.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sim_kar.sudoku_factory.gui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for creating a new puzzle in the background for the game.
+ */
+@Name("com.sim_kar.sudoku_factory.CreatePuzzle")
+@Label("Create Game Puzzle")
+@Category({"Sudoku Factory", "Game"})
+@Description("Creating a new puzzle for the game in a background thread")
+class CreatePuzzleEvent extends jdk.jfr.Event {
+    @Label("Clues")
+    int clues;
+
+    @Label("Outcome")
+    String outcome;
+}
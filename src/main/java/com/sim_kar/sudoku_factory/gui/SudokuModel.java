@@ -86,7 +86,18 @@ public class SudokuModel implements Model {
         SwingWorker<Board, Void> worker = new SwingWorker<>() {
             @Override
             protected Board doInBackground() {
-                return factory.create(clues);
+                CreatePuzzleEvent event = new CreatePuzzleEvent();
+                event.clues = clues;
+                event.outcome = "failed";
+                event.begin();
+
+                try {
+                    Board board = factory.create(clues);
+                    event.outcome = "created";
+                    return board;
+                } finally {
+                    event.commit();
+                }
             }
 
             @Override
@@ -110,7 +121,7 @@ public class SudokuModel implements Model {
 
         Tile tile = board.getTile(xy);
         if (tile.isEditable()) {
-            board.getTile(xy).setCurrentValue(value);
+            board.setTile(xy, value);
             notifyChangeObservers();
 
             if (board.isCorrect()) notifySolvedObservers();
@@ -1,5 +1,6 @@
 package com.sim_kar.sudoku_factory.gui;
 
+import com.sim_kar.sudoku_factory.sudoku.Layout;
 import com.sim_kar.sudoku_factory.sudoku.Position;
 import org.jetbrains.annotations.Nullable;
 import javax.swing.BorderFactory;
@@ -29,11 +30,15 @@ import java.util.Map;
  * Presents a GUI representation of a Sudoku Puzzle Game. It has controls to select the difficulty
  * and generate a new puzzle, and to enable or disable displaying hints and duplicates.
  * A generated puzzle is displayed as an interactive board.
+ * <br>
+ * The board is 9x9 by default, but can have any square {@link Layout}, e.g. 16x16. Numbers above
+ * 9 are entered by typing their digits one after the other.
  */
 public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolvedObserver {
     private static final int DEFAULT_WIDTH = 800;
     private static final int DEFAULT_HEIGHT = 681;
-    private final static List<Position> POSITIONS = getPositions();
+    // the size of the numbers on a 9x9 board, which shrink as boards get larger
+    private static final int FONT_SIZE = 26;
     private final static Color NEUTRAL = Color.WHITE;
     private final static Color SELECTED = new Color(220, 240, 255);
     private final static Color HINT = new Color(255, 240, 240);
@@ -43,6 +48,9 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
     private final static Color DARK = Color.DARK_GRAY;
     private final static Color LIGHT = Color.LIGHT_GRAY;
     private final static int EMPTY = 0;
+    private final int blockSize;
+    private final int size;
+    private final List<Position> positions;
     private final Model model;
     private final Controller controller;
     private final Map<Position, TileButton> tiles;
@@ -64,6 +72,28 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
      * @param controller the controller that will be used to update the model
      */
     public SudokuView(Model model, Controller controller) {
+        this(model, controller, Layout.STANDARD);
+    }
+
+    /**
+     * Create a new SudokuView for boards of the given layout, with the given model and
+     * controller. The model must create boards of the same layout.
+     *
+     * @param model the model that will be used to display the Sudoku puzzle
+     * @param controller the controller that will be used to update the model
+     * @param layout the layout of the boards to display
+     * @throws IllegalArgumentException if the layout has irregular regions instead of blocks,
+     *                                  which the view can't draw
+     */
+    public SudokuView(Model model, Controller controller, Layout layout)
+            throws IllegalArgumentException {
+        if (layout.hasIrregularRegions()) {
+            throw new IllegalArgumentException("Boards with irregular regions can't be displayed");
+        }
+
+        this.blockSize = layout.getBlockSize();
+        this.size = layout.getSize();
+        this.positions = getPositions();
         this.model = model;
         this.controller = controller;
         this.model.registerObserver((BoardChangeObserver) this);
@@ -84,7 +114,7 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
      */
     public void createView() {
         // Board
-        GridLayout grid = new GridLayout(3, 3);
+        GridLayout grid = new GridLayout(blockSize, blockSize);
         board = new JPanel(grid);
         board.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createEmptyBorder(5, 5, 5, 5),
@@ -94,9 +124,9 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
         board.setVisible(false);
 
         // Blocks
-        GridLayout gridWithGaps = new GridLayout(3, 3, 1, 1);
-        JPanel[] blocks = new JPanel[9];
-        for (int i = 0; i < 9; i++) {
+        GridLayout gridWithGaps = new GridLayout(blockSize, blockSize, 1, 1);
+        JPanel[] blocks = new JPanel[size];
+        for (int i = 0; i < size; i++) {
             JPanel block = new JPanel(gridWithGaps);
             block.setBackground(LIGHT);
             block.setBorder(BorderFactory.createLineBorder(DARK, 1));
@@ -105,8 +135,8 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
         }
 
         // Tiles
-        for (Position position : POSITIONS) {
-            TileButton tile = new TileButton(position);
+        for (Position position : positions) {
+            TileButton tile = new TileButton(position, FONT_SIZE * 9 / size);
             tile.addActionListener(this::selectTile);
             tile.addKeyListener(new SetTileValueListener());
             tiles.put(position, tile);
@@ -207,7 +237,7 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
      */
     @Override
     public void updateBoard() {
-        for (Position position : POSITIONS) {
+        for (Position position : positions) {
             TileButton tile = tiles.get(position);
             String value = (model.getValueAt(position) == EMPTY)
                     ? ""
@@ -250,7 +280,7 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
      */
     @Override
     public void solved() {
-        for (Position position : POSITIONS) {
+        for (Position position : positions) {
             tiles.get(position).setBackground(SOLVED);
         }
 
@@ -259,23 +289,23 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
     }
 
     /**
-     * Get the index of the block (0-8) that the given x,y belongs to.
+     * Get the index of the block (0-8 on a 9x9 board) that the given x,y belongs to.
      */
     private int getBlockIndex(int x, int y) {
-        int blockRowStartingIndex = (y / 3) * 3;
-        int blockColumnOffset = x / 3;
+        int blockRowStartingIndex = (y / blockSize) * blockSize;
+        int blockColumnOffset = x / blockSize;
 
         return blockRowStartingIndex + blockColumnOffset;
     }
 
     /**
-     * Get an unmodifiable list of all positions on a 9x9 board.
+     * Get an unmodifiable list of all positions on the board.
      */
-    private static List<Position> getPositions() {
+    private List<Position> getPositions() {
         List<Position> positions = new LinkedList<>();
 
-        for (int y = 0; y < 9; y++) {
-            for (int x = 0; x < 9; x++) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
                 positions.add(new Position(x, y));
             }
         }
@@ -319,11 +349,26 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
         selected = null;
     }
 
+    /**
+     * Set the value of the selected tile after a digit has been typed. The digit is appended to
+     * the current value if that gives a number on the board, e.g. 1 and then 6 gives 16 on a
+     * 16x16 board, and replaces it otherwise, so on a 9x9 board every digit replaces the value,
+     * and 0 clears it. Digits that are higher than every number on the board are ignored.
+     *
+     * @param digit the typed digit 0-9
+     */
+    private void typeDigit(int digit) {
+        if ((selected == null) || (digit > size)) return;
+
+        int appended = (model.getValueAt(selected) * 10) + digit;
+        controller.setValueAt(selected, (appended <= size) ? appended : digit);
+    }
+
     /**
      * Sets the value of the selected tile when pressing the matching key on the keyboard,
      * using the controller.
-     * 1-9 sets the corresponding value.
-     * 0, delete and backspace clears the value.
+     * 1-9 sets the corresponding value, or adds a digit to the value on boards larger than 9x9.
+     * 0 clears the value on a 9x9 board, while delete and backspace always clear the value.
      */
     private class SetTileValueListener implements KeyListener {
         @Override
@@ -337,18 +382,18 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
             if (selected == null) return;
 
             switch (e.getKeyCode()) {
-                case KeyEvent.VK_0,
-                     KeyEvent.VK_BACK_SPACE,
+                case KeyEvent.VK_BACK_SPACE,
                      KeyEvent.VK_DELETE -> controller.setValueAt(selected, 0);
-                case KeyEvent.VK_1 -> controller.setValueAt(selected, 1);
-                case KeyEvent.VK_2 -> controller.setValueAt(selected, 2);
-                case KeyEvent.VK_3 -> controller.setValueAt(selected, 3);
-                case KeyEvent.VK_4 -> controller.setValueAt(selected, 4);
-                case KeyEvent.VK_5 -> controller.setValueAt(selected, 5);
-                case KeyEvent.VK_6 -> controller.setValueAt(selected, 6);
-                case KeyEvent.VK_7 -> controller.setValueAt(selected, 7);
-                case KeyEvent.VK_8 -> controller.setValueAt(selected, 8);
-                case KeyEvent.VK_9 -> controller.setValueAt(selected, 9);
+                case KeyEvent.VK_0 -> typeDigit(0);
+                case KeyEvent.VK_1 -> typeDigit(1);
+                case KeyEvent.VK_2 -> typeDigit(2);
+                case KeyEvent.VK_3 -> typeDigit(3);
+                case KeyEvent.VK_4 -> typeDigit(4);
+                case KeyEvent.VK_5 -> typeDigit(5);
+                case KeyEvent.VK_6 -> typeDigit(6);
+                case KeyEvent.VK_7 -> typeDigit(7);
+                case KeyEvent.VK_8 -> typeDigit(8);
+                case KeyEvent.VK_9 -> typeDigit(9);
             }
         }
 
@@ -363,9 +408,9 @@ public class SudokuView extends JFrame implements BoardChangeObserver, BoardSolv
         Position position;
         boolean hint;
 
-        TileButton(Position position) {
+        TileButton(Position position, int fontSize) {
             this.position = position;
-            setFont(new Font("Arial", Font.BOLD, 26));
+            setFont(new Font("Arial", Font.BOLD, fontSize));
             setBackground(NEUTRAL);
             setForeground(DARK);
             setBorder(BorderFactory.createEmptyBorder());
@@ -0,0 +1,207 @@
+package com.sim_kar.sudoku_factory.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary format for puzzles, where every puzzle is a fixed-size record of 56 bytes:
+ * <pre>
+ * offset  size  content
+ *      0     1  the number of clues
+ *      1     2  the rating, as an unsigned big-endian short
+ *      3    41  the solution, as 81 packed 4-bit numbers in row-major order, high nibble first
+ *     44    11  the clues, as an 81-bit mask where bit i (least significant bit first) is tile i
+ *     55     1  reserved, always 0
+ * </pre>
+ * A file of records starts with a 16 byte header: the magic bytes "SDKB", the format version and
+ * the record size as big-endian shorts, and the number of records as a big-endian long. The
+ * records can be followed by the index of a {@link PuzzleBank}, which readers of records ignore.
+ * <br>
+ * Records are read and written at absolute offsets in a {@link ByteBuffer}, so the same methods
+ * work on heap buffers, direct buffers and memory-mapped files, and never allocate.
+ */
+public final class BinaryPuzzleFormat {
+    /**
+     * The number of bytes in a record.
+     */
+    public static final int RECORD_SIZE = 56;
+    /**
+     * The number of bytes in the header of a file.
+     */
+    public static final int HEADER_SIZE = 16;
+    static final int MAGIC = 0x53444B42;
+    static final short VERSION = 1;
+    static final int COUNT_OFFSET = 8;
+    private static final int CLUES_OFFSET = 0;
+    private static final int RATING_OFFSET = 1;
+    private static final int SOLUTION_OFFSET = 3;
+    private static final int MASK_OFFSET = 44;
+    private static final int MASK_SIZE = 11;
+    private static final int RESERVED_OFFSET = 55;
+    private static final int MAX_RATING = 0xFFFF;
+    private static final int BOARD_SIZE = 9;
+    private static final int TILES = BOARD_SIZE * BOARD_SIZE;
+    private static final int EMPTY = 0;
+
+    private BinaryPuzzleFormat() {}
+
+    /**
+     * Write a puzzle as a record.
+     *
+     * @param solution the 9x9 solution of the puzzle
+     * @param puzzle the 9x9 puzzle, where every tile is either empty (0) or the same as in the
+     *               solution
+     * @param rating the rating of the puzzle, between 0 and 65535
+     * @param buffer the buffer to write the record to
+     * @param offset the index in the buffer to write the record at
+     * @throws IllegalArgumentException if the solution has numbers outside the range 1-9, a clue
+     *                                  differs from the solution, or the rating is out of range
+     */
+    public static void write(
+            int[][] solution,
+            int[][] puzzle,
+            int rating,
+            ByteBuffer buffer,
+            int offset
+    ) throws IllegalArgumentException {
+        if ((rating < 0) || (rating > MAX_RATING)) {
+            throw new IllegalArgumentException("The rating must be between 0 and 65535");
+        }
+
+        int clues = 0;
+        int packed = 0;
+        long lowMask = 0;
+        long highMask = 0;
+
+        for (int tile = 0; tile < TILES; tile++) {
+            int value = solution[tile / BOARD_SIZE][tile % BOARD_SIZE];
+            int clue = puzzle[tile / BOARD_SIZE][tile % BOARD_SIZE];
+
+            if ((value < 1) || (value > BOARD_SIZE)) {
+                throw new IllegalArgumentException("A solution can only contain numbers 1-9");
+            }
+
+            if (clue != EMPTY) {
+                if (clue != value) {
+                    throw new IllegalArgumentException("A clue must be the same as the solution");
+                }
+
+                clues++;
+                if (tile < Long.SIZE) {
+                    lowMask |= 1L << tile;
+                } else {
+                    highMask |= 1L << (tile - Long.SIZE);
+                }
+            }
+
+            // pack two numbers per byte, and write the byte once both halves are filled in
+            packed = (packed << 4) | value;
+            if ((tile % 2 == 1) || (tile == TILES - 1)) {
+                if (tile == TILES - 1) packed <<= 4;
+                buffer.put(offset + SOLUTION_OFFSET + tile / 2, (byte) packed);
+                packed = 0;
+            }
+        }
+
+        buffer.put(offset + CLUES_OFFSET, (byte) clues);
+        buffer.putShort(offset + RATING_OFFSET, (short) rating);
+        for (int i = 0; i < MASK_SIZE; i++) {
+            long mask = (i < Long.BYTES) ? lowMask : highMask;
+            int shift = (i % Long.BYTES) * Byte.SIZE;
+            buffer.put(offset + MASK_OFFSET + i, (byte) (mask >>> shift));
+        }
+        buffer.put(offset + RESERVED_OFFSET, (byte) 0);
+    }
+
+    /**
+     * Get the number of clues of a record.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the index in the buffer where the record starts
+     * @return the number of clues
+     */
+    public static int getClues(ByteBuffer buffer, int offset) {
+        return Byte.toUnsignedInt(buffer.get(offset + CLUES_OFFSET));
+    }
+
+    /**
+     * Get the rating of a record.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the index in the buffer where the record starts
+     * @return the rating
+     */
+    public static int getRating(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset + RATING_OFFSET));
+    }
+
+    /**
+     * Read the solution of a record into an existing 9x9 board.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the index in the buffer where the record starts
+     * @param solution the 9x9 board to write the solution to
+     */
+    public static void readSolution(ByteBuffer buffer, int offset, int[][] solution) {
+        for (int tile = 0; tile < TILES; tile++) {
+            solution[tile / BOARD_SIZE][tile % BOARD_SIZE] = getValue(buffer, offset, tile);
+        }
+    }
+
+    /**
+     * Read the puzzle of a record, i.e. the clues and empty tiles, into an existing 9x9 board.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the index in the buffer where the record starts
+     * @param puzzle the 9x9 board to write the puzzle to, where empty tiles are 0
+     */
+    public static void readPuzzle(ByteBuffer buffer, int offset, int[][] puzzle) {
+        for (int tile = 0; tile < TILES; tile++) {
+            int mask = buffer.get(offset + MASK_OFFSET + tile / Byte.SIZE);
+            boolean isClue = (mask & (1 << (tile % Byte.SIZE))) != 0;
+
+            puzzle[tile / BOARD_SIZE][tile % BOARD_SIZE] = isClue
+                    ? getValue(buffer, offset, tile)
+                    : EMPTY;
+        }
+    }
+
+    /**
+     * Get the number of a tile in the solution of a record.
+     */
+    private static int getValue(ByteBuffer buffer, int offset, int tile) {
+        int packed = buffer.get(offset + SOLUTION_OFFSET + tile / 2);
+        return (tile % 2 == 0) ? (packed >>> 4) & 0xF : packed & 0xF;
+    }
+
+    /**
+     * Write the header of a file.
+     *
+     * @param buffer the buffer to write the header to, at index 0
+     * @param count the number of records in the file
+     */
+    static void writeHeader(ByteBuffer buffer, long count) {
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) RECORD_SIZE);
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Read the number of records from the header of a file, and check that the header is valid.
+     *
+     * @param buffer the buffer holding the header, at index 0
+     * @return the number of records in the file
+     * @throws IllegalArgumentException if the header isn't a valid header of this format
+     */
+    static long readHeader(ByteBuffer buffer) throws IllegalArgumentException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary puzzle file");
+        }
+
+        if ((buffer.getShort(4) != VERSION) || (buffer.getShort(6) != RECORD_SIZE)) {
+            throw new IllegalArgumentException("Unsupported binary puzzle file version");
+        }
+
+        return buffer.getLong(COUNT_OFFSET);
+    }
+}
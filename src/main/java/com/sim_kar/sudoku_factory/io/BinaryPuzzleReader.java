@@ -0,0 +1,155 @@
+package com.sim_kar.sudoku_factory.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads puzzles from a file in the {@link BinaryPuzzleFormat}, one record at a time. The file is
+ * read in large chunks into a direct buffer, and the current record is decoded into boards given
+ * by the caller, so reading a puzzle allocates nothing. A reader must not be shared between
+ * threads.
+ * <br>
+ * Usage:
+ * <pre>
+ * while (reader.next()) {
+ *     reader.readPuzzle(puzzle);
+ *     ...
+ * }
+ * </pre>
+ */
+public class BinaryPuzzleReader implements Closeable {
+    private static final int BUFFER_RECORDS = 1024;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long count;
+    private long read;
+    private int record = -1;
+
+    /**
+     * Open a file to read puzzles from.
+     *
+     * @param path the file to read
+     * @throws IllegalArgumentException if the file isn't in the binary puzzle format
+     * @throws IOException if the file can't be read
+     */
+    public BinaryPuzzleReader(Path path) throws IllegalArgumentException, IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * BinaryPuzzleFormat.RECORD_SIZE);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(BinaryPuzzleFormat.HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IllegalArgumentException("Not a binary puzzle file");
+                }
+            }
+            this.count = BinaryPuzzleFormat.readHeader(header);
+        } catch (IllegalArgumentException | IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        buffer.limit(0);
+    }
+
+    /**
+     * Get the number of puzzles in the file.
+     *
+     * @return the number of puzzles
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Move to the next puzzle.
+     *
+     * @return whether there was another puzzle
+     * @throws IOException if the file can't be read, or ends before the last puzzle
+     */
+    public boolean next() throws IOException {
+        if (read == count) return false;
+
+        int next = record + BinaryPuzzleFormat.RECORD_SIZE;
+        if ((record < 0) || (next + BinaryPuzzleFormat.RECORD_SIZE > buffer.limit())) {
+            fill((record < 0) ? 0 : next);
+            next = 0;
+        }
+
+        record = next;
+        read++;
+        return true;
+    }
+
+    /**
+     * Keep the unread bytes from the given index, and read as many records as fit after them.
+     */
+    private void fill(int from) throws IOException {
+        buffer.position(from);
+        buffer.compact();
+
+        while (buffer.position() < BinaryPuzzleFormat.RECORD_SIZE) {
+            if (channel.read(buffer) < 0) throw new IOException("The file ends too early");
+        }
+        while (buffer.hasRemaining() && (channel.read(buffer) > 0)) {
+            // keep reading until the buffer is full or the file ends
+        }
+
+        buffer.flip();
+    }
+
+    /**
+     * Get the number of clues of the current puzzle.
+     *
+     * @return the number of clues
+     */
+    public int getClues() {
+        return BinaryPuzzleFormat.getClues(buffer, current());
+    }
+
+    /**
+     * Get the rating of the current puzzle.
+     *
+     * @return the rating
+     */
+    public int getRating() {
+        return BinaryPuzzleFormat.getRating(buffer, current());
+    }
+
+    /**
+     * Read the solution of the current puzzle into an existing 9x9 board.
+     *
+     * @param solution the 9x9 board to write the solution to
+     */
+    public void readSolution(int[][] solution) {
+        BinaryPuzzleFormat.readSolution(buffer, current(), solution);
+    }
+
+    /**
+     * Read the current puzzle into an existing 9x9 board.
+     *
+     * @param puzzle the 9x9 board to write the puzzle to, where empty tiles are 0
+     */
+    public void readPuzzle(int[][] puzzle) {
+        BinaryPuzzleFormat.readPuzzle(buffer, current(), puzzle);
+    }
+
+    /**
+     * Get the index of the current record in the buffer.
+     *
+     * @throws IllegalStateException if next() hasn't been called yet
+     */
+    private int current() throws IllegalStateException {
+        if (record < 0) throw new IllegalStateException("There is no current puzzle");
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,100 @@
+package com.sim_kar.sudoku_factory.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes puzzles to a file in the {@link BinaryPuzzleFormat}. Records are encoded straight into a
+ * direct buffer that is written to the file whenever it is full, so writing a puzzle allocates
+ * nothing. The number of records in the header is filled in when the writer is closed.
+ * A writer must not be shared between threads.
+ */
+public class BinaryPuzzleWriter implements Closeable {
+    private static final int BUFFER_RECORDS = 1024;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long count;
+
+    /**
+     * Create a new file, or replace an existing one, to write puzzles to.
+     *
+     * @param path the file to write to
+     * @throws IOException if the file can't be opened
+     */
+    public BinaryPuzzleWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * BinaryPuzzleFormat.RECORD_SIZE);
+
+        // the header is written again with the number of records when the writer is closed
+        ByteBuffer header = ByteBuffer.allocate(BinaryPuzzleFormat.HEADER_SIZE);
+        BinaryPuzzleFormat.writeHeader(header, 0);
+        write(header);
+    }
+
+    /**
+     * Write a puzzle.
+     *
+     * @param solution the 9x9 solution of the puzzle
+     * @param puzzle the 9x9 puzzle, where every tile is either empty (0) or the same as in the
+     *               solution
+     * @param rating the rating of the puzzle, between 0 and 65535
+     * @throws IllegalArgumentException if the solution has numbers outside the range 1-9, a clue
+     *                                  differs from the solution, or the rating is out of range
+     * @throws IOException if the file can't be written
+     */
+    public void write(int[][] solution, int[][] puzzle, int rating)
+            throws IllegalArgumentException, IOException {
+        if (buffer.remaining() < BinaryPuzzleFormat.RECORD_SIZE) flush();
+
+        BinaryPuzzleFormat.write(solution, puzzle, rating, buffer, buffer.position());
+        buffer.position(buffer.position() + BinaryPuzzleFormat.RECORD_SIZE);
+        count++;
+    }
+
+    /**
+     * Get the number of puzzles that have been written.
+     *
+     * @return the number of written puzzles
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Write the buffered records to the file.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Write everything in a buffer to the end of the file.
+     */
+    private void write(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(BinaryPuzzleFormat.HEADER_SIZE);
+            BinaryPuzzleFormat.writeHeader(header, count);
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+}
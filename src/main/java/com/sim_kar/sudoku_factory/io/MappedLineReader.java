@@ -0,0 +1,97 @@
+package com.sim_kar.sudoku_factory.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the lines of a file through memory-mapped segments, and copies each line into a byte
+ * array given by the caller, so that files of any size can be read without allocating anything
+ * per line. Lines end with '\n' or "\r\n", and the last line doesn't need to end with either.
+ * <br>
+ * The file is mapped in segments of at most 256 MB, since a single mapping is limited to 2 GB.
+ * A line that crosses the end of a segment is read from the start of the next segment, which
+ * begins at the start of that line. A reader must not be shared between threads.
+ */
+public class MappedLineReader implements Closeable {
+    private static final long SEGMENT_SIZE = 1 << 28;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private final FileChannel channel;
+    private final long size;
+    private long segmentStart;
+    private MappedByteBuffer segment;
+
+    /**
+     * Open a file for reading.
+     *
+     * @param path the file to read
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public MappedLineReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        map(0);
+    }
+
+    /**
+     * Read the next line, without the line ending. If the line is longer than the capacity, only
+     * the capacity is copied, but the whole length is returned, so that the caller can tell that
+     * the line didn't fit.
+     *
+     * @param destination the array to copy the line to
+     * @param offset the index in the array to copy the line to
+     * @param capacity the most bytes to copy
+     * @return the length of the line, or -1 if there are no more lines
+     * @throws IOException if the next segment of the file can't be mapped
+     */
+    public int readLine(byte[] destination, int offset, int capacity) throws IOException {
+        if (segmentStart + segment.position() >= size) return -1;
+
+        int start = segment.position();
+        int end = findLineEnd(start);
+
+        // the line continues in the next segment, so map a new segment from the start of the line
+        if ((end == segment.limit()) && (segmentStart + end < size)) {
+            map(segmentStart + start);
+            start = 0;
+            end = findLineEnd(start);
+        }
+
+        int length = end - start;
+        int next = (end < segment.limit()) ? end + 1 : end;
+        if ((length > 0) && (segment.get(end - 1) == CARRIAGE_RETURN)) length--;
+
+        segment.get(start, destination, offset, Math.min(length, capacity));
+        segment.position(next);
+        return length;
+    }
+
+    /**
+     * Get the index of the next '\n' in the current segment, or the limit of the segment.
+     */
+    private int findLineEnd(int start) {
+        int limit = segment.limit();
+        for (int i = start; i < limit; i++) {
+            if (segment.get(i) == NEW_LINE) return i;
+        }
+        return limit;
+    }
+
+    /**
+     * Map the segment of the file that starts at the given offset.
+     */
+    private void map(long start) throws IOException {
+        long length = Math.min(SEGMENT_SIZE, size - start);
+        segmentStart = start;
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
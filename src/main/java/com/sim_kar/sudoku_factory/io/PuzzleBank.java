@@ -0,0 +1,428 @@
+package com.sim_kar.sudoku_factory.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * A read-only bank of puzzles in a memory-mapped file in the {@link BinaryPuzzleFormat}. Since
+ * every record has the same size, a puzzle is found by its index in constant time, and is decoded
+ * straight from the mapped file into boards given by the caller, without copying the bank to the
+ * heap.
+ * <br>
+ * A file of puzzles is made into a bank once with {@link #index(Path)}, which sorts the records
+ * by number of clues and by rating, and writes the sorted tables of record indices after the
+ * records:
+ * <pre>
+ * size (bytes)   content
+ *            4   the magic bytes "SDKI"
+ *       4 * 83   where the records with c clues start in the clue table, for c = 0-82
+ *    4 * 65538   where the records with rating r start in the rating table, for r = 0-65537
+ *    4 * count   the indices of the records sorted by clues
+ *    4 * count   the indices of the records sorted by rating
+ * </pre>
+ * Opening a bank only reads the header and the starts of the clue table, and maps the rest, so it
+ * takes the same time no matter how many puzzles the bank holds. A random puzzle with a given
+ * number of clues, or with a rating within a range, is then picked with a few mapped reads.
+ * <br>
+ * The file is mapped in segments of at most 256 MB, since a single mapping is limited to 2 GB.
+ * Records are only read at absolute offsets, so a bank can be shared between any number of
+ * threads.
+ */
+public class PuzzleBank implements Closeable {
+    private static final int SEGMENT_RECORDS = (1 << 28) / BinaryPuzzleFormat.RECORD_SIZE;
+    private static final int SEGMENT_ENTRIES = (1 << 28) / Integer.BYTES;
+    private static final int MAX_CLUES = 81;
+    private static final int MAX_RATING = 0xFFFF;
+    private static final int INDEX_MAGIC = 0x53444B49;
+    private static final int CLUE_STARTS_OFFSET = Integer.BYTES;
+    private static final int RATING_STARTS_OFFSET = CLUE_STARTS_OFFSET
+            + (MAX_CLUES + 2) * Integer.BYTES;
+    // the size of the magic bytes and the starts of both tables, which come before the tables
+    private static final int STARTS_SIZE = RATING_STARTS_OFFSET + (MAX_RATING + 2) * Integer.BYTES;
+    private final FileChannel channel;
+    private final ByteBuffer[] segments;
+    private final int count;
+    // the indices of the records sorted by clues, where the records with c clues are found from
+    // byClues[clueStarts[c]] (inclusive) to byClues[clueStarts[c + 1]] (exclusive)
+    private final int[] clueStarts = new int[MAX_CLUES + 2];
+    private final IntBuffer[] byClues;
+    // the starts of the records sorted by rating, which are found in the same way as by clues
+    private final ByteBuffer ratingStarts;
+    private final IntBuffer[] byRating;
+
+    /**
+     * Open a bank of puzzles.
+     *
+     * @param path the file of puzzles in the binary puzzle format, indexed with
+     *             {@link #index(Path)}
+     * @throws IllegalArgumentException if the file isn't in the binary puzzle format, is shorter
+     *                                  than its header says, has more than 2^31 - 1 puzzles or
+     *                                  hasn't been indexed
+     * @throws IOException if the file can't be read or mapped
+     */
+    public PuzzleBank(Path path) throws IllegalArgumentException, IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            this.count = readCount(channel);
+            this.segments = map(channel, count);
+
+            long index = getIndexPosition(count);
+            if (channel.size() < index + getIndexSize(count)) {
+                throw new IllegalArgumentException("The puzzles have not been indexed");
+            }
+
+            this.ratingStarts = channel.map(FileChannel.MapMode.READ_ONLY, index, STARTS_SIZE);
+            if (ratingStarts.getInt(0) != INDEX_MAGIC) {
+                throw new IllegalArgumentException("The puzzles have not been indexed");
+            }
+            for (int i = 0; i < clueStarts.length; i++) {
+                clueStarts[i] = ratingStarts.getInt(CLUE_STARTS_OFFSET + i * Integer.BYTES);
+            }
+
+            this.byClues = mapTable(channel, FileChannel.MapMode.READ_ONLY,
+                    index + STARTS_SIZE, count);
+            this.byRating = mapTable(channel, FileChannel.MapMode.READ_ONLY,
+                    index + STARTS_SIZE + (long) count * Integer.BYTES, count);
+        } catch (IllegalArgumentException | IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Index a file of puzzles so that it can be opened as a bank, by sorting the records by
+     * clues and by rating with a counting sort, and writing the tables of sorted record indices
+     * after the records. An existing index is replaced. The tables are written straight to the
+     * mapped file, so indexing takes the same heap no matter how many puzzles the file holds.
+     *
+     * @param path the file of puzzles in the binary puzzle format
+     * @throws IllegalArgumentException if the file isn't in the binary puzzle format, is shorter
+     *                                  than its header says, or has more than 2^31 - 1 puzzles
+     * @throws IOException if the file can't be read, mapped or written
+     */
+    public static void index(Path path) throws IllegalArgumentException, IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            int count = readCount(channel);
+            ByteBuffer[] segments = map(channel, count);
+            long index = getIndexPosition(count);
+            channel.truncate(index);
+
+            int[] clueStarts = new int[MAX_CLUES + 2];
+            int[] ratingStarts = new int[MAX_RATING + 2];
+            for (int i = 0; i < count; i++) {
+                clueStarts[getClues(segments, i) + 1]++;
+                ratingStarts[getRating(segments, i) + 1]++;
+            }
+            for (int i = 1; i < clueStarts.length; i++) {
+                clueStarts[i] += clueStarts[i - 1];
+            }
+            for (int i = 1; i < ratingStarts.length; i++) {
+                ratingStarts[i] += ratingStarts[i - 1];
+            }
+
+            IntBuffer[] byClues = mapTable(channel, FileChannel.MapMode.READ_WRITE,
+                    index + STARTS_SIZE, count);
+            IntBuffer[] byRating = mapTable(channel, FileChannel.MapMode.READ_WRITE,
+                    index + STARTS_SIZE + (long) count * Integer.BYTES, count);
+            int[] nextByClues = clueStarts.clone();
+            int[] nextByRating = ratingStarts.clone();
+            for (int i = 0; i < count; i++) {
+                put(byClues, nextByClues[getClues(segments, i)]++, i);
+                put(byRating, nextByRating[getRating(segments, i)]++, i);
+            }
+
+            // the magic bytes are written last, so that an index that was cut short is never used
+            ByteBuffer starts = ByteBuffer.allocate(STARTS_SIZE);
+            for (int i = 0; i < clueStarts.length; i++) {
+                starts.putInt(CLUE_STARTS_OFFSET + i * Integer.BYTES, clueStarts[i]);
+            }
+            for (int i = 0; i < ratingStarts.length; i++) {
+                starts.putInt(RATING_STARTS_OFFSET + i * Integer.BYTES, ratingStarts[i]);
+            }
+            write(channel, starts, index);
+            channel.force(false);
+            write(channel, ByteBuffer.allocate(Integer.BYTES).putInt(0, INDEX_MAGIC), index);
+        }
+    }
+
+    /**
+     * Read and check the header, and check that the file holds all the records it claims to.
+     */
+    private static int readCount(FileChannel channel) throws IllegalArgumentException, IOException {
+        ByteBuffer header = ByteBuffer.allocate(BinaryPuzzleFormat.HEADER_SIZE);
+        if (channel.size() < BinaryPuzzleFormat.HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a binary puzzle file");
+        }
+        while (header.hasRemaining()) {
+            channel.read(header, header.position());
+        }
+
+        long records = BinaryPuzzleFormat.readHeader(header);
+        if ((records < 0) || (records > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("A bank can hold at most 2^31 - 1 puzzles");
+        }
+        if (channel.size() < getIndexPosition(records)) {
+            throw new IllegalArgumentException("The file is shorter than its header says");
+        }
+
+        return (int) records;
+    }
+
+    /**
+     * Map the records of the file in segments of whole records.
+     */
+    private static ByteBuffer[] map(FileChannel channel, int count) throws IOException {
+        int segmentCount = (count + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS;
+        ByteBuffer[] mapped = new ByteBuffer[segmentCount];
+
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i * SEGMENT_RECORDS;
+            long records = Math.min(SEGMENT_RECORDS, count - first);
+            mapped[i] = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    BinaryPuzzleFormat.HEADER_SIZE + first * BinaryPuzzleFormat.RECORD_SIZE,
+                    records * BinaryPuzzleFormat.RECORD_SIZE
+            );
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Map a table of record indices in segments of whole entries.
+     */
+    private static IntBuffer[] mapTable(
+            FileChannel channel,
+            FileChannel.MapMode mode,
+            long position,
+            int entries
+    ) throws IOException {
+        int segmentCount = (entries + SEGMENT_ENTRIES - 1) / SEGMENT_ENTRIES;
+        IntBuffer[] mapped = new IntBuffer[segmentCount];
+
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i * SEGMENT_ENTRIES;
+            long size = Math.min(SEGMENT_ENTRIES, entries - first);
+            mapped[i] = channel.map(mode, position + first * Integer.BYTES, size * Integer.BYTES)
+                    .asIntBuffer();
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Write everything in a buffer to the file, starting at the given position.
+     */
+    private static void write(FileChannel channel, ByteBuffer source, long position)
+            throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+    }
+
+    /**
+     * Get the position in the file where the index starts, right after the records.
+     */
+    private static long getIndexPosition(long count) {
+        return BinaryPuzzleFormat.HEADER_SIZE + count * BinaryPuzzleFormat.RECORD_SIZE;
+    }
+
+    /**
+     * Get the number of bytes in the index of a file with the given number of records.
+     */
+    private static long getIndexSize(int count) {
+        return STARTS_SIZE + 2L * count * Integer.BYTES;
+    }
+
+    /**
+     * Get the number of clues of a record in the mapped segments.
+     */
+    private static int getClues(ByteBuffer[] segments, int index) {
+        return BinaryPuzzleFormat.getClues(segments[index / SEGMENT_RECORDS], offset(index));
+    }
+
+    /**
+     * Get the rating of a record in the mapped segments.
+     */
+    private static int getRating(ByteBuffer[] segments, int index) {
+        return BinaryPuzzleFormat.getRating(segments[index / SEGMENT_RECORDS], offset(index));
+    }
+
+    /**
+     * Get an entry of a mapped table of record indices.
+     */
+    private static int get(IntBuffer[] table, int entry) {
+        return table[entry / SEGMENT_ENTRIES].get(entry % SEGMENT_ENTRIES);
+    }
+
+    /**
+     * Set an entry of a mapped table of record indices.
+     */
+    private static void put(IntBuffer[] table, int entry, int value) {
+        table[entry / SEGMENT_ENTRIES].put(entry % SEGMENT_ENTRIES, value);
+    }
+
+    /**
+     * Get the number of puzzles in the bank.
+     *
+     * @return the number of puzzles
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of puzzles in the bank with the given number of clues.
+     *
+     * @param clues the number of clues
+     * @return the number of puzzles with that many clues
+     */
+    public int getCount(int clues) {
+        if ((clues < 0) || (clues > MAX_CLUES)) return 0;
+
+        return clueStarts[clues + 1] - clueStarts[clues];
+    }
+
+    /**
+     * Get the number of puzzles in the bank with a rating within the given range.
+     *
+     * @param minRating the lowest rating (inclusive)
+     * @param maxRating the highest rating (inclusive)
+     * @return the number of puzzles with a rating within the range
+     */
+    public int getCount(int minRating, int maxRating) {
+        return Math.max(0, ratingEnd(maxRating) - ratingStart(minRating));
+    }
+
+    /**
+     * Get the index of a random puzzle with the given number of clues.
+     *
+     * @param clues the number of clues
+     * @param random the Random to pick the puzzle with
+     * @return the index of the puzzle, or -1 if the bank has no puzzles with that many clues
+     */
+    public int find(int clues, Random random) {
+        int found = getCount(clues);
+        if (found == 0) return -1;
+
+        return get(byClues, clueStarts[clues] + random.nextInt(found));
+    }
+
+    /**
+     * Get the index of a random puzzle with a rating within the given range.
+     *
+     * @param minRating the lowest rating (inclusive)
+     * @param maxRating the highest rating (inclusive)
+     * @param random the Random to pick the puzzle with
+     * @return the index of the puzzle, or -1 if the bank has no puzzles within the range
+     */
+    public int find(int minRating, int maxRating, Random random) {
+        int found = getCount(minRating, maxRating);
+        if (found == 0) return -1;
+
+        return get(byRating, ratingStart(minRating) + random.nextInt(found));
+    }
+
+    /**
+     * Get the index in the rating table of the first record with at least the given rating.
+     */
+    private int ratingStart(int minRating) {
+        return getRatingStart(Math.max(0, Math.min(minRating, MAX_RATING + 1)));
+    }
+
+    /**
+     * Get the index in the rating table after the last record with at most the given rating.
+     */
+    private int ratingEnd(int maxRating) {
+        return getRatingStart(Math.max(0, Math.min(maxRating, MAX_RATING) + 1));
+    }
+
+    /**
+     * Get the index in the rating table of the first record with the given rating.
+     */
+    private int getRatingStart(int rating) {
+        return ratingStarts.getInt(RATING_STARTS_OFFSET + rating * Integer.BYTES);
+    }
+
+    /**
+     * Get the number of clues of a puzzle.
+     *
+     * @param index the index of the puzzle
+     * @return the number of clues
+     * @throws IndexOutOfBoundsException if there is no puzzle with the index
+     */
+    public int getClues(int index) throws IndexOutOfBoundsException {
+        return BinaryPuzzleFormat.getClues(segment(index), offset(index));
+    }
+
+    /**
+     * Get the rating of a puzzle.
+     *
+     * @param index the index of the puzzle
+     * @return the rating
+     * @throws IndexOutOfBoundsException if there is no puzzle with the index
+     */
+    public int getRating(int index) throws IndexOutOfBoundsException {
+        return BinaryPuzzleFormat.getRating(segment(index), offset(index));
+    }
+
+    /**
+     * Read the solution of a puzzle into an existing 9x9 board.
+     *
+     * @param index the index of the puzzle
+     * @param solution the 9x9 board to write the solution to
+     * @throws IndexOutOfBoundsException if there is no puzzle with the index
+     */
+    public void readSolution(int index, int[][] solution) throws IndexOutOfBoundsException {
+        BinaryPuzzleFormat.readSolution(segment(index), offset(index), solution);
+    }
+
+    /**
+     * Read a puzzle into an existing 9x9 board.
+     *
+     * @param index the index of the puzzle
+     * @param puzzle the 9x9 board to write the puzzle to, where empty tiles are 0
+     * @throws IndexOutOfBoundsException if there is no puzzle with the index
+     */
+    public void readPuzzle(int index, int[][] puzzle) throws IndexOutOfBoundsException {
+        BinaryPuzzleFormat.readPuzzle(segment(index), offset(index), puzzle);
+    }
+
+    /**
+     * Get the mapped segment that holds a record.
+     */
+    private ByteBuffer segment(int index) throws IndexOutOfBoundsException {
+        if ((index < 0) || (index >= count)) {
+            throw new IndexOutOfBoundsException("There is no puzzle with index " + index);
+        }
+
+        return segments[index / SEGMENT_RECORDS];
+    }
+
+    /**
+     * Get the index of a record in its mapped segment.
+     */
+    private static int offset(int index) {
+        return (index % SEGMENT_RECORDS) * BinaryPuzzleFormat.RECORD_SIZE;
+    }
+
+    /**
+     * Close the file of the bank. The mapped segments stay valid until they are garbage
+     * collected, but the bank should not be used after it has been closed.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
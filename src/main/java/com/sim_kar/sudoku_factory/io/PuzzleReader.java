@@ -0,0 +1,111 @@
+package com.sim_kar.sudoku_factory.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads puzzle files lazily, one line at a time, so that files far larger than the heap can be
+ * streamed. A puzzle file has one puzzle of 81 characters per line (see {@link PuzzleText}), and
+ * may have blank lines and comments starting with '#'. Files compressed with gzip are detected by
+ * their first bytes and decompressed on the fly, whatever their name.
+ * <br>
+ * The returned streams hold the file open, and must be closed, e.g. with try-with-resources.
+ */
+public final class PuzzleReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private PuzzleReader() {}
+
+    /**
+     * Stream the puzzle lines of a file, skipping blank lines and comments.
+     *
+     * @param path the puzzle file, which may be compressed with gzip
+     * @return a lazy stream of puzzle lines, which must be closed
+     * @throws IOException if the file can't be opened
+     */
+    public static Stream<String> lines(Path path) throws IOException {
+        return lines(Files.newInputStream(path));
+    }
+
+    /**
+     * Stream the puzzle lines of an input stream, skipping blank lines and comments. The input
+     * stream is closed when the returned stream is.
+     *
+     * @param input the puzzle data, which may be compressed with gzip
+     * @return a lazy stream of puzzle lines, which must be closed
+     * @throws IOException if the first bytes of the input can't be read
+     */
+    public static Stream<String> lines(InputStream input) throws IOException {
+        BufferedReader reader;
+
+        try {
+            reader = new BufferedReader(
+                    new InputStreamReader(decompress(input), StandardCharsets.US_ASCII),
+                    BUFFER_SIZE
+            );
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+
+        return reader.lines()
+                .filter(line -> !PuzzleText.isSkipped(line))
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Stream the puzzles of a file as 9x9 boards.
+     *
+     * @param path the puzzle file, which may be compressed with gzip
+     * @return a lazy stream of puzzles, which must be closed. An IllegalArgumentException is
+     *         thrown while streaming if a line isn't a valid puzzle line
+     * @throws IOException if the file can't be opened
+     */
+    public static Stream<int[][]> puzzles(Path path) throws IOException {
+        return lines(path).map(PuzzleText::toBoard);
+    }
+
+    /**
+     * Stream the puzzles of an input stream as 9x9 boards. The input stream is closed when the
+     * returned stream is.
+     *
+     * @param input the puzzle data, which may be compressed with gzip
+     * @return a lazy stream of puzzles, which must be closed. An IllegalArgumentException is
+     *         thrown while streaming if a line isn't a valid puzzle line
+     * @throws IOException if the first bytes of the input can't be read
+     */
+    public static Stream<int[][]> puzzles(InputStream input) throws IOException {
+        return lines(input).map(PuzzleText::toBoard);
+    }
+
+    /**
+     * Wrap an input stream in a buffer, and in a gzip decompressor if it starts with the gzip
+     * magic number.
+     */
+    private static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+        buffered.mark(2);
+        boolean compressed = (buffered.read() == GZIP_MAGIC_FIRST)
+                && (buffered.read() == GZIP_MAGIC_SECOND);
+        buffered.reset();
+
+        return compressed ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered;
+    }
+}
@@ -0,0 +1,124 @@
+package com.sim_kar.sudoku_factory.io;
+
+/**
+ * Converts between 9x9 boards and the common text form of Sudoku puzzles, where a puzzle is a
+ * line of 81 characters in row-major order. The numbers 1-9 are clues, and '.' or '0' are empty
+ * tiles.
+ */
+public final class PuzzleText {
+    /**
+     * The number of characters in a puzzle line.
+     */
+    public static final int LENGTH = 81;
+    private static final int BOARD_SIZE = 9;
+    private static final int EMPTY = 0;
+    private static final char EMPTY_CHARACTER = '.';
+
+    private PuzzleText() {}
+
+    /**
+     * Whether a line holds no puzzle, i.e. is blank or a comment starting with '#'.
+     *
+     * @param line the line to check
+     * @return whether the line should be skipped when reading puzzles
+     */
+    public static boolean isSkipped(String line) {
+        return line.isBlank() || (line.charAt(0) == '#');
+    }
+
+    /**
+     * Convert a puzzle line to a new 9x9 board.
+     *
+     * @param line a puzzle line of 81 characters
+     * @return the puzzle as a 9x9 board, where empty tiles are 0
+     * @throws IllegalArgumentException if the line isn't 81 characters, or contains characters
+     *                                  other than '.' and 0-9
+     */
+    public static int[][] toBoard(CharSequence line) throws IllegalArgumentException {
+        int[][] board = new int[BOARD_SIZE][BOARD_SIZE];
+        toBoard(line, board);
+        return board;
+    }
+
+    /**
+     * Convert a puzzle line to a 9x9 board, by overwriting an existing board. This lets a reader
+     * of many puzzles reuse the same board instead of allocating a new one for every puzzle.
+     *
+     * @param line a puzzle line of 81 characters
+     * @param board the 9x9 board to write the puzzle to, where empty tiles are 0
+     * @throws IllegalArgumentException if the line isn't 81 characters, or contains characters
+     *                                  other than '.' and 0-9
+     */
+    public static void toBoard(CharSequence line, int[][] board) throws IllegalArgumentException {
+        if (line.length() != LENGTH) {
+            throw new IllegalArgumentException("A puzzle line must have 81 characters");
+        }
+
+        for (int i = 0; i < LENGTH; i++) {
+            char character = line.charAt(i);
+
+            if (character == EMPTY_CHARACTER) {
+                board[i / BOARD_SIZE][i % BOARD_SIZE] = EMPTY;
+            } else if ((character >= '0') && (character <= '9')) {
+                board[i / BOARD_SIZE][i % BOARD_SIZE] = character - '0';
+            } else {
+                throw new IllegalArgumentException("A puzzle line can only contain '.' and 0-9");
+            }
+        }
+    }
+
+    /**
+     * Convert a puzzle line of ASCII bytes to a 9x9 board, by overwriting an existing board.
+     *
+     * @param line an array holding the puzzle line
+     * @param offset the index in the array where the puzzle line starts
+     * @param length the length of the puzzle line, which must be 81
+     * @param board the 9x9 board to write the puzzle to, where empty tiles are 0
+     * @throws IllegalArgumentException if the line isn't 81 characters, or contains characters
+     *                                  other than '.' and 0-9
+     */
+    public static void toBoard(byte[] line, int offset, int length, int[][] board)
+            throws IllegalArgumentException {
+        if (length != LENGTH) {
+            throw new IllegalArgumentException("A puzzle line must have 81 characters");
+        }
+
+        for (int i = 0; i < LENGTH; i++) {
+            byte character = line[offset + i];
+
+            if (character == EMPTY_CHARACTER) {
+                board[i / BOARD_SIZE][i % BOARD_SIZE] = EMPTY;
+            } else if ((character >= '0') && (character <= '9')) {
+                board[i / BOARD_SIZE][i % BOARD_SIZE] = character - '0';
+            } else {
+                throw new IllegalArgumentException("A puzzle line can only contain '.' and 0-9");
+            }
+        }
+    }
+
+    /**
+     * Convert a 9x9 board to a puzzle line, with '.' for empty tiles.
+     *
+     * @param board the 9x9 board to convert
+     * @return the board as a puzzle line of 81 characters
+     */
+    public static String toLine(int[][] board) {
+        StringBuilder line = new StringBuilder(LENGTH);
+        appendLine(board, line);
+        return line.toString();
+    }
+
+    /**
+     * Append a 9x9 board as a puzzle line, with '.' for empty tiles, to a StringBuilder.
+     *
+     * @param board the 9x9 board to append
+     * @param line the StringBuilder to append the 81 characters to
+     */
+    public static void appendLine(int[][] board, StringBuilder line) {
+        for (int[] row : board) {
+            for (int value : row) {
+                line.append((value == EMPTY) ? EMPTY_CHARACTER : (char) ('0' + value));
+            }
+        }
+    }
+}
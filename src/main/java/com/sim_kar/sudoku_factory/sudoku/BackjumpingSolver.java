@@ -0,0 +1,395 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Solves Sudoku puzzles with the same search as {@link SudokuSolver}, i.e. by filling in the
+ * empty tiles in row-major order, but with conflict-directed backjumping. Every filled in tile
+ * keeps a conflict set: the earlier filled in tiles that ruled out one of its numbers, either
+ * directly by holding the same number in a row, column or block, or by ruling out every number
+ * of a later tile. When a tile runs out of numbers, the search jumps straight back to the latest
+ * tile in its conflict set, instead of retrying the numbers of tiles in between that had nothing
+ * to do with the contradiction.
+ * <br>
+ * Optionally, the solver also learns nogoods. When a tile runs out of numbers, the numbers of the
+ * tiles in its conflict set can never be part of a solution together, and if there are at most
+ * {@value #MAX_NOGOOD_SIZE} of them, that combination is recorded and never tried again during
+ * the same call. Once a solution has been found, the search backtracks chronologically to look
+ * for the next one, and no nogoods are learned from the tiles above the solution.
+ * <br>
+ * The solver reuses its search state between calls, so an instance must not be shared between
+ * threads.
+ */
+public class BackjumpingSolver implements Solver {
+    private final static int BOARD_SIZE = 9;
+    private final static int MAX_VALUE = 9;
+    private final static int EMPTY = 0;
+    private final static int MAX_NOGOOD_SIZE = 3;
+    // the returned jump target of a search that has found as many solutions as it looks for
+    private final static int DONE = Integer.MAX_VALUE;
+    // the culprit of a number that is ruled out by a clue, which no jump can change
+    private final static int CLUE = -2;
+    private final static int FREE = -1;
+    private final Layout layout = Layout.STANDARD;
+    private final Random random;
+    private final boolean learning;
+    private final int[] values = new int[layout.getTileCount()];
+    private final int[] solution = new int[layout.getTileCount()];
+    // the empty tiles in the order they are filled in, and the depth of each tile in that order
+    private final int[] order = new int[layout.getTileCount()];
+    private final int[] depthOfTile = new int[layout.getTileCount()];
+    private int depths;
+    // the conflict set of each depth, as a bit set of earlier depths
+    private final long[][] conflicts = new long[layout.getTileCount()][2];
+    private final boolean[] aboveSolution = new boolean[layout.getTileCount()];
+    // the earliest depth that holds each number among the peers of the tile at each depth
+    private final int[][] culprits = new int[layout.getTileCount()][MAX_VALUE + 1];
+    private final int[][] numbers = new int[layout.getTileCount()][MAX_VALUE];
+    // the learned nogoods, by the tile and number that is filled in last
+    private final List<List<int[]>> nogoods = new ArrayList<>();
+    private int nogoodCount;
+    private int solutionCount;
+    private long nodeCount;
+
+    /**
+     * Create a new backjumping solver with the given {@link Random}, which doesn't learn nogoods.
+     *
+     * @param random a Random used to generate solutions
+     */
+    public BackjumpingSolver(Random random) {
+        this(random, false);
+    }
+
+    /**
+     * Create a new backjumping solver with the given {@link Random}.
+     *
+     * @param random a Random used to generate solutions
+     * @param learning whether to learn nogoods of at most {@value #MAX_NOGOOD_SIZE} tiles
+     */
+    public BackjumpingSolver(Random random, boolean learning) {
+        this.random = random;
+        this.learning = learning;
+        for (int literal = 0; literal < layout.getTileCount() * MAX_VALUE; literal++) {
+            nogoods.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Empty tiles are represented by 0. The numbers of every tile are tried in random order, so
+     * if there are several solutions, the generated solution is random.
+     *
+     * @param board the 9x9 Sudoku board to solve
+     * @return the solved Sudoku board
+     * @throws IllegalArgumentException if board doesn't have a solution, or if it is null,
+     *                                  contains numbers outside the range 0-9, or isn't a 9x9 grid
+     */
+    @Override
+    public int[][] generate(int[][] board) throws IllegalArgumentException {
+        if (countSolutions(board, 1, true) == 0) {
+            throw new NoSolutionException();
+        }
+
+        int[][] solved = new int[BOARD_SIZE][BOARD_SIZE];
+        for (int y = 0; y < BOARD_SIZE; y++) {
+            System.arraycopy(solution, y * BOARD_SIZE, solved[y], 0, BOARD_SIZE);
+        }
+        return solved;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The search stops as soon as a second solution has been found.
+     *
+     * @param board the Sudoku board to check if it only has one solution
+     * @return whether the Sudoku board only has one solution
+     * @throws IllegalArgumentException if the board has no solution, is null, the wrong size, or
+     *                                  contains a number outside the range 0-9
+     */
+    @Override
+    public boolean isUnique(int[][] board) throws IllegalArgumentException {
+        int solutions = countSolutions(board, 2, false);
+
+        if (solutions == 0) {
+            throw new NoSolutionException();
+        }
+
+        return solutions == 1;
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Get the number of nogoods learned during the last call.
+     *
+     * @return the number of nogoods
+     */
+    public int getNogoodCount() {
+        return nogoodCount;
+    }
+
+    /**
+     * Count the solutions of a board, but stop counting when the limit is reached.
+     *
+     * @param board the Sudoku board to count the solutions of
+     * @param limit the highest number of solutions to count
+     * @param shuffle whether to try the numbers of each tile in random order
+     * @return the number of solutions, at most the limit
+     * @throws IllegalArgumentException if the board is null, the wrong size, or contains a number
+     *                                  outside the range 0-9
+     */
+    private int countSolutions(int[][] board, int limit, boolean shuffle)
+            throws IllegalArgumentException {
+        validateBoard(board);
+        solutionCount = 0;
+        if (!load(board)) return 0;
+
+        for (int depth = 0; depth < depths; depth++) {
+            int[] tileNumbers = numbers[depth];
+            for (int i = 0; i < MAX_VALUE; i++) {
+                tileNumbers[i] = i + 1;
+            }
+            if (shuffle) shuffle(tileNumbers);
+        }
+
+        search(0, limit);
+        return solutionCount;
+    }
+
+    /**
+     * Fills in the tile at the given depth with each of its numbers in turn, and searches the
+     * depths after it.
+     *
+     * @param depth the depth of the tile to fill in
+     * @param limit stop searching when this many solutions have been found
+     * @return {@link #DONE} if the limit was reached, or else the depth to jump back to, which is
+     *         -1 if the search is over
+     */
+    private int search(int depth, int limit) {
+        if (depth == depths) return foundSolution(limit);
+
+        int tile = order[depth];
+        long[] conflict = conflicts[depth];
+        conflict[0] = 0;
+        conflict[1] = 0;
+        aboveSolution[depth] = false;
+
+        // the peers only change deeper in the search, which is undone before this tile changes
+        int[] culprit = culprits[depth];
+        Arrays.fill(culprit, FREE);
+        for (int peer : layout.getPeers()[tile]) {
+            int value = values[peer];
+            if ((value == EMPTY) || (culprit[value] == CLUE)) continue;
+
+            int peerDepth = depthOfTile[peer];
+            if (peerDepth == FREE) {
+                culprit[value] = CLUE;
+            } else if ((culprit[value] == FREE) || (peerDepth < culprit[value])) {
+                culprit[value] = peerDepth;
+            }
+        }
+
+        for (int number : numbers[depth]) {
+            if (culprit[number] == CLUE) continue;
+            if (culprit[number] != FREE) {
+                add(conflict, culprit[number]);
+                continue;
+            }
+
+            values[tile] = number;
+            if (learning && violatesNogood(tile, number, conflict)) {
+                values[tile] = EMPTY;
+                continue;
+            }
+
+            nodeCount++;
+            int jump = search(depth + 1, limit);
+            values[tile] = EMPTY;
+
+            // a jump back to this depth has already added its conflicts to this conflict set
+            if ((jump == DONE) || (jump < depth)) return jump;
+        }
+
+        int target = highest(conflict);
+        if (learning && !aboveSolution[depth] && (size(conflict) <= MAX_NOGOOD_SIZE)) {
+            learn(conflict);
+        }
+        if (target >= 0) {
+            // the reasons this tile ran out of numbers are also reasons against the target
+            conflicts[target][0] |= conflict[0];
+            conflicts[target][1] |= conflict[1];
+            remove(conflicts[target], target);
+        }
+        return target;
+    }
+
+    /**
+     * Count a solution, and make every depth above it backtrack chronologically, since the
+     * numbers of the other tiles must all be tried to find the next solution.
+     */
+    private int foundSolution(int limit) {
+        solutionCount++;
+        if (solutionCount == 1) System.arraycopy(values, 0, solution, 0, values.length);
+        if (solutionCount >= limit) return DONE;
+
+        for (int depth = 0; depth < depths; depth++) {
+            long[] conflict = conflicts[depth];
+            conflict[0] = 0;
+            conflict[1] = 0;
+            for (int earlier = 0; earlier < depth; earlier++) {
+                add(conflict, earlier);
+            }
+            aboveSolution[depth] = true;
+        }
+        return depths - 1;
+    }
+
+    /**
+     * Check if filling in a number completes a learned nogood, and if it does, add the depths of
+     * the other tiles of the nogood to the conflict set.
+     */
+    private boolean violatesNogood(int tile, int number, long[] conflict) {
+        for (int[] nogood : nogoods.get(tile * MAX_VALUE + number - 1)) {
+            boolean violated = true;
+            for (int literal : nogood) {
+                if (values[literal / MAX_VALUE] != literal % MAX_VALUE + 1) {
+                    violated = false;
+                    break;
+                }
+            }
+            if (!violated) continue;
+
+            for (int literal : nogood) {
+                int depth = depthOfTile[literal / MAX_VALUE];
+                if (depth != depthOfTile[tile]) add(conflict, depth);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Record the numbers of the tiles in a conflict set as a nogood. The tiles are always filled
+     * in in the same order, so the nogood only has to be checked when its last tile is filled in.
+     */
+    private void learn(long[] conflict) {
+        int target = highest(conflict);
+        if (target < 0) return;
+
+        int[] nogood = new int[size(conflict)];
+        int index = 0;
+        for (int depth = 0; depth <= target; depth++) {
+            if (!contains(conflict, depth)) continue;
+
+            int tile = order[depth];
+            nogood[index++] = tile * MAX_VALUE + values[tile] - 1;
+        }
+
+        int last = order[target];
+        nogoods.get(last * MAX_VALUE + values[last] - 1).add(nogood);
+        nogoodCount++;
+    }
+
+    /**
+     * Reset the search state to the given board.
+     *
+     * @return false if the board has the same number more than once in a row, column or block
+     * @throws IllegalArgumentException if the board contains a number outside the range 0-9
+     */
+    private boolean load(int[][] board) throws IllegalArgumentException {
+        depths = 0;
+        nogoodCount = 0;
+        for (List<int[]> tileNogoods : nogoods) {
+            tileNogoods.clear();
+        }
+
+        for (int tile = 0; tile < values.length; tile++) {
+            int value = board[tile / BOARD_SIZE][tile % BOARD_SIZE];
+            if ((value < EMPTY) || (value > MAX_VALUE)) {
+                throw new IllegalArgumentException("Boards can only contain numbers 0-9");
+            }
+
+            values[tile] = value;
+            depthOfTile[tile] = FREE;
+            if (value == EMPTY) {
+                depthOfTile[tile] = depths;
+                order[depths++] = tile;
+            }
+        }
+
+        for (int tile = 0; tile < values.length; tile++) {
+            if (values[tile] == EMPTY) continue;
+            for (int peer : layout.getPeers()[tile]) {
+                if (values[peer] == values[tile]) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuffle numbers in place with the solver's Random.
+     */
+    private void shuffle(int[] tileNumbers) {
+        for (int i = tileNumbers.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = tileNumbers[i];
+            tileNumbers[i] = tileNumbers[j];
+            tileNumbers[j] = swap;
+        }
+    }
+
+    private static void add(long[] set, int depth) {
+        set[depth >>> 6] |= 1L << depth;
+    }
+
+    private static void remove(long[] set, int depth) {
+        set[depth >>> 6] &= ~(1L << depth);
+    }
+
+    private static boolean contains(long[] set, int depth) {
+        return (set[depth >>> 6] & (1L << depth)) != 0;
+    }
+
+    private static int size(long[] set) {
+        return Long.bitCount(set[0]) + Long.bitCount(set[1]);
+    }
+
+    /**
+     * Get the latest depth in a set, or -1 if it is empty.
+     */
+    private static int highest(long[] set) {
+        if (set[1] != 0) return Long.SIZE + 63 - Long.numberOfLeadingZeros(set[1]);
+        return 63 - Long.numberOfLeadingZeros(set[0]);
+    }
+
+    /**
+     * Throws an exception if the board is the wrong size, or if it is null.
+     *
+     * @param board the Sudoku board to validate
+     * @throws IllegalArgumentException if the board is null, or has the wrong number of rows or
+     *                                  columns
+     */
+    private void validateBoard(int[][] board) throws IllegalArgumentException {
+        if (board == null) {
+            throw new IllegalArgumentException("Cannot generate solution for a null board");
+        }
+
+        if (board.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 9 rows");
+        }
+
+        for (int[] row : board) {
+            if (row.length != BOARD_SIZE) {
+                throw new IllegalArgumentException("Board must have 9 columns");
+            }
+        }
+    }
+}
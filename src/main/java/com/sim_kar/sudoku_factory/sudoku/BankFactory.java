@@ -0,0 +1,117 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import com.sim_kar.sudoku_factory.io.PuzzleBank;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves puzzles from a pre-generated {@link PuzzleBank}, and only creates a puzzle with another
+ * factory when the bank has no puzzle with the requested number of clues or grade. Picking a puzzle
+ * from the bank is a single read from the mapped file, so it is much faster than creating one.
+ * <br>
+ * The bank may hold puzzles that the fallback factory can't create, such as puzzles with fewer
+ * than 25 clues, and those are served like any other puzzle.
+ */
+public class BankFactory implements RatedFactory {
+    private static final int BOARD_SIZE = 9;
+    private final PuzzleBank bank;
+    private final RatedFactory fallback;
+    private final Random random;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * Create a new factory that serves puzzles from a bank.
+     *
+     * @param bank the bank to pick puzzles from
+     * @param fallback the factory to create puzzles with when the bank has no matching puzzle
+     * @param random the Random to pick puzzles with
+     */
+    public BankFactory(PuzzleBank bank, RatedFactory fallback, Random random) {
+        this.bank = bank;
+        this.fallback = fallback;
+        this.random = random;
+    }
+
+    /**
+     * Pick a random puzzle with the given number of clues from the bank, or create one with the
+     * fallback factory if the bank has none.
+     *
+     * @param clues the amount of correct tiles to show on the board
+     * @return a Sudoku puzzle board with the amount of supplied clues
+     * @throws IllegalArgumentException if the bank has no puzzle with that many clues, and the
+     *                                  fallback factory can't create one
+     */
+    @Override
+    public Board create(int clues) throws IllegalArgumentException {
+        int index = bank.find(clues, random);
+        if (index < 0) {
+            fallbacks.increment();
+            return fallback.create(clues);
+        }
+
+        return read(index);
+    }
+
+    /**
+     * Pick a random puzzle with a rating within the given grade from the bank, or create one
+     * with the fallback factory if the bank has none.
+     *
+     * @param grade the band of ratings the created puzzle must be within
+     * @return a Sudoku puzzle board with a rating within the grade
+     */
+    @Override
+    public Board create(Grade grade) {
+        int index = bank.find(grade.getMinRating(), grade.getMaxRating(), random);
+        if (index < 0) {
+            fallbacks.increment();
+            return fallback.create(grade);
+        }
+
+        return read(index);
+    }
+
+    /**
+     * Get a board of a puzzle in the bank.
+     */
+    private Board read(int index) {
+        int[][] solution = new int[BOARD_SIZE][BOARD_SIZE];
+        int[][] puzzle = new int[BOARD_SIZE][BOARD_SIZE];
+        bank.readSolution(index, solution);
+        bank.readPuzzle(index, puzzle);
+        served.increment();
+
+        return SudokuFactory.getBoard(solution, puzzle);
+    }
+
+    /**
+     * Get the acceptance rate of the fallback factory, since puzzles from the bank are never
+     * rejected.
+     *
+     * @param grade the grade to get the acceptance rate of
+     * @return the acceptance rate of the fallback factory
+     */
+    @Override
+    public double getAcceptanceRate(Grade grade) {
+        return fallback.getAcceptanceRate(grade);
+    }
+
+    /**
+     * Get the number of puzzles that have been served from the bank.
+     *
+     * @return the number of puzzles served from the bank
+     */
+    public long getServed() {
+        return served.sum();
+    }
+
+    /**
+     * Get the number of puzzles that had to be created by the fallback factory, because the bank
+     * had no matching puzzle.
+     *
+     * @return the number of puzzles created by the fallback factory
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+}
@@ -0,0 +1,734 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Solves Sudoku puzzles by keeping the numbers used in every row, column and block as bit masks,
+ * so that the possible numbers of a tile can be found with a couple of bitwise operations. The
+ * search always continues with the empty tile that has the fewest possible numbers, which makes
+ * tiles with only one possible number get filled in right away.
+ * <br>
+ * The solver works on the 9x9 grids of {@link Layout#STANDARD} by default, but can be created for
+ * any {@link Layout}, such as 16x16 grids. The masks are {@code long}s, so a grid can have up to
+ * 64 numbers.
+ * <br>
+ * Solutions can also be made to satisfy the {@link Cage}s of a killer Sudoku. The numbers that can
+ * go in the empty tiles of a cage are kept up to date as its tiles are filled in and cleared, by
+ * looking up the combinations of its size and sum in a {@link CageTable}, so the possible numbers
+ * of a tile in a cage take a single extra bitwise and.
+ * <br>
+ * The {@link Zobrist} hash of the search board is kept up to date as tiles are filled in and
+ * cleared, so the current state of a search can be fingerprinted in constant time.
+ * <br>
+ * This is much faster than {@link SudokuSolver} for puzzles with few clues, which makes it
+ * suitable for checking uniqueness many times over, such as when searching for puzzles with a
+ * low number of clues.
+ * <br>
+ * The solver reuses its search state between calls, so an instance must not be shared between
+ * threads.
+ */
+public class BitmaskSolver implements Solver {
+    private final static int EMPTY = 0;
+    // what finding a hidden single gives when there is none, or when a number fits nowhere
+    private final static int NO_HIDDEN_SINGLE = -1;
+    private final static int DEAD_END = -2;
+    // the number of nodes per tile of the shortest restarts when searching for a solution
+    private final static int RESTART_NODES_PER_TILE = 4;
+    // the cage of the tiles that aren't in a cage, which allows every number
+    private final static int NO_CAGE = 0;
+    private final Layout layout;
+    private final int size;
+    private final long allCandidates;
+    private final Random random;
+    @Nullable private final TranspositionTable table;
+    private final int[] values;
+    private final long[] usedInUnit;
+    private final long[] candidatesOfTile;
+    private final int[] solution;
+    // the cage of every tile, and the size, sum and current state of every cage, where the
+    // cages set with setCages start at 1
+    private final int[] cageOfTile;
+    private List<Cage> cages = List.of();
+    @Nullable private CageTable cageTable;
+    private int[] cageSize = new int[1];
+    private int[] cageSum = new int[1];
+    private long[] usedInCage = new long[1];
+    private int[] sumInCage = new int[1];
+    private int[] filledInCage = new int[1];
+    private long[] allowedInCage;
+    // the cages, and the tiles of every unit that aren't in a cage inside the unit, which hold
+    // different numbers that add up to what the cages inside the unit leave of the unit's sum
+    private int[][] tilesOfGroup = new int[0][];
+    private int[] groupSum = new int[0];
+    private int solutionCount;
+    private long nodeCount;
+    private long nodeLimit = Long.MAX_VALUE;
+    private long hash;
+
+    /**
+     * Create a new bitmask solver with the given {@link Random}.
+     *
+     * @param random a Random used to generate solutions
+     */
+    public BitmaskSolver(Random random) {
+        this(random, null);
+    }
+
+    /**
+     * Create a new bitmask solver with the given {@link Random}, which remembers the boards it
+     * has found to have no solution or a single solution in a {@link TranspositionTable}, and
+     * skips them when it meets them again while counting solutions.
+     *
+     * @param random a Random used to generate solutions
+     * @param table the table to remember boards in, or null to not remember any
+     */
+    public BitmaskSolver(Random random, @Nullable TranspositionTable table) {
+        this(random, table, Layout.STANDARD);
+    }
+
+    /**
+     * Create a new bitmask solver with the given {@link Random}, which solves boards of the given
+     * {@link Layout}, e.g. {@code Layout.ofBlockSize(4)} for 16x16 boards.
+     *
+     * @param random a Random used to generate solutions
+     * @param table the table to remember boards in, or null to not remember any
+     * @param layout the layout of the boards to solve
+     */
+    public BitmaskSolver(Random random, @Nullable TranspositionTable table, Layout layout) {
+        this.random = random;
+        this.table = table;
+        this.layout = layout;
+        this.size = layout.getSize();
+        this.allCandidates = -1L >>> (Long.SIZE - size);
+        this.values = new int[layout.getTileCount()];
+        this.usedInUnit = new long[layout.getUnits().length];
+        this.candidatesOfTile = new long[layout.getTileCount()];
+        this.solution = new int[layout.getTileCount()];
+        this.cageOfTile = new int[layout.getTileCount()];
+        this.allowedInCage = new long[] {allCandidates};
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Empty tiles are represented by 0. If there are several solutions, the numbers are tried in
+     * random order, so the generated solution is random. On jigsaw boards, a search that takes
+     * long is restarted with the numbers in another order, which keeps generating solutions fast.
+     * Boards with blocks aren't restarted, since hard puzzles need long searches that restarting
+     * would throw away.
+     *
+     * @param board the Sudoku board to solve, which is 9x9 unless the solver has another layout
+     * @return the solved Sudoku board
+     * @throws IllegalArgumentException if board doesn't have a solution, or if it is null,
+     *                                  contains numbers outside the range 0-9, or isn't a 9x9 grid
+     *                                  (or the range and size of the layout)
+     */
+    @Override
+    public int[][] generate(int[][] board) throws IllegalArgumentException {
+        boolean solved;
+        if (layout.hasIrregularRegions()) {
+            solved = searchWithRestarts(board, Long.MAX_VALUE);
+        } else {
+            load(board);
+            solutionCount = 0;
+            solved = search(1, true);
+        }
+
+        if (!solved) {
+            throw new NoSolutionException();
+        }
+
+        return toBoard(solution);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param board the Sudoku board to check if it only has one solution
+     * @return whether the Sudoku board only has one solution
+     * @throws IllegalArgumentException if the board has no solution, is null, the wrong size, or
+     *                                  contains a number outside the range 0-9
+     */
+    @Override
+    public boolean isUnique(int[][] board) throws IllegalArgumentException {
+        int solutions = countSolutions(board, 2);
+
+        if (solutions == 0) {
+            throw new NoSolutionException();
+        }
+
+        return solutions == 1;
+    }
+
+    /**
+     * Count the solutions of a board, but stop counting when the limit is reached. A limit of 2
+     * is enough to tell apart boards without a solution, with a unique solution, and with
+     * several solutions.
+     *
+     * @param board the Sudoku board to count the solutions of
+     * @param limit the highest number of solutions to count
+     * @return the number of solutions, at most the limit
+     * @throws IllegalArgumentException if the board is null, the wrong size, or contains a number
+     *                                  outside the range 0-9
+     */
+    public int countSolutions(int[][] board, int limit) throws IllegalArgumentException {
+        solutionCount = 0;
+
+        // boards with duplicates have no solutions
+        try {
+            load(board);
+        } catch (NoSolutionException e) {
+            return 0;
+        }
+
+        search(limit, false);
+        return solutionCount;
+    }
+
+    /**
+     * Search for a solution of the empty board, but give up after visiting the given number of
+     * nodes. Used to reject jigsaw layouts that can't be filled in, without searching through
+     * every way of filling them in.
+     *
+     * @param nodes the highest number of nodes to visit
+     * @return whether a solution was found within the given number of nodes
+     */
+    boolean hasSolution(long nodes) {
+        return searchWithRestarts(new int[size][size], nodes);
+    }
+
+    /**
+     * Set the cages of a killer Sudoku that the solutions must satisfy from now on, replacing the
+     * cages that were set before. A board doesn't need to be covered by cages; tiles that aren't
+     * in a cage can hold any number, as usual. If the solver has a transposition table, it is
+     * cleared, since the number of solutions of the boards in it depends on the cages.
+     *
+     * @param cages the cages the solutions must satisfy, which may be empty
+     * @throws IllegalArgumentException if the board has more than 16 numbers, a tile of a cage
+     *                                  isn't on the board or is in more than one cage, or the
+     *                                  numbers of a cage can't add up to its sum without repeating
+     */
+    public void setCages(List<Cage> cages) throws IllegalArgumentException {
+        if (!cages.isEmpty() && (cageTable == null)) cageTable = new CageTable(size);
+
+        int[] cageOfTile = new int[values.length];
+        List<int[]> tilesOfGroup = new ArrayList<>();
+        List<Integer> groupSum = new ArrayList<>();
+        int[] cageSize = new int[cages.size() + 1];
+        int[] cageSum = new int[cages.size() + 1];
+
+        for (int cage = 1; cage <= cages.size(); cage++) {
+            Cage current = cages.get(cage - 1);
+            if (cageTable.getAllowed(current.size(), current.getSum()) == 0) {
+                throw new IllegalArgumentException("The numbers of a cage of " + current.size()
+                        + " tiles can't add up to " + current.getSum());
+            }
+
+            int[] tiles = new int[current.size()];
+            for (int index = 0; index < current.size(); index++) {
+                Position position = current.getPositions().get(index);
+                int x = position.getX();
+                int y = position.getY();
+                if ((x < 0) || (x >= size) || (y < 0) || (y >= size)) {
+                    throw new IllegalArgumentException("A tile of a cage isn't on the board");
+                }
+
+                int tile = (y * size) + x;
+                if (cageOfTile[tile] != NO_CAGE) {
+                    throw new IllegalArgumentException("A tile cannot be in more than one cage");
+                }
+                cageOfTile[tile] = cage;
+                tiles[index] = tile;
+            }
+
+            tilesOfGroup.add(tiles);
+            groupSum.add(current.getSum());
+
+            cageSize[cage] = current.size();
+            cageSum[cage] = current.getSum();
+        }
+
+        this.cages = List.copyOf(cages);
+        System.arraycopy(cageOfTile, 0, this.cageOfTile, 0, values.length);
+        if (!cages.isEmpty()) addUnitGroups(cageOfTile, cageSize, cageSum, tilesOfGroup, groupSum);
+        this.tilesOfGroup = tilesOfGroup.toArray(new int[0][]);
+        this.groupSum = groupSum.stream().mapToInt(Integer::intValue).toArray();
+        this.cageSize = cageSize;
+        this.cageSum = cageSum;
+        this.usedInCage = new long[cages.size() + 1];
+        this.sumInCage = new int[cages.size() + 1];
+        this.filledInCage = new int[cages.size() + 1];
+        this.allowedInCage = new long[cages.size() + 1];
+        allowedInCage[NO_CAGE] = allCandidates;
+        if (table != null) table.clear();
+    }
+
+    /**
+     * Add a group for every unit with the tiles of the unit that aren't in a cage inside the unit.
+     * The numbers of a unit add up to the sum of all numbers, so the numbers of those tiles add
+     * up to what the cages inside the unit leave, which is how killer Sudokus are solved by hand.
+     */
+    private void addUnitGroups(
+            int[] cageOfTile,
+            int[] cageSize,
+            int[] cageSum,
+            List<int[]> tilesOfGroup,
+            List<Integer> groupSum
+    ) {
+        for (int[] unit : layout.getUnits()) {
+            // the number of tiles of every cage that are in the unit
+            int[] inUnit = new int[cageSize.length];
+            for (int tile : unit) {
+                inUnit[cageOfTile[tile]]++;
+            }
+
+            int sum = size * (size + 1) / 2;
+            for (int cage = 1; cage < cageSize.length; cage++) {
+                if (inUnit[cage] == cageSize[cage]) sum -= cageSum[cage];
+            }
+
+            int[] rest = Arrays.stream(unit)
+                    .filter(tile -> inUnit[cageOfTile[tile]] != cageSize[cageOfTile[tile]])
+                    .toArray();
+            if ((rest.length > 0) && (rest.length < unit.length)) {
+                tilesOfGroup.add(rest);
+                groupSum.add(sum);
+            }
+        }
+    }
+
+    /**
+     * Get the cages that the solutions must satisfy.
+     *
+     * @return an unmodifiable list of the cages, which is empty unless cages have been set
+     */
+    public List<Cage> getCages() {
+        return cages;
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * This solver solves standard Sudoku if it was created for {@link Layout#STANDARD} and no
+     * cages are set.
+     *
+     * @return whether this solver solves standard Sudoku
+     */
+    @Override
+    public boolean isStandard() {
+        return (layout == Layout.STANDARD) && cages.isEmpty();
+    }
+
+    /**
+     * Get the layout of the boards this solver solves.
+     *
+     * @return the layout of the boards
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Get the {@link Zobrist} hash of the search board, which is the loaded board between calls.
+     *
+     * @return the hash of the search board
+     */
+    long getHash() {
+        return hash;
+    }
+
+    /**
+     * Search for a solution of a board with the numbers in random order, but give up after
+     * visiting the given number of nodes.
+     * <br>
+     * The time it takes to find a solution varies a lot with the order the numbers are tried in,
+     * especially on jigsaw boards, where a search can get stuck for minutes on a choice made
+     * early on, while another search finds a solution in a few hundred nodes. So rather than a
+     * single long search, the search is restarted with the numbers in another random order, with
+     * the number of nodes of each restart following the {@link #luby(int) Luby sequence}, which
+     * keeps trying short searches while giving longer and longer ones a chance. A search that ends
+     * before its limit has been through every way of filling in the board, which proves that
+     * there is no solution.
+     *
+     * @param board the Sudoku board to solve
+     * @param nodes the highest number of nodes to visit
+     * @return whether a solution was found within the given number of nodes
+     * @throws IllegalArgumentException if the board is null, the wrong size, contains a number
+     *                                  outside the range 0-9, or has a duplicate
+     */
+    private boolean searchWithRestarts(int[][] board, long nodes) throws IllegalArgumentException {
+        long end = nodeCount + Math.min(nodes, Long.MAX_VALUE - nodeCount);
+
+        try {
+            for (int restart = 0; nodeCount < end; restart++) {
+                long restartNodes = values.length * RESTART_NODES_PER_TILE * luby(restart);
+                load(board);
+                solutionCount = 0;
+                nodeLimit = nodeCount + Math.min(restartNodes, end - nodeCount);
+
+                search(1, true);
+                if (solutionCount == 1) return true;
+                if (nodeCount < nodeLimit) return false;
+            }
+            return false;
+        } finally {
+            nodeLimit = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Get the length of a restart in the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ..., where
+     * every run of restarts is repeated before a restart twice as long as the longest one.
+     *
+     * @param restart the index of the restart, starting from 0
+     * @return the length of the restart, as a power of 2
+     */
+    private static long luby(int restart) {
+        int length = 1;
+        int exponent = 0;
+        while (length < restart + 1) {
+            length = (length * 2) + 1;
+            exponent++;
+        }
+
+        while (length - 1 != restart) {
+            length = (length - 1) / 2;
+            exponent--;
+            restart %= length;
+        }
+
+        return 1L << exponent;
+    }
+
+    /**
+     * Searches for solutions by filling in the empty tile with the fewest possible numbers, and
+     * backtracking when a tile has no possible numbers. Every found solution is counted, and the
+     * first one is stored.
+     *
+     * <br>
+     * When counting solutions with a transposition table, a board is looked up before it is
+     * searched, and stored once it has been searched to the end, if it had no solution or a
+     * single one. Boards with a tile that has no possible numbers aren't stored, since finding
+     * that out is as cheap as looking them up. Generating a solution doesn't use the table, so
+     * the numbers drawn from the Random, and the generated solutions, are the same with and
+     * without it.
+     *
+     * @param limit stop searching when this many solutions have been found
+     * @param shuffle whether to try the possible numbers of a tile in random order
+     * @return whether the limit was reached
+     */
+    private boolean search(int limit, boolean shuffle) {
+        int tile = -1;
+        long tileCandidates = 0;
+        int fewest = size + 1;
+
+        for (int current = 0; current < values.length; current++) {
+            // filled tiles have no possible numbers, so finding hidden singles can skip the check
+            if (values[current] != EMPTY) {
+                candidatesOfTile[current] = 0;
+                continue;
+            }
+
+            long candidates = getCandidates(current);
+            int count = Long.bitCount(candidates);
+            candidatesOfTile[current] = candidates;
+            if (count < fewest) {
+                tile = current;
+                tileCandidates = candidates;
+                fewest = count;
+                if (count <= 1) break;
+            }
+        }
+
+        if (tile == -1) {
+            solutionCount++;
+            if (solutionCount == 1) System.arraycopy(values, 0, solution, 0, values.length);
+            return solutionCount >= limit;
+        }
+
+        if (fewest > 1) {
+            int hiddenSingle = findHiddenSingle();
+            if ((hiddenSingle == NO_HIDDEN_SINGLE) && !cages.isEmpty()) {
+                hiddenSingle = findCageSingle();
+            }
+            if (hiddenSingle == DEAD_END) return false;
+            if (hiddenSingle != NO_HIDDEN_SINGLE) {
+                tile = hiddenSingle / Long.SIZE;
+                tileCandidates = 1L << (hiddenSingle % Long.SIZE);
+            }
+        }
+
+        boolean memoize = (table != null) && !shuffle && (fewest > 0);
+        if (memoize) {
+            int known = table.get(hash);
+            if (known == 0) return false;
+            if (known == 1) return ++solutionCount >= limit;
+        }
+        int before = solutionCount;
+
+        while (tileCandidates != 0) {
+            long candidate = shuffle
+                    ? getRandomBit(tileCandidates)
+                    : Long.lowestOneBit(tileCandidates);
+            tileCandidates &= ~candidate;
+
+            // giving up counts as reaching the limit, which ends the search
+            if (nodeCount >= nodeLimit) return true;
+            place(tile, candidate);
+            nodeCount++;
+            boolean done = search(limit, shuffle);
+            remove(tile, candidate);
+
+            if (done) return true;
+        }
+
+        // the board has been searched to the end, so this is its exact number of solutions
+        if (memoize && (solutionCount - before <= 1)) table.put(hash, solutionCount - before);
+        return false;
+    }
+
+    /**
+     * Find a number that only fits in a single tile of a row, column or block, which must then go
+     * in that tile, just like the single possible number of a tile. Must be called right after
+     * the possible numbers of every empty tile have been computed.
+     *
+     * @return the tile times 64 plus the bit of the number, {@link #NO_HIDDEN_SINGLE} if there is
+     *         none, or {@link #DEAD_END} if a number fits in no tile of a unit it isn't used in
+     */
+    private int findHiddenSingle() {
+        int[][] units = layout.getUnits();
+
+        for (int unit = 0; unit < units.length; unit++) {
+            long once = 0;
+            long twice = 0;
+            for (int tile : units[unit]) {
+                twice |= once & candidatesOfTile[tile];
+                once |= candidatesOfTile[tile];
+            }
+
+            if ((once | usedInUnit[unit]) != allCandidates) return DEAD_END;
+
+            long hidden = once & ~twice;
+            if (hidden == 0) continue;
+
+            long bit = Long.lowestOneBit(hidden);
+            for (int tile : units[unit]) {
+                if ((candidatesOfTile[tile] & bit) != 0) {
+                    return (tile * Long.SIZE) + Long.numberOfTrailingZeros(bit);
+                }
+            }
+        }
+        return NO_HIDDEN_SINGLE;
+    }
+
+    /**
+     * Find a number that must go in a tile because of a cage, or because of the sum the tiles of
+     * a unit outside of its cages must add up to. Only the combinations of such a group of tiles
+     * that fit the possible numbers of its empty tiles are kept, and:
+     * <ul>
+     *     <li>an empty tile that has a single possible number in those combinations must hold
+     *     it</li>
+     *     <li>a number that is in every one of those combinations, and only fits in a single
+     *     empty tile of the group, must go in that tile</li>
+     * </ul>
+     * Must be called right after the possible numbers of every empty tile have been computed.
+     *
+     * @return the tile times 64 plus the bit of the number, {@link #NO_HIDDEN_SINGLE} if there is
+     *         none, or {@link #DEAD_END} if no combination fits, or an empty tile fits none
+     */
+    private int findCageSingle() {
+        for (int group = 0; group < tilesOfGroup.length; group++) {
+            int empty = 0;
+            int sum = groupSum[group];
+            long used = 0;
+            long once = 0;
+            long twice = 0;
+            for (int tile : tilesOfGroup[group]) {
+                if (values[tile] != EMPTY) {
+                    sum -= values[tile];
+                    used |= 1L << (values[tile] - 1);
+                    continue;
+                }
+                empty++;
+                twice |= once & candidatesOfTile[tile];
+                once |= candidatesOfTile[tile];
+            }
+            if (empty == 0) continue;
+
+            long fitting = 0;
+            long required = allCandidates;
+            for (long combination : cageTable.getCombinations(empty, sum)) {
+                if (((combination & used) == 0) && ((combination & ~once) == 0)) {
+                    fitting |= combination;
+                    required &= combination;
+                }
+            }
+            if (fitting == 0) return DEAD_END;
+
+            long hidden = required & ~twice;
+            for (int tile : tilesOfGroup[group]) {
+                if (values[tile] != EMPTY) continue;
+
+                long candidates = candidatesOfTile[tile] & fitting;
+                if (candidates == 0) return DEAD_END;
+                if (Long.bitCount(candidates) == 1) {
+                    return (tile * Long.SIZE) + Long.numberOfTrailingZeros(candidates);
+                }
+
+                long bit = Long.lowestOneBit(candidates & hidden);
+                if (bit != 0) return (tile * Long.SIZE) + Long.numberOfTrailingZeros(bit);
+            }
+        }
+        return NO_HIDDEN_SINGLE;
+    }
+
+    /**
+     * Get the possible numbers of a tile as a bit mask, where bit 0 represents the number 1.
+     */
+    private long getCandidates(int tile) {
+        int[] units = layout.getUnitsOfTiles()[tile];
+        long used = usedInUnit[units[0]] | usedInUnit[units[1]] | usedInUnit[units[2]];
+        return allCandidates & ~used & allowedInCage[cageOfTile[tile]];
+    }
+
+    /**
+     * Fill in a tile with the number represented by the given bit.
+     */
+    private void place(int tile, long bit) {
+        values[tile] = Long.numberOfTrailingZeros(bit) + 1;
+        hash ^= Zobrist.key(size, tile, values[tile]);
+        for (int unit : layout.getUnitsOfTiles()[tile]) {
+            usedInUnit[unit] |= bit;
+        }
+
+        int cage = cageOfTile[tile];
+        if (cage != NO_CAGE) {
+            usedInCage[cage] |= bit;
+            sumInCage[cage] += values[tile];
+            filledInCage[cage]++;
+            updateCage(cage);
+        }
+    }
+
+    /**
+     * Clear a tile that was filled in with the number represented by the given bit.
+     */
+    private void remove(int tile, long bit) {
+        int cage = cageOfTile[tile];
+        if (cage != NO_CAGE) {
+            usedInCage[cage] &= ~bit;
+            sumInCage[cage] -= values[tile];
+            filledInCage[cage]--;
+            updateCage(cage);
+        }
+
+        hash ^= Zobrist.key(size, tile, values[tile]);
+        values[tile] = EMPTY;
+        for (int unit : layout.getUnitsOfTiles()[tile]) {
+            usedInUnit[unit] &= ~bit;
+        }
+    }
+
+    /**
+     * Look up the numbers that can go in the empty tiles of a cage, given the numbers already in
+     * it and the rest of its sum.
+     */
+    private void updateCage(int cage) {
+        allowedInCage[cage] = cageTable.getAllowed(
+                cageSize[cage] - filledInCage[cage],
+                cageSum[cage] - sumInCage[cage],
+                usedInCage[cage]
+        );
+    }
+
+    /**
+     * Get one of the set bits in a mask, chosen at random.
+     */
+    private long getRandomBit(long mask) {
+        int skip = random.nextInt(Long.bitCount(mask));
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return Long.lowestOneBit(mask);
+    }
+
+    /**
+     * Reset the search state to the given board.
+     *
+     * @param board the Sudoku board to load
+     * @throws IllegalArgumentException if the board is null, the wrong size, or contains a number
+     *                                  outside the range 0-9
+     * @throws NoSolutionException if a number appears more than once in a row, column or block,
+     *                             or doesn't fit in its cage
+     */
+    private void load(int[][] board) throws IllegalArgumentException {
+        validateBoard(board);
+        Arrays.fill(usedInUnit, 0);
+        hash = 0;
+        for (int cage = 1; cage < allowedInCage.length; cage++) {
+            usedInCage[cage] = 0;
+            sumInCage[cage] = 0;
+            filledInCage[cage] = 0;
+            updateCage(cage);
+        }
+
+        for (int tile = 0; tile < values.length; tile++) {
+            int value = board[tile / size][tile % size];
+
+            if ((value < EMPTY) || (value > size)) {
+                throw new IllegalArgumentException("Boards can only contain numbers 0-" + size);
+            }
+
+            values[tile] = EMPTY;
+            if (value == EMPTY) continue;
+
+            long bit = 1L << (value - 1);
+            if ((getCandidates(tile) & bit) == 0) throw new NoSolutionException();
+
+            place(tile, bit);
+        }
+    }
+
+    /**
+     * Convert a flat array of tiles in row-major order to a board.
+     */
+    private int[][] toBoard(int[] tiles) {
+        int[][] board = new int[size][size];
+        for (int y = 0; y < size; y++) {
+            System.arraycopy(tiles, y * size, board[y], 0, size);
+        }
+        return board;
+    }
+
+    /**
+     * Throws an exception if the board is the wrong size, or if it is null.
+     *
+     * @param board the Sudoku board to validate
+     * @throws IllegalArgumentException if the board is null, or has the wrong number of rows or
+     *                                  columns
+     */
+    private void validateBoard(int[][] board) throws IllegalArgumentException {
+        if (board == null) {
+            throw new IllegalArgumentException("Cannot generate solution for a null board");
+        }
+
+        if (board.length != size) {
+            throw new IllegalArgumentException("Board must have " + size + " rows");
+        }
+
+        for (int[] row : board) {
+            if (row.length != size) {
+                throw new IllegalArgumentException("Board must have " + size + " columns");
+            }
+        }
+    }
+}
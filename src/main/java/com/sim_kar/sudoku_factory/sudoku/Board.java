@@ -63,6 +63,28 @@ public interface Board {
      */
     public void setTile(Position xy, int value);
 
+    /**
+     * Gets the clues of the Board as a 2D array of rows, with 0 for the editable Tiles
+     *
+     * @return A new array of the clues
+     */
+    public int[][] getPuzzle();
+
+    /**
+     * Gets the correct values of all Tiles as a 2D array of rows
+     *
+     * @return A new array of the correct values
+     */
+    public int[][] getSolution();
+
+    /**
+     * Gets a 64-bit hash of the current values of all Tiles, which is kept up to date as Tiles are
+     * set or cleared through the Board
+     *
+     * @return The hash of the current values
+     */
+    public long getHash();
+
     /**
      * Checks whether all Tiles have the correct value
      *
@@ -0,0 +1,248 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import com.sim_kar.sudoku_factory.io.SolutionCodec;
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * A {@link Solver} that remembers the results of another solver in a {@link SolverCache}, so that
+ * a puzzle that has been solved before is answered without searching. The cache remembers whether
+ * a puzzle has a unique solution, several solutions or none, and the solution of unique puzzles.
+ * <br>
+ * A solution is only served from the cache once the puzzle is known to be unique, since the
+ * solution of a puzzle with several solutions is picked at random, and an empty board must still
+ * give a new grid every time. Puzzles are keyed by a 64-bit hash, and every entry holds a
+ * second, unrelated hash of the puzzle that must match as well, so a wrong answer takes a
+ * collision of both.
+ * With canonical keys, the cached solution of the canonical form is transformed back with the
+ * {@link Transformation#inverse() inverse} of the transformation that gave the canonical form.
+ * <br>
+ * Only the numbers of a board are hashed, so the cache is bypassed unless the wrapped solver
+ * {@link Solver#isStandard() solves standard Sudoku}. The boards of a jigsaw layout, or a killer
+ * Sudoku's cages, would otherwise be answered with the results of the same numbers under other
+ * rules, and canonical keys would transform them as if they had 3x3 blocks.
+ * <br>
+ * Results served from the cache visit no nodes. The cache can be shared between threads, but like
+ * the solver it wraps, an instance of this solver must not be unless the wrapped solver can be.
+ */
+public class CachingSolver implements Solver {
+    private static final int BOARD_SIZE = 9;
+    private static final long CHECK_SEED = 0x13198A2E03707344L;
+    private static final int STATE = Long.BYTES;
+    private static final int SOLUTION = STATE + 1;
+    private static final int SOLVED = 1;
+    private static final int UNIQUE = 1 << 1;
+    private static final int MULTIPLE = 1 << 2;
+    private static final int UNSOLVABLE = 1 << 3;
+    private final Solver solver;
+    private final SolverCache cache;
+
+    /**
+     * Create a new solver that caches the results of another solver.
+     *
+     * @param solver the solver to solve puzzles with when they aren't in the cache
+     * @param cache the cache to keep the results in, which may be shared with other solvers
+     */
+    public CachingSolver(Solver solver, SolverCache cache) {
+        this.solver = solver;
+        this.cache = cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The solution of a puzzle that is known to be unique is served from the cache.
+     *
+     * @param board the 9x9 Sudoku board to solve
+     * @return the solved Sudoku board
+     * @throws IllegalArgumentException if board doesn't have a solution, or if it is null,
+     *                                  contains numbers outside the range 0-9, or isn't a 9x9 grid
+     */
+    @Override
+    public int[][] generate(int[][] board) throws IllegalArgumentException {
+        if (!isCacheable(board)) return solver.generate(board);
+
+        Key key = new Key(board);
+        byte[] entry = key.lookup();
+        int state = (entry == null) ? 0 : entry[STATE];
+
+        if ((state & UNSOLVABLE) != 0) {
+            cache.recordHit();
+            throw new NoSolutionException();
+        }
+        if ((state & (SOLVED | UNIQUE)) == (SOLVED | UNIQUE)) {
+            cache.recordHit();
+            int[][] solution = new int[BOARD_SIZE][BOARD_SIZE];
+            SolutionCodec.decode(entry, SOLUTION, solution);
+            return key.fromKey(solution);
+        }
+
+        cache.recordMiss();
+        int[][] solution;
+        try {
+            solution = solver.generate(board);
+        } catch (IllegalArgumentException e) {
+            key.store(UNSOLVABLE);
+            throw e;
+        }
+
+        // the solution of a puzzle with several solutions isn't worth keeping
+        if ((state & MULTIPLE) == 0) key.store(state | SOLVED, key.toKey(solution));
+        return solution;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param board the Sudoku board to check if it only has one solution
+     * @return whether the Sudoku board only has one solution
+     * @throws IllegalArgumentException if the board has no solution, is null, the wrong size, or
+     *                                  contains a number outside the range 0-9
+     */
+    @Override
+    public boolean isUnique(int[][] board) throws IllegalArgumentException {
+        if (!isCacheable(board)) return solver.isUnique(board);
+
+        Key key = new Key(board);
+        byte[] entry = key.lookup();
+        int state = (entry == null) ? 0 : entry[STATE];
+
+        if ((state & UNSOLVABLE) != 0) {
+            cache.recordHit();
+            throw new NoSolutionException();
+        }
+        if ((state & (UNIQUE | MULTIPLE)) != 0) {
+            cache.recordHit();
+            return (state & UNIQUE) != 0;
+        }
+
+        cache.recordMiss();
+        boolean unique;
+        try {
+            unique = solver.isUnique(board);
+        } catch (IllegalArgumentException e) {
+            key.store(UNSOLVABLE);
+            throw e;
+        }
+
+        if (!unique) {
+            key.store(MULTIPLE);
+        } else if ((state & SOLVED) != 0) {
+            key.store(SOLVED | UNIQUE, entry.clone());
+        } else {
+            key.store(UNIQUE);
+        }
+        return unique;
+    }
+
+    @Override
+    public long getNodeCount() {
+        return solver.getNodeCount();
+    }
+
+    @Override
+    public boolean isStandard() {
+        return solver.isStandard();
+    }
+
+    /**
+     * Check that the wrapped solver solves standard Sudoku and that a board is a 9x9 grid of
+     * numbers 0-9, which can be hashed. Anything else is passed on to the wrapped solver, which
+     * solves it by its own rules or throws the right exception.
+     */
+    private boolean isCacheable(@Nullable int[][] board) {
+        if (!solver.isStandard()) return false;
+        if ((board == null) || (board.length != BOARD_SIZE)) return false;
+
+        for (int[] row : board) {
+            if ((row == null) || (row.length != BOARD_SIZE)) return false;
+            for (int value : row) {
+                if ((value < 0) || (value > BOARD_SIZE)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The key of a board in the cache, and the transformation to its canonical form if the keys
+     * are canonical.
+     */
+    private class Key {
+        @Nullable private final Transformation transformation;
+        private final long hash;
+        private final long check;
+
+        Key(int[][] board) {
+            int[][] keyed = board;
+            if (cache.isCanonical()) {
+                transformation = Canonicalizer.getTransformation(board);
+                keyed = transformation.apply(board);
+            } else {
+                transformation = null;
+            }
+
+            this.hash = PuzzleHash.hash(keyed);
+            this.check = PuzzleHash.hash(keyed, CHECK_SEED);
+        }
+
+        /**
+         * Get the entry of the board, or null if there is none or it belongs to another board
+         * with the same hash.
+         */
+        @Nullable
+        byte[] lookup() {
+            byte[] entry = cache.get(hash);
+            if ((entry == null) || (getCheck(entry) != check)) return null;
+            return entry;
+        }
+
+        /**
+         * Store the state of the board without a solution.
+         */
+        void store(int state) {
+            store(state, new byte[SOLUTION]);
+        }
+
+        /**
+         * Store the state of the board together with a solution of the keyed board.
+         */
+        void store(int state, int[][] solution) {
+            byte[] encoded = new byte[SOLUTION + SolutionCodec.MAX_SIZE];
+            int length = SolutionCodec.encode(solution, encoded, SOLUTION);
+            store(state, Arrays.copyOf(encoded, SOLUTION + length));
+        }
+
+        /**
+         * Store the state of the board in an entry, which keeps the solution it holds.
+         */
+        void store(int state, byte[] entry) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                entry[i] = (byte) (check >>> (Byte.SIZE * i));
+            }
+            entry[STATE] = (byte) state;
+            cache.put(hash, entry);
+        }
+
+        /**
+         * Transform a solution of the board into a solution of the keyed board.
+         */
+        int[][] toKey(int[][] solution) {
+            return (transformation == null) ? solution : transformation.apply(solution);
+        }
+
+        /**
+         * Transform a solution of the keyed board back into a solution of the board.
+         */
+        int[][] fromKey(int[][] solution) {
+            return (transformation == null) ? solution : transformation.inverse().apply(solution);
+        }
+    }
+
+    private static long getCheck(byte[] entry) {
+        long check = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            check |= (entry[i] & 0xFFL) << (Byte.SIZE * i);
+        }
+        return check;
+    }
+}
@@ -0,0 +1,65 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A cage of a killer Sudoku: a group of tiles whose numbers must add up to the sum of the cage,
+ * without any number repeating within the cage.
+ */
+public final class Cage {
+    private final int sum;
+    private final List<Position> positions;
+
+    /**
+     * Create a new cage.
+     *
+     * @param sum the sum of the numbers in the tiles of the cage
+     * @param positions the positions of the tiles of the cage
+     * @throws IllegalArgumentException if the sum is less than 1, or if the positions are empty
+     *                                  or contain the same position more than once
+     */
+    public Cage(int sum, List<Position> positions) throws IllegalArgumentException {
+        if (sum < 1) {
+            throw new IllegalArgumentException("The sum of a cage must be at least 1");
+        }
+
+        if (positions.isEmpty()) {
+            throw new IllegalArgumentException("A cage must have at least one tile");
+        }
+
+        if (new HashSet<>(positions).size() != positions.size()) {
+            throw new IllegalArgumentException("A cage cannot have the same tile more than once");
+        }
+
+        this.sum = sum;
+        this.positions = List.copyOf(positions);
+    }
+
+    /**
+     * Get the sum of the numbers in the tiles of the cage.
+     *
+     * @return the sum of the cage
+     */
+    public int getSum() {
+        return sum;
+    }
+
+    /**
+     * Get the positions of the tiles of the cage.
+     *
+     * @return an unmodifiable list of the positions
+     */
+    public List<Position> getPositions() {
+        return positions;
+    }
+
+    /**
+     * Get the number of tiles in the cage.
+     *
+     * @return the size of the cage
+     */
+    public int size() {
+        return positions.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The combinations of different numbers that add up to every sum, for cages of every size, so
+ * that the numbers that can go in a cage are looked up rather than worked out from scratch each
+ * time a tile of the cage is filled in or cleared.
+ * <br>
+ * A combination is a bit mask, where bit 0 represents the number 1, just like the possible
+ * numbers of a tile in {@link BitmaskSolver}. The table is built by going through every set of
+ * numbers once, so it is only built for boards with up to 16 numbers, which have 65,536 sets.
+ */
+final class CageTable {
+    /**
+     * The highest number of numbers of a board the table can be built for.
+     */
+    static final int MAX_SIZE = 16;
+    private static final long[] NONE = new long[0];
+    private final int maxSum;
+    // indexed by the number of tiles and the sum
+    private final long[][] allowed;
+    private final long[][][] combinations;
+
+    /**
+     * Build the table for a board with the numbers 1 to size.
+     *
+     * @param size the highest number of the board
+     * @throws IllegalArgumentException if the size is less than 1 or more than 16
+     */
+    CageTable(int size) throws IllegalArgumentException {
+        if ((size < 1) || (size > MAX_SIZE)) {
+            throw new IllegalArgumentException(
+                    "Cages can only be used on boards with up to 16 numbers"
+            );
+        }
+
+        this.maxSum = size * (size + 1) / 2;
+        this.allowed = new long[size + 1][maxSum + 1];
+        this.combinations = new long[size + 1][maxSum + 1][];
+
+        List<List<List<Long>>> found = new ArrayList<>();
+        for (int tiles = 0; tiles <= size; tiles++) {
+            List<List<Long>> bySum = new ArrayList<>();
+            for (int sum = 0; sum <= maxSum; sum++) {
+                bySum.add(new ArrayList<>());
+            }
+            found.add(bySum);
+        }
+
+        for (long numbers = 0; numbers < (1L << size); numbers++) {
+            int sum = 0;
+            for (long rest = numbers; rest != 0; rest &= rest - 1) {
+                sum += Long.numberOfTrailingZeros(rest) + 1;
+            }
+
+            int tiles = Long.bitCount(numbers);
+            allowed[tiles][sum] |= numbers;
+            found.get(tiles).get(sum).add(numbers);
+        }
+
+        for (int tiles = 0; tiles <= size; tiles++) {
+            for (int sum = 0; sum <= maxSum; sum++) {
+                combinations[tiles][sum] = found.get(tiles).get(sum).stream()
+                        .mapToLong(Long::longValue)
+                        .toArray();
+            }
+        }
+    }
+
+    /**
+     * Get the numbers that are in at least one combination of the given number of different
+     * numbers that add up to the sum.
+     *
+     * @param tiles the number of tiles of the cage
+     * @param sum the sum of the cage
+     * @return the numbers that can go in the cage as a bit mask, or 0 if there is no combination
+     */
+    long getAllowed(int tiles, int sum) {
+        if ((tiles < 0) || (tiles >= allowed.length) || (sum < 0) || (sum > maxSum)) return 0;
+        return allowed[tiles][sum];
+    }
+
+    /**
+     * Get every combination of the given number of different numbers that add up to the sum.
+     *
+     * @param tiles the number of tiles of the cage
+     * @param sum the sum of the cage
+     * @return the combinations as bit masks, which are shared and must not be modified
+     */
+    long[] getCombinations(int tiles, int sum) {
+        if ((tiles < 0) || (tiles >= allowed.length) || (sum < 0) || (sum > maxSum)) return NONE;
+        return combinations[tiles][sum];
+    }
+
+    /**
+     * Get the numbers that can go in the empty tiles of a cage that already has some numbers,
+     * which are the numbers of the combinations for the empty tiles and the rest of the sum
+     * that don't repeat a number already in the cage.
+     *
+     * @param tiles the number of empty tiles of the cage
+     * @param sum the rest of the sum, once the numbers already in the cage are subtracted
+     * @param used the numbers already in the cage as a bit mask
+     * @return the numbers that can go in the empty tiles as a bit mask, or 0 if there are none
+     */
+    long getAllowed(int tiles, int sum, long used) {
+        if (used == 0) return getAllowed(tiles, sum);
+
+        long numbers = 0;
+        for (long combination : getCombinations(tiles, sum)) {
+            if ((combination & used) == 0) numbers |= combination;
+        }
+        return numbers;
+    }
+}
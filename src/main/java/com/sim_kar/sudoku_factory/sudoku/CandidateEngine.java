@@ -0,0 +1,47 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * Computes the possible numbers of every tile of a 9x9 board at once, from the numbers used in
+ * each row, column and block, and finds the tiles that only have a single possible number left.
+ * This is the inner loop of solvers that propagate singles over the whole board at every node,
+ * and of validating puzzles in bulk.
+ * <br>
+ * Tiles are indexed in row-major order, and units (rows, then columns, then blocks) as in
+ * {@link Layout#STANDARD}. The possible numbers of a tile are a bit mask, where bit 0 represents
+ * the number 1. Implementations hold no state between calls, so an instance can be shared.
+ */
+public interface CandidateEngine {
+    /**
+     * Compute the possible numbers of every tile.
+     *
+     * @param values the number in each of the 81 tiles, where empty tiles are 0
+     * @param usedInUnit the numbers used in each of the 27 units, as bit masks
+     * @param candidates receives the possible numbers of each of the 81 tiles, which is 0 for
+     *                   tiles that are filled in
+     * @param singles receives the empty tiles with exactly one possible number, as a bit set of
+     *                tile indexes in two words, where tile t is bit {@code t % 64} of word
+     *                {@code t / 64}
+     * @return the index of the empty tile with the fewest possible numbers (the first one if
+     *         there are several), or -1 if no tile is empty
+     */
+    int compute(int[] values, int[] usedInUnit, int[] candidates, long[] singles);
+
+    /**
+     * Get the {@link VectorCandidateEngine} if it can run on this JVM, i.e. if the JVM was started
+     * with {@code --add-modules jdk.incubator.vector} on a machine with 256-bit SIMD registers
+     * (AVX2 or better), and the {@link ScalarCandidateEngine} otherwise.
+     *
+     * @return the vector engine, or the scalar engine if the vector engine can't run
+     */
+    static CandidateEngine vectorized() {
+        try {
+            // loaded by name, since the class can't be linked without the incubator module
+            return (CandidateEngine) Class
+                    .forName("com.sim_kar.sudoku_factory.sudoku.VectorCandidateEngine")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarCandidateEngine();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for creating a puzzle board with a {@link Factory}.
+ */
+@Name("com.sim_kar.sudoku_factory.Create")
+@Label("Create Puzzle")
+@Category({"Sudoku Factory", "Factory"})
+@Description("Creating a new puzzle board")
+class CreateEvent extends jdk.jfr.Event {
+    @Label("Clues")
+    @Description("The number of clues on the created board, or the requested number of clues if "
+            + "the creation failed")
+    int clues;
+
+    @Label("Grade")
+    @Description("The requested grade, if the puzzle was created by grade")
+    String grade;
+
+    @Label("Seed")
+    @Description("The seed of the Random that decided the order clues were removed in, which "
+            + "doesn't include the Random of the solver that generated the solutions")
+    long seed;
+
+    @Label("Solutions")
+    @Description("The number of solutions generated, including discarded ones")
+    int solutions;
+
+    @Label("Uniqueness Checks")
+    int uniquenessChecks;
+
+    @Label("Nodes")
+    @Description("The number of tentative numbers the solver filled in")
+    long nodes;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,106 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates puzzles with another factory, and rejects every puzzle that has been created before, so
+ * that no puzzle is handed out twice. Puzzles are remembered by their {@link PuzzleHash} in a
+ * {@link LongHashSet}, which takes a fixed number of bytes per puzzle and can be shared by the
+ * factories of any number of threads.
+ * <br>
+ * With canonical hashing, a puzzle is also rejected if it is a {@link Transformation} of a puzzle
+ * that has been created before, i.e. the same puzzle with its rows, columns or numbers swapped.
+ * This takes a canonicalization of every puzzle, which is cheap next to creating it.
+ */
+public class DistinctFactory implements RatedFactory {
+    private static final int MAX_ATTEMPTS = 100;
+    private final RatedFactory factory;
+    private final LongHashSet created;
+    private final boolean canonical;
+    private final LongAdder duplicates = new LongAdder();
+
+    /**
+     * Create a new factory that only creates puzzles that aren't in the given set.
+     *
+     * @param factory the factory to create puzzles with
+     * @param created the hashes of the puzzles that have been created, which the hash of every
+     *                new puzzle is added to
+     * @param canonical whether to hash the canonical form of the puzzles, so that transformations
+     *                  of a created puzzle are rejected as well
+     */
+    public DistinctFactory(RatedFactory factory, LongHashSet created, boolean canonical) {
+        this.factory = factory;
+        this.created = created;
+        this.canonical = canonical;
+    }
+
+    /**
+     * Create a new puzzle with the given number of clues that hasn't been created before.
+     *
+     * @param clues the amount of correct tiles to show on the board
+     * @return a new Sudoku puzzle board with the amount of supplied clues
+     * @throws IllegalStateException if only repeated puzzles were created after many attempts,
+     *                               or the set of created puzzles is full
+     */
+    @Override
+    public Board create(int clues) throws IllegalStateException {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Board board = factory.create(clues);
+            if (isNew(board)) return board;
+        }
+
+        throw new IllegalStateException("Only repeated puzzles were created");
+    }
+
+    /**
+     * Create a new puzzle with a rating within the given grade that hasn't been created before.
+     *
+     * @param grade the band of ratings the created puzzle must be within
+     * @return a new Sudoku puzzle board with a rating within the grade
+     * @throws IllegalStateException if only repeated puzzles were created after many attempts,
+     *                               or the set of created puzzles is full
+     */
+    @Override
+    public Board create(Grade grade) throws IllegalStateException {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Board board = factory.create(grade);
+            if (isNew(board)) return board;
+        }
+
+        throw new IllegalStateException("Only repeated puzzles were created");
+    }
+
+    /**
+     * Add the hash of a board to the created puzzles, and count it if it was already there.
+     */
+    private boolean isNew(Board board) {
+        int[][] puzzle = board.getPuzzle();
+        long hash = canonical ? PuzzleHash.canonicalHash(puzzle) : PuzzleHash.hash(puzzle);
+
+        if (created.add(hash)) return true;
+
+        duplicates.increment();
+        return false;
+    }
+
+    /**
+     * Get the acceptance rate of the wrapped factory. Rejected repeats aren't counted, since they
+     * are rare next to the candidates that the wrapped factory rejects.
+     *
+     * @param grade the grade to get the acceptance rate of
+     * @return the acceptance rate of the wrapped factory
+     */
+    @Override
+    public double getAcceptanceRate(Grade grade) {
+        return factory.getAcceptanceRate(grade);
+    }
+
+    /**
+     * Get the number of created puzzles that were rejected because they had been created before.
+     *
+     * @return the number of rejected repeats
+     */
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+}
@@ -0,0 +1,26 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for generating the solution of a board with a {@link Solver}.
+ */
+@Name("com.sim_kar.sudoku_factory.Generate")
+@Label("Generate Solution")
+@Category({"Sudoku Factory", "Solver"})
+@Description("Generating a solution for a board")
+class GenerateEvent extends jdk.jfr.Event {
+    @Label("Clues")
+    @Description("The number of filled in tiles on the board, or -1 if the board is null")
+    int clues;
+
+    @Label("Nodes")
+    @Description("The number of tentative numbers the solver filled in")
+    long nodes;
+
+    @Label("Outcome")
+    String outcome;
+}
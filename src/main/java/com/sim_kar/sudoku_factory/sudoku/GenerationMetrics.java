@@ -0,0 +1,173 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the work done by a {@link Factory} while creating puzzles: how many solutions were
+ * generated and discarded, how many uniqueness checks were made, how many clues were removed,
+ * and how long it took to create puzzles with each number of clues.
+ * <br>
+ * All counters can be updated from any number of threads without locking, so that recording
+ * the metrics costs next to nothing compared to creating a puzzle. The metrics can be read with
+ * the getters, or through JMX once {@link #register(String)} has been called.
+ */
+public class GenerationMetrics implements GenerationMetricsMBean {
+    private static final long NANOS_PER_MICRO = 1000;
+    private final LongAdder puzzlesCreated = new LongAdder();
+    private final LongAdder solutionsGenerated = new LongAdder();
+    private final LongAdder solutionsDiscarded = new LongAdder();
+    private final LongAdder uniquenessChecks = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final Map<Integer, LatencyHistogram> latenciesByClues = new ConcurrentSkipListMap<>();
+    private final AtomicLongArray attemptsByGrade = new AtomicLongArray(Grade.values().length);
+    private final AtomicLongArray acceptedByGrade = new AtomicLongArray(Grade.values().length);
+
+    /**
+     * Register these metrics with the platform MBean server, so that they can be read through
+     * JMX under the name {@code com.sim_kar.sudoku_factory:type=GenerationMetrics,name=<name>}.
+     *
+     * @param name a name that tells these metrics apart from other registered metrics
+     * @return the name the metrics were registered under
+     * @throws JMException if the name is invalid, or already registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(
+                "com.sim_kar.sudoku_factory:type=GenerationMetrics,name=" + ObjectName.quote(name)
+        );
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Record that a solution was generated to create a puzzle from.
+     */
+    public void recordSolutionGenerated() {
+        solutionsGenerated.increment();
+    }
+
+    /**
+     * Record that a generated solution was discarded.
+     */
+    public void recordSolutionDiscarded() {
+        solutionsDiscarded.increment();
+    }
+
+    /**
+     * Record that a puzzle was checked for a unique solution.
+     */
+    public void recordUniquenessCheck() {
+        uniquenessChecks.increment();
+    }
+
+    /**
+     * Record that a clue was removed without making the solution ambiguous.
+     */
+    public void recordRemoval() {
+        removals.increment();
+    }
+
+    /**
+     * Record that a puzzle was created.
+     *
+     * @param clues the number of clues in the created puzzle
+     * @param nanos the time it took to create the puzzle, in nanoseconds
+     */
+    public void recordPuzzleCreated(int clues, long nanos) {
+        puzzlesCreated.increment();
+        latenciesByClues.computeIfAbsent(clues, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Record that a solution was generated to create a puzzle of the given grade from.
+     *
+     * @param grade the grade of the puzzle that is being created
+     */
+    public void recordGradeAttempt(Grade grade) {
+        attemptsByGrade.incrementAndGet(grade.ordinal());
+    }
+
+    /**
+     * Record that a puzzle of the given grade was created.
+     *
+     * @param grade the grade of the created puzzle
+     */
+    public void recordGradeAccepted(Grade grade) {
+        acceptedByGrade.incrementAndGet(grade.ordinal());
+    }
+
+    @Override
+    public long getPuzzlesCreated() {
+        return puzzlesCreated.sum();
+    }
+
+    @Override
+    public long getSolutionsGenerated() {
+        return solutionsGenerated.sum();
+    }
+
+    @Override
+    public long getSolutionsDiscarded() {
+        return solutionsDiscarded.sum();
+    }
+
+    @Override
+    public long getUniquenessChecks() {
+        return uniquenessChecks.sum();
+    }
+
+    @Override
+    public long getRemovals() {
+        return removals.sum();
+    }
+
+    @Override
+    public int[] getClueCounts() {
+        return latenciesByClues.keySet()
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Override
+    public long getPuzzlesCreated(int clues) {
+        LatencyHistogram latencies = latenciesByClues.get(clues);
+        if (latencies == null) return 0;
+
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getLatencyPercentileMicros(int clues, double percentile) {
+        LatencyHistogram latencies = latenciesByClues.get(clues);
+        if (latencies == null) return 0;
+
+        return latencies.getPercentile(percentile) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getMeanLatencyMicros(int clues) {
+        LatencyHistogram latencies = latenciesByClues.get(clues);
+        if (latencies == null) return 0;
+
+        return latencies.getMean() / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Get the share of generated solutions that a puzzle of the given grade was created from.
+     *
+     * @param grade the grade to get the acceptance rate of
+     * @return the acceptance rate between 0 and 1, or 0 if no puzzles have been attempted
+     */
+    public double getAcceptanceRate(Grade grade) {
+        long attempts = attemptsByGrade.get(grade.ordinal());
+        if (attempts == 0) return 0;
+
+        return (double) acceptedByGrade.get(grade.ordinal()) / attempts;
+    }
+}
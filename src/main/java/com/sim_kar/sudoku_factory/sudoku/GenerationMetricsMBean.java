@@ -0,0 +1,77 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * The management interface of {@link GenerationMetrics}, which exposes the metrics through JMX.
+ */
+public interface GenerationMetricsMBean {
+    /**
+     * Get the number of puzzles that have been created.
+     *
+     * @return the number of created puzzles
+     */
+    long getPuzzlesCreated();
+
+    /**
+     * Get the number of solutions that have been generated to create puzzles from.
+     *
+     * @return the number of generated solutions
+     */
+    long getSolutionsGenerated();
+
+    /**
+     * Get the number of generated solutions that were discarded, because no puzzle with the
+     * requested clues or rating could be made from them.
+     *
+     * @return the number of discarded solutions
+     */
+    long getSolutionsDiscarded();
+
+    /**
+     * Get the number of times a puzzle has been checked for a unique solution.
+     *
+     * @return the number of uniqueness checks
+     */
+    long getUniquenessChecks();
+
+    /**
+     * Get the number of clues that have been removed from puzzles without making their solution
+     * ambiguous.
+     *
+     * @return the number of successful removals
+     */
+    long getRemovals();
+
+    /**
+     * Get the clue counts that puzzles have been created with.
+     *
+     * @return the clue counts in ascending order
+     */
+    int[] getClueCounts();
+
+    /**
+     * Get the number of puzzles that have been created with the given number of clues.
+     *
+     * @param clues the number of clues
+     * @return the number of created puzzles with that many clues
+     */
+    long getPuzzlesCreated(int clues);
+
+    /**
+     * Get the time it took to create a puzzle with the given number of clues at a percentile.
+     *
+     * @param clues the number of clues
+     * @param percentile the percentile, between 0 and 100
+     * @return the creation time at the percentile in microseconds, or 0 if no puzzles have been
+     *         created with that many clues
+     */
+    long getLatencyPercentileMicros(int clues, double percentile);
+
+    /**
+     * Get the mean time it took to create a puzzle with the given number of clues.
+     *
+     * @param clues the number of clues
+     * @return the mean creation time in microseconds, or 0 if no puzzles have been created with
+     *         that many clues
+     */
+    long getMeanLatencyMicros(int clues);
+}
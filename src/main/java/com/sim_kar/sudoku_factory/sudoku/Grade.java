@@ -0,0 +1,50 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * A band of puzzle ratings, as given by a {@link Grader}, with 5 steps ranging from very easy to
+ * very hard. Each band covers the ratings from its minimum rating (inclusive) to its maximum
+ * rating (inclusive).
+ */
+public enum Grade {
+    VERY_EASY(36, 48),
+    EASY(49, 55),
+    MEDIUM(56, 70),
+    HARD(71, 110),
+    VERY_HARD(111, Integer.MAX_VALUE);
+
+    private final int minRating;
+    private final int maxRating;
+
+    Grade(int minRating, int maxRating) {
+        this.minRating = minRating;
+        this.maxRating = maxRating;
+    }
+
+    /**
+     * Get the lowest rating in this band.
+     *
+     * @return the lowest rating (inclusive)
+     */
+    public int getMinRating() {
+        return minRating;
+    }
+
+    /**
+     * Get the highest rating in this band.
+     *
+     * @return the highest rating (inclusive)
+     */
+    public int getMaxRating() {
+        return maxRating;
+    }
+
+    /**
+     * Check whether a rating falls within this band.
+     *
+     * @param rating the rating to check
+     * @return whether the rating is within this band
+     */
+    public boolean contains(int rating) {
+        return (rating >= minRating) && (rating <= maxRating);
+    }
+}
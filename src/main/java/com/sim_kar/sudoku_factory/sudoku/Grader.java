@@ -0,0 +1,17 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * Used to rate how difficult a number puzzle is for a person to solve. Unlike the number of
+ * clues, a rating reflects which solving techniques are needed to complete the puzzle, and how
+ * often they are needed.
+ */
+public interface Grader {
+    /**
+     * Rates a puzzle board. A higher rating means a more difficult puzzle, and a completely
+     * filled in board has a rating of 0.
+     *
+     * @param board the puzzle board to rate, with 0 for empty tiles
+     * @return the rating of the puzzle
+     */
+    int grade(int[][] board);
+}
@@ -0,0 +1,195 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Used to create killer Sudoku puzzles with a given number of cages, where the board has no
+ * clues, and the sums of the {@link Cage}s lead to a single solution.
+ * <br>
+ * Puzzles are created the same way {@link LayoutFactory} removes clues: a solution is generated,
+ * and every tile starts out in a cage of its own, whose sum is the number of the tile. Cages
+ * next to each other are then merged one pair at a time, in random order, as long as the merged
+ * cage doesn't repeat a number, and the solution remains unique. If every pair has been tried
+ * without reaching the number of cages, the solution is discarded and a new one is generated.
+ * <br>
+ * The uniqueness checks are made by a {@link BitmaskSolver} with the cages set, which reasons
+ * about the combinations of numbers that add up to the sum of each cage, and each unit.
+ */
+public class KillerFactory {
+    // larger cages are rare in killer Sudokus, and have so many combinations that the uniqueness
+    // checks get slow
+    private static final int MAX_CAGE_SIZE = 5;
+    private final BitmaskSolver solver;
+    private final Random random;
+    private final int size;
+    private final int minCages;
+    private final int maxCages;
+
+    /**
+     * Create a new killer Sudoku factory for boards of the layout of the given solver. The solver
+     * is used to generate solutions and check uniqueness, and has its cages replaced while
+     * creating puzzles. The cages are removed when a puzzle has been created.
+     *
+     * @param solver a solver used to generate solutions and to check uniqueness
+     * @param random a Random used to decide the order cages are merged in
+     * @throws IllegalArgumentException if the boards of the solver have more than 16 numbers
+     */
+    public KillerFactory(BitmaskSolver solver, Random random) throws IllegalArgumentException {
+        Layout layout = solver.getLayout();
+        if (layout.getSize() > CageTable.MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Cages can only be used on boards with up to 16 numbers"
+            );
+        }
+
+        this.solver = solver;
+        this.random = random;
+        this.size = layout.getSize();
+        this.maxCages = layout.getTileCount();
+        this.minCages = (layout.getSize() == Layout.STANDARD.getSize())
+                ? layout.getTileCount() / 3
+                : (layout.getTileCount() + 1) / 2;
+    }
+
+    /**
+     * Create a killer Sudoku puzzle with the given number of cages. A 9x9 puzzle can have at most
+     * 81 cages, one for each tile, and must have at least 27, so that there are on average at
+     * most three tiles in a cage. With fewer cages, the uniqueness checks can take seconds each.
+     * Boards of other sizes need at least half of their tiles as cages, e.g. 128 of the 256 tiles
+     * of a 16x16 board, for the same reason as they need half of their tiles as clues in
+     * {@link LayoutFactory#create(int)}.
+     *
+     * @param cages the number of cages of the puzzle
+     * @return a killer Sudoku puzzle with the given number of cages and a single solution
+     * @throws IllegalArgumentException if there are too few cages, or more than there are tiles
+     */
+    public KillerPuzzle create(int cages) throws IllegalArgumentException {
+        if (cages < minCages) {
+            throw new IllegalArgumentException("There must be at least " + minCages + " cages");
+        }
+
+        if (cages > maxCages) {
+            throw new IllegalArgumentException(
+                    "There cannot be more than " + maxCages + " cages"
+            );
+        }
+
+        try {
+            return mergeCages(cages);
+        } finally {
+            solver.setCages(List.of());
+        }
+    }
+
+    /**
+     * Create a puzzle with the given number of cages by merging cages of generated solutions.
+     */
+    private KillerPuzzle mergeCages(int cages) {
+        int[][] empty = new int[size][size];
+        List<int[]> neighbours = getNeighbours();
+        int[][] solution;
+        int[] cageOfTile;
+        int currentCages;
+
+        do {
+            solver.setCages(List.of());
+            solution = solver.generate(empty);
+            cageOfTile = IntStream.range(0, maxCages).toArray();
+            currentCages = maxCages;
+            Collections.shuffle(neighbours, random);
+
+            for (int[] pair : neighbours) {
+                if (currentCages == cages) break;
+
+                int first = cageOfTile[pair[0]];
+                int second = cageOfTile[pair[1]];
+                if ((first == second) || !canMerge(solution, cageOfTile, first, second)) continue;
+
+                // a cage is named after its first tile, which is the first tile of either cage
+                int[] merged = cageOfTile.clone();
+                for (int tile = 0; tile < merged.length; tile++) {
+                    if ((merged[tile] == first) || (merged[tile] == second)) {
+                        merged[tile] = Math.min(first, second);
+                    }
+                }
+
+                solver.setCages(getCages(solution, merged));
+                if (solver.isUnique(empty)) {
+                    cageOfTile = merged;
+                    currentCages--;
+                }
+            }
+        } while (currentCages > cages);
+
+        return new KillerPuzzle(solution, getCages(solution, cageOfTile));
+    }
+
+    /**
+     * Check whether two cages can be merged without the merged cage being too large, or having
+     * the same number more than once.
+     */
+    private boolean canMerge(int[][] solution, int[] cageOfTile, int first, int second) {
+        long numbers = 0;
+        int tiles = 0;
+
+        for (int tile = 0; tile < cageOfTile.length; tile++) {
+            if ((cageOfTile[tile] != first) && (cageOfTile[tile] != second)) continue;
+
+            long bit = 1L << solution[tile / size][tile % size];
+            if ((numbers & bit) != 0) return false;
+            numbers |= bit;
+            tiles++;
+        }
+
+        return tiles <= MAX_CAGE_SIZE;
+    }
+
+    /**
+     * Get the cages of a solution, given the cage of every tile, ordered by their first tile.
+     */
+    private List<Cage> getCages(int[][] solution, int[] cageOfTile) {
+        List<List<Position>> positions = new ArrayList<>();
+        List<Integer> sums = new ArrayList<>();
+        int[] indexOfCage = new int[cageOfTile.length];
+
+        for (int tile = 0; tile < cageOfTile.length; tile++) {
+            int cage = cageOfTile[tile];
+            if (cage == tile) {
+                indexOfCage[cage] = positions.size();
+                positions.add(new ArrayList<>());
+                sums.add(0);
+            }
+
+            int index = indexOfCage[cage];
+            positions.get(index).add(new Position(tile % size, tile / size));
+            sums.set(index, sums.get(index) + solution[tile / size][tile % size]);
+        }
+
+        List<Cage> cages = new ArrayList<>();
+        for (int index = 0; index < positions.size(); index++) {
+            cages.add(new Cage(sums.get(index), positions.get(index)));
+        }
+        return cages;
+    }
+
+    /**
+     * Get every pair of tiles next to each other, either in the same row or the same column.
+     */
+    private List<int[]> getNeighbours() {
+        List<int[]> neighbours = new ArrayList<>();
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int tile = (y * size) + x;
+                if (x + 1 < size) neighbours.add(new int[] {tile, tile + 1});
+                if (y + 1 < size) neighbours.add(new int[] {tile, tile + size});
+            }
+        }
+
+        return neighbours;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A killer Sudoku puzzle: a board without clues, where every tile is in a {@link Cage}, and the
+ * sums of the cages lead to a single solution.
+ */
+public final class KillerPuzzle {
+    private final int[][] solution;
+    private final List<Cage> cages;
+
+    /**
+     * Create a new killer Sudoku puzzle.
+     *
+     * @param solution the solved board the cages were made from
+     * @param cages the cages of the puzzle
+     */
+    public KillerPuzzle(int[][] solution, List<Cage> cages) {
+        this.solution = copy2DArray(solution);
+        this.cages = List.copyOf(cages);
+    }
+
+    /**
+     * Get the single solution of the puzzle.
+     *
+     * @return a copy of the solution
+     */
+    public int[][] getSolution() {
+        return copy2DArray(solution);
+    }
+
+    /**
+     * Get the cages of the puzzle, which together hold every tile of the board once.
+     *
+     * @return an unmodifiable list of the cages
+     */
+    public List<Cage> getCages() {
+        return cages;
+    }
+
+    /**
+     * Get a copy of the given 2D integer array.
+     */
+    private static int[][] copy2DArray(int[][] board) {
+        return Arrays.stream(board)
+                .map(int[]::clone)
+                .toArray(int[][]::new);
+    }
+}
@@ -0,0 +1,115 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the distribution of latencies, so that percentiles can be read back without keeping
+ * every recorded value. Latencies are counted in buckets that double in width for every power of
+ * two, with each power of two split into 8 buckets, so a reported percentile is at most 12.5%
+ * higher than the true value regardless of the scale of the latencies.
+ * <br>
+ * Recording is lock free and can be done from any number of threads at the same time.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + ((Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS);
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+
+        counts.incrementAndGet(getBucket(value));
+        count.increment();
+        total.add(value);
+    }
+
+    /**
+     * Get the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean of the recorded latencies.
+     *
+     * @return the mean latency in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getMean() {
+        long recorded = count.sum();
+        if (recorded == 0) return 0;
+
+        return total.sum() / recorded;
+    }
+
+    /**
+     * Get the latency that the given percentage of recorded latencies are less than or equal to.
+     * The returned value is the upper bound of the bucket the percentile falls in.
+     *
+     * @param percentile the percentile to get, between 0 and 100
+     * @return the latency at the percentile in nanoseconds, or 0 if nothing has been recorded
+     * @throws IllegalArgumentException if the percentile is less than 0 or more than 100
+     */
+    public long getPercentile(double percentile) throws IllegalArgumentException {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100");
+        }
+
+        long[] snapshot = new long[BUCKETS];
+        long recorded = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            recorded += snapshot[bucket];
+        }
+
+        if (recorded == 0) return 0;
+
+        // the number of latencies at or below the percentile, rounded up so that at least one
+        // latency is always included
+        long rank = Math.max(1, (long) Math.ceil((percentile / 100) * recorded));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) return getUpperBound(bucket);
+        }
+        return getUpperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Get the bucket a value is counted in. Values below the number of sub-buckets get a bucket
+     * each, and every following power of two is split evenly into the sub-buckets.
+     */
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+
+        return SUB_BUCKETS + (shift * SUB_BUCKETS) + subBucket;
+    }
+
+    /**
+     * Get the highest value that is counted in a bucket.
+     */
+    private static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+
+        return lowerBound + ((1L << shift) - 1);
+    }
+}
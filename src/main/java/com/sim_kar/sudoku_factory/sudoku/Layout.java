@@ -0,0 +1,320 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Random;
+
+/**
+ * The geometry of a Sudoku grid, i.e. which tiles belong to which rows, columns and blocks, and
+ * which tiles "see" each other. Tiles are indexed in row-major order, so the tile in row y and
+ * column x has the index {@code y * size + x}.
+ * <br>
+ * Besides the standard 9x9 grid, there are layouts for grids of any square block size up to 8,
+ * such as 16x16 grids with 4x4 blocks and 25x25 grids with 5x5 blocks, so that the possible
+ * numbers of a tile always fit in the 64 bits of a {@code long}. Jigsaw grids of up to 64x64,
+ * where the blocks are replaced by irregular regions, are created from a map of the regions.
+ * <br>
+ * The tables are computed once and shared, so that engines working on flat arrays of tiles don't
+ * have to recompute row, column and block membership for every tile they visit.
+ */
+public final class Layout {
+    /**
+     * The standard 9x9 Sudoku layout with nine 3x3 blocks.
+     */
+    public static final Layout STANDARD = new Layout(3);
+
+    private static final int MIN_BLOCK_SIZE = 2;
+    private static final int MAX_BLOCK_SIZE = 8;
+    // the possible numbers of a tile are the bits of a long
+    private static final int MAX_REGION_SIZE = Long.SIZE;
+    /**
+     * The number of nodes per tile a solution of the empty grid of a jigsaw layout must be found
+     * within for the layout to be accepted by {@link #ofRegions(int[][])}.
+     */
+    public static final int NODES_PER_TILE = 256;
+
+    private final int blockSize;
+    private final int size;
+    private final int tileCount;
+    // rows first, then columns, then blocks
+    private final int[][] units;
+    private final int[][] unitsOfTile;
+    private final int[][] peers;
+
+    /**
+     * Create a new layout with square blocks of the given size.
+     *
+     * @param blockSize the width and height of each block
+     */
+    private Layout(int blockSize) {
+        this(blockSize * blockSize, blockSize, getBlocks(blockSize));
+    }
+
+    /**
+     * Create a new layout where the third unit of each tile is the region given by the region
+     * map, e.g. a block.
+     *
+     * @param size the width and height of the grid
+     * @param blockSize the width and height of each block, or 0 if the regions aren't blocks
+     * @param regionMap the region 0 to size - 1 of each tile, in row-major order
+     */
+    private Layout(int size, int blockSize, int[] regionMap) {
+        this.blockSize = blockSize;
+        this.size = size;
+        this.tileCount = size * size;
+        this.units = new int[size * 3][size];
+        this.unitsOfTile = new int[tileCount][3];
+        this.peers = new int[tileCount][];
+        int[] tilesInRegion = new int[size];
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int tile = (y * size) + x;
+                int region = regionMap[tile];
+
+                units[y][x] = tile;
+                units[size + x][y] = tile;
+                units[(size * 2) + region][tilesInRegion[region]++] = tile;
+                unitsOfTile[tile][0] = y;
+                unitsOfTile[tile][1] = size + x;
+                unitsOfTile[tile][2] = (size * 2) + region;
+            }
+        }
+
+        for (int tile = 0; tile < tileCount; tile++) {
+            boolean[] isPeer = new boolean[tileCount];
+            int peerCount = 0;
+
+            for (int unit : unitsOfTile[tile]) {
+                for (int other : units[unit]) {
+                    if ((other != tile) && !isPeer[other]) {
+                        isPeer[other] = true;
+                        peerCount++;
+                    }
+                }
+            }
+
+            peers[tile] = new int[peerCount];
+            int index = 0;
+            for (int other = 0; other < tileCount; other++) {
+                if (isPeer[other]) peers[tile][index++] = other;
+            }
+        }
+    }
+
+    /**
+     * Get the block of every tile of a grid with square blocks of the given size, numbered from
+     * left to right and top to bottom.
+     */
+    private static int[] getBlocks(int blockSize) {
+        int size = blockSize * blockSize;
+        int[] blocks = new int[size * size];
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                blocks[(y * size) + x] = ((y / blockSize) * blockSize) + (x / blockSize);
+            }
+        }
+
+        return blocks;
+    }
+
+    /**
+     * Get the layout of a grid with square blocks of the given size, e.g. 4 for a 16x16 grid.
+     * The layout with blocks of size 3 is {@link #STANDARD}, while the others are created anew.
+     *
+     * @param blockSize the width and height of each block
+     * @return the layout of a grid with blockSize x blockSize blocks of blockSize x blockSize tiles
+     * @throws IllegalArgumentException if the block size isn't 2-8
+     */
+    public static Layout ofBlockSize(int blockSize) throws IllegalArgumentException {
+        if ((blockSize < MIN_BLOCK_SIZE) || (blockSize > MAX_BLOCK_SIZE)) {
+            throw new IllegalArgumentException("The block size must be 2-8");
+        }
+        return (blockSize == STANDARD.blockSize) ? STANDARD : new Layout(blockSize);
+    }
+
+    /**
+     * Get the layout of a grid with the given number of rows, e.g. 16 for a 16x16 grid.
+     *
+     * @param size the width and height of the grid
+     * @return the layout of a size x size grid
+     * @throws IllegalArgumentException if the size isn't the square of a block size 2-8
+     */
+    public static Layout ofSize(int size) throws IllegalArgumentException {
+        int blockSize = (int) Math.round(Math.sqrt(size));
+        if (blockSize * blockSize != size) {
+            throw new IllegalArgumentException("The size must be the square of the block size");
+        }
+        return ofBlockSize(blockSize);
+    }
+
+    /**
+     * Get the layout of a jigsaw grid, where the blocks are replaced by irregular regions of the
+     * same number of tiles, e.g. nine regions of nine tiles on a 9x9 grid. The region map gives
+     * the region of every tile, such that {@code regionMap[y][x]} is the region of the tile in
+     * row y and column x, and the regions are numbered from 0.
+     * <br>
+     * Since some region maps can't be filled in without repeating a number in a row, column or
+     * region, the layout is only returned if a solution of the empty grid is found within
+     * {@link #NODES_PER_TILE} nodes per tile. Maps without a solution are rejected without
+     * having to search through every way of filling in the grid, and so are the rare maps that
+     * have a solution that is too hard to find to create puzzles with.
+     *
+     * @param regionMap the region of every tile, with as many rows as columns
+     * @return the layout of a grid with the rows, columns and regions of the map
+     * @throws IllegalArgumentException if the map is null, isn't square, has fewer than 2 or
+     *                                  more than 64 rows, or has a region that isn't connected,
+     *                                  doesn't have as many tiles as the map has rows, or can't
+     *                                  be filled in
+     */
+    public static Layout ofRegions(int[][] regionMap) throws IllegalArgumentException {
+        if (regionMap == null) {
+            throw new IllegalArgumentException("The region map cannot be null");
+        }
+
+        int size = regionMap.length;
+        if ((size < MIN_BLOCK_SIZE) || (size > MAX_REGION_SIZE)) {
+            throw new IllegalArgumentException("The region map must have 2-64 rows");
+        }
+
+        int[] regions = new int[size * size];
+        int[] tilesInRegion = new int[size];
+        for (int y = 0; y < size; y++) {
+            if ((regionMap[y] == null) || (regionMap[y].length != size)) {
+                throw new IllegalArgumentException("The region map must have " + size + " columns");
+            }
+
+            for (int x = 0; x < size; x++) {
+                int region = regionMap[y][x];
+                if ((region < 0) || (region >= size)) {
+                    throw new IllegalArgumentException(
+                            "The regions must be numbered 0-" + (size - 1)
+                    );
+                }
+                regions[(y * size) + x] = region;
+                tilesInRegion[region]++;
+            }
+        }
+
+        for (int region = 0; region < size; region++) {
+            if (tilesInRegion[region] != size) {
+                throw new IllegalArgumentException(
+                        "Every region must have " + size + " tiles, but region " + region
+                                + " has " + tilesInRegion[region]
+                );
+            }
+        }
+
+        validateConnected(size, regions);
+
+        Layout layout = new Layout(size, 0, regions);
+        BitmaskSolver solver = new BitmaskSolver(new Random(0L), null, layout);
+        if (!solver.hasSolution(NODES_PER_TILE * layout.tileCount)) {
+            throw new IllegalArgumentException("The regions can't be filled in");
+        }
+
+        return layout;
+    }
+
+    /**
+     * Throws an exception if a region is split in two or more parts, by walking from the first
+     * tile of every region to the tiles next to it that are in the same region.
+     *
+     * @throws IllegalArgumentException if a region isn't connected
+     */
+    private static void validateConnected(int size, int[] regions) {
+        boolean[] reached = new boolean[regions.length];
+        int[] stack = new int[regions.length];
+
+        for (int start = 0; start < regions.length; start++) {
+            int region = regions[start];
+            // the first tile of a region that hasn't been reached from another tile
+            if (reached[start]) continue;
+
+            int count = 0;
+            int top = 0;
+            stack[top++] = start;
+            reached[start] = true;
+
+            while (top > 0) {
+                int tile = stack[--top];
+                int x = tile % size;
+                count++;
+
+                for (int next : new int[] {tile - size, tile + size, tile - 1, tile + 1}) {
+                    boolean inGrid = (next >= 0) && (next < regions.length)
+                            && ((next / size == tile / size) || (next % size == x));
+                    if (inGrid && !reached[next] && (regions[next] == region)) {
+                        reached[next] = true;
+                        stack[top++] = next;
+                    }
+                }
+            }
+
+            if (count != size) {
+                throw new IllegalArgumentException("Region " + region + " isn't connected");
+            }
+        }
+    }
+
+    /**
+     * Get the width and height of a block.
+     *
+     * @return the size of a block, or 0 if the layout has irregular regions instead of blocks
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Get whether the blocks of the layout are replaced by irregular regions, i.e. whether it
+     * was created with {@link #ofRegions(int[][])}.
+     *
+     * @return whether the layout has irregular regions
+     */
+    public boolean hasIrregularRegions() {
+        return blockSize == 0;
+    }
+
+    /**
+     * Get the width and height of the grid, which is also the highest number a tile can hold.
+     *
+     * @return the size of the grid
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the total number of tiles in the grid.
+     *
+     * @return the number of tiles
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Get the tiles of every unit (row, column or block). The first {@link #getSize()} units are
+     * the rows, followed by the columns and the blocks (or regions). The returned arrays are
+     * shared and must not be modified.
+     */
+    int[][] getUnits() {
+        return units;
+    }
+
+    /**
+     * Get the indexes of the row, column and block (in that order) each tile belongs to. The
+     * returned arrays are shared and must not be modified.
+     */
+    int[][] getUnitsOfTiles() {
+        return unitsOfTile;
+    }
+
+    /**
+     * Get every other tile that shares a row, column or block with each tile. The returned
+     * arrays are shared and must not be modified.
+     */
+    int[][] getPeers() {
+        return peers;
+    }
+}
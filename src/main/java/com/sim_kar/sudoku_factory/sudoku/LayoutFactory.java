@@ -0,0 +1,152 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Used to create valid puzzle boards of any {@link Layout} with a given number of clues, such as
+ * 16x16 or 25x25 boards, or jigsaw boards where the blocks are replaced by irregular regions made
+ * with {@link Layout#ofRegions(int[][])}. The solver must solve boards of the same layout, e.g. a
+ * {@link BitmaskSolver} created for it.
+ * <br>
+ * The {@link Grade}s only rate 9x9 boards with 3x3 blocks, so boards can't be created by grade
+ * here. {@link SudokuFactory} creates 9x9 boards either way.
+ */
+public class LayoutFactory implements Factory {
+    private static final int STANDARD_TILES = 81;
+    private static final int EMPTY = 0;
+    private final Layout layout;
+    private final int minClues;
+    private final int maxClues;
+    private final Solver solver;
+    private final GenerationMetrics metrics;
+    private final Random random;
+
+    /**
+     * Create a new factory for boards of the given {@link Layout}, that records its work in the
+     * given metrics.
+     * <br>
+     * Each created puzzle draws a seed from the given {@link Random}, which decides the order
+     * clues are removed in. The seed is included in the {@code com.sim_kar.sudoku_factory.Create}
+     * Java Flight Recorder event of the puzzle. The solutions are generated with the solver's own
+     * Random, so the seed alone doesn't reproduce a creation.
+     *
+     * @param solver a solver used to generate new boards of the layout
+     * @param metrics the metrics to record the work done while creating puzzles in
+     * @param random a Random used to decide the order clues are removed in
+     * @param layout the layout of the boards to create
+     */
+    public LayoutFactory(Solver solver, GenerationMetrics metrics, Random random, Layout layout) {
+        this.solver = solver;
+        this.metrics = metrics;
+        this.random = random;
+        this.layout = layout;
+        this.maxClues = layout.getTileCount();
+        this.minClues = (layout.getTileCount() == STANDARD_TILES)
+                ? SudokuFactory.MIN_CLUES
+                : (layout.getTileCount() + 1) / 2;
+    }
+
+    /**
+     * Get the layout of the boards this factory creates.
+     *
+     * @return the layout of the created boards
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Create a valid puzzle board of the layout, where each row, column and block can only
+     * contain every number once. For a board to be considered valid there can only be a single
+     * solution.
+     * <br>
+     * A board can have a clue in every tile. The minimum amount of clues required by this method
+     * is 25 for 9x9 boards, which also goes for 9x9 jigsaw boards. Boards of other sizes need a
+     * clue in at least half of their tiles, e.g. 128 of the 256 tiles of a 16x16 board, since
+     * checking the uniqueness of larger boards gets exponentially slower with fewer clues. Even
+     * so, creating boards larger than 25x25 is slow.
+     *
+     * @param clues the number of correct tiles to show on the board
+     * @return a puzzle board with the amount of supplied clues
+     * @throws IllegalArgumentException if there are fewer clues than the minimum, or more than
+     *                                  the board has tiles
+     */
+    @Override
+    public Board create(int clues) throws IllegalArgumentException {
+        if (clues < minClues) {
+            throw new IllegalArgumentException("There must be at least " + minClues + " clues");
+        }
+
+        if (clues > maxClues) {
+            throw new IllegalArgumentException(
+                    "There cannot be more than " + maxClues + " clues"
+            );
+        }
+
+        CreateEvent event = new CreateEvent();
+        event.begin();
+        event.clues = clues;
+        event.seed = random.nextLong();
+        long nodes = solver.getNodeCount();
+
+        try {
+            Board board = removeClues(clues, new Random(event.seed), event);
+            event.outcome = "created";
+            return board;
+        } finally {
+            SudokuFactory.commit(event, solver, nodes);
+        }
+    }
+
+    /**
+     * Create a puzzle with the given number of clues by removing clues from generated solutions,
+     * in the order decided by the given Random.
+     */
+    private Board removeClues(int clues, Random order, CreateEvent event) {
+        long start = System.nanoTime();
+        List<Position> positions = SudokuFactory.getPositions(layout.getSize());
+        int[][] empty = new int[layout.getSize()][layout.getSize()];
+        int[][] solution;
+        int[][] puzzle;
+        int currentClues;
+
+        // it's possible to generate a random solution that doesn't have a unique puzzle
+        // with the given amount of clues. If that is the case we try again with a new solution
+        do {
+            currentClues = maxClues;
+            solution = solver.generate(empty);
+            puzzle = SudokuFactory.copy2DArray(solution);
+            metrics.recordSolutionGenerated();
+            event.solutions++;
+
+            // shuffle the order of positions, or tiles will be removed
+            // in the same position and order every time
+            Collections.shuffle(positions, order);
+
+            for (Position position : positions) {
+                if (currentClues == clues) break;
+
+                int x = position.getX();
+                int y = position.getY();
+                int current = puzzle[y][x];
+                puzzle[y][x] = EMPTY;
+                metrics.recordUniquenessCheck();
+                event.uniquenessChecks++;
+
+                if (solver.isUnique(puzzle)) {
+                    currentClues--;
+                    metrics.recordRemoval();
+                } else {
+                    puzzle[y][x] = current;
+                }
+            }
+
+            if (currentClues > clues) metrics.recordSolutionDiscarded();
+        } while (currentClues > clues);
+
+        metrics.recordPuzzleCreated(clues, System.nanoTime() - start);
+        return SudokuFactory.getBoard(layout, solution, puzzle);
+    }
+}
@@ -0,0 +1,331 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Creates Sudoku puzzle boards with very few clues by searching over the sets of clues of a
+ * single solution, instead of starting over with a new solution whenever the clues can't be
+ * reduced any further, like {@link SudokuFactory} does.
+ * <br>
+ * The search starts by removing clues one at a time, like {@link SudokuFactory}, until no more
+ * clues can be removed. It then keeps making small moves, where every state it moves to is a
+ * puzzle with a unique solution:
+ * <ul>
+ *     <li>remove a clue, if the solution remains unique</li>
+ *     <li>swap a clue for an empty tile, if the solution remains unique</li>
+ *     <li>add a clue, which never makes the solution ambiguous, but makes the puzzle worse</li>
+ * </ul>
+ * Moves that add a clue are accepted with a probability that decreases as the search goes on
+ * (simulated annealing), which lets the search escape puzzles where no single clue can be
+ * removed. The search stops when the target is reached or the budget runs out, and the puzzle
+ * with the fewest clues that was found is kept.
+ */
+public class LocalSearchFactory implements Factory {
+    // 17 is the lowest number of clues a Sudoku puzzle with a unique solution can have
+    private static final int MIN_CLUES = 17;
+    private static final int MAX_CLUES = 81;
+    private static final int BOARD_SIZE = 9;
+    private static final int EMPTY = 0;
+    private static final double START_TEMPERATURE = 0.5;
+    private static final double END_TEMPERATURE = 0.05;
+    private static final double REMOVE_PROBABILITY = 0.4;
+    private static final double ADD_PROBABILITY = 0.2;
+    private final Solver solver;
+    private final Random random;
+    private final long moveBudget;
+    private final Duration timeBudget;
+
+    /**
+     * Create a new local search factory that stops searching after the given number of moves.
+     *
+     * @param solver a solver used to generate the solution and to check uniqueness
+     * @param random a Random used to choose moves
+     * @param moveBudget the highest number of moves to try for each puzzle
+     * @throws IllegalArgumentException if the move budget is less than 1
+     */
+    public LocalSearchFactory(Solver solver, Random random, long moveBudget)
+            throws IllegalArgumentException {
+        this(solver, random, moveBudget, Duration.ofSeconds(Long.MAX_VALUE));
+    }
+
+    /**
+     * Create a new local search factory that stops searching after the given number of moves, or
+     * when the given amount of time has passed, whichever comes first.
+     *
+     * @param solver a solver used to generate the solution and to check uniqueness
+     * @param random a Random used to choose moves
+     * @param moveBudget the highest number of moves to try for each puzzle
+     * @param timeBudget the longest time to search for each puzzle
+     * @throws IllegalArgumentException if the move budget is less than 1, or the time budget
+     *                                  isn't positive
+     */
+    public LocalSearchFactory(Solver solver, Random random, long moveBudget, Duration timeBudget)
+            throws IllegalArgumentException {
+        if (moveBudget < 1) {
+            throw new IllegalArgumentException("The move budget must be at least 1");
+        }
+
+        if (timeBudget.isNegative() || timeBudget.isZero()) {
+            throw new IllegalArgumentException("The time budget must be positive");
+        }
+
+        this.solver = solver;
+        this.random = random;
+        this.moveBudget = moveBudget;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Create a valid Sudoku puzzle board with exactly the given number of clues. The minimum
+     * number of clues is 17, which is the lowest possible for a puzzle with a unique solution.
+     *
+     * @param clues the number of correct tiles to show on the board
+     * @return a Sudoku puzzle board with the amount of supplied clues
+     * @throws IllegalArgumentException if the number of clues is less than 17 or more than 81
+     * @throws IllegalStateException if no puzzle with that few clues was found within the budget
+     */
+    @Override
+    public Board create(int clues) throws IllegalArgumentException, IllegalStateException {
+        SearchResult result = search(clues);
+
+        if (result.getClues() > clues) {
+            throw new IllegalStateException("Could not reach " + clues + " clues within the "
+                    + "budget, the best puzzle found has " + result.getClues() + " clues");
+        }
+
+        return SudokuFactory.getBoard(result.getSolution(), result.getPuzzle());
+    }
+
+    /**
+     * Search for a puzzle with the given number of clues. The search stops as soon as the
+     * target is reached, or when the budget runs out, and returns the puzzle with the fewest
+     * clues that was found.
+     *
+     * @param targetClues the number of clues to search for
+     * @return the best puzzle found, which has at least the target number of clues
+     * @throws IllegalArgumentException if the target is less than 17 or more than 81
+     */
+    public SearchResult search(int targetClues) throws IllegalArgumentException {
+        if (targetClues < MIN_CLUES) {
+            throw new IllegalArgumentException("There must be at least 17 clues");
+        }
+
+        if (targetClues > MAX_CLUES) {
+            throw new IllegalArgumentException("There cannot be more than 81 clues");
+        }
+
+        long start = System.nanoTime();
+        long timeBudgetNanos = toNanos(timeBudget);
+        int[][] solution = solver.generate(new int[BOARD_SIZE][BOARD_SIZE]);
+        Clues clues = new Clues(solution);
+
+        removeClues(clues, targetClues);
+        int[][] best = clues.toPuzzle();
+        int bestCount = clues.getCount();
+        long moves = 0;
+
+        while ((bestCount > targetClues) && (moves < moveBudget)) {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= timeBudgetNanos) break;
+
+            // cool down according to whichever budget is closest to running out
+            double progress = Math.max(
+                    (double) moves / moveBudget,
+                    (double) elapsed / timeBudgetNanos
+            );
+            double temperature = START_TEMPERATURE
+                    * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+            moves++;
+
+            double move = random.nextDouble();
+            if (move < REMOVE_PROBABILITY) {
+                tryRemove(clues);
+            } else if (move < (REMOVE_PROBABILITY + ADD_PROBABILITY)) {
+                tryAdd(clues, temperature);
+            } else {
+                trySwap(clues);
+            }
+
+            if (clues.getCount() < bestCount) {
+                best = clues.toPuzzle();
+                bestCount = clues.getCount();
+            }
+        }
+
+        return new SearchResult(solution, best, bestCount, moves);
+    }
+
+    /**
+     * Remove clues in random order until the target is reached, or until no clue can be removed
+     * without making the solution ambiguous.
+     */
+    private void removeClues(Clues clues, int targetClues) {
+        int[] tiles = clues.getGivens();
+        shuffle(tiles);
+
+        for (int tile : tiles) {
+            if (clues.getCount() == targetClues) return;
+
+            clues.remove(tile);
+            if (!solver.isUnique(clues.getPuzzle())) clues.add(tile);
+        }
+    }
+
+    /**
+     * Remove a random clue, unless it makes the solution ambiguous.
+     */
+    private void tryRemove(Clues clues) {
+        int given = clues.getRandomGiven(random);
+
+        clues.remove(given);
+        if (!solver.isUnique(clues.getPuzzle())) clues.add(given);
+    }
+
+    /**
+     * Add a random clue, with a probability that gets lower as the temperature drops.
+     */
+    private void tryAdd(Clues clues, double temperature) {
+        if (clues.getCount() == MAX_CLUES) return;
+
+        if (random.nextDouble() < Math.exp(-1 / temperature)) {
+            clues.add(clues.getRandomEmpty(random));
+        }
+    }
+
+    /**
+     * Swap a random clue for a random empty tile, unless it makes the solution ambiguous.
+     */
+    private void trySwap(Clues clues) {
+        if (clues.getCount() == MAX_CLUES) return;
+
+        int given = clues.getRandomGiven(random);
+        int empty = clues.getRandomEmpty(random);
+
+        clues.remove(given);
+        clues.add(empty);
+        if (!solver.isUnique(clues.getPuzzle())) {
+            clues.remove(empty);
+            clues.add(given);
+        }
+    }
+
+    /**
+     * Shuffle an array of ints in place.
+     */
+    private void shuffle(int[] array) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int other = random.nextInt(i + 1);
+            int swap = array[i];
+            array[i] = array[other];
+            array[other] = swap;
+        }
+    }
+
+    /**
+     * Convert a duration to nanoseconds, capping durations too long to fit in a long.
+     */
+    private static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * The set of clues of a puzzle made from a fixed solution. Keeps track of which tiles are
+     * clues and which are empty, so that a random one of either can be picked in constant time.
+     */
+    private static class Clues {
+        private final int[][] solution;
+        private final int[][] puzzle;
+        private final int[] givens = new int[MAX_CLUES];
+        private final int[] empties = new int[MAX_CLUES];
+        // the index of each tile in either givens or empties, depending on the tile's state
+        private final int[] indexes = new int[MAX_CLUES];
+        private int givenCount;
+        private int emptyCount;
+
+        /**
+         * Create a new set of clues where every tile of the solution is a clue.
+         */
+        Clues(int[][] solution) {
+            this.solution = solution;
+            this.puzzle = Arrays.stream(solution)
+                    .map(int[]::clone)
+                    .toArray(int[][]::new);
+
+            for (int tile = 0; tile < MAX_CLUES; tile++) {
+                givens[tile] = tile;
+                indexes[tile] = tile;
+            }
+            givenCount = MAX_CLUES;
+        }
+
+        int getCount() {
+            return givenCount;
+        }
+
+        int[] getGivens() {
+            return Arrays.copyOf(givens, givenCount);
+        }
+
+        int getRandomGiven(Random random) {
+            return givens[random.nextInt(givenCount)];
+        }
+
+        int getRandomEmpty(Random random) {
+            return empties[random.nextInt(emptyCount)];
+        }
+
+        /**
+         * Get the current puzzle. The returned board is updated as clues are added and removed.
+         */
+        int[][] getPuzzle() {
+            return puzzle;
+        }
+
+        /**
+         * Get a copy of the current puzzle.
+         */
+        int[][] toPuzzle() {
+            return Arrays.stream(puzzle)
+                    .map(int[]::clone)
+                    .toArray(int[][]::new);
+        }
+
+        /**
+         * Turn a clue into an empty tile.
+         */
+        void remove(int tile) {
+            puzzle[tile / BOARD_SIZE][tile % BOARD_SIZE] = EMPTY;
+
+            // move the last given into the removed tile's place
+            int last = givens[--givenCount];
+            givens[indexes[tile]] = last;
+            indexes[last] = indexes[tile];
+
+            empties[emptyCount] = tile;
+            indexes[tile] = emptyCount++;
+        }
+
+        /**
+         * Turn an empty tile into a clue.
+         */
+        void add(int tile) {
+            int y = tile / BOARD_SIZE;
+            int x = tile % BOARD_SIZE;
+            puzzle[y][x] = solution[y][x];
+
+            // move the last empty tile into the added tile's place
+            int last = empties[--emptyCount];
+            empties[indexes[tile]] = last;
+            indexes[last] = indexes[tile];
+
+            givens[givenCount] = tile;
+            indexes[tile] = givenCount++;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A set of 64-bit keys, such as hashes of puzzles, that is kept off the heap and can be added to
+ * by any number of threads at once without locks.
+ * <br>
+ * The keys are kept in open-addressing tables with linear probing, in direct buffers of at most
+ * 1 GB each. Every slot takes 8 bytes, and the number of slots is fixed when the set is created:
+ * it is the smallest power of two that keeps the set at most 3/4 full, so the memory taken is known
+ * up front and is between 10.7 and 21.3 bytes per expected key. Nothing is ever removed, so a key
+ * is added by claiming an empty slot with a single compare-and-set, and a thread that loses the
+ * race for a slot simply checks the key that won it and probes on.
+ * <br>
+ * An empty slot is 0, so the key 0 is stored as another fixed key, and the two are treated as the
+ * same key. This doesn't matter for hashes, where any two keys may collide anyway.
+ */
+public class LongHashSet {
+    private static final VarHandle SLOTS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int MAX_SEGMENT_BITS = 27;
+    // the segments are kept in an array, so there can be at most 2^30 of them
+    private static final int MAX_SEGMENT_COUNT_BITS = 30;
+    private static final int MIN_SLOT_BITS = 4;
+    private static final int MAX_SLOT_BITS = MAX_SEGMENT_BITS + MAX_SEGMENT_COUNT_BITS;
+    private static final double MAX_LOAD = 0.75;
+    /**
+     * The largest expected size of a set, which is 3/4 of the 2^57 slots that the segments can
+     * address.
+     */
+    public static final long MAX_EXPECTED_SIZE = (long) ((1L << MAX_SLOT_BITS) * MAX_LOAD);
+    private static final long EMPTY = 0;
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final int slotMask;
+    private final long capacity;
+    private final long maxSize;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Create a new empty set that can hold the given number of keys.
+     *
+     * @param expectedSize the number of keys the set must be able to hold
+     * @throws IllegalArgumentException if the expected size is less than 1, or more than
+     *                                  {@link #MAX_EXPECTED_SIZE}
+     */
+    public LongHashSet(long expectedSize) throws IllegalArgumentException {
+        if ((expectedSize < 1) || (expectedSize > MAX_EXPECTED_SIZE)) {
+            throw new IllegalArgumentException(
+                    "The expected size must be between 1 and " + MAX_EXPECTED_SIZE
+            );
+        }
+
+        int slotBits = getSlotBits(expectedSize);
+        int segmentBits = Math.max(0, slotBits - MAX_SEGMENT_BITS);
+        int segmentSlotBits = slotBits - segmentBits;
+
+        this.capacity = 1L << slotBits;
+        this.maxSize = (long) (capacity * MAX_LOAD);
+        this.slotMask = (1 << segmentSlotBits) - 1;
+        // the segment is picked by the high bits of the hash, and the slot by the low bits
+        this.segmentShift = Long.SIZE - segmentBits;
+        this.segments = new ByteBuffer[1 << segmentBits];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((slotMask + 1) * Long.BYTES)
+                    .order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Add a key to the set, unless it is already in it.
+     *
+     * @param key the key to add
+     * @return true if the key was added, or false if it was already in the set
+     * @throws IllegalStateException if the key is new but the set is full
+     */
+    public boolean add(long key) throws IllegalStateException {
+        long stored = (key == EMPTY) ? ZERO_KEY : key;
+        long hash = mix(stored);
+        ByteBuffer segment = segments[segmentIndex(hash)];
+
+        for (int probe = 0, slot = (int) hash & slotMask; probe <= slotMask; probe++) {
+            int offset = slot * Long.BYTES;
+            long current = (long) SLOTS.getVolatile(segment, offset);
+
+            if (current == EMPTY) {
+                if (size.get() >= maxSize) throw new IllegalStateException("The set is full");
+                if (SLOTS.compareAndSet(segment, offset, EMPTY, stored)) {
+                    size.incrementAndGet();
+                    return true;
+                }
+                // another thread claimed the slot first, and may have added the same key
+                current = (long) SLOTS.getVolatile(segment, offset);
+            }
+            if (current == stored) return false;
+
+            slot = (slot + 1) & slotMask;
+        }
+
+        throw new IllegalStateException("The set is full");
+    }
+
+    /**
+     * Check if a key is in the set.
+     *
+     * @param key the key to look for
+     * @return true if the key is in the set
+     */
+    public boolean contains(long key) {
+        long stored = (key == EMPTY) ? ZERO_KEY : key;
+        long hash = mix(stored);
+        ByteBuffer segment = segments[segmentIndex(hash)];
+
+        for (int probe = 0, slot = (int) hash & slotMask; probe <= slotMask; probe++) {
+            long current = (long) SLOTS.getVolatile(segment, slot * Long.BYTES);
+            if (current == stored) return true;
+            if (current == EMPTY) return false;
+
+            slot = (slot + 1) & slotMask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the number of keys in the set.
+     *
+     * @return the number of keys
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Get the number of slots in the set, which is fixed when it is created. The set can hold
+     * 3/4 as many keys.
+     *
+     * @return the number of slots
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of bytes taken by the slots of the set, outside the heap.
+     *
+     * @return the number of bytes taken by the slots
+     */
+    public long getMemoryUsage() {
+        return capacity * Long.BYTES;
+    }
+
+    /**
+     * Get the number of bits of the number of slots needed to keep the given number of keys at
+     * most 3/4 full, which is at most 57 for sizes up to {@link #MAX_EXPECTED_SIZE}.
+     */
+    static int getSlotBits(long expectedSize) {
+        // the same as rounding up expectedSize / MAX_LOAD, without rounding errors of doubles
+        long minSlots = expectedSize + (expectedSize + 2) / 3;
+        return Math.max(MIN_SLOT_BITS, Long.SIZE - Long.numberOfLeadingZeros(minSlots - 1));
+    }
+
+    private int segmentIndex(long hash) {
+        return (segments.length == 1) ? 0 : (int) (hash >>> segmentShift);
+    }
+
+    /**
+     * Spread the bits of a key, so that keys that only differ in a few bits don't end up in
+     * neighbouring slots.
+     */
+    private static long mix(long key) {
+        long mixed = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return mixed ^ (mixed >>> 33);
+    }
+}
@@ -0,0 +1,15 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * Thrown when a board has no solution, as opposed to a board that can't be solved at all because
+ * it is null, the wrong size, or contains numbers out of range, which throws a plain
+ * {@link IllegalArgumentException}.
+ */
+public class NoSolutionException extends IllegalArgumentException {
+    /**
+     * Create a new exception for a board without a solution.
+     */
+    public NoSolutionException() {
+        super("There is no solution for the given board");
+    }
+}
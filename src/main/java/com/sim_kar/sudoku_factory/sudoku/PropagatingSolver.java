@@ -0,0 +1,346 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Solves Sudoku puzzles like {@link BitmaskSolver}, but propagates singles over the whole board
+ * before every choice: the possible numbers of all tiles are computed at once by a
+ * {@link CandidateEngine}, and every tile with a single possible number is filled in, until there
+ * are none left. Then a number that only fits in a single tile of a row, column or block is
+ * filled in, and the singles are propagated again. Only when there are neither is the empty tile
+ * with the fewest possible numbers tried number by number, so the search branches far less often,
+ * but does more work at every node.
+ * <br>
+ * With the {@link VectorCandidateEngine}, that work is done with SIMD instructions, and with the
+ * {@link ScalarCandidateEngine} one tile at a time. Both give the same results, and so visit the
+ * same nodes.
+ * <br>
+ * The solver reuses its search state between calls, so an instance must not be shared between
+ * threads.
+ */
+public class PropagatingSolver implements Solver {
+    private final static int BOARD_SIZE = 9;
+    private final static int MAX_VALUE = 9;
+    private final static int EMPTY = 0;
+    // what finding a hidden single gives when there is none, or when a number fits nowhere
+    private final static int NO_HIDDEN_SINGLE = -1;
+    private final static int DEAD_END = -2;
+    private final static int ALL_CANDIDATES = (1 << MAX_VALUE) - 1;
+    private final Layout layout = Layout.STANDARD;
+    private final Random random;
+    private final CandidateEngine engine;
+    private final int[] values = new int[layout.getTileCount()];
+    private final int[] usedInUnit = new int[layout.getUnits().length];
+    private final int[] candidates = new int[layout.getTileCount()];
+    private final long[] singles = new long[2];
+    private final int[] solution = new int[layout.getTileCount()];
+    // the tiles filled in by propagation, so that they can be cleared when backtracking
+    private final int[] trail = new int[layout.getTileCount()];
+    private int trailSize;
+    private int solutionCount;
+    private long nodeCount;
+
+    /**
+     * Create a new propagating solver with the given {@link Random}, which computes the possible
+     * numbers of the tiles with a {@link ScalarCandidateEngine}.
+     *
+     * @param random a Random used to generate solutions
+     */
+    public PropagatingSolver(Random random) {
+        this(random, new ScalarCandidateEngine());
+    }
+
+    /**
+     * Create a new propagating solver with the given {@link Random} and {@link CandidateEngine}.
+     *
+     * @param random a Random used to generate solutions
+     * @param engine the engine to compute the possible numbers of the tiles with
+     */
+    public PropagatingSolver(Random random, CandidateEngine engine) {
+        this.random = random;
+        this.engine = engine;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Empty tiles are represented by 0. If there are several solutions, the numbers are tried in
+     * random order, so the generated solution is random.
+     *
+     * @param board the 9x9 Sudoku board to solve
+     * @return the solved Sudoku board
+     * @throws IllegalArgumentException if board doesn't have a solution, or if it is null,
+     *                                  contains numbers outside the range 0-9, or isn't a 9x9 grid
+     */
+    @Override
+    public int[][] generate(int[][] board) throws IllegalArgumentException {
+        if (countSolutions(board, 1, true) == 0) {
+            throw new NoSolutionException();
+        }
+
+        int[][] solved = new int[BOARD_SIZE][BOARD_SIZE];
+        for (int y = 0; y < BOARD_SIZE; y++) {
+            System.arraycopy(solution, y * BOARD_SIZE, solved[y], 0, BOARD_SIZE);
+        }
+        return solved;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param board the Sudoku board to check if it only has one solution
+     * @return whether the Sudoku board only has one solution
+     * @throws IllegalArgumentException if the board has no solution, is null, the wrong size, or
+     *                                  contains a number outside the range 0-9
+     */
+    @Override
+    public boolean isUnique(int[][] board) throws IllegalArgumentException {
+        int solutions = countSolutions(board, 2, false);
+
+        if (solutions == 0) {
+            throw new NoSolutionException();
+        }
+
+        return solutions == 1;
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Get the engine the possible numbers of the tiles are computed with.
+     *
+     * @return the candidate engine
+     */
+    public CandidateEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Count the solutions of a board, but stop counting when the limit is reached.
+     *
+     * @param board the Sudoku board to count the solutions of
+     * @param limit the highest number of solutions to count
+     * @param shuffle whether to try the possible numbers of a tile in random order
+     * @return the number of solutions, at most the limit
+     * @throws IllegalArgumentException if the board is null, the wrong size, or contains a number
+     *                                  outside the range 0-9
+     */
+    private int countSolutions(int[][] board, int limit, boolean shuffle)
+            throws IllegalArgumentException {
+        validateBoard(board);
+        solutionCount = 0;
+        trailSize = 0;
+        if (!load(board)) return 0;
+
+        search(limit, shuffle);
+        return solutionCount;
+    }
+
+    /**
+     * Fills in every single and hidden single until there are none left, and then searches for
+     * solutions by trying every possible number of the empty tile with the fewest. Every found
+     * solution is counted, and the first one is stored. The singles are cleared again before
+     * returning.
+     *
+     * @param limit stop searching when this many solutions have been found
+     * @param shuffle whether to try the possible numbers of a tile in random order
+     * @return whether the limit was reached
+     */
+    private boolean search(int limit, boolean shuffle) {
+        int trailStart = trailSize;
+        boolean done = false;
+        int tile = engine.compute(values, usedInUnit, candidates, singles);
+        // an empty tile without possible numbers means there is no solution
+        boolean contradiction = (tile >= 0) && (candidates[tile] == 0);
+
+        while (!contradiction && (tile >= 0)) {
+            if ((singles[0] | singles[1]) == 0) {
+                int hiddenSingle = findHiddenSingle();
+                contradiction = hiddenSingle == DEAD_END;
+                if (hiddenSingle < 0) break;
+
+                int hiddenTile = hiddenSingle / Integer.SIZE;
+                candidates[hiddenTile] = 1 << (hiddenSingle % Integer.SIZE);
+                singles[hiddenTile >> 6] = 1L << (hiddenTile & 63);
+            }
+
+            contradiction = !fillSingles();
+            if (contradiction) break;
+
+            tile = engine.compute(values, usedInUnit, candidates, singles);
+            contradiction = (tile >= 0) && (candidates[tile] == 0);
+        }
+
+        if (!contradiction && (tile == -1)) {
+            solutionCount++;
+            if (solutionCount == 1) System.arraycopy(values, 0, solution, 0, values.length);
+            done = solutionCount >= limit;
+        } else if (!contradiction) {
+            int tileCandidates = candidates[tile];
+
+            while (!done && (tileCandidates != 0)) {
+                int candidate = shuffle
+                        ? getRandomBit(tileCandidates)
+                        : Integer.lowestOneBit(tileCandidates);
+                tileCandidates &= ~candidate;
+
+                place(tile, candidate);
+                nodeCount++;
+                done = search(limit, shuffle);
+                remove(tile, candidate);
+            }
+        }
+
+        while (trailSize > trailStart) {
+            int filled = trail[--trailSize];
+            remove(filled, 1 << (values[filled] - 1));
+        }
+        return done;
+    }
+
+    /**
+     * Fill in every single found by the engine. Two singles that see each other can have the
+     * same number, in which case the board has no solution.
+     *
+     * @return false if a single has lost its number to another single
+     */
+    private boolean fillSingles() {
+        for (int word = 0; word < singles.length; word++) {
+            long bits = singles[word];
+            while (bits != 0) {
+                int tile = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                int bit = candidates[tile];
+                int[] units = layout.getUnitsOfTiles()[tile];
+                int used = usedInUnit[units[0]] | usedInUnit[units[1]] | usedInUnit[units[2]];
+                if ((used & bit) != 0) return false;
+
+                place(tile, bit);
+                trail[trailSize++] = tile;
+                nodeCount++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find a number that only fits in a single tile of a row, column or block, which must then go
+     * in that tile, just like the single possible number of a tile. Must be called right after
+     * the engine has computed the possible numbers of every tile.
+     *
+     * @return the tile times 32 plus the bit of the number, {@link #NO_HIDDEN_SINGLE} if there is
+     *         none, or {@link #DEAD_END} if a number fits in no tile of a unit it isn't used in
+     */
+    private int findHiddenSingle() {
+        int[][] units = layout.getUnits();
+
+        for (int unit = 0; unit < units.length; unit++) {
+            int once = 0;
+            int twice = 0;
+            for (int tile : units[unit]) {
+                twice |= once & candidates[tile];
+                once |= candidates[tile];
+            }
+
+            if ((once | usedInUnit[unit]) != ALL_CANDIDATES) return DEAD_END;
+
+            int hidden = once & ~twice;
+            if (hidden == 0) continue;
+
+            int bit = Integer.lowestOneBit(hidden);
+            for (int tile : units[unit]) {
+                if ((candidates[tile] & bit) != 0) {
+                    return (tile * Integer.SIZE) + Integer.numberOfTrailingZeros(bit);
+                }
+            }
+        }
+        return NO_HIDDEN_SINGLE;
+    }
+
+    /**
+     * Fill in a tile with the number represented by the given bit.
+     */
+    private void place(int tile, int bit) {
+        values[tile] = Integer.numberOfTrailingZeros(bit) + 1;
+        for (int unit : layout.getUnitsOfTiles()[tile]) {
+            usedInUnit[unit] |= bit;
+        }
+    }
+
+    /**
+     * Clear a tile that was filled in with the number represented by the given bit.
+     */
+    private void remove(int tile, int bit) {
+        values[tile] = EMPTY;
+        for (int unit : layout.getUnitsOfTiles()[tile]) {
+            usedInUnit[unit] &= ~bit;
+        }
+    }
+
+    /**
+     * Get one of the set bits in a mask, chosen at random.
+     */
+    private int getRandomBit(int mask) {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.lowestOneBit(mask);
+    }
+
+    /**
+     * Reset the search state to the given board.
+     *
+     * @return false if the board has the same number more than once in a row, column or block
+     * @throws IllegalArgumentException if the board contains a number outside the range 0-9
+     */
+    private boolean load(int[][] board) throws IllegalArgumentException {
+        Arrays.fill(usedInUnit, 0);
+        Arrays.fill(values, EMPTY);
+        boolean valid = true;
+
+        for (int tile = 0; tile < values.length; tile++) {
+            int value = board[tile / BOARD_SIZE][tile % BOARD_SIZE];
+            if ((value < EMPTY) || (value > MAX_VALUE)) {
+                throw new IllegalArgumentException("Boards can only contain numbers 0-9");
+            }
+            if (value == EMPTY) continue;
+
+            int bit = 1 << (value - 1);
+            int[] units = layout.getUnitsOfTiles()[tile];
+            int used = usedInUnit[units[0]] | usedInUnit[units[1]] | usedInUnit[units[2]];
+            if ((used & bit) != 0) valid = false;
+
+            place(tile, bit);
+        }
+        return valid;
+    }
+
+    /**
+     * Throws an exception if the board is the wrong size, or if it is null.
+     *
+     * @param board the Sudoku board to validate
+     * @throws IllegalArgumentException if the board is null, or has the wrong number of rows or
+     *                                  columns
+     */
+    private void validateBoard(int[][] board) throws IllegalArgumentException {
+        if (board == null) {
+            throw new IllegalArgumentException("Cannot generate solution for a null board");
+        }
+
+        if (board.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 9 rows");
+        }
+
+        for (int[] row : board) {
+            if (row.length != BOARD_SIZE) {
+                throw new IllegalArgumentException("Board must have 9 columns");
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * Hashes 9x9 puzzles to 64 bits. The tiles are packed 4 bits each into 6 words, which are mixed
+ * into the hash one at a time with a bijective finalizer, so puzzles that differ in a single tile
+ * get unrelated hashes.
+ * <br>
+ * Two different puzzles get the same hash with a probability of about 2^-64, so a set of n
+ * hashes has a collision with a probability of about n^2 / 2^65, e.g. 1 in 3700 for 100 million
+ * puzzles. The canonical hash is the hash of the {@link Canonicalizer canonical form}, so every
+ * puzzle that is a {@link Transformation} of another puzzle gets the same canonical hash.
+ */
+public final class PuzzleHash {
+    private static final int BOARD_SIZE = 9;
+    private static final int TILE_BITS = 4;
+    private static final int TILES_PER_WORD = Long.SIZE / TILE_BITS;
+    private static final long SEED = 0x243F6A8885A308D3L;
+
+    private PuzzleHash() {}
+
+    /**
+     * Hash a puzzle as it is.
+     *
+     * @param puzzle the 9x9 puzzle to hash, where empty tiles are 0
+     * @return the hash of the puzzle
+     * @throws IllegalArgumentException if the puzzle isn't a 9x9 board with numbers 0-9
+     */
+    public static long hash(int[][] puzzle) throws IllegalArgumentException {
+        return hash(puzzle, SEED);
+    }
+
+    /**
+     * Hash a puzzle as it is, starting from the given seed. Hashes with different seeds are
+     * unrelated, so two of them together make a 128-bit hash.
+     *
+     * @param puzzle the 9x9 puzzle to hash, where empty tiles are 0
+     * @param seed the seed to start from
+     * @return the hash of the puzzle
+     * @throws IllegalArgumentException if the puzzle isn't a 9x9 board with numbers 0-9
+     */
+    static long hash(int[][] puzzle, long seed) throws IllegalArgumentException {
+        validateBoard(puzzle);
+
+        long hash = seed;
+        long word = 0;
+        int tiles = 0;
+
+        for (int[] row : puzzle) {
+            for (int value : row) {
+                word = (word << TILE_BITS) | value;
+                if (++tiles == TILES_PER_WORD) {
+                    hash = mix(hash ^ word);
+                    word = 0;
+                    tiles = 0;
+                }
+            }
+        }
+
+        return mix(hash ^ word);
+    }
+
+    /**
+     * Hash the canonical form of a puzzle, so that all its transformations get the same hash.
+     *
+     * @param puzzle the 9x9 puzzle to hash, where empty tiles are 0
+     * @return the hash of the canonical form of the puzzle
+     * @throws IllegalArgumentException if the puzzle isn't a 9x9 board with numbers 0-9, or has a
+     *                                  number twice in a row, column or block
+     */
+    public static long canonicalHash(int[][] puzzle) throws IllegalArgumentException {
+        return hash(Canonicalizer.canonicalize(puzzle));
+    }
+
+    /**
+     * The finalizer of SplitMix64, which is a bijection on 64-bit words.
+     */
+    private static long mix(long word) {
+        long mixed = (word ^ (word >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    /**
+     * Check that a board is a 9x9 grid with numbers 0-9.
+     *
+     * @throws IllegalArgumentException if it isn't
+     */
+    private static void validateBoard(int[][] board) throws IllegalArgumentException {
+        if (board.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 9 rows");
+        }
+
+        for (int[] row : board) {
+            if (row.length != BOARD_SIZE) {
+                throw new IllegalArgumentException("Board must have 9 columns");
+            }
+            for (int value : row) {
+                if ((value < 0) || (value > BOARD_SIZE)) {
+                    throw new IllegalArgumentException("Tiles must be between 0 and 9");
+                }
+            }
+        }
+    }
+}
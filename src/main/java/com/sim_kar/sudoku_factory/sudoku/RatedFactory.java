@@ -0,0 +1,27 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * Used to create new number puzzle boards of a given difficulty, as rated by a {@link Grader},
+ * rather than with a given number of clues.
+ */
+public interface RatedFactory extends Factory {
+
+    /**
+     * Create a new number puzzle board with a rating within the given grade.
+     *
+     * @param grade the band of ratings the created puzzle must be within
+     * @return a number puzzle board with a rating within the grade
+     */
+    Board create(Grade grade);
+
+    /**
+     * Get the share of generated candidate puzzles that were accepted for a grade, i.e. the
+     * number of puzzles created for the grade divided by the number of solutions that had to be
+     * generated to create them. A low rate means that puzzles of the grade are expensive to
+     * create.
+     *
+     * @param grade the grade to get the acceptance rate of
+     * @return the acceptance rate between 0 and 1, or 0 if no puzzles have been attempted
+     */
+    double getAcceptanceRate(Grade grade);
+}
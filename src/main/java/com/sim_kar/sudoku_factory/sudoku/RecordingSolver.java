@@ -0,0 +1,109 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * A {@link Solver} that records every call to another solver as a Java Flight Recorder event,
+ * with the number of clues on the board, the number of nodes the solver visited, and the outcome.
+ * A call that throws records "no solution" if the board has no solution, "invalid" if the board
+ * isn't a valid board at all, e.g. null or the wrong size, and "failed" otherwise. The events
+ * are named {@code com.sim_kar.sudoku_factory.Generate} and
+ * {@code com.sim_kar.sudoku_factory.IsUnique}.
+ * <br>
+ * When no recording is running the events are disabled, and recording a call costs next to
+ * nothing compared to solving a board. Like the solver it records, an instance must not be
+ * shared between threads unless the recorded solver can be.
+ */
+public class RecordingSolver implements Solver {
+    private final static int EMPTY = 0;
+    private final Solver solver;
+
+    /**
+     * Create a new solver that records calls to the given solver.
+     *
+     * @param solver the solver to record calls to
+     */
+    public RecordingSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public int[][] generate(int[][] board) throws IllegalArgumentException {
+        GenerateEvent event = new GenerateEvent();
+        long nodes = solver.getNodeCount();
+        event.outcome = "failed";
+        event.begin();
+
+        try {
+            int[][] solution = solver.generate(board);
+            event.outcome = "solved";
+            return solution;
+        } catch (IllegalArgumentException e) {
+            event.outcome = getOutcome(e);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.clues = countClues(board);
+                event.nodes = solver.getNodeCount() - nodes;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public boolean isUnique(int[][] board) throws IllegalArgumentException {
+        UniquenessEvent event = new UniquenessEvent();
+        long nodes = solver.getNodeCount();
+        event.outcome = "failed";
+        event.begin();
+
+        try {
+            boolean unique = solver.isUnique(board);
+            event.outcome = unique ? "unique" : "ambiguous";
+            return unique;
+        } catch (IllegalArgumentException e) {
+            event.outcome = getOutcome(e);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.clues = countClues(board);
+                event.nodes = solver.getNodeCount() - nodes;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public long getNodeCount() {
+        return solver.getNodeCount();
+    }
+
+    @Override
+    public boolean isStandard() {
+        return solver.isStandard();
+    }
+
+    /**
+     * Get the outcome of a call that threw an exception because of the board it was given.
+     */
+    private static String getOutcome(IllegalArgumentException e) {
+        return (e instanceof NoSolutionException) ? "no solution" : "invalid";
+    }
+
+    /**
+     * Count the filled in tiles on a board, or return -1 if the board is null or has a null row.
+     */
+    static int countClues(int[][] board) {
+        if (board == null) return -1;
+
+        int clues = 0;
+        for (int[] row : board) {
+            if (row == null) return -1;
+
+            for (int value : row) {
+                if (value != EMPTY) clues++;
+            }
+        }
+        return clues;
+    }
+}
@@ -0,0 +1,38 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * A {@link CandidateEngine} that computes the possible numbers one tile at a time. It runs on
+ * every JVM, and is what {@link CandidateEngine#vectorized()} falls back to.
+ */
+public class ScalarCandidateEngine implements CandidateEngine {
+    private final static int ALL_CANDIDATES = (1 << 9) - 1;
+    private final static int[][] UNITS_OF_TILES = Layout.STANDARD.getUnitsOfTiles();
+
+    @Override
+    public int compute(int[] values, int[] usedInUnit, int[] candidates, long[] singles) {
+        int fewestTile = -1;
+        int fewest = Integer.MAX_VALUE;
+        singles[0] = 0;
+        singles[1] = 0;
+
+        for (int tile = 0; tile < UNITS_OF_TILES.length; tile++) {
+            if (values[tile] != 0) {
+                candidates[tile] = 0;
+                continue;
+            }
+
+            int[] units = UNITS_OF_TILES[tile];
+            int used = usedInUnit[units[0]] | usedInUnit[units[1]] | usedInUnit[units[2]];
+            int tileCandidates = ALL_CANDIDATES & ~used;
+            candidates[tile] = tileCandidates;
+
+            int count = Integer.bitCount(tileCandidates);
+            if (count == 1) singles[tile >>> 6] |= 1L << tile;
+            if (count < fewest) {
+                fewestTile = tile;
+                fewest = count;
+            }
+        }
+        return fewestTile;
+    }
+}
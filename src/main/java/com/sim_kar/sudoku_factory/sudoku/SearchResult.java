@@ -0,0 +1,74 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a search for a puzzle with few clues: the best puzzle that was found, the
+ * solution it was made from, and how much of the search budget was used to find it.
+ */
+public final class SearchResult {
+    private final int[][] solution;
+    private final int[][] puzzle;
+    private final int clues;
+    private final long moves;
+
+    /**
+     * Create a new search result.
+     *
+     * @param solution the solved board the puzzle was made from
+     * @param puzzle the best puzzle found, with 0 for empty tiles
+     * @param clues the number of clues in the puzzle
+     * @param moves the number of moves that were tried during the search
+     */
+    public SearchResult(int[][] solution, int[][] puzzle, int clues, long moves) {
+        this.solution = copy2DArray(solution);
+        this.puzzle = copy2DArray(puzzle);
+        this.clues = clues;
+        this.moves = moves;
+    }
+
+    /**
+     * Get the solved board the puzzle was made from.
+     *
+     * @return a copy of the solution
+     */
+    public int[][] getSolution() {
+        return copy2DArray(solution);
+    }
+
+    /**
+     * Get the puzzle with the fewest clues that was found.
+     *
+     * @return a copy of the puzzle, with 0 for empty tiles
+     */
+    public int[][] getPuzzle() {
+        return copy2DArray(puzzle);
+    }
+
+    /**
+     * Get the number of clues in the best puzzle that was found.
+     *
+     * @return the number of clues
+     */
+    public int getClues() {
+        return clues;
+    }
+
+    /**
+     * Get the number of moves that were tried before the search stopped.
+     *
+     * @return the number of moves
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Get a copy of the given 2D integer array.
+     */
+    private static int[][] copy2DArray(int[][] board) {
+        return Arrays.stream(board)
+                .map(int[]::clone)
+                .toArray(int[][]::new);
+    }
+}
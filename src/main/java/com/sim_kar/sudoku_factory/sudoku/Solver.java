@@ -12,6 +12,7 @@ public interface Solver {
      *
      * @param board the board to solve
      * @return the solved board, i.e. a board with a correct number in every tile
+     * @throws NoSolutionException if the board has no solution
      */
     int[][] generate(int[][] board);
 
@@ -20,6 +21,29 @@ public interface Solver {
      *
      * @param board the board to check if it only has one solution
      * @return whether the given board only has one solution
+     * @throws NoSolutionException if the board has no solution
      */
     boolean isUnique(int[][] board);
+
+    /**
+     * Get the number of nodes this solver has visited, i.e. the number of times it has
+     * tentatively filled in a number while searching for solutions. The count is cumulative over
+     * every call to the solver, so the work done by a single call is the difference between the
+     * counts before and after it.
+     *
+     * @return the total number of visited nodes
+     */
+    long getNodeCount();
+
+    /**
+     * Get whether this solver solves standard Sudoku, i.e. 9x9 boards with 3x3 blocks and no
+     * further constraints. The solutions of a board are then decided by its numbers alone, and a
+     * {@link Transformation} of a board has the transformed solutions. Solvers of other layouts,
+     * or with constraints such as the cages of a killer Sudoku, must return false.
+     *
+     * @return whether this solver solves standard Sudoku
+     */
+    default boolean isStandard() {
+        return true;
+    }
 }
@@ -0,0 +1,194 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.jetbrains.annotations.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of solver results, shared by the {@link CachingSolver CachingSolvers} of any
+ * number of threads. Entries are keyed by a 64-bit puzzle hash and held as small byte arrays, so an
+ * entry with a solution takes about 20 bytes of data next to the overhead of the map.
+ * <br>
+ * The cache is split into segments by the hash, and each segment is a map in access order behind
+ * its own lock, which evicts its least recently used entry when it is full. Threads only wait for
+ * each other when they look up puzzles in the same segment at the same time, and the eviction is
+ * an approximation of least recently used over the whole cache.
+ * <br>
+ * With canonical keys, a puzzle and every {@link Transformation} of it share a single entry, at the
+ * cost of a canonicalization of every puzzle that is looked up. That takes tens of microseconds
+ * for a typical puzzle, but milliseconds for a board that is nearly full, so canonical keys suit
+ * puzzles that are served to players rather than the boards checked while creating a puzzle.
+ * <br>
+ * Entries only hold the results of standard Sudoku, since a {@link CachingSolver} doesn't use the
+ * cache for a solver of jigsaw boards or killer Sudoku.
+ */
+public class SolverCache {
+    private static final int MAX_SEGMENTS = 16;
+    private final Segment[] segments;
+    private final int capacity;
+    private final boolean canonical;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a new empty cache.
+     *
+     * @param capacity the largest number of entries to hold
+     * @param canonical whether puzzles are keyed by their canonical form, so that transformations
+     *                  of a puzzle share its entry
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public SolverCache(int capacity, boolean canonical) throws IllegalArgumentException {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity must be at least 1");
+
+        this.capacity = capacity;
+        this.canonical = canonical;
+        this.segments = new Segment[Math.min(MAX_SEGMENTS, capacity)];
+        for (int i = 0; i < segments.length; i++) {
+            // spread the capacity over the segments, so that they add up to exactly the capacity
+            int extra = (i < capacity % segments.length) ? 1 : 0;
+            segments[i] = new Segment(capacity / segments.length + extra);
+        }
+    }
+
+    /**
+     * Get the entry of a puzzle, and mark it as the most recently used entry of its segment.
+     *
+     * @param key the hash of the puzzle
+     * @return the entry, or null if there is none
+     */
+    @Nullable
+    byte[] get(long key) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * Add or replace the entry of a puzzle, and evict the least recently used entry of its
+     * segment if it is full.
+     *
+     * @param key the hash of the puzzle
+     * @param entry the entry to store, which must not be changed after it has been stored
+     */
+    void put(long key, byte[] entry) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    private Segment segment(long key) {
+        // the low bits pick the segment, since the keys are already well mixed
+        return segments[(int) Long.remainderUnsigned(key, segments.length)];
+    }
+
+    /**
+     * Count a lookup that was answered by the cache.
+     */
+    void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Count a lookup that had to be answered by a solver.
+     */
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Get whether puzzles are keyed by their canonical form.
+     *
+     * @return whether the keys are canonical
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    /**
+     * Get the largest number of entries the cache holds.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of entries in the cache.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of lookups that were answered by the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that had to be answered by a solver.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries that have been evicted to make room for new ones.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the share of lookups that were answered by the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if nothing has been looked up
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return (lookups == 0) ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * A segment of the cache, which evicts its least recently used entry when it is full. It
+     * must only be used while holding its lock.
+     */
+    private class Segment extends LinkedHashMap<Long, byte[]> {
+        private final int segmentCapacity;
+
+        Segment(int segmentCapacity) {
+            super(16, 0.75f, true);
+            this.segmentCapacity = segmentCapacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            if (size() <= segmentCapacity) return false;
+
+            evictions.increment();
+            return true;
+        }
+    }
+}
@@ -5,11 +5,16 @@ import java.util.*;
 
 /**
  * A Sudoku puzzle board that contains {@link Section}s and {@link Tile}s.
+ * <br>
+ * The {@link Zobrist} hash of the current values is computed once, and then updated in constant
+ * time whenever a Tile is set through {@link #setTile(Position, int)}.
  */
 public class SudokuBoard implements Board {
+    private final int size;
     Map<Position, Section> rows = new HashMap<>();
     Map<Position, Section> columns = new HashMap<>();
     Map<Position, Section> blocks = new HashMap<>();
+    private long hash;
 
     /**
      * The SudokuBoard contains 9x9 Tiles and 27 Sections (one for each row, column, and 9 3x3 blocks
@@ -19,6 +24,20 @@ public class SudokuBoard implements Board {
      * @param blocks The blocks as an array of Sections
      */
     public SudokuBoard(Section[] rows, Section[] columns, Section[] blocks) {
+        this(Layout.STANDARD, rows, columns, blocks);
+    }
+
+    /**
+     * A SudokuBoard of the given {@link Layout}, e.g. a 16x16 board with 16 rows, 16 columns and
+     * 16 4x4 blocks
+     *
+     * @param layout The Layout of the board
+     * @param rows The rows as an array of Sections
+     * @param columns The columns as an array of Sections
+     * @param blocks The blocks as an array of Sections
+     */
+    public SudokuBoard(Layout layout, Section[] rows, Section[] columns, Section[] blocks) {
+        this.size = layout.getSize();
 
         // Populate the rows Map
         for (int i = 0; i < rows.length; i++) {
@@ -50,6 +69,28 @@ public class SudokuBoard implements Board {
             });
         }
 
+        this.hash = computeHash();
+    }
+
+    /**
+     * Hash the current values of all Tiles from scratch. Every Tile is hashed once, by its entry
+     * in the map of rows, since each row Section is in the map once for every one of its Tiles.
+     */
+    private long computeHash() {
+        long computed = 0;
+        for (Map.Entry<Position, Section> entry : rows.entrySet()) {
+            Position position = entry.getKey();
+            computed ^= Zobrist.key(
+                    size,
+                    getIndex(position),
+                    entry.getValue().getTile(position).getCurrentValue()
+            );
+        }
+        return computed;
+    }
+
+    private int getIndex(Position xy) {
+        return xy.getY() * size + xy.getX();
     }
 
     @Nullable
@@ -98,14 +139,51 @@ public class SudokuBoard implements Board {
         return section.getTile(xy);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the value isn't 0-9 (or 0-16 on a 16x16 board, etc.)
+     */
     @Override
-    public void setTile(Position xy, int value) {
+    public void setTile(Position xy, int value) throws IllegalArgumentException {
         // will throw null pointer exception if xy is not in map otherwise
         if (!rows.containsKey(xy)) return;
 
         Section section = rows.get(xy);
         Tile tile = section.getTile(xy);
+        int index = getIndex(xy);
+        long newKey = Zobrist.key(size, index, value);
+        long oldKey = Zobrist.key(size, index, tile.getCurrentValue());
+
         tile.setCurrentValue(value);
+        // the value of a Tile that isn't editable stays the same
+        if (tile.getCurrentValue() == value) hash ^= oldKey ^ newKey;
+    }
+
+    @Override
+    public int[][] getPuzzle() {
+        int[][] puzzle = new int[size][size];
+        rows.forEach((position, section) -> {
+            Tile tile = section.getTile(position);
+            puzzle[position.getY()][position.getX()] =
+                    tile.isEditable() ? 0 : tile.getCorrectValue();
+        });
+        return puzzle;
+    }
+
+    @Override
+    public int[][] getSolution() {
+        int[][] solution = new int[size][size];
+        rows.forEach((position, section) -> {
+            solution[position.getY()][position.getX()] =
+                    section.getTile(position).getCorrectValue();
+        });
+        return solution;
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
     }
 
     @Override
@@ -150,5 +228,6 @@ public class SudokuBoard implements Board {
         rows.forEach((position, section) -> {
             section.getTile(position).clear();
         });
+        hash = computeHash();
     }
 }
@@ -5,29 +5,87 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * Used to create valid Sudoku puzzle boards.
+ * Used to create valid 9x9 Sudoku puzzle boards, either with a given number of clues or with a
+ * rating within a given {@link Grade}. Boards of other layouts are created by their number of
+ * clues with a {@link LayoutFactory}.
  */
-public class SudokuFactory implements Factory {
+public class SudokuFactory implements RatedFactory {
     // 6,670,903,752,021,072,936,960 possible sudoku boards and so far around 49,000 puzzles with
     // the lowest possible amount of clues (17) have been found. We need to set our lower limit
     // slightly higher than this...
-    private static final int MIN_CLUES = 25;
+    static final int MIN_CLUES = 25;
     private static final int MAX_CLUES = 81;
     private static final int EMPTY = 0;
     private final Solver solver;
+    private final Grader grader;
+    private final GenerationMetrics metrics;
+    private final Random random;
+    private final LayoutFactory clueFactory;
 
     /**
-     * Create a new Sudoku factory.
+     * Create a new Sudoku factory. Puzzles created by grade are rated with a
+     * {@link SudokuGrader} that uses the same solver.
      *
      * @param solver a solver used to generate new boards
      */
     public SudokuFactory(Solver solver) {
+        this(solver, new SudokuGrader(solver));
+    }
+
+    /**
+     * Create a new Sudoku factory.
+     *
+     * @param solver a solver used to generate new boards
+     * @param grader a grader used to rate boards when creating puzzles by grade
+     */
+    public SudokuFactory(Solver solver, Grader grader) {
+        this(solver, grader, new GenerationMetrics());
+    }
+
+    /**
+     * Create a new Sudoku factory that records its work in the given metrics. The same metrics
+     * can be shared by several factories, for example one per thread.
+     *
+     * @param solver a solver used to generate new boards
+     * @param grader a grader used to rate boards when creating puzzles by grade
+     * @param metrics the metrics to record the work done while creating puzzles in
+     */
+    public SudokuFactory(Solver solver, Grader grader, GenerationMetrics metrics) {
+        this(solver, grader, metrics, new Random());
+    }
+
+    /**
+     * Create a new Sudoku factory that records its work in the given metrics.
+     * <br>
+     * Each created puzzle draws a seed from the given {@link Random}, which decides the order
+     * clues are removed in. The seed is included in the {@code com.sim_kar.sudoku_factory.Create}
+     * Java Flight Recorder event of the puzzle. The solutions are generated with the solver's own
+     * Random, so the seed alone doesn't reproduce a creation.
+     *
+     * @param solver a solver used to generate new boards
+     * @param grader a grader used to rate boards when creating puzzles by grade
+     * @param metrics the metrics to record the work done while creating puzzles in
+     * @param random a Random used to decide the order clues are removed in
+     */
+    public SudokuFactory(Solver solver, Grader grader, GenerationMetrics metrics, Random random) {
         this.solver = solver;
+        this.grader = grader;
+        this.metrics = metrics;
+        this.random = random;
+        this.clueFactory = new LayoutFactory(solver, metrics, random, Layout.STANDARD);
+    }
+
+    /**
+     * Get the metrics this factory records its work in.
+     *
+     * @return the metrics of this factory
+     */
+    public GenerationMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -45,58 +103,133 @@ public class SudokuFactory implements Factory {
      */
     @Override
     public Board create(int clues) {
-        if (clues < MIN_CLUES) {
-            throw new IllegalArgumentException("There must be at least 25 clues");
-        }
+        return clueFactory.create(clues);
+    }
+
+    /**
+     * Create a valid Sudoku puzzle board with a rating within the given grade. Clues are removed
+     * one at a time, and the puzzle is rated again after every removal. Since removing a clue
+     * never makes a puzzle easier, the puzzle is accepted as soon as its rating enters the grade.
+     * A removal that would make the rating exceed the grade is undone, just like a removal that
+     * would make the solution ambiguous, and the next clue is tried instead. If every clue has
+     * been tried (or the puzzle is down to 25 clues) without reaching the grade, the solution is
+     * discarded and a new one is generated.
+     *
+     * @param grade the band of ratings the created puzzle must be within
+     * @return a Sudoku puzzle board with a rating within the grade
+     */
+    @Override
+    public Board create(Grade grade) {
+        CreateEvent event = new CreateEvent();
+        event.begin();
+        event.grade = grade.name();
+        event.seed = random.nextLong();
+        long nodes = solver.getNodeCount();
 
-        if (clues > MAX_CLUES) {
-            throw new IllegalArgumentException("There cannot be more than 81 clues");
+        try {
+            Board board = removeClues(grade, new Random(event.seed), event);
+            event.outcome = "created";
+            return board;
+        } finally {
+            commit(event, solver, nodes);
         }
+    }
 
+    /**
+     * Create a puzzle with a rating within the given grade by removing clues from generated
+     * solutions, in the order decided by the given Random.
+     */
+    private Board removeClues(Grade grade, Random order, CreateEvent event) {
+        long start = System.nanoTime();
         List<Position> positions = getPositions();
         int[][] empty = new int[9][9];
         int[][] solution;
         int[][] puzzle;
         int currentClues;
+        int rating;
 
-        // it's possible to generate a random solution that doesn't have a unique puzzle
-        // with the given amount of clues. If that is the case we try again with a new solution
         do {
             currentClues = MAX_CLUES;
+            rating = 0;
             solution = solver.generate(empty);
             puzzle = copy2DArray(solution);
-
-            // shuffle the order of positions, or tiles will be removed
-            // in the same position and order every time
-            Collections.shuffle(positions);
+            metrics.recordSolutionGenerated();
+            metrics.recordGradeAttempt(grade);
+            event.solutions++;
+            Collections.shuffle(positions, order);
 
             for (Position position : positions) {
-                if (currentClues == clues) break;
+                if (grade.contains(rating) || (currentClues == MIN_CLUES)) break;
 
                 int x = position.getX();
                 int y = position.getY();
                 int current = puzzle[y][x];
                 puzzle[y][x] = EMPTY;
+                metrics.recordUniquenessCheck();
+                event.uniquenessChecks++;
+
+                if (!solver.isUnique(puzzle)) {
+                    puzzle[y][x] = current;
+                    continue;
+                }
 
-                if (solver.isUnique(puzzle)) {
-                    currentClues--;
-                } else {
+                int newRating = grader.grade(puzzle);
+                if (newRating > grade.getMaxRating()) {
                     puzzle[y][x] = current;
+                    continue;
                 }
+
+                rating = newRating;
+                currentClues--;
+                metrics.recordRemoval();
             }
-        } while (currentClues > clues);
 
+            if (!grade.contains(rating)) metrics.recordSolutionDiscarded();
+        } while (!grade.contains(rating));
+
+        metrics.recordGradeAccepted(grade);
+        metrics.recordPuzzleCreated(currentClues, System.nanoTime() - start);
+        event.clues = currentClues;
         return getBoard(solution, puzzle);
     }
 
+    /**
+     * Commit a creation event, if it is enabled and long enough to be recorded.
+     *
+     * @param event the event to commit
+     * @param solver the solver the puzzle was created with
+     * @param nodes the node count of the solver when the creation started
+     */
+    static void commit(CreateEvent event, Solver solver, long nodes) {
+        event.end();
+        if (event.shouldCommit()) {
+            if (event.outcome == null) event.outcome = "failed";
+            event.nodes = solver.getNodeCount() - nodes;
+            event.commit();
+        }
+    }
+
+    @Override
+    public double getAcceptanceRate(Grade grade) {
+        return metrics.getAcceptanceRate(grade);
+    }
+
     /**
      * Get a list of positions for all x and y positions on a 9x9 board, ordered in ascending order.
      */
-    private List<Position> getPositions() {
+    static List<Position> getPositions() {
+        return getPositions(Layout.STANDARD.getSize());
+    }
+
+    /**
+     * Get a list of positions for all x and y positions on a board of the given size, ordered in
+     * ascending order.
+     */
+    static List<Position> getPositions(int size) {
         List<Position> positions = new ArrayList<>();
 
-        for (int x = 0; x < 9; x++) {
-            for (int y = 0; y < 9; y++) {
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
                 positions.add(new Position(x, y));
             }
         }
@@ -107,7 +240,7 @@ public class SudokuFactory implements Factory {
     /**
      * Get a copy of the given 2D integer array.
      */
-    private int[][] copy2DArray(int[][] board) {
+    static int[][] copy2DArray(int[][] board) {
         return Arrays.stream(board)
                 .map(int[]::clone)
                 .toArray(int[][]::new);
@@ -122,74 +255,53 @@ public class SudokuFactory implements Factory {
      * @param puzzle a 9x9 2D array with all clues and empty tiles
      * @return a 9x9 sudoku board with the tiles initialized according to the given parameters
      */
-    private Board getBoard(int[][] solution, int[][] puzzle) {
-        List<Set<Tile>> tilesInRows = Stream.generate(HashSet<Tile>::new)
-                .limit(9)
-                .collect(Collectors.toCollection(ArrayList::new));
-        List<Set<Tile>> tilesInColumns = Stream.generate(HashSet<Tile>::new)
-                .limit(9)
-                .collect(Collectors.toCollection(ArrayList::new));
-        List<Set<Tile>> tilesInBlocks = Stream.generate(HashSet<Tile>::new)
-                .limit(9)
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        for (Position position : getPositions()) {
+    static Board getBoard(int[][] solution, int[][] puzzle) {
+        return getBoard(Layout.STANDARD, solution, puzzle);
+    }
+
+    /**
+     * Get a Sudoku puzzle of the given {@link Layout} from 2D arrays of the size of the layout,
+     * containing all the correct values on the board, and the clues and empty tiles. The rows,
+     * columns and blocks of the board are the units of the layout, so the blocks of a jigsaw
+     * board are its regions.
+     *
+     * @param layout the layout of the board
+     * @param solution a 2D array with all correct values
+     * @param puzzle a 2D array with all clues and empty tiles
+     * @return a sudoku board with the tiles initialized according to the given parameters
+     */
+    static Board getBoard(Layout layout, int[][] solution, int[][] puzzle) {
+        int size = layout.getSize();
+        Tile[] tiles = new Tile[layout.getTileCount()];
+
+        for (Position position : getPositions(size)) {
             int x = position.getX();
             int y = position.getY();
-            int blockIndex = getBlockIndex(x, y);
-            int value = solution[y][x];
 
-            Tile tile = new SudokuTile(value, position);
+            Tile tile = new SudokuTile(solution[y][x], position);
             if (puzzle[y][x] == EMPTY) {
                 tile.setEditable(true);
                 tile.clear();
             }
-
-            tilesInRows.get(y).add(tile);
-            tilesInColumns.get(x).add(tile);
-            tilesInBlocks.get(blockIndex).add(tile);
+            tiles[(y * size) + x] = tile;
         }
 
-        Section[] rows = new Section[9];
-        Section[] columns = new Section[9];
-        Section[] blocks = new Section[9];
-
-        for (int i = 0; i < 9; i++) {
-            rows[i] = new SudokuSection(tilesInRows.get(i));
-            columns[i] = new SudokuSection(tilesInColumns.get(i));
-            blocks[i] = new SudokuSection(tilesInBlocks.get(i));
+        // the units of the layout are the rows, then the columns, and then the blocks
+        int[][] units = layout.getUnits();
+        Section[] sections = new Section[units.length];
+        for (int unit = 0; unit < units.length; unit++) {
+            Set<Tile> tilesInUnit = new HashSet<>();
+            for (int tile : units[unit]) {
+                tilesInUnit.add(tiles[tile]);
+            }
+            sections[unit] = new SudokuSection(tilesInUnit);
         }
 
-        return new SudokuBoard(rows, columns, blocks);
-    }
-
-    /**
-     * Get the index of a block (0-8) in linear order.
-     */
-    private int getBlockIndex(int x, int y) {
-        /*
-        Indexes of all blocks:
-        | 0 | 1 | 2 |
-        | 3 | 4 | 5 |
-        | 6 | 7 | 8 |
-
-        The y-value divided by 3 (floor division) gives us a starting index
-        Adding the x-value divided by 3 (floor division) gives us the block index
-
-        Ex: the tiles in block 4 have the positions {3, 3} to {5, 5}
-            Position {3, 3}:
-            row starting index: (3 // 3) * 3 = 3
-            column offset:      3 // 3       = 1
-            block index:        3 + 1        = 4
-
-            Position {5, 5}:
-            row starting index: (5 // 3) * 3 = 3
-            column offset:      5 // 3       = 1
-            block index:        3 + 1        = 4
-         */
-        int blockRowStartingIndex = (y / 3) * 3;
-        int blockColumnOffset = x / 3;
-
-        return blockRowStartingIndex + blockColumnOffset;
+        return new SudokuBoard(
+                layout,
+                Arrays.copyOfRange(sections, 0, size),
+                Arrays.copyOfRange(sections, size, size * 2),
+                Arrays.copyOfRange(sections, size * 2, size * 3)
+        );
     }
 }
@@ -0,0 +1,455 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * Rates Sudoku puzzles by solving them the way a person would. The puzzle is solved in rounds
+ * using the easiest technique that makes progress. A round applies every instance of the
+ * technique that can be found on the board as it was when the round started, and each instance
+ * adds the cost of the technique to the rating. Harder techniques are only tried when all easier
+ * ones are exhausted:
+ * <ol>
+ *     <li>hidden single - a number that only fits in one tile of a row, column or block</li>
+ *     <li>naked single - a tile that only one number fits in</li>
+ *     <li>locked candidates - a number in a row, column or block that is confined to a single
+ *     other row, column or block, and can be removed from the rest of it</li>
+ *     <li>naked pair - two tiles in a section that share the same two possible numbers</li>
+ *     <li>hidden pair - two numbers in a section that only fit in the same two tiles</li>
+ * </ol>
+ * When none of the techniques make progress, the correct number is filled in every tile with the
+ * fewest possible numbers, and the rating is increased by the cost of a guess.
+ * <br>
+ * Every rating is deterministic; the same board always has the same rating. Since no round
+ * depends on the order the tiles are scanned in, a puzzle also has the same rating as the puzzles
+ * it can be turned into by relabeling the numbers, swapping rows or columns within a band or
+ * stack, swapping bands or stacks, or transposing the board.
+ */
+public class SudokuGrader implements Grader {
+    private final static int HIDDEN_SINGLE = 1;
+    private final static int NAKED_SINGLE = 2;
+    private final static int LOCKED_CANDIDATES = 5;
+    private final static int NAKED_PAIR = 10;
+    private final static int HIDDEN_PAIR = 15;
+    private final static int GUESS = 40;
+    private final static int BOARD_SIZE = 9;
+    private final static int MAX_VALUE = 9;
+    private final static int EMPTY = 0;
+    private final static int ALL_CANDIDATES = (1 << MAX_VALUE) - 1;
+    private final Layout layout = Layout.STANDARD;
+    private final Solver solver;
+
+    /**
+     * Create a new Sudoku grader. The solver is only used to find the correct number to fill in
+     * when the puzzle can't be progressed with any of the solving techniques.
+     *
+     * @param solver a solver used to find the solution of puzzles that require guessing
+     */
+    public SudokuGrader(Solver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The board must be a valid 9x9 Sudoku board, with tiles that are either empty (0), or has
+     * a number between 1 and 9. The puzzle should have a single solution; if it has several,
+     * the rating is based on one of them.
+     *
+     * @param board the 9x9 Sudoku board to rate
+     * @return the rating of the puzzle
+     * @throws IllegalArgumentException if the board is null, the wrong size, contains numbers
+     *                                  outside the range 0-9, or has no solution
+     */
+    @Override
+    public int grade(int[][] board) throws IllegalArgumentException {
+        validateBoard(board);
+
+        int[] values = new int[layout.getTileCount()];
+        int[] candidates = new int[layout.getTileCount()];
+        int remaining = layout.getTileCount();
+        Arrays.fill(candidates, ALL_CANDIDATES);
+
+        for (int tile = 0; tile < layout.getTileCount(); tile++) {
+            int value = board[tile / BOARD_SIZE][tile % BOARD_SIZE];
+            if (value == EMPTY) continue;
+
+            if ((value < EMPTY) || (value > MAX_VALUE)) {
+                throw new IllegalArgumentException("Boards can only contain numbers 0-9");
+            }
+
+            if ((candidates[tile] & bit(value)) == 0) {
+                throw new NoSolutionException();
+            }
+
+            place(values, candidates, tile, value);
+            remaining--;
+        }
+
+        @Nullable int[][] solution = null;
+        int rating = 0;
+
+        while (remaining > 0) {
+            checkCandidates(values, candidates);
+
+            int placed = placeHiddenSingles(values, candidates);
+            if (placed > 0) {
+                rating += placed * HIDDEN_SINGLE;
+                remaining -= placed;
+                continue;
+            }
+
+            placed = placeNakedSingles(values, candidates);
+            if (placed > 0) {
+                rating += placed * NAKED_SINGLE;
+                remaining -= placed;
+                continue;
+            }
+
+            int eliminations = eliminateLockedCandidates(candidates);
+            if (eliminations > 0) {
+                rating += eliminations * LOCKED_CANDIDATES;
+                continue;
+            }
+
+            eliminations = eliminateNakedPairs(candidates);
+            if (eliminations > 0) {
+                rating += eliminations * NAKED_PAIR;
+                continue;
+            }
+
+            eliminations = eliminateHiddenPairs(candidates);
+            if (eliminations > 0) {
+                rating += eliminations * HIDDEN_PAIR;
+                continue;
+            }
+
+            // the solver throws an exception if the board doesn't have a solution
+            if (solution == null) solution = solver.generate(board);
+
+            remaining -= placeGuesses(values, candidates, solution);
+            rating += GUESS;
+        }
+
+        return rating;
+    }
+
+    /**
+     * Fill in a number in a tile, and remove it as a possible number from every tile that
+     * shares a row, column or block with it.
+     */
+    private void place(int[] values, int[] candidates, int tile, int value) {
+        values[tile] = value;
+        candidates[tile] = 0;
+
+        for (int peer : layout.getPeers()[tile]) {
+            candidates[peer] &= ~bit(value);
+        }
+    }
+
+    /**
+     * Throws an exception if any empty tile has no possible numbers left, which means that the
+     * board has no solution.
+     */
+    private void checkCandidates(int[] values, int[] candidates) throws IllegalArgumentException {
+        for (int tile = 0; tile < values.length; tile++) {
+            if ((values[tile] == EMPTY) && (candidates[tile] == 0)) {
+                throw new NoSolutionException();
+            }
+        }
+    }
+
+    /**
+     * Fills in every number that only fits in a single tile of a row, column or block.
+     *
+     * @return the number of filled in tiles
+     * @throws IllegalArgumentException if two of the numbers must go in the same tile, or in two
+     *                                  tiles that see each other, which means that the board has
+     *                                  no solution
+     */
+    private int placeHiddenSingles(int[] values, int[] candidates)
+            throws IllegalArgumentException {
+        int[] found = new int[values.length];
+
+        for (int[] unit : layout.getUnits()) {
+            int once = 0;
+            int twice = 0;
+
+            for (int tile : unit) {
+                twice |= once & candidates[tile];
+                once |= candidates[tile];
+            }
+
+            for (int hidden = once & ~twice; hidden != 0; hidden &= hidden - 1) {
+                int value = Integer.numberOfTrailingZeros(hidden) + 1;
+                for (int tile : unit) {
+                    if ((candidates[tile] & bit(value)) != 0) found[tile] |= bit(value);
+                }
+            }
+        }
+
+        return placeFound(values, candidates, found);
+    }
+
+    /**
+     * Fills in every tile that only a single number fits in.
+     *
+     * @return the number of filled in tiles
+     * @throws IllegalArgumentException if two tiles that see each other must hold the same
+     *                                  number, which means that the board has no solution
+     */
+    private int placeNakedSingles(int[] values, int[] candidates) throws IllegalArgumentException {
+        int[] found = new int[values.length];
+
+        for (int tile = 0; tile < values.length; tile++) {
+            if ((values[tile] == EMPTY) && (Integer.bitCount(candidates[tile]) == 1)) {
+                found[tile] = candidates[tile];
+            }
+        }
+
+        return placeFound(values, candidates, found);
+    }
+
+    /**
+     * Fills in the correct number in every empty tile with the fewest possible numbers.
+     *
+     * @return the number of filled in tiles
+     */
+    private int placeGuesses(int[] values, int[] candidates, int[][] solution) {
+        int fewest = Integer.MAX_VALUE;
+        for (int tile = 0; tile < values.length; tile++) {
+            if (values[tile] != EMPTY) continue;
+
+            fewest = Math.min(fewest, Integer.bitCount(candidates[tile]));
+        }
+
+        int[] found = new int[values.length];
+        for (int tile = 0; tile < values.length; tile++) {
+            if ((values[tile] == EMPTY) && (Integer.bitCount(candidates[tile]) == fewest)) {
+                found[tile] = bit(solution[tile / BOARD_SIZE][tile % BOARD_SIZE]);
+            }
+        }
+
+        return placeFound(values, candidates, found);
+    }
+
+    /**
+     * Fills in the numbers found in a round, which were all found before any of them was filled
+     * in.
+     *
+     * @param found the number found for each tile as a bit, or 0 for tiles without one
+     * @return the number of filled in tiles
+     * @throws IllegalArgumentException if several numbers were found for a tile, or a number has
+     *                                  been removed from its tile by another number of the round
+     */
+    private int placeFound(int[] values, int[] candidates, int[] found)
+            throws IllegalArgumentException {
+        int placed = 0;
+
+        for (int tile = 0; tile < values.length; tile++) {
+            if (found[tile] == 0) continue;
+
+            if ((Integer.bitCount(found[tile]) > 1) || ((candidates[tile] & found[tile]) == 0)) {
+                throw new NoSolutionException();
+            }
+
+            place(values, candidates, tile, Integer.numberOfTrailingZeros(found[tile]) + 1);
+            placed++;
+        }
+        return placed;
+    }
+
+    /**
+     * Finds every number in a row, column or block where every tile it fits in also belongs to
+     * another row, column or block, and removes the number from the rest of that other unit.
+     * This covers both pointing (block to row or column) and claiming (row or column to block).
+     *
+     * @return the number of such numbers that removed any possible numbers
+     */
+    private int eliminateLockedCandidates(int[] candidates) {
+        int[][] units = layout.getUnits();
+        int[] removed = new int[candidates.length];
+        int found = 0;
+
+        for (int[] unit : units) {
+            for (int value = 1; value <= MAX_VALUE; value++) {
+                int[] sharedUnits = null;
+                int tiles = 0;
+
+                for (int tile : unit) {
+                    if ((candidates[tile] & bit(value)) == 0) continue;
+
+                    sharedUnits = (sharedUnits == null)
+                            ? layout.getUnitsOfTiles()[tile].clone()
+                            : intersect(sharedUnits, layout.getUnitsOfTiles()[tile]);
+                    tiles++;
+                }
+
+                if ((sharedUnits == null) || (tiles < 2)) continue;
+
+                for (int sharedUnit : sharedUnits) {
+                    if ((sharedUnit < 0) || (units[sharedUnit] == unit)) continue;
+
+                    boolean eliminated = false;
+                    for (int tile : units[sharedUnit]) {
+                        if (!contains(unit, tile) && ((candidates[tile] & bit(value)) != 0)) {
+                            removed[tile] |= bit(value);
+                            eliminated = true;
+                        }
+                    }
+
+                    if (eliminated) found++;
+                }
+            }
+        }
+
+        removeAll(candidates, removed);
+        return found;
+    }
+
+    /**
+     * Finds every pair of tiles in a row, column or block that share the same two possible
+     * numbers, and removes those numbers from the rest of the tiles in the unit.
+     *
+     * @return the number of such pairs that removed any possible numbers
+     */
+    private int eliminateNakedPairs(int[] candidates) {
+        int[] removed = new int[candidates.length];
+        int found = 0;
+
+        for (int[] unit : layout.getUnits()) {
+            for (int first = 0; first < unit.length; first++) {
+                int pair = candidates[unit[first]];
+                if (Integer.bitCount(pair) != 2) continue;
+
+                for (int second = first + 1; second < unit.length; second++) {
+                    if (candidates[unit[second]] != pair) continue;
+
+                    boolean eliminated = false;
+                    for (int tile : unit) {
+                        if ((tile == unit[first]) || (tile == unit[second])) continue;
+
+                        if ((candidates[tile] & pair) != 0) {
+                            removed[tile] |= candidates[tile] & pair;
+                            eliminated = true;
+                        }
+                    }
+
+                    if (eliminated) found++;
+                }
+            }
+        }
+
+        removeAll(candidates, removed);
+        return found;
+    }
+
+    /**
+     * Finds every pair of numbers in a row, column or block that only fit in the same two tiles,
+     * and removes every other possible number from those tiles.
+     *
+     * @return the number of such pairs that removed any possible numbers
+     */
+    private int eliminateHiddenPairs(int[] candidates) {
+        int[] removed = new int[candidates.length];
+        int found = 0;
+
+        for (int[] unit : layout.getUnits()) {
+            // the tiles (as a bit mask of indexes in the unit) each number fits in
+            int[] tilesOfValue = new int[MAX_VALUE + 1];
+            for (int index = 0; index < unit.length; index++) {
+                for (int value = 1; value <= MAX_VALUE; value++) {
+                    if ((candidates[unit[index]] & bit(value)) != 0) {
+                        tilesOfValue[value] |= 1 << index;
+                    }
+                }
+            }
+
+            for (int first = 1; first <= MAX_VALUE; first++) {
+                if (Integer.bitCount(tilesOfValue[first]) != 2) continue;
+
+                for (int second = first + 1; second <= MAX_VALUE; second++) {
+                    if (tilesOfValue[second] != tilesOfValue[first]) continue;
+
+                    int pair = bit(first) | bit(second);
+                    boolean eliminated = false;
+                    for (int index = 0; index < unit.length; index++) {
+                        int tile = unit[index];
+
+                        if (((tilesOfValue[first] & (1 << index)) != 0)
+                                && ((candidates[tile] & ~pair) != 0)) {
+                            removed[tile] |= candidates[tile] & ~pair;
+                            eliminated = true;
+                        }
+                    }
+
+                    if (eliminated) found++;
+                }
+            }
+        }
+
+        removeAll(candidates, removed);
+        return found;
+    }
+
+    /**
+     * Remove the possible numbers found in a round from every tile, which were all found before
+     * any of them was removed.
+     */
+    private void removeAll(int[] candidates, int[] removed) {
+        for (int tile = 0; tile < candidates.length; tile++) {
+            candidates[tile] &= ~removed[tile];
+        }
+    }
+
+    /**
+     * Get the units in the first array that are also in the second array. Units that aren't
+     * shared are replaced by -1, so that the result always has the same length.
+     */
+    private int[] intersect(int[] units, int[] otherUnits) {
+        for (int i = 0; i < units.length; i++) {
+            if (!contains(otherUnits, units[i])) units[i] = -1;
+        }
+        return units;
+    }
+
+    /**
+     * Check whether an array of tile or unit indexes contains the given index.
+     */
+    private boolean contains(int[] indexes, int index) {
+        for (int candidate : indexes) {
+            if (candidate == index) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the bit representing a number in a mask of possible numbers.
+     */
+    private int bit(int value) {
+        return 1 << (value - 1);
+    }
+
+    /**
+     * Throws an exception if the board is the wrong size, or if it is null.
+     *
+     * @param board the Sudoku board to validate
+     * @throws IllegalArgumentException if the board is null, or has the wrong number of rows or
+     *                                  columns
+     */
+    private void validateBoard(int[][] board) throws IllegalArgumentException {
+        if (board == null) {
+            throw new IllegalArgumentException("Cannot grade a null board");
+        }
+
+        if (board.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 9 rows");
+        }
+
+        for (int[] row : board) {
+            if (row.length != BOARD_SIZE) {
+                throw new IllegalArgumentException("Board must have 9 columns");
+            }
+        }
+    }
+}
@@ -19,6 +19,9 @@ import java.util.stream.IntStream;
  * <br>
  * Can also be used to check if a Sudoku puzzle is unique, in other words if there is only one
  * possible solution. This is a requirement for a valid Sudoku puzzle.
+ * <br>
+ * The {@link Zobrist} hash of the board being solved is updated as numbers are filled in and
+ * cleared, so two solutions are compared by their hashes rather than tile by tile.
  */
 public class SudokuSolver implements Solver {
     private final static int BOARD_START_INDEX = 0;
@@ -28,6 +31,8 @@ public class SudokuSolver implements Solver {
     private final static int MIN_VALUE = 1;
     private final static int EMPTY = 0;
     private final Random random;
+    private long nodeCount;
+    private long hash;
 
     /**
      * Create a new Sudoku solver with the given {@link Random}.
@@ -64,9 +69,10 @@ public class SudokuSolver implements Solver {
                 .boxed()
                 .collect(Collectors.toList());
 
+        hash = 0;
         if (solve(solution, numbers, true)) return solution;
 
-        throw new IllegalArgumentException("There is no solution for the given board");
+        throw new NoSolutionException();
     }
 
     /**
@@ -96,14 +102,18 @@ public class SudokuSolver implements Solver {
             }
             for (int column = BOARD_START_INDEX; column < BOARD_SIZE; column++) {
                 if (board[row][column] == EMPTY) {
+                    int tile = row * BOARD_SIZE + column;
                     for (int number : numbers) {
                         board[row][column] = number;
+                        hash ^= Zobrist.key(tile, number);
+                        nodeCount++;
 
                         if (isValid(board, row, column) && solve(board, numbers, shuffle)) {
                             return true;
                         }
 
                         board[row][column] = EMPTY;
+                        hash ^= Zobrist.key(tile, number);
                     }
                     return false;
                 }
@@ -234,7 +244,10 @@ public class SudokuSolver implements Solver {
      * {@inheritDoc}
      * <br>
      * The board must be a valid 9x9 Sudoku board, with tiles that are either empty (0), or has
-     * a number between 1 and 9.
+     * a number between 1 and 9. The board is solved once trying the numbers in ascending order and
+     * once in descending order, and it is unique if both give the same solution. The solutions
+     * are compared by the Zobrist hashes of the numbers filled in by each search, so two different
+     * solutions are only mistaken for the same with a probability of about 2^-64.
      *
      * @param board the Sudoku board to check if it only has one solution
      * @return whether the cSudoku board only has one solution
@@ -253,12 +266,21 @@ public class SudokuSolver implements Solver {
         List<Integer> descendingNumbers = new ArrayList<>(ascendingNumbers);
         Collections.reverse(descendingNumbers);
 
-        if (solve(ascendingSolution, ascendingNumbers, false)
-                && solve(descendingSolution, descendingNumbers, false)) {
-            return Arrays.deepEquals(ascendingSolution, descendingSolution);
+        // the clues are in both solutions, so only the filled in numbers need to be hashed
+        hash = 0;
+        boolean solved = solve(ascendingSolution, ascendingNumbers, false);
+        long ascendingHash = hash;
+        hash = 0;
+        if (solved && solve(descendingSolution, descendingNumbers, false)) {
+            return ascendingHash == hash;
         }
 
-        throw new IllegalArgumentException("There is no solution for the given board");
+        throw new NoSolutionException();
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
     }
 
     /**
@@ -0,0 +1,94 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes puzzles from another factory, typically a {@link BankFactory} that serves pre-generated
+ * puzzles, and applies a random {@link Transformation} to every puzzle before it is handed out.
+ * A transformed puzzle looks unrelated to its source, but has the same number of clues, a single
+ * solution, and needs the same solving techniques. A {@link SudokuGrader} gives it the same rating
+ * as its source, so it is in the same {@link Grade}. Puzzles created by grade rely on that, so the
+ * source must rate its puzzles with a grader that doesn't depend on the order of the tiles either.
+ * <br>
+ * There are about 1.2 trillion transformations of every puzzle (2 * 1296 * 1296 * 9!), and
+ * picking and applying one takes a pass over the 81 tiles, so a small bank can serve a practically
+ * endless stream of different puzzles without generating any. Puzzles with symmetries of their own
+ * have fewer distinct transformations, but even those have far more than anyone will play.
+ */
+public class SymmetryFactory implements RatedFactory {
+    private final RatedFactory source;
+    private final Random random;
+    private final LongAdder transformed = new LongAdder();
+
+    /**
+     * Create a new factory that transforms the puzzles of another factory.
+     *
+     * @param source the factory to take the puzzles to transform from
+     * @param random the Random to pick the transformations with
+     */
+    public SymmetryFactory(RatedFactory source, Random random) {
+        this.source = source;
+        this.random = random;
+    }
+
+    /**
+     * Take a puzzle with the given number of clues from the source factory, and transform it.
+     *
+     * @param clues the amount of correct tiles to show on the board
+     * @return a Sudoku puzzle board with the amount of supplied clues
+     * @throws IllegalArgumentException if the source factory can't create a puzzle with that
+     *                                  many clues
+     */
+    @Override
+    public Board create(int clues) throws IllegalArgumentException {
+        return transform(source.create(clues));
+    }
+
+    /**
+     * Take a puzzle with a rating within the given grade from the source factory, and transform
+     * it. The transformed puzzle has the same rating as long as the source rates its puzzles with
+     * a {@link SudokuGrader}, or another grader that isn't changed by transformations.
+     *
+     * @param grade the band of ratings the created puzzle must be within
+     * @return a Sudoku puzzle board with a rating within the grade
+     */
+    @Override
+    public Board create(Grade grade) {
+        return transform(source.create(grade));
+    }
+
+    /**
+     * Get a board of a random transformation of the puzzle on a board.
+     */
+    private Board transform(Board board) {
+        Transformation transformation = Transformation.random(random);
+        transformed.increment();
+
+        return SudokuFactory.getBoard(
+                transformation.apply(board.getSolution()),
+                transformation.apply(board.getPuzzle())
+        );
+    }
+
+    /**
+     * Get the acceptance rate of the source factory, since transformed puzzles are never
+     * rejected.
+     *
+     * @param grade the grade to get the acceptance rate of
+     * @return the acceptance rate of the source factory
+     */
+    @Override
+    public double getAcceptanceRate(Grade grade) {
+        return source.getAcceptanceRate(grade);
+    }
+
+    /**
+     * Get the number of puzzles that have been transformed and handed out.
+     *
+     * @return the number of transformed puzzles
+     */
+    public long getTransformed() {
+        return transformed.sum();
+    }
+}
@@ -0,0 +1,288 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A transformation of a Sudoku board that keeps every valid board valid, and keeps the number of
+ * solutions and the difficulty of every puzzle the same. A transformation is made of, in order:
+ * <ul>
+ *     <li>an optional transposition, which swaps rows and columns</li>
+ *     <li>a permutation of the rows, which may swap bands (groups of 3 rows that share blocks)
+ *     and rows within a band</li>
+ *     <li>a permutation of the columns, which may swap stacks (groups of 3 columns that share
+ *     blocks) and columns within a stack</li>
+ *     <li>a relabeling of the numbers 1-9, where empty tiles (0) stay empty</li>
+ * </ul>
+ * Together with the identity, these make up a group of 2 * 1296 * 1296 * 9! transformations.
+ * Transformations are immutable, and can be shared between threads.
+ */
+public final class Transformation {
+    private static final int BOARD_SIZE = 9;
+    private static final int BLOCK_SIZE = 3;
+    private static final Transformation IDENTITY = new Transformation(
+            false,
+            new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8},
+            new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8},
+            new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}
+    );
+    private final boolean transposed;
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] numbers;
+
+    /**
+     * Create a new transformation. The tile at (x, y) of a transformed board is the number
+     * {@code numbers[n]}, where n is the tile at (columns[x], rows[y]) of the original board, or
+     * of the transposed original board if it is transposed.
+     *
+     * @param transposed whether the board is transposed before it is permuted
+     * @param rows the row of the original board that each row of the transformed board is taken
+     *             from
+     * @param columns the column of the original board that each column of the transformed board
+     *                is taken from
+     * @param numbers the number that each number 0-9 is relabeled to, where 0 must stay 0
+     * @throws IllegalArgumentException if the rows or columns aren't a permutation that keeps
+     *                                  bands and stacks together, or the numbers aren't a
+     *                                  permutation of 1-9 that keeps 0
+     */
+    public Transformation(boolean transposed, int[] rows, int[] columns, int[] numbers)
+            throws IllegalArgumentException {
+        validateLines(rows);
+        validateLines(columns);
+        validateNumbers(numbers);
+
+        this.transposed = transposed;
+        this.rows = rows.clone();
+        this.columns = columns.clone();
+        this.numbers = numbers.clone();
+    }
+
+    /**
+     * Get the transformation that leaves every board as it is.
+     *
+     * @return the identity transformation
+     */
+    public static Transformation identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * Get a random transformation, where every transformation in the group is equally likely.
+     *
+     * @param random the Random to pick the transformation with
+     * @return a random transformation
+     */
+    public static Transformation random(Random random) {
+        return new Transformation(
+                random.nextBoolean(),
+                randomLines(random),
+                randomLines(random),
+                randomNumbers(random)
+        );
+    }
+
+    /**
+     * Get a random permutation of the rows or columns that keeps bands or stacks together.
+     */
+    private static int[] randomLines(Random random) {
+        int[] groups = shuffle(new int[] {0, 1, 2}, random);
+        int[] lines = new int[BOARD_SIZE];
+
+        for (int group = 0; group < BLOCK_SIZE; group++) {
+            int[] offsets = shuffle(new int[] {0, 1, 2}, random);
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                lines[group * BLOCK_SIZE + i] = groups[group] * BLOCK_SIZE + offsets[i];
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Get a random relabeling of the numbers 1-9 that keeps 0.
+     */
+    private static int[] randomNumbers(Random random) {
+        int[] numbers = new int[BOARD_SIZE + 1];
+        int[] labels = shuffle(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9}, random);
+        System.arraycopy(labels, 0, numbers, 1, BOARD_SIZE);
+        return numbers;
+    }
+
+    /**
+     * Shuffle an array in place with the Fisher-Yates algorithm.
+     */
+    private static int[] shuffle(int[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+        return array;
+    }
+
+    /**
+     * Transform a board.
+     *
+     * @param board the 9x9 board to transform, where empty tiles are 0
+     * @return a new 9x9 board with the transformation applied
+     */
+    public int[][] apply(int[][] board) {
+        int[][] transformed = new int[BOARD_SIZE][BOARD_SIZE];
+        apply(board, transformed);
+        return transformed;
+    }
+
+    /**
+     * Transform a board into an existing board.
+     *
+     * @param board the 9x9 board to transform, where empty tiles are 0
+     * @param transformed the 9x9 board to write the transformed board to, which must not be the
+     *                    same array as the board
+     */
+    public void apply(int[][] board, int[][] transformed) {
+        for (int y = 0; y < BOARD_SIZE; y++) {
+            for (int x = 0; x < BOARD_SIZE; x++) {
+                int value = transposed
+                        ? board[columns[x]][rows[y]]
+                        : board[rows[y]][columns[x]];
+                transformed[y][x] = numbers[value];
+            }
+        }
+    }
+
+    /**
+     * Get the transformation that undoes this transformation.
+     *
+     * @return the inverse of this transformation
+     */
+    public Transformation inverse() {
+        int[] inverseRows = invert(rows);
+        int[] inverseColumns = invert(columns);
+
+        // after a transposition, the rows of the transformed board come from the original columns
+        return new Transformation(
+                transposed,
+                transposed ? inverseColumns : inverseRows,
+                transposed ? inverseRows : inverseColumns,
+                invert(numbers)
+        );
+    }
+
+    /**
+     * Get the inverse of a permutation.
+     */
+    private static int[] invert(int[] permutation) {
+        int[] inverse = new int[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            inverse[permutation[i]] = i;
+        }
+        return inverse;
+    }
+
+    /**
+     * Get whether the board is transposed before it is permuted.
+     *
+     * @return whether the board is transposed
+     */
+    public boolean isTransposed() {
+        return transposed;
+    }
+
+    /**
+     * Get the row of the original board that each row of the transformed board is taken from.
+     *
+     * @return a copy of the row permutation
+     */
+    public int[] getRows() {
+        return rows.clone();
+    }
+
+    /**
+     * Get the column of the original board that each column of the transformed board is taken
+     * from.
+     *
+     * @return a copy of the column permutation
+     */
+    public int[] getColumns() {
+        return columns.clone();
+    }
+
+    /**
+     * Get the number that each number 0-9 is relabeled to.
+     *
+     * @return a copy of the relabeling, where index 0 is always 0
+     */
+    public int[] getNumbers() {
+        return numbers.clone();
+    }
+
+    /**
+     * Check that a permutation of rows or columns keeps bands or stacks together.
+     *
+     * @throws IllegalArgumentException if it isn't a permutation, or splits a band or stack
+     */
+    private static void validateLines(int[] lines) throws IllegalArgumentException {
+        if (lines.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("There must be 9 rows and 9 columns");
+        }
+
+        boolean[] seen = new boolean[BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            int line = lines[i];
+            if ((line < 0) || (line >= BOARD_SIZE) || seen[line]) {
+                throw new IllegalArgumentException("Rows and columns must be a permutation");
+            }
+
+            int first = lines[i - i % BLOCK_SIZE];
+            if (line / BLOCK_SIZE != first / BLOCK_SIZE) {
+                throw new IllegalArgumentException("Rows and columns must keep blocks together");
+            }
+
+            seen[line] = true;
+        }
+    }
+
+    /**
+     * Check that a relabeling is a permutation of 1-9 that keeps 0.
+     *
+     * @throws IllegalArgumentException if it isn't
+     */
+    private static void validateNumbers(int[] numbers) throws IllegalArgumentException {
+        if ((numbers.length != BOARD_SIZE + 1) || (numbers[0] != 0)) {
+            throw new IllegalArgumentException("Numbers must be relabeled from 0-9, keeping 0");
+        }
+
+        boolean[] seen = new boolean[BOARD_SIZE + 1];
+        for (int i = 1; i <= BOARD_SIZE; i++) {
+            int number = numbers[i];
+            if ((number < 1) || (number > BOARD_SIZE) || seen[number]) {
+                throw new IllegalArgumentException("Numbers 1-9 must be a permutation");
+            }
+            seen[number] = true;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Boolean.hashCode(transposed);
+        hash = 31 * hash + Arrays.hashCode(rows);
+        hash = 31 * hash + Arrays.hashCode(columns);
+        return 31 * hash + Arrays.hashCode(numbers);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object otherObject) {
+        if (this == otherObject) return true;
+        if (otherObject == null) return false;
+        if (getClass() != otherObject.getClass()) return false;
+
+        Transformation other = (Transformation) otherObject;
+        return (transposed == other.transposed)
+                && Arrays.equals(rows, other.rows)
+                && Arrays.equals(columns, other.columns)
+                && Arrays.equals(numbers, other.numbers);
+    }
+}
@@ -0,0 +1,105 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * A bounded table of boards that are known to have no solution or exactly one, keyed by their
+ * {@link Zobrist} hash. A solver that meets a board in the table again can skip searching it, and
+ * when puzzles that only differ by a single tile are checked one after another, as when clues are
+ * removed from a puzzle, most of the search of the next puzzle runs into boards the search of the
+ * previous puzzle has already been through.
+ * <br>
+ * The table has a fixed number of slots, which is a power of two, and each slot is a single long:
+ * the hash with its lowest bit replaced by the number of solutions. A board always goes in the
+ * slot picked by its hash, replacing whatever was there, so the most recent boards are kept. A
+ * board is only mistaken for another when their hashes match in 63 bits, which happens with a
+ * probability of about 2^-63 per lookup.
+ * <br>
+ * The table is not thread-safe, and should be used by a single solver. It may be kept across
+ * calls to the solver, e.g. for all the puzzles created in a generation run.
+ */
+public final class TranspositionTable {
+    private static final long EMPTY = 0;
+    private static final long COUNT_BIT = 1;
+    private final long[] slots;
+    private final int mask;
+    private long hits;
+    private long stores;
+
+    /**
+     * Create a new empty table.
+     *
+     * @param capacity the number of boards the table can hold, which is rounded up to a power
+     *                 of two
+     * @throws IllegalArgumentException if the capacity is less than 1 or more than 2^30
+     */
+    public TranspositionTable(int capacity) throws IllegalArgumentException {
+        if ((capacity < 1) || (capacity > (1 << 30))) {
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Get the number of solutions of a board.
+     *
+     * @param hash the Zobrist hash of the board
+     * @return the number of solutions, 0 or 1, or -1 if the board isn't in the table
+     */
+    int get(long hash) {
+        long slot = slots[(int) hash & mask];
+        if ((slot == EMPTY) || ((slot ^ hash) & ~COUNT_BIT) != 0) return -1;
+
+        hits++;
+        return (int) (slot & COUNT_BIT);
+    }
+
+    /**
+     * Store the number of solutions of a board, replacing the board in its slot.
+     *
+     * @param hash the Zobrist hash of the board
+     * @param solutions the number of solutions, which must be 0 or 1
+     */
+    void put(long hash, int solutions) {
+        slots[(int) hash & mask] = (hash & ~COUNT_BIT) | solutions;
+        stores++;
+    }
+
+    /**
+     * Remove every board from the table, e.g. when the rules the boards were solved by change.
+     */
+    void clear() {
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * Get the number of slots in the table.
+     *
+     * @return the number of slots
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Get the number of times a board was found in the table.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of boards that have been stored in the table.
+     *
+     * @return the number of stores
+     */
+    public long getStores() {
+        return stores;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link CandidateEngine} that computes the possible numbers of 8 tiles at once in 256-bit
+ * vectors, with the incubating Vector API of the JDK. The masks of the row, column and block of
+ * each tile are gathered into vectors, and the possible numbers, their count and the singles are
+ * computed lane by lane.
+ * <br>
+ * The vectors are 256 bits even on machines with AVX-512, since C2 in JDK 17 can miscompile
+ * 512-bit gathers and crash the JVM, and the wider gathers were no faster.
+ * <br>
+ * The class can only be loaded when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, so it should be created with
+ * {@link CandidateEngine#vectorized()}, which falls back to the {@link ScalarCandidateEngine}
+ * otherwise.
+ */
+public class VectorCandidateEngine implements CandidateEngine {
+    private final static VectorSpecies<Integer> SPECIES = IntVector.SPECIES_256;
+    private final static int TILES = 81;
+    private final static int ALL_CANDIDATES = (1 << 9) - 1;
+    // higher than the count of any empty tile, so that filled in tiles are never the fewest
+    private final static int FILLED = Integer.SIZE;
+    // the units of each tile, as maps for gathering the masks of the units into lanes
+    private final static int[] ROWS = getUnits(0);
+    private final static int[] COLUMNS = getUnits(1);
+    private final static int[] BLOCKS = getUnits(2);
+    // bit n in lane n, for turning lanes into bits, which is faster than VectorMask.toLong()
+    private final static IntVector LANE_BITS = IntVector.broadcast(SPECIES, 1)
+            .lanewise(VectorOperators.LSHL, IntVector.zero(SPECIES).addIndex(1));
+
+    /**
+     * Create a new vector engine.
+     *
+     * @throws UnsupportedOperationException if the machine has no 256-bit SIMD registers, in
+     *                                       which case the vectors would be emulated, and far
+     *                                       slower than the scalar engine
+     */
+    public VectorCandidateEngine() throws UnsupportedOperationException {
+        if (IntVector.SPECIES_PREFERRED.vectorBitSize() < SPECIES.vectorBitSize()) {
+            throw new UnsupportedOperationException("The machine has no 256-bit SIMD registers");
+        }
+    }
+
+    @Override
+    public int compute(int[] values, int[] usedInUnit, int[] candidates, long[] singles) {
+        int fewestTile = -1;
+        int fewest = FILLED;
+        singles[0] = 0;
+        singles[1] = 0;
+
+        // the last vector overlaps the one before it, so that no tiles are left over, which
+        // gives the same results since all of its lanes are computed the same way again
+        for (int start = 0; start < TILES; start += SPECIES.length()) {
+            int tile = Math.min(start, TILES - SPECIES.length());
+            IntVector used = IntVector.fromArray(SPECIES, usedInUnit, 0, ROWS, tile)
+                    .or(IntVector.fromArray(SPECIES, usedInUnit, 0, COLUMNS, tile))
+                    .or(IntVector.fromArray(SPECIES, usedInUnit, 0, BLOCKS, tile));
+            VectorMask<Integer> filled = IntVector.fromArray(SPECIES, values, tile).compare(
+                    VectorOperators.NE,
+                    0
+            );
+
+            IntVector tileCandidates = used.not().and(ALL_CANDIDATES).blend(0, filled);
+            tileCandidates.intoArray(candidates, tile);
+
+            IntVector count = bitCount(tileCandidates);
+            // the lanes never straddle two words, since vectors start at multiples of 8, except
+            // for the last one, which is in word 1
+            int singleLanes = LANE_BITS.blend(0, count.compare(VectorOperators.NE, 1))
+                    .reduceLanes(VectorOperators.OR);
+            singles[tile >>> 6] |= (long) singleLanes << tile;
+
+            IntVector emptyCount = count.blend(FILLED, filled);
+            int chunkFewest = emptyCount.reduceLanes(VectorOperators.MIN);
+            if (chunkFewest < fewest) {
+                fewest = chunkFewest;
+                fewestTile = tile + emptyCount.eq(chunkFewest).firstTrue();
+            }
+        }
+        return fewestTile;
+    }
+
+    /**
+     * Count the set bits in every lane, by adding up bits in pairs, then nibbles, then bytes,
+     * since the Vector API of JDK 17 has no lanewise bit count.
+     */
+    private static IntVector bitCount(IntVector bits) {
+        IntVector count = bits.sub(bits.lanewise(VectorOperators.LSHR, 1).and(0x55555555));
+        count = count.and(0x33333333)
+                .add(count.lanewise(VectorOperators.LSHR, 2).and(0x33333333));
+        count = count.add(count.lanewise(VectorOperators.LSHR, 4)).and(0x0F0F0F0F);
+        return count.mul(0x01010101).lanewise(VectorOperators.LSHR, 24);
+    }
+
+    /**
+     * Get the row (0), column (1) or block (2) unit of every tile.
+     */
+    private static int[] getUnits(int kind) {
+        int[][] unitsOfTiles = Layout.STANDARD.getUnitsOfTiles();
+        int[] units = new int[TILES];
+        for (int tile = 0; tile < TILES; tile++) {
+            units[tile] = unitsOfTiles[tile][kind];
+        }
+        return units;
+    }
+}
@@ -0,0 +1,121 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+/**
+ * Zobrist hashing of 9x9 boards. Every tile and number has a fixed random 64-bit key, and the
+ * hash of a board is the XOR of the keys of its filled in tiles, while empty tiles add nothing.
+ * Since XOR is its own inverse, the hash is updated in constant time when a tile is filled in or
+ * cleared, by XOR-ing in the key of the number that leaves the tile and the number that enters
+ * it, so a search or a game can keep the hash of its board without ever rehashing all 81 tiles.
+ * <br>
+ * The keys are generated from a fixed seed, so the same board has the same hash in every run.
+ * Two different boards have the same hash with a probability of about 2^-64.
+ * <br>
+ * Boards of other sizes, such as 16x16, have keys of their own, which are computed when asked
+ * for rather than stored, since there can be up to 64 numbers in each of 4096 tiles.
+ */
+public final class Zobrist {
+    private static final int BOARD_SIZE = 9;
+    private static final int TILES = BOARD_SIZE * BOARD_SIZE;
+    private static final int VALUES = BOARD_SIZE + 1;
+    private static final int MAX_SIZE = 64;
+    private static final long SEED = 0xA4093822299F31D0L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // the key of number n in tile t is KEYS[t * 10 + n], where the keys of empty tiles are 0
+    private static final long[] KEYS = getKeys();
+
+    private Zobrist() {}
+
+    /**
+     * Get the key of a number in a tile, which is XOR-ed into the hash when the number is filled
+     * in, and XOR-ed out again when it is cleared.
+     *
+     * @param tile the index of the tile in row-major order, i.e. {@code y * 9 + x}
+     * @param value the number in the tile, or 0 for an empty tile, which has the key 0
+     * @return the key of the number in the tile
+     * @throws IllegalArgumentException if the tile isn't 0-80 or the number isn't 0-9
+     */
+    public static long key(int tile, int value) throws IllegalArgumentException {
+        if ((tile < 0) || (tile >= TILES) || (value < 0) || (value >= VALUES)) {
+            throw new IllegalArgumentException("Tiles can only hold numbers 0-9");
+        }
+        return KEYS[tile * VALUES + value];
+    }
+
+    /**
+     * Get the key of a number in a tile of a board of the given size. For 9x9 boards, this is the
+     * same key as {@link #key(int, int)}.
+     *
+     * @param size the width and height of the board, e.g. 16 for a 16x16 board
+     * @param tile the index of the tile in row-major order, i.e. {@code y * size + x}
+     * @param value the number in the tile, or 0 for an empty tile, which has the key 0
+     * @return the key of the number in the tile
+     * @throws IllegalArgumentException if the size isn't 1-64, the tile isn't on the board or the
+     *                                  number is higher than the size
+     */
+    public static long key(int size, int tile, int value) throws IllegalArgumentException {
+        if (size == BOARD_SIZE) return key(tile, value);
+
+        if ((size < 1) || (size > MAX_SIZE)
+                || (tile < 0) || (tile >= size * size)
+                || (value < 0) || (value > size)) {
+            throw new IllegalArgumentException("Tiles can only hold numbers 0-" + size);
+        }
+        if (value == 0) return 0;
+
+        // the keys of 9x9 boards are the first values of the sequence, so start after them
+        return mix(SEED + (TILES * VALUES + (long) tile * (MAX_SIZE + 1) + value) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Hash a whole board, which gives the same hash as filling in its tiles one at a time.
+     *
+     * @param board the 9x9 board to hash, where empty tiles are 0
+     * @return the hash of the board, which is 0 for an empty board
+     * @throws IllegalArgumentException if the board isn't a 9x9 grid of numbers 0-9
+     */
+    public static long hash(int[][] board) throws IllegalArgumentException {
+        if (board.length != BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 9 rows");
+        }
+
+        long hash = 0;
+        for (int y = 0; y < BOARD_SIZE; y++) {
+            if (board[y].length != BOARD_SIZE) {
+                throw new IllegalArgumentException("Board must have 9 columns");
+            }
+            for (int x = 0; x < BOARD_SIZE; x++) {
+                int value = board[y][x];
+                if ((value < 0) || (value >= VALUES)) {
+                    throw new IllegalArgumentException("Boards can only contain numbers 0-9");
+                }
+                hash ^= KEYS[(y * BOARD_SIZE + x) * VALUES + value];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Generate the keys with SplitMix64, leaving the keys of empty tiles at 0.
+     */
+    private static long[] getKeys() {
+        long[] keys = new long[TILES * VALUES];
+        long state = SEED;
+
+        for (int tile = 0; tile < TILES; tile++) {
+            for (int value = 1; value < VALUES; value++) {
+                state += GOLDEN_GAMMA;
+                keys[tile * VALUES + value] = mix(state);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * The output function of SplitMix64.
+     */
+    private static long mix(long state) {
+        long mixed = (state ^ (state >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+}
@@ -0,0 +1,68 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import com.sim_kar.sudoku_factory.sudoku.BitmaskSolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.stream.Stream;
+
+class CorpusHarnessTest {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CorpusHarness harness = new CorpusHarness(
+            new BitmaskSolver(new Random(0L)),
+            new PrintStream(output)
+    );
+
+    @ParameterizedTest(name = "Every puzzle in the {0} corpus is solved")
+    @ValueSource(strings = {"seventeen", "hardest", "pathological"})
+    void everyPuzzleInCorpusIsSolved(String name) throws IOException {
+        try (Stream<int[][]> puzzles = CorpusHarness.corpus(name)) {
+            CorpusHarness.Summary summary = harness.solve(name, puzzles);
+
+            assertAll(
+                    () -> assertTrue(summary.getPuzzles() > 0),
+                    () -> assertEquals(summary.getPuzzles(), summary.getSolved()),
+                    () -> assertTrue(summary.getNodes() > 0)
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Every puzzle in the seventeen corpus has 17 clues")
+    void seventeenCorpusHas17Clues() throws IOException {
+        try (Stream<int[][]> puzzles = CorpusHarness.corpus("seventeen")) {
+            assertTrue(puzzles.allMatch(puzzle -> PuzzleText.toLine(puzzle)
+                    .chars()
+                    .filter(character -> character != '.')
+                    .count() == 17));
+        }
+    }
+
+    @Test
+    @DisplayName("A puzzle without a solution is reported as not solved")
+    void puzzleWithoutSolutionIsNotSolved() {
+        int[][] puzzle = new int[9][9];
+        puzzle[0][0] = 1;
+        puzzle[0][1] = 1;
+        CorpusHarness.Summary summary = harness.solve("invalid", Stream.<int[][]>of(puzzle));
+
+        assertAll(
+                () -> assertEquals(1, summary.getPuzzles()),
+                () -> assertEquals(0, summary.getSolved()),
+                () -> assertTrue(output.toString().contains("no solution"))
+        );
+    }
+
+    @Test
+    @DisplayName("Getting a corpus that doesn't exist throws exception")
+    void unknownCorpusThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> CorpusHarness.corpus("unknown"));
+    }
+}
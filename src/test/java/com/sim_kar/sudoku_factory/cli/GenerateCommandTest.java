@@ -0,0 +1,109 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+class GenerateCommandTest {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Run the generate command with the given arguments, writing to the given file.
+     */
+    List<String> generate(Path file, String... args) throws IOException {
+        String[] withOutput = new String[args.length + 2];
+        System.arraycopy(args, 0, withOutput, 0, args.length);
+        withOutput[args.length] = "--output";
+        withOutput[args.length + 1] = file.toString();
+
+        GenerateCommand.parse(withOutput).run(new PrintStream(output));
+        return Files.readAllLines(file);
+    }
+
+    @Test
+    @DisplayName("The given number of puzzles with the given clues are written to the file")
+    void puzzlesAreWrittenToFile() throws IOException {
+        List<String> lines = generate(directory.resolve("puzzles.txt"),
+                "--count", "20", "--clues", "30", "--seed", "1", "--threads", "2");
+
+        assertEquals(20, lines.size());
+        for (String line : lines) {
+            assertEquals(30, line.chars().filter(character -> character != '.').count());
+        }
+    }
+
+    @Test
+    @DisplayName("The same seed creates the same puzzles with any number of threads")
+    void sameSeedCreatesSamePuzzles() throws IOException {
+        Set<String> single = new TreeSet<>(generate(directory.resolve("single.txt"),
+                "--count", "10", "--clues", "30", "--seed", "7", "--threads", "1"));
+        Set<String> parallel = new TreeSet<>(generate(directory.resolve("parallel.txt"),
+                "--count", "10", "--clues", "30", "--seed", "7", "--threads", "3"));
+
+        assertEquals(single, parallel);
+    }
+
+    @Test
+    @DisplayName("The throughput and latency percentiles are printed")
+    void resultsArePrinted() throws IOException {
+        generate(directory.resolve("puzzles.txt"), "--count", "5", "--grade", "easy");
+
+        assertAll(
+                () -> assertTrue(output.toString().contains("puzzles/s")),
+                () -> assertTrue(output.toString().contains("p99:"))
+        );
+    }
+
+    @Test
+    @DisplayName("No puzzle is written twice with dedup, and the rejected repeats are printed")
+    void dedupWritesDistinctPuzzles() throws IOException {
+        List<String> lines = generate(directory.resolve("puzzles.txt"),
+                "--count", "30", "--clues", "80", "--seed", "3", "--threads", "2",
+                "--dedup", "canonical");
+
+        assertAll(
+                () -> assertEquals(30, new TreeSet<>(lines).size()),
+                () -> assertTrue(output.toString().contains("repeated puzzles rejected"))
+        );
+    }
+
+    @Test
+    @DisplayName("An unknown dedup mode throws exception")
+    void unknownDedupThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> GenerateCommand.parse(
+                "--count", "1", "--clues", "30", "--dedup", "fuzzy", "--output", "out.txt"));
+    }
+
+    @Test
+    @DisplayName("Giving both clues and grade throws exception")
+    void cluesAndGradeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> GenerateCommand.parse(
+                "--count", "1", "--clues", "30", "--grade", "easy", "--output", "out.txt"));
+    }
+
+    @Test
+    @DisplayName("Leaving out the output file throws exception")
+    void missingOutputThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GenerateCommand.parse("--count", "1", "--clues", "30"));
+    }
+
+    @Test
+    @DisplayName("An unknown solver throws exception")
+    void unknownSolverThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> GenerateCommand.parse(
+                "--count", "1", "--clues", "30", "--solver", "magic", "--output", "out.txt"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.sim_kar.sudoku_factory.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class SolveCommandTest {
+    static final String PUZZLE =
+            "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..";
+    static final String SOLUTION =
+            "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+    static final String EMPTY = ".".repeat(81);
+    static final String DUPLICATES = "11" + ".".repeat(79);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Solve the given lines and get the result lines.
+     */
+    List<String> solve(List<String> lines, String threads, String... options) throws IOException {
+        Path input = directory.resolve("input.txt");
+        Path output = directory.resolve("output.txt");
+        Files.write(input, lines);
+
+        List<String> args = new ArrayList<>(List.of(
+                "--input", input.toString(),
+                "--output", output.toString(),
+                "--threads", threads
+        ));
+        args.addAll(List.of(options));
+        SolveCommand.parse(args.toArray(new String[0]))
+                .run(new PrintStream(new ByteArrayOutputStream()));
+        return Files.readAllLines(output);
+    }
+
+    @Test
+    @DisplayName("A puzzle with a single solution is unique, and its solution is written")
+    void uniquePuzzleIsSolved() throws IOException {
+        String result = solve(List.of(PUZZLE), "1").get(0);
+
+        assertAll(
+                () -> assertTrue(result.startsWith(SOLUTION + " 1 ")),
+                () -> assertTrue(result.endsWith(" unique"))
+        );
+    }
+
+    @Test
+    @DisplayName("Every kind of line gets a result with the right status")
+    void everyLineGetsStatus() throws IOException {
+        List<String> results = solve(List.of(EMPTY, DUPLICATES, "123", "# comment", ""), "1");
+
+        assertAll(
+                () -> assertEquals(3, results.size()),
+                () -> assertEquals("2", results.get(0).split(" ")[1]),
+                () -> assertTrue(results.get(0).endsWith(" multiple")),
+                () -> assertEquals("- 0", results.get(1).substring(0, 3)),
+                () -> assertTrue(results.get(1).endsWith(" unsolvable")),
+                () -> assertEquals("- 0 0 invalid", results.get(2))
+        );
+    }
+
+    @Test
+    @DisplayName("The results are written in the same order as the puzzles")
+    void resultsAreInOrder() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            lines.add((i % 3 == 0) ? PUZZLE : ((i % 3 == 1) ? DUPLICATES : "x"));
+        }
+
+        List<String> results = solve(lines, "4");
+
+        assertEquals(lines.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            String status = (i % 3 == 0) ? "unique" : ((i % 3 == 1) ? "unsolvable" : "invalid");
+            assertTrue(results.get(i).endsWith(status), "line " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("A repeated puzzle is answered by the cache with the same result and no nodes")
+    void repeatedPuzzleIsCached() throws IOException {
+        List<String> results = solve(List.of(PUZZLE, DUPLICATES, PUZZLE, DUPLICATES), "1",
+                "--cache", "100", "--cache-key", "canonical");
+
+        assertAll(
+                () -> assertTrue(results.get(2).startsWith(SOLUTION + " 1 0 ")),
+                () -> assertTrue(results.get(2).endsWith(" unique")),
+                () -> assertEquals("- 0 0 unsolvable", results.get(3))
+        );
+    }
+
+    @Test
+    @DisplayName("An unknown cache key throws exception")
+    void unknownCacheKeyThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> SolveCommand.parse(
+                "--input", "in.txt", "--output", "out.txt", "--cache-key", "fuzzy"));
+    }
+
+    @Test
+    @DisplayName("Leaving out the input file throws exception")
+    void missingInputThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SolveCommand.parse("--output", "out.txt"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+
+class BinaryPuzzleFormatTest {
+    static final int[][] PUZZLE = PuzzleText.toBoard(PuzzleTextTest.PUZZLE);
+    static final int[][] SOLUTION = PuzzleText.toBoard(
+            "483921657967345821251876493548132976729564138136798245372689514814253769695417382"
+    );
+    ByteBuffer buffer = ByteBuffer.allocate(3 * BinaryPuzzleFormat.RECORD_SIZE);
+
+    @Test
+    @DisplayName("A record is smaller than 60 bytes")
+    void recordIsSmallerThan60Bytes() {
+        assertTrue(BinaryPuzzleFormat.RECORD_SIZE < 60);
+    }
+
+    @Test
+    @DisplayName("A written record is read back as the same puzzle, solution and rating")
+    void recordRoundTrips() {
+        int offset = BinaryPuzzleFormat.RECORD_SIZE;
+        BinaryPuzzleFormat.write(SOLUTION, PUZZLE, 1234, buffer, offset);
+        int[][] puzzle = new int[9][9];
+        int[][] solution = new int[9][9];
+        BinaryPuzzleFormat.readPuzzle(buffer, offset, puzzle);
+        BinaryPuzzleFormat.readSolution(buffer, offset, solution);
+
+        assertAll(
+                () -> assertArrayEquals(PUZZLE, puzzle),
+                () -> assertArrayEquals(SOLUTION, solution),
+                () -> assertEquals(32, BinaryPuzzleFormat.getClues(buffer, offset)),
+                () -> assertEquals(1234, BinaryPuzzleFormat.getRating(buffer, offset))
+        );
+    }
+
+    @Test
+    @DisplayName("Writing a record doesn't touch the records next to it")
+    void writingDoesNotTouchNeighbours() {
+        BinaryPuzzleFormat.write(SOLUTION, SOLUTION, 65535, buffer, BinaryPuzzleFormat.RECORD_SIZE);
+
+        for (int i = 0; i < BinaryPuzzleFormat.RECORD_SIZE; i++) {
+            assertEquals(0, buffer.get(i));
+            assertEquals(0, buffer.get(2 * BinaryPuzzleFormat.RECORD_SIZE + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Writing a clue that differs from the solution throws exception")
+    void differentClueThrowsException() {
+        int[][] puzzle = new int[9][9];
+        puzzle[0][0] = SOLUTION[0][0] % 9 + 1;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryPuzzleFormat.write(SOLUTION, puzzle, 0, buffer, 0));
+    }
+
+    @Test
+    @DisplayName("Writing a solution with empty tiles throws exception")
+    void incompleteSolutionThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryPuzzleFormat.write(PUZZLE, PUZZLE, 0, buffer, 0));
+    }
+
+    @Test
+    @DisplayName("Writing a rating above 65535 throws exception")
+    void ratingOutOfRangeThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BinaryPuzzleFormat.write(SOLUTION, PUZZLE, 65536, buffer, 0));
+    }
+}
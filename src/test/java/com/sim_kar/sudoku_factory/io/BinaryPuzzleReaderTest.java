@@ -0,0 +1,92 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class BinaryPuzzleReaderTest {
+    static final int[][] PUZZLE = BinaryPuzzleFormatTest.PUZZLE;
+    static final int[][] SOLUTION = BinaryPuzzleFormatTest.SOLUTION;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Write the given number of copies of the test puzzle, each with its index as rating.
+     */
+    Path writePuzzles(int count) throws IOException {
+        Path file = directory.resolve("puzzles.bin");
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(SOLUTION, PUZZLE, i);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    @DisplayName("A file of puzzles is the size of the header and the records")
+    void fileHasHeaderAndRecords() throws IOException {
+        Path file = writePuzzles(10);
+
+        assertEquals(BinaryPuzzleFormat.HEADER_SIZE + 10 * BinaryPuzzleFormat.RECORD_SIZE,
+                Files.size(file));
+    }
+
+    /**
+     * The reader buffers 1024 records at a time, so 2500 records cross several buffer refills.
+     */
+    @Test
+    @DisplayName("Every written puzzle is read back in order")
+    void puzzlesAreReadInOrder() throws IOException {
+        Path file = writePuzzles(2500);
+        int[][] puzzle = new int[9][9];
+        int[][] solution = new int[9][9];
+        int read = 0;
+
+        try (BinaryPuzzleReader reader = new BinaryPuzzleReader(file)) {
+            assertEquals(2500, reader.getCount());
+
+            while (reader.next()) {
+                reader.readPuzzle(puzzle);
+                reader.readSolution(solution);
+                assertEquals(read, reader.getRating());
+                assertEquals(32, reader.getClues());
+                assertArrayEquals(PUZZLE, puzzle);
+                assertArrayEquals(SOLUTION, solution);
+                read++;
+            }
+        }
+
+        assertEquals(2500, read);
+    }
+
+    @Test
+    @DisplayName("A file without puzzles has no puzzles to read")
+    void emptyFileHasNoPuzzles() throws IOException {
+        try (BinaryPuzzleReader reader = new BinaryPuzzleReader(writePuzzles(0))) {
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Getting the current puzzle before moving to it throws exception")
+    void noCurrentPuzzleThrowsException() throws IOException {
+        try (BinaryPuzzleReader reader = new BinaryPuzzleReader(writePuzzles(1))) {
+            assertThrows(IllegalStateException.class, reader::getRating);
+        }
+    }
+
+    @Test
+    @DisplayName("Reading a file in another format throws exception")
+    void otherFormatThrowsException() throws IOException {
+        Path file = directory.resolve("puzzles.txt");
+        Files.writeString(file, PuzzleTextTest.PUZZLE);
+
+        assertThrows(IllegalArgumentException.class, () -> new BinaryPuzzleReader(file));
+    }
+}
@@ -0,0 +1,67 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class MappedLineReaderTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Read every line of a file with the given content, copying at most the given capacity.
+     */
+    List<String> readLines(String content, int capacity) throws IOException {
+        Path file = directory.resolve("lines.txt");
+        Files.writeString(file, content);
+        List<String> lines = new ArrayList<>();
+        byte[] line = new byte[capacity];
+
+        try (MappedLineReader reader = new MappedLineReader(file)) {
+            int length;
+            while ((length = reader.readLine(line, 0, capacity)) >= 0) {
+                lines.add(new String(line, 0, Math.min(length, capacity), StandardCharsets.US_ASCII)
+                        + ((length > capacity) ? "+" + (length - capacity) : ""));
+            }
+        }
+
+        return lines;
+    }
+
+    @Test
+    @DisplayName("Lines are read in order, without their line endings")
+    void linesAreReadInOrder() throws IOException {
+        assertEquals(List.of("abc", "", "de"), readLines("abc\n\nde\n", 10));
+    }
+
+    @Test
+    @DisplayName("Carriage returns before line endings are removed")
+    void carriageReturnsAreRemoved() throws IOException {
+        assertEquals(List.of("abc", "de"), readLines("abc\r\nde\r\n", 10));
+    }
+
+    @Test
+    @DisplayName("The last line doesn't need a line ending")
+    void lastLineWithoutLineEnding() throws IOException {
+        assertEquals(List.of("abc", "de"), readLines("abc\nde", 10));
+    }
+
+    @Test
+    @DisplayName("A line longer than the capacity is cut, but its whole length is returned")
+    void longLineIsCut() throws IOException {
+        assertEquals(List.of("ab+3", "cd"), readLines("abcde\ncd\n", 2));
+    }
+
+    @Test
+    @DisplayName("An empty file has no lines")
+    void emptyFileHasNoLines() throws IOException {
+        assertEquals(List.of(), readLines("", 10));
+    }
+}
@@ -0,0 +1,195 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+class PuzzleBankTest {
+    static final int[][] SOLUTION = BinaryPuzzleFormatTest.SOLUTION;
+    // the clues and rating of each puzzle in the bank
+    static final int[] CLUES = {30, 40, 30, 50};
+    static final int[] RATINGS = {50, 60, 100, 60};
+
+    @TempDir
+    Path directory;
+    Path file;
+    PuzzleBank bank;
+    Random random = new Random(0L);
+
+    /**
+     * Get a puzzle of the test solution where the first tiles in row-major order are clues.
+     */
+    static int[][] getPuzzle(int clues) {
+        int[][] puzzle = new int[9][9];
+        for (int tile = 0; tile < clues; tile++) {
+            puzzle[tile / 9][tile % 9] = SOLUTION[tile / 9][tile % 9];
+        }
+        return puzzle;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = directory.resolve("bank.bin");
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(file)) {
+            for (int i = 0; i < CLUES.length; i++) {
+                writer.write(SOLUTION, getPuzzle(CLUES[i]), RATINGS[i]);
+            }
+        }
+        PuzzleBank.index(file);
+        bank = new PuzzleBank(file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bank.close();
+    }
+
+    @Test
+    @DisplayName("A puzzle is read by its index")
+    void puzzleIsReadByIndex() {
+        int[][] puzzle = new int[9][9];
+        int[][] solution = new int[9][9];
+        bank.readPuzzle(1, puzzle);
+        bank.readSolution(1, solution);
+
+        assertAll(
+                () -> assertEquals(4, bank.getCount()),
+                () -> assertEquals(40, bank.getClues(1)),
+                () -> assertEquals(60, bank.getRating(1)),
+                () -> assertArrayEquals(getPuzzle(40), puzzle),
+                () -> assertArrayEquals(SOLUTION, solution)
+        );
+    }
+
+    @Test
+    @DisplayName("Reading a puzzle with an index outside the bank throws exception")
+    void indexOutsideBankThrowsException() {
+        assertAll(
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> bank.getClues(4)),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> bank.getRating(-1))
+        );
+    }
+
+    @Test
+    @DisplayName("Puzzles are counted by clues and by rating")
+    void puzzlesAreCounted() {
+        assertAll(
+                () -> assertEquals(2, bank.getCount(30)),
+                () -> assertEquals(0, bank.getCount(31)),
+                () -> assertEquals(0, bank.getCount(82)),
+                () -> assertEquals(3, bank.getCount(50, 60)),
+                () -> assertEquals(4, bank.getCount(0, Integer.MAX_VALUE)),
+                () -> assertEquals(0, bank.getCount(61, 99)),
+                () -> assertEquals(0, bank.getCount(60, 50))
+        );
+    }
+
+    @Test
+    @DisplayName("A found puzzle has the given number of clues")
+    void foundPuzzleHasClues() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(30, bank.getClues(bank.find(30, random)));
+        }
+    }
+
+    @Test
+    @DisplayName("A found puzzle has a rating within the given range")
+    void foundPuzzleHasRatingWithinRange() {
+        for (int i = 0; i < 20; i++) {
+            int rating = bank.getRating(bank.find(55, 100, random));
+            assertTrue((rating >= 55) && (rating <= 100));
+        }
+    }
+
+    @Test
+    @DisplayName("Finding a puzzle that isn't in the bank returns -1")
+    void missingPuzzleIsNotFound() {
+        assertAll(
+                () -> assertEquals(-1, bank.find(25, random)),
+                () -> assertEquals(-1, bank.find(101, 200, random))
+        );
+    }
+
+    @Test
+    @DisplayName("Opening a file that is shorter than its header says throws exception")
+    void truncatedFileThrowsException() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(BinaryPuzzleFormat.HEADER_SIZE + 3 * BinaryPuzzleFormat.RECORD_SIZE);
+        }
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new PuzzleBank(file)),
+                () -> assertThrows(IllegalArgumentException.class, () -> PuzzleBank.index(file))
+        );
+    }
+
+    @Test
+    @DisplayName("Opening a file that hasn't been indexed throws exception")
+    void fileWithoutIndexThrowsException() throws IOException {
+        Path other = directory.resolve("other.bin");
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(other)) {
+            writer.write(SOLUTION, getPuzzle(30), 50);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleBank(other));
+    }
+
+    @Test
+    @DisplayName("Opening a file with an index that was cut short throws exception")
+    void cutIndexThrowsException() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 1);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleBank(file));
+    }
+
+    @Test
+    @DisplayName("Indexing a file again gives the same bank")
+    void indexingAgainGivesSameBank() throws IOException {
+        long size = Files.size(file);
+        PuzzleBank.index(file);
+
+        try (PuzzleBank indexedAgain = new PuzzleBank(file)) {
+            assertAll(
+                    () -> assertEquals(size, Files.size(file)),
+                    () -> assertEquals(2, indexedAgain.getCount(30)),
+                    () -> assertEquals(3, indexedAgain.getCount(50, 60))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("A bank without puzzles finds nothing")
+    void emptyBankFindsNothing() throws IOException {
+        Path empty = directory.resolve("empty.bin");
+        new BinaryPuzzleWriter(empty).close();
+        PuzzleBank.index(empty);
+
+        try (PuzzleBank emptyBank = new PuzzleBank(empty)) {
+            assertAll(
+                    () -> assertEquals(0, emptyBank.getCount()),
+                    () -> assertEquals(-1, emptyBank.find(30, random)),
+                    () -> assertEquals(-1, emptyBank.find(0, Integer.MAX_VALUE, random))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Opening a file in another format throws exception")
+    void otherFormatThrowsException() throws IOException {
+        Path text = directory.resolve("puzzles.txt");
+        Files.writeString(text, PuzzleTextTest.PUZZLE);
+
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleBank(text));
+    }
+}
@@ -0,0 +1,75 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+class PuzzleReaderTest {
+    static final String PUZZLE = PuzzleTextTest.PUZZLE;
+    static final String CONTENT =
+            "# a comment\n" + PUZZLE + "\n\n" + PUZZLE.replace('.', '0') + "\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Reading a file skips comments and blank lines")
+    void readingSkipsCommentsAndBlankLines() throws IOException {
+        Path file = directory.resolve("puzzles.txt");
+        Files.writeString(file, CONTENT);
+
+        try (Stream<String> lines = PuzzleReader.lines(file)) {
+            assertEquals(2, lines.count());
+        }
+    }
+
+    @Test
+    @DisplayName("A gzip compressed file is decompressed")
+    void compressedFileIsDecompressed() throws IOException {
+        Path file = directory.resolve("puzzles.txt.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(CONTENT.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        try (Stream<int[][]> puzzles = PuzzleReader.puzzles(file)) {
+            List<int[][]> boards = puzzles.collect(Collectors.toList());
+
+            assertAll(
+                    () -> assertEquals(2, boards.size()),
+                    () -> assertArrayEquals(PuzzleText.toBoard(PUZZLE), boards.get(0))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("An empty file has no puzzles")
+    void emptyFileHasNoPuzzles() throws IOException {
+        Path file = directory.resolve("empty.txt");
+        Files.writeString(file, "");
+
+        try (Stream<int[][]> puzzles = PuzzleReader.puzzles(file)) {
+            assertEquals(0, puzzles.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming an invalid puzzle line throws exception")
+    void invalidLineThrowsException() throws IOException {
+        Path file = directory.resolve("invalid.txt");
+        Files.writeString(file, "123\n");
+
+        try (Stream<int[][]> puzzles = PuzzleReader.puzzles(file)) {
+            assertThrows(IllegalArgumentException.class, puzzles::count);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+
+class PuzzleTextTest {
+    static final String PUZZLE =
+            "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..";
+
+    @Test
+    @DisplayName("A puzzle line is converted to a board in row-major order")
+    void lineIsConvertedInRowMajorOrder() {
+        int[][] board = PuzzleText.toBoard(PUZZLE);
+
+        assertAll(
+                () -> assertEquals(0, board[0][0]),
+                () -> assertEquals(3, board[0][2]),
+                () -> assertEquals(9, board[1][0]),
+                () -> assertEquals(3, board[8][6])
+        );
+    }
+
+    @Test
+    @DisplayName("Both '.' and '0' are empty tiles")
+    void dotAndZeroAreEmpty() {
+        int[][] board = PuzzleText.toBoard(PUZZLE.replace('.', '0'));
+
+        assertArrayEquals(PuzzleText.toBoard(PUZZLE), board);
+    }
+
+    @Test
+    @DisplayName("A puzzle line of bytes is converted like a puzzle line of characters")
+    void bytesAreConvertedLikeCharacters() {
+        byte[] line = ("#" + PUZZLE).getBytes(StandardCharsets.US_ASCII);
+        int[][] board = new int[9][9];
+        PuzzleText.toBoard(line, 1, 81, board);
+
+        assertArrayEquals(PuzzleText.toBoard(PUZZLE), board);
+    }
+
+    @Test
+    @DisplayName("Converting a board to a line and back gives the same board")
+    void lineRoundTrips() {
+        assertEquals(PUZZLE, PuzzleText.toLine(PuzzleText.toBoard(PUZZLE)));
+    }
+
+    @Test
+    @DisplayName("A line with fewer than 81 characters throws exception")
+    void shortLineThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PuzzleText.toBoard(PUZZLE.substring(1)));
+    }
+
+    @Test
+    @DisplayName("A line with other characters than '.' and 0-9 throws exception")
+    void invalidCharacterThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PuzzleText.toBoard(PUZZLE.replace('.', 'x')));
+    }
+
+    @Test
+    @DisplayName("Blank lines and comments are skipped")
+    void blankLinesAndCommentsAreSkipped() {
+        assertAll(
+                () -> assertTrue(PuzzleText.isSkipped("  ")),
+                () -> assertTrue(PuzzleText.isSkipped("# comment")),
+                () -> assertFalse(PuzzleText.isSkipped(PUZZLE))
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package com.sim_kar.sudoku_factory.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.sim_kar.sudoku_factory.sudoku.BitmaskSolver;
+import com.sim_kar.sudoku_factory.sudoku.Solver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigInteger;
+import java.util.Random;
+
+class SolutionCodecTest {
+    static final int[][] SOLUTION = BinaryPuzzleFormatTest.SOLUTION;
+    Solver solver = new BitmaskSolver(new Random(0L));
+    byte[] encoded = new byte[SolutionCodec.MAX_SIZE];
+
+    @Test
+    @DisplayName("An encoded solution is decoded to the same solution")
+    void solutionRoundTrips() {
+        int written = SolutionCodec.encode(SOLUTION, encoded, 0);
+        int[][] decoded = new int[9][9];
+        int read = SolutionCodec.decode(encoded, 0, decoded);
+
+        assertAll(
+                () -> assertEquals(written, read),
+                () -> assertArrayEquals(SOLUTION, decoded)
+        );
+    }
+
+    /**
+     * An optimal rank of the 6.67e21 grids takes 72.5 bits, and this encoding takes about as
+     * much on average.
+     */
+    @Test
+    @DisplayName("Random solutions are encoded in 11 bytes or less on average")
+    void randomSolutionsAreCompact() {
+        int[][] decoded = new int[9][9];
+        int total = 0;
+
+        for (int i = 0; i < 200; i++) {
+            int[][] solution = solver.generate(new int[9][9]);
+            int written = SolutionCodec.encode(solution, encoded, 0);
+            SolutionCodec.decode(encoded, 0, decoded);
+
+            assertArrayEquals(solution, decoded);
+            total += written;
+        }
+
+        assertTrue(total <= 200 * 11);
+    }
+
+    @Test
+    @DisplayName("A solution is unranked from its rank")
+    void solutionIsUnrankedFromRank() {
+        BigInteger rank = SolutionCodec.rank(SOLUTION);
+
+        assertAll(
+                () -> assertTrue(rank.bitLength() <= 80),
+                () -> assertArrayEquals(SOLUTION, SolutionCodec.unrank(rank))
+        );
+    }
+
+    @Test
+    @DisplayName("Encoding a solution with a repeated number throws exception")
+    void invalidSolutionThrowsException() {
+        int[][] solution = new int[9][];
+        for (int y = 0; y < 9; y++) {
+            solution[y] = SOLUTION[y].clone();
+        }
+        solution[0][0] = solution[0][1];
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SolutionCodec.encode(solution, encoded, 0));
+    }
+
+    @Test
+    @DisplayName("Encoding a solution with empty tiles throws exception")
+    void incompleteSolutionThrowsException() {
+        int[][] puzzle = PuzzleText.toBoard(PuzzleTextTest.PUZZLE);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SolutionCodec.encode(puzzle, encoded, 0));
+    }
+
+    @Test
+    @DisplayName("Unranking a rank that is too large throws exception")
+    void tooLargeRankThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SolutionCodec.unrank(BigInteger.ONE.shiftLeft(200)));
+    }
+
+    @Test
+    @DisplayName("Unranking a negative rank throws exception")
+    void negativeRankThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SolutionCodec.unrank(BigInteger.valueOf(-1)));
+    }
+}
@@ -0,0 +1,249 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static com.sim_kar.sudoku_factory.io.PuzzleText.toBoard;
+import static com.sim_kar.sudoku_factory.sudoku.BitmaskSolverTest.PUZZLE;
+import static com.sim_kar.sudoku_factory.sudoku.BitmaskSolverTest.SOLUTION;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.Arrays;
+import java.util.Random;
+
+class BackjumpingSolverTest {
+    // AI Escargot, which makes a row-major search backtrack a lot
+    static final String HARD_PUZZLE =
+            "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..";
+
+    BackjumpingSolver solver;
+    BackjumpingSolver learningSolver;
+    int[][] empty;
+
+    @BeforeEach
+    void setup() {
+        solver = new BackjumpingSolver(new Random(0L));
+        learningSolver = new BackjumpingSolver(new Random(0L), true);
+        empty = new int[9][9];
+    }
+
+    @Nested
+    @DisplayName("Generating a solution")
+    class GeneratingSolutionTest {
+        @Test
+        @DisplayName("Generating a solution with null input throws an error")
+        void nullInputThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(null));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with numbers >9 throws error")
+        void numbersGreaterThanNineThrowsError() {
+            empty[1][1] = 10;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with duplicates in block throws error")
+        void duplicatesInBlockThrowsError() {
+            empty[0][0] = 1;
+            empty[2][2] = 1;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from board with wrong column size throws error")
+        void wrongColumnSizeThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(new int[9][8]));
+        }
+
+        @Test
+        @DisplayName("Generating a solution for a board without solutions throws error")
+        void unsolvableBoardThrowsError() {
+            // 1-8 in the first row leave only 9 for the last tile, which is already in its column
+            for (int x = 0; x < 8; x++) {
+                empty[0][x] = x + 1;
+            }
+            empty[8][8] = 9;
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.generate(empty)),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> learningSolver.generate(empty))
+            );
+        }
+
+        @Test
+        @DisplayName("Generating a solution for a unique puzzle returns its solution")
+        void generatingSolutionForUniquePuzzleReturnsSolution() {
+            assertAll(
+                    () -> assertArrayEquals(toBoard(SOLUTION), solver.generate(toBoard(PUZZLE))),
+                    () -> assertArrayEquals(toBoard(SOLUTION),
+                            learningSolver.generate(toBoard(PUZZLE)))
+            );
+        }
+
+        @Test
+        @DisplayName("Generating a solution does not modify the board")
+        void generatingSolutionDoesNotModifyBoard() {
+            int[][] board = toBoard(PUZZLE);
+            solver.generate(board);
+
+            assertArrayEquals(toBoard(PUZZLE), board);
+        }
+
+        @Test
+        @DisplayName("Numbers in generated solution are randomized")
+        void solutionIsRandomized() {
+            int[][] solution = solver.generate(empty);
+            int[][] solution2 = new BackjumpingSolver(new Random(1L)).generate(empty);
+
+            assertFalse(Arrays.deepEquals(solution, solution2));
+        }
+
+        @Test
+        @DisplayName("Generated solution is a complete, valid Sudoku board")
+        void generatedSolutionIsValid() {
+            int[][] solution = learningSolver.generate(empty);
+            Grader grader = new SudokuGrader(solver);
+
+            assertEquals(0, grader.grade(solution));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking if a Sudoku board is unique")
+    class BoardIsUniqueTest {
+        @Test
+        @DisplayName("Checking if a board with duplicates is unique throws an error")
+        void boardWithDuplicatesThrowsError() {
+            empty[0][0] = 1;
+            empty[0][8] = 1;
+            assertThrows(IllegalArgumentException.class, () -> solver.isUnique(empty));
+        }
+
+        @Test
+        @DisplayName("A puzzle with a single solution is unique")
+        void puzzleWithSingleSolutionIsUnique() {
+            assertAll(
+                    () -> assertTrue(solver.isUnique(toBoard(PUZZLE))),
+                    () -> assertTrue(learningSolver.isUnique(toBoard(PUZZLE)))
+            );
+        }
+
+        @Test
+        @DisplayName("An empty board is not unique")
+        void emptyBoardIsNotUnique() {
+            assertAll(
+                    () -> assertFalse(solver.isUnique(empty)),
+                    () -> assertFalse(learningSolver.isUnique(empty))
+            );
+        }
+
+        @Test
+        @DisplayName("A board with two solutions is not unique")
+        void boardWithTwoSolutionsIsNotUnique() {
+            int[][] board = toBoard(SOLUTION);
+            // 8 and 6 are swapped between columns 1 and 6 in rows 0 and 1
+            board[0][1] = 0;
+            board[0][6] = 0;
+            board[1][1] = 0;
+            board[1][6] = 0;
+
+            assertAll(
+                    () -> assertFalse(solver.isUnique(board)),
+                    () -> assertFalse(learningSolver.isUnique(board))
+            );
+        }
+
+        /**
+         * Jumping over tiles must never skip a solution, which would make a board with several
+         * solutions look unique, so the answers are compared with the bitmask solver for boards
+         * with more and more tiles cleared.
+         */
+        @ParameterizedTest(name = "Gives the same answers as the bitmask solver with seed {0}")
+        @ValueSource(longs = {0, 1, 2, 3})
+        void sameAnswersAsBitmaskSolver(long seed) {
+            Random random = new Random(seed);
+            BitmaskSolver reference = new BitmaskSolver(new Random(seed));
+            int[][] board = reference.generate(empty);
+
+            for (int cleared = 0; cleared < 58; cleared++) {
+                int tile = random.nextInt(81);
+                board[tile / 9][tile % 9] = 0;
+
+                boolean unique = reference.isUnique(board);
+                assertEquals(unique, solver.isUnique(board));
+                assertEquals(unique, learningSolver.isUnique(board));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Counting nodes")
+    class CountingNodesTest {
+        @Test
+        @DisplayName("A new solver has visited no nodes")
+        void newSolverHasNoNodes() {
+            assertEquals(0, solver.getNodeCount());
+        }
+
+        @Test
+        @DisplayName("Solving an empty board visits at least one node per tile")
+        void solvingVisitsNodes() {
+            solver.generate(empty);
+
+            assertTrue(solver.getNodeCount() >= 81);
+        }
+
+        @Test
+        @DisplayName("Checking a hard puzzle visits far fewer nodes than chronological "
+                + "backtracking")
+        void fewerNodesThanBacktracking() {
+            SudokuSolver backtracking = new SudokuSolver(new Random(0L));
+            backtracking.isUnique(toBoard(HARD_PUZZLE));
+            solver.isUnique(toBoard(HARD_PUZZLE));
+
+            assertTrue(solver.getNodeCount() * 4 < backtracking.getNodeCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Learning nogoods")
+    class LearningNogoodsTest {
+        @Test
+        @DisplayName("A solver that doesn't learn has no nogoods")
+        void solverWithoutLearningHasNoNogoods() {
+            solver.isUnique(toBoard(HARD_PUZZLE));
+
+            assertEquals(0, solver.getNogoodCount());
+        }
+
+        @Test
+        @DisplayName("Learning nogoods visits fewer nodes on a hard puzzle")
+        void learningVisitsFewerNodes() {
+            solver.isUnique(toBoard(HARD_PUZZLE));
+            learningSolver.isUnique(toBoard(HARD_PUZZLE));
+
+            assertAll(
+                    () -> assertTrue(learningSolver.getNogoodCount() > 0),
+                    () -> assertTrue(learningSolver.getNodeCount() < solver.getNodeCount())
+            );
+        }
+
+        @Test
+        @DisplayName("Nogoods are forgotten between calls")
+        void nogoodsAreForgotten() {
+            learningSolver.isUnique(toBoard(HARD_PUZZLE));
+            learningSolver.isUnique(toBoard(PUZZLE));
+            int nogoods = learningSolver.getNogoodCount();
+            BackjumpingSolver fresh = new BackjumpingSolver(new Random(0L), true);
+            fresh.isUnique(toBoard(PUZZLE));
+
+            assertEquals(fresh.getNogoodCount(), nogoods);
+        }
+    }
+}
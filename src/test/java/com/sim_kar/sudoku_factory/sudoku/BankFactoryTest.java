@@ -0,0 +1,105 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.sim_kar.sudoku_factory.io.BinaryPuzzleWriter;
+import com.sim_kar.sudoku_factory.io.PuzzleBank;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+class BankFactoryTest {
+    Random random = new Random(0L);
+    Solver solver = new BitmaskSolver(random);
+    int[][] solution = solver.generate(new int[9][9]);
+    PuzzleBank bank;
+    BankFactory factory;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Count the tiles on a board that are clues.
+     */
+    static int countClues(Board board) {
+        int clues = 0;
+        for (int y = 0; y < 9; y++) {
+            for (int x = 0; x < 9; x++) {
+                if (!board.getTile(new Position(x, y)).isEditable()) clues++;
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Fill a bank with a single puzzle of 30 clues and a rating of 60, which is a medium grade.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        int[][] puzzle = new int[9][9];
+        for (int tile = 0; tile < 30; tile++) {
+            puzzle[tile / 9][tile % 9] = solution[tile / 9][tile % 9];
+        }
+
+        Path file = directory.resolve("bank.bin");
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(file)) {
+            writer.write(solution, puzzle, 60);
+        }
+
+        PuzzleBank.index(file);
+        bank = new PuzzleBank(file);
+        factory = new BankFactory(bank, new SudokuFactory(solver), random);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bank.close();
+    }
+
+    @Test
+    @DisplayName("A puzzle with clues in the bank is served from the bank")
+    void puzzleInBankIsServed() {
+        Board board = factory.create(30);
+
+        assertAll(
+                () -> assertEquals(30, countClues(board)),
+                () -> assertEquals(solution[8][8],
+                        board.getTile(new Position(8, 8)).getCorrectValue()),
+                () -> assertEquals(1, factory.getServed()),
+                () -> assertEquals(0, factory.getFallbacks())
+        );
+    }
+
+    @Test
+    @DisplayName("A puzzle with a grade in the bank is served from the bank")
+    void puzzleWithGradeInBankIsServed() {
+        Board board = factory.create(Grade.MEDIUM);
+
+        assertAll(
+                () -> assertEquals(30, countClues(board)),
+                () -> assertEquals(1, factory.getServed())
+        );
+    }
+
+    @Test
+    @DisplayName("A puzzle with clues that aren't in the bank is created by the fallback factory")
+    void puzzleNotInBankIsCreated() {
+        Board board = factory.create(80);
+
+        assertAll(
+                () -> assertEquals(80, countClues(board)),
+                () -> assertEquals(0, factory.getServed()),
+                () -> assertEquals(1, factory.getFallbacks())
+        );
+    }
+
+    @Test
+    @DisplayName("Creating a puzzle that is neither in the bank nor valid throws exception")
+    void invalidPuzzleNotInBankThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> factory.create(82));
+    }
+}
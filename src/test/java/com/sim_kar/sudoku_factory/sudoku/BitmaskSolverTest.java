@@ -0,0 +1,544 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static com.sim_kar.sudoku_factory.io.PuzzleText.toBoard;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class BitmaskSolverTest {
+    // a puzzle with a unique solution
+    static final String PUZZLE =
+            "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..";
+    static final String SOLUTION =
+            "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+    BitmaskSolver solver;
+    int[][] empty;
+
+    @BeforeEach
+    void setup() {
+        solver = new BitmaskSolver(new Random(0L));
+        empty = new int[9][9];
+    }
+
+    @Nested
+    @DisplayName("Generating a solution")
+    class GeneratingSolutionTest {
+        @Test
+        @DisplayName("Generating a solution with null input throws an error")
+        void nullInputThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(null));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with numbers >9 throws error")
+        void numbersGreaterThanNineThrowsError() {
+            empty[1][1] = 10;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with numbers <0 throws error")
+        void numbersLessThanZeroThrowsError() {
+            empty[1][1] = -1;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with duplicates in block throws error")
+        void duplicatesInBlockThrowsError() {
+            empty[0][0] = 1;
+            empty[2][2] = 1;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from board with wrong column size throws error")
+        void wrongColumnSizeThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(new int[9][8]));
+        }
+
+        @Test
+        @DisplayName("Generating a solution for a unique puzzle returns its solution")
+        void generatingSolutionForUniquePuzzleReturnsSolution() {
+            assertArrayEquals(toBoard(SOLUTION), solver.generate(toBoard(PUZZLE)));
+        }
+
+        @Test
+        @DisplayName("Generating a solution does not modify the board")
+        void generatingSolutionDoesNotModifyBoard() {
+            int[][] board = toBoard(PUZZLE);
+            solver.generate(board);
+
+            assertArrayEquals(toBoard(PUZZLE), board);
+        }
+
+        @Test
+        @DisplayName("Numbers in generated solution are randomized")
+        void solutionIsRandomized() {
+            int[][] solution = solver.generate(empty);
+            int[][] solution2 = new BitmaskSolver(new Random(1L)).generate(empty);
+
+            assertFalse(Arrays.deepEquals(solution, solution2));
+        }
+
+        /**
+         * A valid solution has every number once in each row, column and block, so checking it
+         * with a grader gives a rating of 0 instead of an error.
+         */
+        @Test
+        @DisplayName("Generated solution is a complete, valid Sudoku board")
+        void generatedSolutionIsValid() {
+            int[][] solution = solver.generate(empty);
+            Grader grader = new SudokuGrader(solver);
+
+            assertEquals(0, grader.grade(solution));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking if a Sudoku board is unique")
+    class BoardIsUniqueTest {
+        @Test
+        @DisplayName("Checking if a board is unique with null input throws an error")
+        void nullBoardThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.isUnique(null));
+        }
+
+        @Test
+        @DisplayName("Checking if a board with duplicates is unique throws an error")
+        void boardWithDuplicatesThrowsError() {
+            empty[0][0] = 1;
+            empty[0][8] = 1;
+            assertThrows(IllegalArgumentException.class, () -> solver.isUnique(empty));
+        }
+
+        @Test
+        @DisplayName("A puzzle with a single solution is unique")
+        void puzzleWithSingleSolutionIsUnique() {
+            assertTrue(solver.isUnique(toBoard(PUZZLE)));
+        }
+
+        @Test
+        @DisplayName("An empty board is not unique")
+        void emptyBoardIsNotUnique() {
+            assertFalse(solver.isUnique(empty));
+        }
+
+        /**
+         * Swapping two numbers in two rows of the same band, where the numbers are in the same
+         * two columns, gives another valid solution. Clearing those four tiles leaves a board
+         * with exactly two solutions.
+         */
+        @Test
+        @DisplayName("A board with two solutions is not unique")
+        void boardWithTwoSolutionsIsNotUnique() {
+            int[][] board = toBoard(SOLUTION);
+            // 8 and 6 are swapped between columns 1 and 6 in rows 0 and 1
+            board[0][1] = 0;
+            board[0][6] = 0;
+            board[1][1] = 0;
+            board[1][6] = 0;
+
+            assertFalse(solver.isUnique(board));
+        }
+    }
+
+    @Nested
+    @DisplayName("Counting solutions")
+    class CountingSolutionsTest {
+        @Test
+        @DisplayName("A puzzle with a single solution has 1 solution")
+        void puzzleWithSingleSolutionHasOneSolution() {
+            assertEquals(1, solver.countSolutions(toBoard(PUZZLE), 2));
+        }
+
+        @Test
+        @DisplayName("A board with duplicates has 0 solutions")
+        void boardWithDuplicatesHasNoSolutions() {
+            empty[0][0] = 1;
+            empty[8][0] = 1;
+
+            assertEquals(0, solver.countSolutions(empty, 2));
+        }
+
+        @Test
+        @DisplayName("Counting the solutions of an empty board stops at the limit")
+        void countingStopsAtLimit() {
+            assertEquals(5, solver.countSolutions(empty, 5));
+        }
+    }
+
+    @Nested
+    @DisplayName("Counting nodes")
+    class CountingNodesTest {
+        @Test
+        @DisplayName("A new solver has visited no nodes")
+        void newSolverHasNoNodes() {
+            assertEquals(0, solver.getNodeCount());
+        }
+
+        @Test
+        @DisplayName("Solving an empty board visits at least one node per tile")
+        void solvingVisitsNodes() {
+            solver.generate(empty);
+
+            assertTrue(solver.getNodeCount() >= 81);
+        }
+
+        @Test
+        @DisplayName("The node count is cumulative over calls")
+        void nodeCountIsCumulative() {
+            solver.generate(empty);
+            long nodes = solver.getNodeCount();
+            solver.isUnique(toBoard(PUZZLE));
+
+            assertTrue(solver.getNodeCount() > nodes);
+        }
+    }
+
+    @Nested
+    @DisplayName("Hashing the search board")
+    class HashingTest {
+        @Test
+        @DisplayName("The hash is back at the hash of the board after solving it")
+        void hashIsRestoredAfterSearch() {
+            int[][] puzzle = toBoard(PUZZLE);
+            solver.generate(puzzle);
+
+            assertEquals(Zobrist.hash(puzzle), solver.getHash());
+        }
+
+        @Test
+        @DisplayName("The hash of an empty board is 0 after generating a solution for it")
+        void emptyBoardHasZeroHash() {
+            solver.generate(empty);
+
+            assertEquals(0, solver.getHash());
+        }
+    }
+
+    @Nested
+    @DisplayName("Solving 16x16 boards")
+    class LargeBoardTest {
+        Layout layout = Layout.ofBlockSize(4);
+        BitmaskSolver largeSolver = new BitmaskSolver(new Random(0L), null, layout);
+        int[][] largeEmpty = new int[16][16];
+
+        /**
+         * Check that every row, column and block of a board has every number once.
+         */
+        void assertComplete(int[][] board) {
+            for (int[] unit : layout.getUnits()) {
+                Set<Integer> numbers = new HashSet<>();
+                for (int tile : unit) {
+                    numbers.add(board[tile / 16][tile % 16]);
+                }
+                assertEquals(IntStream.rangeClosed(1, 16).boxed().collect(Collectors.toSet()),
+                        numbers);
+            }
+        }
+
+        @Test
+        @DisplayName("Generated solution is a complete, valid 16x16 board")
+        void generatedSolutionIsValid() {
+            assertComplete(largeSolver.generate(largeEmpty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with numbers >16 throws error")
+        void numbersGreaterThanSixteenThrowsError() {
+            largeEmpty[1][1] = 17;
+            assertThrows(IllegalArgumentException.class, () -> largeSolver.generate(largeEmpty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution for a 9x9 board throws error")
+        void wrongSizeThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> largeSolver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("A solution with half of its tiles cleared at random is solved")
+        void halfEmptyBoardIsSolved() {
+            int[][] solution = largeSolver.generate(largeEmpty);
+            int[][] puzzle = Arrays.stream(solution).map(int[]::clone).toArray(int[][]::new);
+            Random random = new Random(1L);
+            for (int cleared = 0; cleared < 128; cleared++) {
+                puzzle[random.nextInt(16)][random.nextInt(16)] = 0;
+            }
+
+            int[][] solved = largeSolver.generate(puzzle);
+            assertComplete(solved);
+            if (largeSolver.isUnique(puzzle)) assertArrayEquals(solution, solved);
+        }
+
+        @Test
+        @DisplayName("An empty 16x16 board is not unique")
+        void emptyBoardIsNotUnique() {
+            assertFalse(largeSolver.isUnique(largeEmpty));
+        }
+
+        @Test
+        @DisplayName("The hash is back at 0 after generating a solution for an empty board")
+        void emptyBoardHasZeroHash() {
+            largeSolver.generate(largeEmpty);
+
+            assertEquals(0, largeSolver.getHash());
+        }
+    }
+
+    @Nested
+    @DisplayName("Solving jigsaw boards")
+    class JigsawBoardTest {
+        Layout layout = Layout.ofRegions(LayoutTest.JIGSAW);
+        BitmaskSolver jigsawSolver = new BitmaskSolver(new Random(0L), null, layout);
+
+        /**
+         * Check that every row, column and region of a board has every number once.
+         */
+        void assertComplete(int[][] board) {
+            for (int[] unit : layout.getUnits()) {
+                Set<Integer> numbers = new HashSet<>();
+                for (int tile : unit) {
+                    numbers.add(board[tile / 9][tile % 9]);
+                }
+                assertEquals(9, numbers.size());
+                assertFalse(numbers.contains(0));
+            }
+        }
+
+        @Test
+        @DisplayName("Generated solution has every number once in every region")
+        void generatedSolutionIsValid() {
+            assertComplete(jigsawSolver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("A board with a duplicate in a region but not in a block has no solution")
+        void duplicateInRegionHasNoSolution() {
+            // (2, 0) and (1, 1) are in the same block, but not in the same region
+            empty[0][2] = 1;
+            empty[1][1] = 1;
+            int[][] regionDuplicate = new int[9][9];
+            // (0, 0) and (3, 1) are in region 1, but not in the same block
+            regionDuplicate[0][0] = 1;
+            regionDuplicate[1][3] = 1;
+
+            assertAll(
+                    () -> assertEquals(1, jigsawSolver.generate(empty)[1][1]),
+                    () -> assertEquals(0, jigsawSolver.countSolutions(regionDuplicate, 2))
+            );
+        }
+
+        @Test
+        @DisplayName("A solution with tiles cleared at random is solved")
+        void clearedBoardIsSolved() {
+            int[][] solution = jigsawSolver.generate(empty);
+            int[][] puzzle = Arrays.stream(solution).map(int[]::clone).toArray(int[][]::new);
+            Random random = new Random(1L);
+            for (int cleared = 0; cleared < 50; cleared++) {
+                puzzle[random.nextInt(9)][random.nextInt(9)] = 0;
+            }
+
+            int[][] solved = jigsawSolver.generate(puzzle);
+            assertComplete(solved);
+            if (jigsawSolver.isUnique(puzzle)) assertArrayEquals(solution, solved);
+        }
+
+        @Test
+        @DisplayName("Finding a solution of the empty board gives up after the node limit")
+        void givesUpAfterNodeLimit() {
+            long before = jigsawSolver.getNodeCount();
+
+            assertAll(
+                    () -> assertFalse(jigsawSolver.hasSolution(10)),
+                    () -> assertEquals(10, jigsawSolver.getNodeCount() - before),
+                    () -> assertTrue(jigsawSolver.hasSolution(81 * 256))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Solving killer boards")
+    class KillerBoardTest {
+        /**
+         * Get cages of two tiles next to each other in every row of the solution, and a cage of
+         * the last tile of every row.
+         */
+        List<Cage> getPairCages() {
+            int[][] solution = toBoard(SOLUTION);
+            List<Cage> cages = new ArrayList<>();
+            for (int y = 0; y < 9; y++) {
+                for (int x = 0; x < 9; x += 2) {
+                    if (x == 8) {
+                        cages.add(new Cage(solution[y][x], List.of(new Position(x, y))));
+                    } else {
+                        cages.add(new Cage(solution[y][x] + solution[y][x + 1],
+                                List.of(new Position(x, y), new Position(x + 1, y))));
+                    }
+                }
+            }
+            return cages;
+        }
+
+        /**
+         * Get the clues of the first six rows of the puzzle, which have more than one solution.
+         */
+        int[][] getTopOfPuzzle() {
+            int[][] board = toBoard(PUZZLE);
+            for (int y = 6; y < 9; y++) {
+                Arrays.fill(board[y], 0);
+            }
+            return board;
+        }
+
+        @Test
+        @DisplayName("A generated solution has the sum of every cage, without repeating numbers")
+        void generatedSolutionFitsCages() {
+            Cage corner = new Cage(3, List.of(new Position(0, 0), new Position(0, 1)));
+            Cage row = new Cage(24, List.of(
+                    new Position(3, 4), new Position(4, 4), new Position(5, 4)
+            ));
+            solver.setCages(List.of(corner, row));
+
+            for (int i = 0; i < 10; i++) {
+                int[][] solution = solver.generate(empty);
+                assertEquals(3, solution[0][0] + solution[1][0]);
+                assertEquals(Set.of(7, 8, 9),
+                        Set.of(solution[4][3], solution[4][4], solution[4][5]));
+            }
+        }
+
+        @Test
+        @DisplayName("Cages can make a board with too few clues unique")
+        void cagesMakeBoardUnique() {
+            int[][] board = getTopOfPuzzle();
+            assertFalse(solver.isUnique(board));
+
+            solver.setCages(getPairCages());
+
+            assertAll(
+                    () -> assertTrue(solver.isUnique(board)),
+                    () -> assertArrayEquals(toBoard(SOLUTION), solver.generate(board))
+            );
+        }
+
+        @Test
+        @DisplayName("A clue that doesn't fit in its cage means that there is no solution")
+        void clueThatDoesNotFitHasNoSolution() {
+            solver.setCages(List.of(new Cage(3, List.of(new Position(0, 0), new Position(1, 0)))));
+            empty[0][0] = 3;
+
+            assertAll(
+                    () -> assertEquals(0, solver.countSolutions(empty, 2)),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.generate(empty))
+            );
+        }
+
+        @Test
+        @DisplayName("Cages that can't add up to their sum, or share or miss tiles, throw error")
+        void invalidCagesThrowError() {
+            Cage tooHigh = new Cage(18, List.of(new Position(0, 0), new Position(1, 0)));
+            Cage first = new Cage(3, List.of(new Position(0, 0), new Position(1, 0)));
+            Cage overlapping = new Cage(4, List.of(new Position(1, 0), new Position(2, 0)));
+            Cage outside = new Cage(4, List.of(new Position(9, 0)));
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.setCages(List.of(tooHigh))),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.setCages(List.of(first, overlapping))),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.setCages(List.of(outside))),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> new BitmaskSolver(new Random(0L), null, Layout.ofBlockSize(5))
+                                    .setCages(List.of(first)))
+            );
+        }
+
+        @Test
+        @DisplayName("Setting new cages forgets the boards solved with the old ones")
+        void settingCagesClearsTable() {
+            BitmaskSolver tableSolver = new BitmaskSolver(
+                    new Random(0L),
+                    new TranspositionTable(4096)
+            );
+            int[][] board = getTopOfPuzzle();
+            tableSolver.setCages(getPairCages());
+            assertTrue(tableSolver.isUnique(board));
+
+            tableSolver.setCages(List.of());
+
+            assertAll(
+                    () -> assertFalse(tableSolver.isUnique(board)),
+                    () -> assertEquals(List.of(), tableSolver.getCages())
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Using a transposition table")
+    class UsingTableTest {
+        TranspositionTable table = new TranspositionTable(4096);
+        BitmaskSolver tableSolver = new BitmaskSolver(new Random(0L), table);
+
+        @Test
+        @DisplayName("Checking uniqueness gives the same answers as without a table")
+        void sameAnswers() {
+            int[][] puzzle = toBoard(PUZZLE);
+            int[][] ambiguous = toBoard(PUZZLE);
+            ambiguous[0][2] = 0;
+            ambiguous[0][4] = 0;
+            ambiguous[0][6] = 0;
+
+            for (int i = 0; i < 2; i++) {
+                assertAll(
+                        () -> assertTrue(tableSolver.isUnique(puzzle)),
+                        () -> assertEquals(solver.isUnique(ambiguous),
+                                tableSolver.isUnique(ambiguous)),
+                        () -> assertEquals(2, tableSolver.countSolutions(empty, 2))
+                );
+            }
+        }
+
+        @Test
+        @DisplayName("Checking a puzzle again is answered by the table with fewer nodes")
+        void repeatedCheckVisitsFewerNodes() {
+            int[][] puzzle = toBoard(PUZZLE);
+            puzzle[0][2] = 0;
+            tableSolver.isUnique(puzzle);
+            long first = tableSolver.getNodeCount();
+            tableSolver.isUnique(puzzle);
+
+            assertAll(
+                    () -> assertTrue(tableSolver.getNodeCount() - first < first),
+                    () -> assertTrue(table.getHits() > 0)
+            );
+        }
+
+        @Test
+        @DisplayName("Generated solutions are the same as without a table")
+        void sameSolutions() {
+            BitmaskSolver plain = new BitmaskSolver(new Random(1L));
+            BitmaskSolver withTable = new BitmaskSolver(new Random(1L), table);
+
+            for (int i = 0; i < 3; i++) {
+                withTable.isUnique(empty);
+                plain.isUnique(empty);
+                assertArrayEquals(plain.generate(empty), withTable.generate(empty));
+            }
+        }
+    }
+}
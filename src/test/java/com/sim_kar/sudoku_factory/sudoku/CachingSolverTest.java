@@ -0,0 +1,158 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class CachingSolverTest {
+    static final int[][] PUZZLE = TransformationTest.PUZZLE;
+    static final int[][] SOLUTION = TransformationTest.SOLUTION;
+    Random random = new Random(0L);
+    BitmaskSolver bitmaskSolver = new BitmaskSolver(random);
+
+    @Nested
+    @DisplayName("With exact keys")
+    class ExactKeys {
+        SolverCache cache = new SolverCache(100, false);
+        CachingSolver solver = new CachingSolver(bitmaskSolver, cache);
+
+        @Test
+        @DisplayName("A solved unique puzzle is answered by the cache without visiting nodes")
+        void solvedPuzzleIsCached() {
+            solver.generate(PUZZLE);
+            solver.isUnique(PUZZLE);
+            long nodes = solver.getNodeCount();
+
+            assertAll(
+                    () -> assertArrayEquals(SOLUTION, solver.generate(PUZZLE)),
+                    () -> assertTrue(solver.isUnique(PUZZLE)),
+                    () -> assertEquals(nodes, solver.getNodeCount()),
+                    () -> assertEquals(2, cache.getHits()),
+                    () -> assertEquals(2, cache.getMisses())
+            );
+        }
+
+        @Test
+        @DisplayName("A puzzle with several solutions is answered by the cache when checked again")
+        void ambiguousPuzzleIsCached() {
+            int[][] empty = new int[9][9];
+            solver.isUnique(empty);
+
+            assertAll(
+                    () -> assertFalse(solver.isUnique(empty)),
+                    () -> assertEquals(1, cache.getHits())
+            );
+        }
+
+        @Test
+        @DisplayName("An empty board still gets a new solution every time")
+        void emptyBoardGetsNewSolutions() {
+            int[][] first = solver.generate(new int[9][9]);
+            int[][] second = solver.generate(new int[9][9]);
+            solver.isUnique(new int[9][9]);
+            int[][] third = solver.generate(new int[9][9]);
+
+            assertAll(
+                    () -> assertFalse(Arrays.deepEquals(first, second)),
+                    () -> assertFalse(Arrays.deepEquals(second, third)),
+                    () -> assertEquals(0, cache.getHits())
+            );
+        }
+
+        @Test
+        @DisplayName("A board without a solution throws exception, also when answered by the cache")
+        void unsolvableBoardIsCached() {
+            int[][] board = new int[9][9];
+            board[0][0] = 1;
+            board[0][1] = 1;
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.generate(board)),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> solver.isUnique(board)),
+                    () -> assertEquals(1, cache.getHits())
+            );
+        }
+
+        @Test
+        @DisplayName("A board that isn't 9x9 throws exception")
+        void invalidBoardThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(new int[8][9]));
+        }
+    }
+
+    @Nested
+    @DisplayName("With canonical keys")
+    class CanonicalKeys {
+        SolverCache cache = new SolverCache(100, true);
+        CachingSolver solver = new CachingSolver(bitmaskSolver, cache);
+
+        @Test
+        @DisplayName("A transformed puzzle is answered by the cache with its own solution")
+        void transformedPuzzleIsCached() {
+            solver.generate(PUZZLE);
+            solver.isUnique(PUZZLE);
+            Transformation transformation = Transformation.random(random);
+            long nodes = solver.getNodeCount();
+
+            assertAll(
+                    () -> assertArrayEquals(transformation.apply(SOLUTION),
+                            solver.generate(transformation.apply(PUZZLE))),
+                    () -> assertTrue(solver.isUnique(transformation.apply(PUZZLE))),
+                    () -> assertEquals(nodes, solver.getNodeCount()),
+                    () -> assertEquals(2, cache.getHits())
+            );
+        }
+
+        @Test
+        @DisplayName("A puzzle isn't answered by the cache once the solver has cages")
+        void cagedSolverBypassesCache() {
+            solver.generate(PUZZLE);
+            solver.isUnique(PUZZLE);
+            Position empty = getEmptyPosition();
+            int wrong = SOLUTION[empty.getY()][empty.getX()] % 9 + 1;
+            bitmaskSolver.setCages(List.of(new Cage(wrong, List.of(empty))));
+
+            assertAll(
+                    () -> assertFalse(solver.isStandard()),
+                    () -> assertThrows(NoSolutionException.class, () -> solver.generate(PUZZLE)),
+                    () -> assertThrows(NoSolutionException.class, () -> solver.isUnique(PUZZLE)),
+                    () -> assertEquals(0, cache.getHits())
+            );
+        }
+
+        @Test
+        @DisplayName("A jigsaw board is solved by the solver without using the cache")
+        void jigsawSolverBypassesCache() {
+            BitmaskSolver jigsawSolver = new BitmaskSolver(random, null,
+                    Layout.ofRegions(LayoutTest.JIGSAW));
+            CachingSolver solver = new CachingSolver(jigsawSolver, cache);
+            int[][] solution = jigsawSolver.generate(new int[9][9]);
+
+            assertAll(
+                    () -> assertFalse(solver.isStandard()),
+                    () -> assertTrue(solver.isUnique(solution)),
+                    () -> assertArrayEquals(solution, solver.generate(solution)),
+                    () -> assertEquals(0, cache.getHits()),
+                    () -> assertEquals(0, cache.getMisses())
+            );
+        }
+
+        /**
+         * Get the position of the first empty tile of the puzzle.
+         */
+        Position getEmptyPosition() {
+            for (int y = 0; y < 9; y++) {
+                for (int x = 0; x < 9; x++) {
+                    if (PUZZLE[y][x] == 0) return new Position(x, y);
+                }
+            }
+            throw new IllegalStateException("The puzzle is full");
+        }
+    }
+}
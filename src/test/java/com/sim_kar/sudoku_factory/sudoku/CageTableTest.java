@@ -0,0 +1,69 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.stream.LongStream;
+
+class CageTableTest {
+    final CageTable table = new CageTable(9);
+
+    /**
+     * Get the bit mask of the given numbers.
+     */
+    static long numbers(int... numbers) {
+        long mask = 0;
+        for (int number : numbers) {
+            mask |= 1L << (number - 1);
+        }
+        return mask;
+    }
+
+    @Test
+    @DisplayName("The numbers of the combinations of a size and sum are allowed")
+    void allowedNumbersAreInCombinations() {
+        assertAll(
+                () -> assertEquals(numbers(1, 2), table.getAllowed(2, 3)),
+                () -> assertEquals(numbers(8, 9), table.getAllowed(2, 17)),
+                () -> assertEquals(numbers(1, 2, 4), table.getAllowed(3, 7)),
+                () -> assertEquals(numbers(1, 2, 3, 4, 5, 6, 7, 8, 9), table.getAllowed(9, 45)),
+                () -> assertEquals(numbers(5), table.getAllowed(1, 5))
+        );
+    }
+
+    @Test
+    @DisplayName("Every combination of a size and sum is in the table")
+    void combinationsAreInTable() {
+        assertArrayEquals(
+                LongStream.of(numbers(1, 9), numbers(2, 8), numbers(3, 7), numbers(4, 6))
+                        .sorted()
+                        .toArray(),
+                LongStream.of(table.getCombinations(2, 10)).sorted().toArray()
+        );
+    }
+
+    @Test
+    @DisplayName("A sum that different numbers can't add up to has no combinations")
+    void impossibleSumHasNoCombinations() {
+        assertAll(
+                () -> assertEquals(0, table.getAllowed(3, 5)),
+                () -> assertEquals(0, table.getAllowed(2, 18)),
+                () -> assertEquals(0, table.getAllowed(10, 45)),
+                () -> assertEquals(0, table.getAllowed(2, -1)),
+                () -> assertEquals(0, table.getCombinations(1, 10).length)
+        );
+    }
+
+    @Test
+    @DisplayName("Numbers already in a cage rule out the combinations with them")
+    void usedNumbersRuleOutCombinations() {
+        // 10 with two numbers, when 9 is already in the cage, so 1 and 9 can't be used
+        assertEquals(numbers(2, 3, 4, 6, 7, 8), table.getAllowed(2, 10, numbers(9)));
+    }
+
+    @Test
+    @DisplayName("A table for boards with more than 16 numbers throws exception")
+    void tooManyNumbersThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CageTable(17));
+    }
+}
@@ -0,0 +1,49 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+class CageTest {
+    @Test
+    @DisplayName("A cage has its sum and positions")
+    void cageHasSumAndPositions() {
+        Cage cage = new Cage(3, List.of(new Position(0, 0), new Position(1, 0)));
+
+        assertAll(
+                () -> assertEquals(3, cage.getSum()),
+                () -> assertEquals(2, cage.size()),
+                () -> assertEquals(List.of(new Position(0, 0), new Position(1, 0)),
+                        cage.getPositions())
+        );
+    }
+
+    @Test
+    @DisplayName("The positions of a cage can't be changed from outside")
+    void positionsAreCopied() {
+        List<Position> positions = new ArrayList<>(List.of(new Position(0, 0)));
+        Cage cage = new Cage(1, positions);
+        positions.add(new Position(1, 0));
+
+        assertAll(
+                () -> assertEquals(1, cage.size()),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> cage.getPositions().clear())
+        );
+    }
+
+    @Test
+    @DisplayName("A cage without tiles, with a repeated tile or a sum below 1 throws exception")
+    void invalidCageThrowsException() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new Cage(1, List.of())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new Cage(2, List.of(new Position(0, 0), new Position(0, 0)))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new Cage(0, List.of(new Position(0, 0))))
+        );
+    }
+}
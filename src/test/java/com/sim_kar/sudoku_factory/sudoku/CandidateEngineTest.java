@@ -0,0 +1,120 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static com.sim_kar.sudoku_factory.io.PuzzleText.toBoard;
+import static com.sim_kar.sudoku_factory.sudoku.BitmaskSolverTest.PUZZLE;
+import static com.sim_kar.sudoku_factory.sudoku.BitmaskSolverTest.SOLUTION;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Random;
+
+class CandidateEngineTest {
+    final CandidateEngine scalar = new ScalarCandidateEngine();
+    final CandidateEngine vector = CandidateEngine.vectorized();
+    final int[] values = new int[81];
+    final int[] usedInUnit = new int[27];
+    final int[] candidates = new int[81];
+    final long[] singles = new long[2];
+
+    /**
+     * Load a board into the values and the masks of the units.
+     */
+    void load(int[][] board) {
+        Arrays.fill(usedInUnit, 0);
+        for (int tile = 0; tile < 81; tile++) {
+            values[tile] = board[tile / 9][tile % 9];
+            if (values[tile] == 0) continue;
+
+            for (int unit : Layout.STANDARD.getUnitsOfTiles()[tile]) {
+                usedInUnit[unit] |= 1 << (values[tile] - 1);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Computing with the scalar engine")
+    class ScalarTest {
+        @Test
+        @DisplayName("Every tile of an empty board can hold every number")
+        void emptyBoardHasAllCandidates() {
+            assertEquals(0, scalar.compute(values, usedInUnit, candidates, singles));
+            for (int tile = 0; tile < 81; tile++) {
+                assertEquals(0x1FF, candidates[tile]);
+            }
+            assertArrayEquals(new long[2], singles);
+        }
+
+        @Test
+        @DisplayName("A full board has no empty tile")
+        void fullBoardHasNoEmptyTile() {
+            load(toBoard(SOLUTION));
+
+            assertEquals(-1, scalar.compute(values, usedInUnit, candidates, singles));
+            assertArrayEquals(new int[81], candidates);
+        }
+
+        @Test
+        @DisplayName("A board with a single empty tile has a single with its number")
+        void singleEmptyTileIsSingle() {
+            int[][] board = toBoard(SOLUTION);
+            board[8][8] = 0;
+            load(board);
+
+            assertAll(
+                    () -> assertEquals(80, scalar.compute(values, usedInUnit, candidates, singles)),
+                    () -> assertEquals(1 << (toBoard(SOLUTION)[8][8] - 1), candidates[80]),
+                    () -> assertEquals(0, singles[0]),
+                    () -> assertEquals(1L << 16, singles[1])
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Computing with the vector engine")
+    class VectorTest {
+        @Test
+        @DisplayName("The vector engine runs when the incubator module has been added")
+        void vectorEngineIsUsed() {
+            assertTrue(vector instanceof VectorCandidateEngine);
+        }
+
+        @Test
+        @DisplayName("The vector engine gives the same results as the scalar engine")
+        void sameResultsAsScalar() {
+            Random random = new Random(0L);
+            int[][] board = toBoard(PUZZLE);
+            int[] scalarCandidates = new int[81];
+            long[] scalarSingles = new long[2];
+
+            // clear and fill in tiles at random, including boards without solutions
+            for (int step = 0; step < 2000; step++) {
+                int tile = random.nextInt(81);
+                board[tile / 9][tile % 9] = random.nextInt(3) == 0 ? random.nextInt(10) : 0;
+                load(board);
+
+                int expected = scalar.compute(values, usedInUnit, scalarCandidates, scalarSingles);
+                assertEquals(expected, vector.compute(values, usedInUnit, candidates, singles));
+                assertArrayEquals(scalarCandidates, candidates);
+                assertArrayEquals(scalarSingles, singles);
+            }
+        }
+
+        @Test
+        @DisplayName("A single in the last tile, which is in the overlapping vector, is found")
+        void singleInLastTileIsFound() {
+            int[][] board = new int[9][9];
+            for (int x = 0; x < 8; x++) {
+                board[8][x] = x + 1;
+            }
+            load(board);
+
+            assertAll(
+                    () -> assertEquals(80, vector.compute(values, usedInUnit, candidates, singles)),
+                    () -> assertEquals(1 << 8, candidates[80]),
+                    () -> assertEquals(1L << 16, singles[1])
+            );
+        }
+    }
+}
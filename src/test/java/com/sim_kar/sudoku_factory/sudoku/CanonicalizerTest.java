@@ -0,0 +1,115 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Random;
+
+class CanonicalizerTest {
+    static final int[][] PUZZLE = TransformationTest.PUZZLE;
+    static final int[][] SOLUTION = TransformationTest.SOLUTION;
+    Random random = new Random(0L);
+
+    @Test
+    @DisplayName("Equivalent puzzles have the same canonical form")
+    void equivalentPuzzlesHaveSameForm() {
+        int[][] canonical = Canonicalizer.canonicalize(PUZZLE);
+
+        for (int i = 0; i < 50; i++) {
+            int[][] transformed = Transformation.random(random).apply(PUZZLE);
+            assertArrayEquals(canonical, Canonicalizer.canonicalize(transformed));
+        }
+    }
+
+    @Test
+    @DisplayName("Equivalent solutions have the same canonical form")
+    void equivalentSolutionsHaveSameForm() {
+        int[][] transformed = Transformation.random(random).apply(SOLUTION);
+
+        assertArrayEquals(Canonicalizer.canonicalize(SOLUTION),
+                Canonicalizer.canonicalize(transformed));
+    }
+
+    @Test
+    @DisplayName("The canonical form of a canonical form is the same form")
+    void canonicalFormIsStable() {
+        int[][] canonical = Canonicalizer.canonicalize(PUZZLE);
+
+        assertArrayEquals(canonical, Canonicalizer.canonicalize(canonical));
+    }
+
+    @Test
+    @DisplayName("The transformation to the canonical form gives the canonical form")
+    void transformationGivesCanonicalForm() {
+        Transformation transformation = Canonicalizer.getTransformation(PUZZLE);
+
+        assertArrayEquals(Canonicalizer.canonicalize(PUZZLE), transformation.apply(PUZZLE));
+    }
+
+    /**
+     * The smallest form puts the single clue in the last tile, and labels it 1.
+     */
+    @Test
+    @DisplayName("A board with one clue has the clue 1 in the last tile")
+    void singleClueIsLast() {
+        int[][] board = new int[9][9];
+        board[4][2] = 7;
+        int[][] expected = new int[9][9];
+        expected[8][8] = 1;
+
+        assertArrayEquals(expected, Canonicalizer.canonicalize(board));
+    }
+
+    /**
+     * Two clues in the same row can't be moved to different rows, so the two boards aren't the
+     * same puzzle.
+     */
+    @Test
+    @DisplayName("Puzzles that aren't equivalent have different canonical forms")
+    void differentPuzzlesHaveDifferentForms() {
+        int[][] sameRow = new int[9][9];
+        sameRow[0][0] = 1;
+        sameRow[0][4] = 2;
+        int[][] differentRows = new int[9][9];
+        differentRows[0][0] = 1;
+        differentRows[4][4] = 2;
+
+        assertFalse(Arrays.deepEquals(
+                Canonicalizer.canonicalize(sameRow),
+                Canonicalizer.canonicalize(differentRows)
+        ));
+    }
+
+    @Test
+    @DisplayName("A board with numbers outside 0-9 throws exception")
+    void invalidNumberThrowsException() {
+        int[][] board = new int[9][9];
+        board[0][0] = 10;
+
+        assertThrows(IllegalArgumentException.class, () -> Canonicalizer.canonicalize(board));
+    }
+
+    @Test
+    @DisplayName("A board with a number twice in a row, column or block throws exception")
+    void duplicateNumberThrowsException() {
+        int[][] row = new int[9][9];
+        row[0][0] = 5;
+        row[0][8] = 5;
+        int[][] column = new int[9][9];
+        column[0][4] = 5;
+        column[8][4] = 5;
+        int[][] block = new int[9][9];
+        block[3][3] = 5;
+        block[5][5] = 5;
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Canonicalizer.canonicalize(row)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Canonicalizer.canonicalize(column)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> Canonicalizer.getTransformation(block))
+        );
+    }
+}
@@ -0,0 +1,87 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+class DistinctFactoryTest {
+    static final int[][] PUZZLE = TransformationTest.PUZZLE;
+    static final int[][] SOLUTION = TransformationTest.SOLUTION;
+    static final Transformation TRANSFORMATION = new Transformation(
+            true,
+            new int[] {3, 4, 5, 0, 1, 2, 6, 7, 8},
+            new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8},
+            new int[] {0, 2, 1, 3, 4, 5, 6, 7, 8, 9}
+    );
+    LongHashSet created = new LongHashSet(100);
+
+    /**
+     * A factory that hands out the given puzzles in order, and the last one forever after.
+     */
+    static RatedFactory queue(int[][]... puzzles) {
+        Deque<int[][]> queue = new ArrayDeque<>(Arrays.asList(puzzles));
+
+        return new RatedFactory() {
+            @Override
+            public Board create(int clues) {
+                int[][] puzzle = (queue.size() > 1) ? queue.poll() : queue.peek();
+                int[][] solution = (puzzle == PUZZLE) ? SOLUTION
+                        : TRANSFORMATION.apply(SOLUTION);
+                return SudokuFactory.getBoard(solution, puzzle);
+            }
+
+            @Override
+            public Board create(Grade grade) {
+                return create(0);
+            }
+
+            @Override
+            public double getAcceptanceRate(Grade grade) {
+                return 0.5;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("A repeated puzzle is rejected and replaced by the next one")
+    void repeatedPuzzleIsReplaced() {
+        int[][] transformed = TRANSFORMATION.apply(PUZZLE);
+        DistinctFactory factory = new DistinctFactory(
+                queue(PUZZLE, PUZZLE, transformed), created, false);
+
+        factory.create(30);
+        Board board = factory.create(30);
+
+        assertAll(
+                () -> assertEquals(transformed[0][0], board.getPuzzle()[0][0]),
+                () -> assertEquals(1, factory.getDuplicates()),
+                () -> assertEquals(2, created.size())
+        );
+    }
+
+    @Test
+    @DisplayName("A transformed puzzle is rejected with canonical hashing")
+    void transformedPuzzleIsRejectedWhenCanonical() {
+        int[][] transformed = TRANSFORMATION.apply(PUZZLE);
+        DistinctFactory factory = new DistinctFactory(queue(PUZZLE, transformed), created, true);
+
+        factory.create(Grade.MEDIUM);
+
+        assertAll(
+                () -> assertThrows(IllegalStateException.class,
+                        () -> factory.create(Grade.MEDIUM)),
+                () -> assertEquals(100, factory.getDuplicates())
+        );
+    }
+
+    @Test
+    @DisplayName("The acceptance rate is the rate of the wrapped factory")
+    void acceptanceRateIsDelegated() {
+        DistinctFactory factory = new DistinctFactory(queue(PUZZLE), created, false);
+
+        assertEquals(0.5, factory.getAcceptanceRate(Grade.EASY));
+    }
+}
@@ -0,0 +1,111 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+class GenerationMetricsTest {
+    GenerationMetrics metrics = new GenerationMetrics();
+
+    @Test
+    @DisplayName("New metrics have no recorded work")
+    void newMetricsAreZero() {
+        assertAll(
+                () -> assertEquals(0, metrics.getPuzzlesCreated()),
+                () -> assertEquals(0, metrics.getSolutionsGenerated()),
+                () -> assertEquals(0, metrics.getSolutionsDiscarded()),
+                () -> assertEquals(0, metrics.getUniquenessChecks()),
+                () -> assertEquals(0, metrics.getRemovals()),
+                () -> assertEquals(0, metrics.getClueCounts().length)
+        );
+    }
+
+    @Test
+    @DisplayName("Created puzzles are counted per number of clues")
+    void createdPuzzlesAreCountedPerClues() {
+        metrics.recordPuzzleCreated(30, 1000);
+        metrics.recordPuzzleCreated(30, 2000);
+        metrics.recordPuzzleCreated(25, 3000);
+
+        assertAll(
+                () -> assertEquals(3, metrics.getPuzzlesCreated()),
+                () -> assertEquals(2, metrics.getPuzzlesCreated(30)),
+                () -> assertEquals(1, metrics.getPuzzlesCreated(25)),
+                () -> assertArrayEquals(new int[] {25, 30}, metrics.getClueCounts())
+        );
+    }
+
+    @Test
+    @DisplayName("Latencies are reported in microseconds")
+    void latenciesAreReportedInMicroseconds() {
+        metrics.recordPuzzleCreated(30, 5_000);
+
+        assertEquals(5, metrics.getMeanLatencyMicros(30));
+    }
+
+    @Test
+    @DisplayName("The acceptance rate is the share of accepted attempts")
+    void acceptanceRateIsShareOfAcceptedAttempts() {
+        metrics.recordGradeAttempt(Grade.HARD);
+        metrics.recordGradeAttempt(Grade.HARD);
+        metrics.recordGradeAccepted(Grade.HARD);
+
+        assertEquals(0.5, metrics.getAcceptanceRate(Grade.HARD));
+    }
+
+    @Test
+    @DisplayName("Registered metrics can be read through JMX")
+    void registeredMetricsCanBeReadThroughJmx() throws JMException {
+        metrics.recordUniquenessCheck();
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            assertEquals(1L, server.getAttribute(name, "UniquenessChecks"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Nested
+    @DisplayName("Recording the work of a factory")
+    class FactoryMetricsTest {
+        Random random = new Random(0L);
+        Solver solver = new SudokuSolver(random);
+        SudokuFactory factory = new SudokuFactory(solver, new SudokuGrader(solver), metrics);
+
+        @Test
+        @DisplayName("Creating a puzzle with 80 clues records one check and one removal")
+        void creatingPuzzleRecordsChecksAndRemovals() {
+            factory.create(80);
+
+            assertAll(
+                    () -> assertEquals(1, metrics.getPuzzlesCreated(80)),
+                    () -> assertEquals(1, metrics.getSolutionsGenerated()),
+                    () -> assertEquals(0, metrics.getSolutionsDiscarded()),
+                    () -> assertEquals(1, metrics.getUniquenessChecks()),
+                    () -> assertEquals(1, metrics.getRemovals())
+            );
+        }
+
+        /**
+         * Every generated solution is either discarded or used for the created puzzle.
+         */
+        @Test
+        @DisplayName("Every generated solution but the last is discarded")
+        void discardedSolutionsAreCounted() {
+            factory.create(25);
+
+            assertEquals(
+                    metrics.getSolutionsGenerated() - 1,
+                    metrics.getSolutionsDiscarded()
+            );
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class KillerFactoryTest {
+    BitmaskSolver solver = new BitmaskSolver(new Random(0L));
+    KillerFactory factory = new KillerFactory(solver, new Random(0L));
+
+    /**
+     * Check that every tile of a 9x9 board is in a single cage, and that the numbers of every
+     * cage add up to its sum without repeating.
+     */
+    void assertCagesFitSolution(KillerPuzzle puzzle) {
+        int[][] solution = puzzle.getSolution();
+        Set<Position> caged = new HashSet<>();
+
+        for (Cage cage : puzzle.getCages()) {
+            Set<Integer> numbers = new HashSet<>();
+            int sum = 0;
+            for (Position position : cage.getPositions()) {
+                assertTrue(caged.add(position));
+                numbers.add(solution[position.getY()][position.getX()]);
+                sum += solution[position.getY()][position.getX()];
+            }
+            assertEquals(cage.size(), numbers.size());
+            assertEquals(cage.getSum(), sum);
+        }
+
+        assertEquals(81, caged.size());
+    }
+
+    @Nested
+    @DisplayName("Creating a killer puzzle")
+    class CreatingTest {
+        @Test
+        @DisplayName("A puzzle created with 27 cages has 27 cages that cover the board")
+        void createdPuzzleHasCages() {
+            KillerPuzzle puzzle = factory.create(27);
+
+            assertAll(
+                    () -> assertEquals(27, puzzle.getCages().size()),
+                    () -> assertCagesFitSolution(puzzle)
+            );
+        }
+
+        @Test
+        @DisplayName("A created puzzle has a unique solution with only its cages")
+        void createdPuzzleIsUnique() {
+            KillerPuzzle puzzle = factory.create(30);
+            BitmaskSolver checker = new BitmaskSolver(new Random(1L));
+            checker.setCages(puzzle.getCages());
+
+            assertAll(
+                    () -> assertTrue(checker.isUnique(new int[9][9])),
+                    () -> assertArrayEquals(puzzle.getSolution(), checker.generate(new int[9][9]))
+            );
+        }
+
+        @Test
+        @DisplayName("The cages of the solver are removed once a puzzle has been created")
+        void solverHasNoCagesAfterCreating() {
+            factory.create(40);
+
+            assertEquals(List.of(), solver.getCages());
+        }
+
+        @Test
+        @DisplayName("A jigsaw killer puzzle can be created")
+        void jigsawPuzzleCanBeCreated() {
+            Layout layout = Layout.ofRegions(LayoutTest.JIGSAW);
+            BitmaskSolver jigsawSolver = new BitmaskSolver(new Random(0L), null, layout);
+            KillerPuzzle puzzle = new KillerFactory(jigsawSolver, new Random(0L)).create(30);
+            jigsawSolver.setCages(puzzle.getCages());
+
+            assertAll(
+                    () -> assertCagesFitSolution(puzzle),
+                    () -> assertTrue(jigsawSolver.isUnique(new int[9][9]))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Creating a killer puzzle with the wrong number of cages")
+    class WrongNumberOfCagesTest {
+        @Test
+        @DisplayName("Creating a 9x9 puzzle with fewer than 27 cages throws exception")
+        void tooFewCagesThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> factory.create(26));
+        }
+
+        @Test
+        @DisplayName("Creating a puzzle with more cages than tiles throws exception")
+        void tooManyCagesThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> factory.create(82));
+        }
+
+        @Test
+        @DisplayName("A 16x16 puzzle needs at least half of its tiles as cages")
+        void largePuzzleNeedsHalfOfTiles() {
+            BitmaskSolver largeSolver = new BitmaskSolver(
+                    new Random(0L),
+                    null,
+                    Layout.ofBlockSize(4)
+            );
+            KillerFactory largeFactory = new KillerFactory(largeSolver, new Random(0L));
+
+            assertThrows(IllegalArgumentException.class, () -> largeFactory.create(127));
+        }
+
+        @Test
+        @DisplayName("A factory for 25x25 boards throws exception")
+        void boardsWithTooManyNumbersThrowException() {
+            BitmaskSolver largeSolver = new BitmaskSolver(
+                    new Random(0L),
+                    null,
+                    Layout.ofBlockSize(5)
+            );
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> new KillerFactory(largeSolver, new Random(0L)));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    @DisplayName("An empty histogram has a count, mean and percentiles of 0")
+    void emptyHistogramReturnsZero() {
+        assertAll(
+                () -> assertEquals(0, histogram.getCount()),
+                () -> assertEquals(0, histogram.getMean()),
+                () -> assertEquals(0, histogram.getPercentile(50))
+        );
+    }
+
+    @Test
+    @DisplayName("Getting a percentile above 100 throws exception")
+    void percentileAboveHundredThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(100.1));
+    }
+
+    @Test
+    @DisplayName("Getting a percentile below 0 throws exception")
+    void percentileBelowZeroThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-0.1));
+    }
+
+    @Test
+    @DisplayName("Small values are recorded exactly")
+    void smallValuesAreExact() {
+        histogram.record(3);
+
+        assertEquals(3, histogram.getPercentile(100));
+    }
+
+    @Test
+    @DisplayName("Negative values are recorded as 0")
+    void negativeValuesAreRecordedAsZero() {
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    /**
+     * Each power of two is split into 8 buckets, so a percentile may be reported up to 12.5%
+     * higher than the recorded value, but never lower.
+     */
+    @Test
+    @DisplayName("A large value is reported within 12.5% above its true value")
+    void largeValueIsWithinPrecision() {
+        histogram.record(1_000_000);
+        long reported = histogram.getPercentile(50);
+
+        assertAll(
+                () -> assertTrue(reported >= 1_000_000),
+                () -> assertTrue(reported <= 1_125_000)
+        );
+    }
+
+    @Test
+    @DisplayName("The median of 1, 2 and 1000 is 2")
+    void medianIsMiddleValue() {
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(1000);
+
+        assertEquals(2, histogram.getPercentile(50));
+    }
+
+    @Test
+    @DisplayName("The mean is the exact mean of the recorded values")
+    void meanIsExact() {
+        histogram.record(10);
+        histogram.record(1000);
+
+        assertAll(
+                () -> assertEquals(2, histogram.getCount()),
+                () -> assertEquals(505, histogram.getMean())
+        );
+    }
+}
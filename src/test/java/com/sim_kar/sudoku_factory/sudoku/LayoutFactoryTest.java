@@ -0,0 +1,126 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class LayoutFactoryTest {
+    @Test
+    @DisplayName("Creating a 9x9 board with less than 25 clues throws exception")
+    void creatingStandardBoardWithLessThan25CluesThrowsException() {
+        Factory factory = new LayoutFactory(
+                new BitmaskSolver(new Random(0L)),
+                new GenerationMetrics(),
+                new Random(0L),
+                Layout.STANDARD
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> factory.create(24));
+    }
+
+    @Nested
+    @DisplayName("Creating a 16x16 board")
+    class CreatingLargeBoardTest {
+        Layout layout = Layout.ofBlockSize(4);
+        BitmaskSolver solver = new BitmaskSolver(new Random(0L), null, layout);
+        Factory factory = new LayoutFactory(
+                solver,
+                new GenerationMetrics(),
+                new Random(0L),
+                layout
+        );
+
+        @Test
+        @DisplayName("A board created with 128 clues has 128 clues and a unique solution")
+        void createdBoardHasCluesAndIsUnique() {
+            int[][] puzzle = factory.create(128).getPuzzle();
+
+            assertAll(
+                    () -> assertEquals(128, Arrays.stream(puzzle)
+                            .flatMapToInt(Arrays::stream)
+                            .filter(value -> value != 0)
+                            .count()),
+                    () -> assertTrue(solver.isUnique(puzzle))
+            );
+        }
+
+        @Test
+        @DisplayName("A created board has 16 rows, 16 columns and 16 blocks")
+        void createdBoardHasSixteenSections() {
+            Board board = factory.create(200);
+            Set<Section> rows = new HashSet<>();
+            Set<Section> columns = new HashSet<>();
+            Set<Section> blocks = new HashSet<>();
+
+            for (Position position : SudokuFactory.getPositions(16)) {
+                rows.add(board.getRow(position));
+                columns.add(board.getColumn(position));
+                blocks.add(board.getBlock(position));
+            }
+
+            assertAll(
+                    () -> assertEquals(16, rows.size()),
+                    () -> assertEquals(16, columns.size()),
+                    () -> assertEquals(16, blocks.size()),
+                    () -> assertEquals(16, board.getBlock(new Position(15, 15)).getTiles().size())
+            );
+        }
+
+        @Test
+        @DisplayName("Creating a board with less than half of the tiles as clues throws exception")
+        void creatingBoardWithTooFewCluesThrowsException() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> factory.create(127)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> factory.create(257))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Creating a jigsaw board")
+    class CreatingJigsawBoardTest {
+        Layout layout = Layout.ofRegions(LayoutTest.JIGSAW);
+        BitmaskSolver solver = new BitmaskSolver(new Random(0L), null, layout);
+        Factory factory = new LayoutFactory(
+                solver,
+                new GenerationMetrics(),
+                new Random(0L),
+                layout
+        );
+
+        @Test
+        @DisplayName("A board created with 25 clues has 25 clues and a unique solution")
+        void createdBoardHasCluesAndIsUnique() {
+            Board board = factory.create(25);
+            int[][] puzzle = board.getPuzzle();
+
+            assertAll(
+                    () -> assertEquals(25, Arrays.stream(puzzle)
+                            .flatMapToInt(Arrays::stream)
+                            .filter(value -> value != 0)
+                            .count()),
+                    () -> assertTrue(solver.isUnique(puzzle))
+            );
+        }
+
+        @Test
+        @DisplayName("The blocks of a created board are the regions of the layout")
+        void blocksAreRegions() {
+            Board board = factory.create(40);
+
+            for (Position position : SudokuFactory.getPositions()) {
+                Set<Integer> regions = new HashSet<>();
+                for (Tile tile : board.getBlock(position).getTiles()) {
+                    Position inBlock = tile.getPosition();
+                    regions.add(LayoutTest.JIGSAW[inBlock.getY()][inBlock.getX()]);
+                }
+                assertEquals(Set.of(LayoutTest.JIGSAW[position.getY()][position.getX()]), regions);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+
+class LayoutTest {
+    // the regions of a 9x9 jigsaw board
+    static final int[][] JIGSAW = {
+            {1, 1, 0, 0, 0, 0, 0, 0, 0},
+            {1, 1, 1, 1, 1, 1, 1, 0, 0},
+            {2, 2, 2, 2, 2, 2, 2, 2, 4},
+            {3, 3, 3, 3, 3, 4, 4, 2, 4},
+            {3, 3, 3, 5, 3, 4, 4, 4, 4},
+            {5, 5, 5, 5, 5, 5, 6, 4, 6},
+            {5, 7, 5, 6, 6, 6, 6, 6, 6},
+            {7, 7, 7, 7, 8, 8, 8, 8, 6},
+            {7, 7, 7, 7, 8, 8, 8, 8, 8}
+    };
+
+    @Test
+    @DisplayName("The layout with 3x3 blocks is the standard layout")
+    void blockSizeThreeIsStandard() {
+        assertAll(
+                () -> assertSame(Layout.STANDARD, Layout.ofBlockSize(3)),
+                () -> assertSame(Layout.STANDARD, Layout.ofSize(9))
+        );
+    }
+
+    @Test
+    @DisplayName("A 16x16 layout has 256 tiles in 48 units of 16 tiles")
+    void largeLayoutHasUnits() {
+        Layout layout = Layout.ofSize(16);
+
+        assertAll(
+                () -> assertEquals(4, layout.getBlockSize()),
+                () -> assertEquals(256, layout.getTileCount()),
+                () -> assertEquals(48, layout.getUnits().length),
+                () -> assertEquals(16, layout.getUnits()[47].length)
+        );
+    }
+
+    /**
+     * A tile sees the other 15 tiles of its row and column, and the 9 tiles of its block that
+     * aren't in its row or column.
+     */
+    @Test
+    @DisplayName("Every tile of a 16x16 layout has 39 peers")
+    void largeLayoutHasPeers() {
+        for (int[] peers : Layout.ofBlockSize(4).getPeers()) {
+            assertEquals(39, peers.length);
+        }
+    }
+
+    @Test
+    @DisplayName("The last tile of a 16x16 layout is in the last row, column and block")
+    void lastTileIsInLastUnits() {
+        assertArrayEquals(new int[] {15, 31, 47}, Layout.ofBlockSize(4).getUnitsOfTiles()[255]);
+    }
+
+    @Test
+    @DisplayName("Block sizes outside 2-8 and sizes that aren't squares throw exception")
+    void invalidSizesThrowException() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> Layout.ofBlockSize(1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> Layout.ofBlockSize(9)),
+                () -> assertThrows(IllegalArgumentException.class, () -> Layout.ofSize(10))
+        );
+    }
+
+    @Nested
+    @DisplayName("Creating a layout from a region map")
+    class RegionMapTest {
+        @Test
+        @DisplayName("The regions of the map are the third unit of every tile")
+        void regionsAreUnits() {
+            Layout layout = Layout.ofRegions(JIGSAW);
+
+            for (int tile = 0; tile < 81; tile++) {
+                int region = layout.getUnitsOfTiles()[tile][2] - 18;
+                assertEquals(JIGSAW[tile / 9][tile % 9], region);
+            }
+            assertArrayEquals(new int[] {0, 1, 9, 10, 11, 12, 13, 14, 15}, layout.getUnits()[19]);
+        }
+
+        @Test
+        @DisplayName("The peers of a tile are the other tiles of its row, column and region")
+        void peersAreInRowColumnAndRegion() {
+            Layout layout = Layout.ofRegions(JIGSAW);
+
+            // 8 in row 0, 8 in column 0, and 6 in region 1 that aren't in row 0 or column 0
+            assertEquals(22, layout.getPeers()[0].length);
+        }
+
+        @Test
+        @DisplayName("Layouts of region maps have irregular regions, unlike layouts with blocks")
+        void layoutHasIrregularRegions() {
+            assertAll(
+                    () -> assertTrue(Layout.ofRegions(JIGSAW).hasIrregularRegions()),
+                    () -> assertEquals(0, Layout.ofRegions(JIGSAW).getBlockSize()),
+                    () -> assertFalse(Layout.STANDARD.hasIrregularRegions())
+            );
+        }
+
+        @Test
+        @DisplayName("A map that is null or isn't square throws exception")
+        void wrongShapeThrowsException() {
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> Layout.ofRegions(null)),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> Layout.ofRegions(new int[9][8])),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> Layout.ofRegions(new int[1][1]))
+            );
+        }
+
+        @Test
+        @DisplayName("A region with too many tiles, or a number that isn't a region, throws error")
+        void wrongRegionSizeThrowsException() {
+            int[][] tooMany = Arrays.stream(JIGSAW).map(int[]::clone).toArray(int[][]::new);
+            tooMany[0][2] = 1;
+            int[][] notRegion = Arrays.stream(JIGSAW).map(int[]::clone).toArray(int[][]::new);
+            notRegion[0][0] = 9;
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> Layout.ofRegions(tooMany)),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> Layout.ofRegions(notRegion))
+            );
+        }
+
+        @Test
+        @DisplayName("A region split in two parts throws exception")
+        void disconnectedRegionThrowsException() {
+            int[][] split = {
+                    {0, 1, 1, 0},
+                    {0, 1, 1, 0},
+                    {2, 2, 3, 3},
+                    {2, 2, 3, 3}
+            };
+
+            assertThrows(IllegalArgumentException.class, () -> Layout.ofRegions(split));
+        }
+
+        @Test
+        @DisplayName("A map of regions that can't be filled in throws exception")
+        void unsolvableRegionsThrowException() {
+            int[][] pinwheel = {
+                    {0, 1, 1, 1},
+                    {0, 0, 1, 2},
+                    {3, 0, 2, 2},
+                    {3, 3, 3, 2}
+            };
+
+            assertThrows(IllegalArgumentException.class, () -> Layout.ofRegions(pinwheel));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Random;
+
+class LocalSearchFactoryTest {
+    Random random = new Random(0L);
+    Solver solver = new BitmaskSolver(random);
+    LocalSearchFactory factory = new LocalSearchFactory(solver, random, 2000);
+
+    /**
+     * Counts the tiles in a puzzle that are not empty.
+     */
+    int countClues(int[][] puzzle) {
+        int clues = 0;
+        for (int[] row : puzzle) {
+            for (int value : row) {
+                if (value != 0) clues++;
+            }
+        }
+        return clues;
+    }
+
+    @Test
+    @DisplayName("Creating a factory with a move budget less than 1 throws exception")
+    void moveBudgetLessThanOneThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LocalSearchFactory(solver, random, 0));
+    }
+
+    @Test
+    @DisplayName("Creating a factory with a time budget of 0 throws exception")
+    void zeroTimeBudgetThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LocalSearchFactory(solver, random, 1, Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Searching for less than 17 clues throws exception")
+    void searchingForLessThan17CluesThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> factory.search(16));
+    }
+
+    @Test
+    @DisplayName("Searching for more than 81 clues throws exception")
+    void searchingForMoreThan81CluesThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> factory.search(82));
+    }
+
+    @Test
+    @DisplayName("A search that reaches its target returns a puzzle with the target clues")
+    void searchReachingTargetHasTargetClues() {
+        SearchResult result = factory.search(30);
+
+        assertAll(
+                () -> assertEquals(30, result.getClues()),
+                () -> assertEquals(30, countClues(result.getPuzzle()))
+        );
+    }
+
+    @Test
+    @DisplayName("The puzzle found by a search has a single unique solution")
+    void searchedPuzzleIsUnique() {
+        SearchResult result = factory.search(24);
+
+        assertTrue(solver.isUnique(result.getPuzzle()));
+    }
+
+    @Test
+    @DisplayName("A search that runs out of budget reports the best clue count reached")
+    void searchOutOfBudgetReportsBestClues() {
+        LocalSearchFactory limitedFactory = new LocalSearchFactory(solver, random, 1);
+        SearchResult result = limitedFactory.search(17);
+
+        assertAll(
+                () -> assertTrue(result.getClues() > 17),
+                () -> assertEquals(result.getClues(), countClues(result.getPuzzle())),
+                () -> assertEquals(1, result.getMoves())
+        );
+    }
+
+    @Test
+    @DisplayName("Creating a board that can't be reached within the budget throws exception")
+    void creatingUnreachableBoardThrowsException() {
+        LocalSearchFactory limitedFactory = new LocalSearchFactory(solver, random, 1);
+
+        assertThrows(IllegalStateException.class, () -> limitedFactory.create(17));
+    }
+
+    @Test
+    @DisplayName("Can create a board with 25 clues")
+    void canCreateBoardWith25Clues() {
+        assertEquals(SudokuBoard.class, factory.create(25).getClass());
+    }
+}
@@ -0,0 +1,113 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LongHashSetTest {
+    LongHashSet set = new LongHashSet(1000);
+
+    @Test
+    @DisplayName("A new key is added, and a repeated key is not")
+    void repeatedKeyIsNotAdded() {
+        assertAll(
+                () -> assertTrue(set.add(42)),
+                () -> assertFalse(set.add(42)),
+                () -> assertTrue(set.contains(42)),
+                () -> assertFalse(set.contains(43)),
+                () -> assertEquals(1, set.size())
+        );
+    }
+
+    @Test
+    @DisplayName("The key 0 can be added like any other key")
+    void zeroKeyIsAdded() {
+        assertAll(
+                () -> assertFalse(set.contains(0)),
+                () -> assertTrue(set.add(0)),
+                () -> assertFalse(set.add(0)),
+                () -> assertTrue(set.contains(0))
+        );
+    }
+
+    @Test
+    @DisplayName("The capacity is a power of two that keeps the set at most 3/4 full")
+    void capacityFitsExpectedSize() {
+        assertAll(
+                () -> assertEquals(2048, set.getCapacity()),
+                () -> assertEquals(2048 * 8, set.getMemoryUsage())
+        );
+    }
+
+    @Test
+    @DisplayName("Adding a new key to a full set throws exception")
+    void fullSetThrowsException() {
+        LongHashSet small = new LongHashSet(1);
+        for (int key = 1; key <= 12; key++) {
+            small.add(key);
+        }
+
+        assertAll(
+                () -> assertFalse(small.add(1)),
+                () -> assertThrows(IllegalStateException.class, () -> small.add(13))
+        );
+    }
+
+    @Test
+    @DisplayName("An expected size below 1 throws exception")
+    void invalidSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(0));
+    }
+
+    @Test
+    @DisplayName("An expected size larger than the segments can address throws exception")
+    void tooLargeSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LongHashSet(LongHashSet.MAX_EXPECTED_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("The largest expected size needs no more than 2^30 segments of 2^27 slots")
+    void largestSizeFitsSegments() {
+        assertAll(
+                () -> assertEquals(57, LongHashSet.getSlotBits(LongHashSet.MAX_EXPECTED_SIZE)),
+                () -> assertEquals(58, LongHashSet.getSlotBits(LongHashSet.MAX_EXPECTED_SIZE + 1)),
+                () -> assertEquals(4, LongHashSet.getSlotBits(1))
+        );
+    }
+
+    @Test
+    @DisplayName("Every key is added exactly once when threads add the same keys at once")
+    void concurrentAddsAddEveryKeyOnce() throws Exception {
+        LongHashSet shared = new LongHashSet(10_000);
+        AtomicInteger added = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                workers.add(executor.submit(() -> {
+                    for (long key = 1; key <= 10_000; key++) {
+                        if (shared.add(key * 0x9E3779B97F4A7C15L)) added.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertAll(
+                () -> assertEquals(10_000, added.get()),
+                () -> assertEquals(10_000, shared.size())
+        );
+    }
+}
@@ -0,0 +1,302 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a short, fixed workload and compares it with the baseline in
+ * {@code src/test/resources/perf/baseline.properties}. Run with {@code mvn verify}, or with
+ * {@code mvn -P perf verify} to compare the timings as well.
+ * <br>
+ * Two things are compared for every part of the workload. The number of nodes the solvers visit
+ * is deterministic, since every solver and factory is seeded, so any increase fails the build no
+ * matter how noisy the machine is. The time is normalized by the time of a fixed calibration
+ * workload on the same machine, and fails the build if it is more than {@code perf.tolerance}
+ * (by default 0.5, i.e. 50%) slower than the baseline. Since timings depend on the machine, they
+ * are only compared with {@code -Dperf.timings=true}, which the {@code perf} profile sets.
+ * <br>
+ * After an intended change, the baseline is rewritten with {@code -Dperf.updateBaseline=true}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PerformanceRegressionIT {
+    private static final String BASELINE = "/perf/baseline.properties";
+    private static final int PUZZLES_PER_DIFFICULTY = 10;
+    private static final int MOVES = 20_000;
+    private static final int RUNS = 3;
+    private static final int TABLE_CAPACITY = 1 << 12;
+    private final Properties baseline = new Properties();
+    private final Properties measured = new Properties();
+    private final double tolerance =
+            Double.parseDouble(System.getProperty("perf.tolerance", "0.5"));
+    private final boolean checkTimings = Boolean.getBoolean("perf.timings");
+    private final boolean updateBaseline = Boolean.getBoolean("perf.updateBaseline");
+    private double calibrationNanos;
+    // the results of the workloads, kept so that they aren't optimized away
+    private static long sink;
+
+    @BeforeAll
+    void setup() throws IOException {
+        try (InputStream stream = getClass().getResourceAsStream(BASELINE)) {
+            if (stream != null) baseline.load(stream);
+        }
+        calibrationNanos = measure(PerformanceRegressionIT::calibrate);
+
+        // the first parts of the workload would otherwise also be measuring the JIT compiler
+        for (long seed = 0; seed < PUZZLES_PER_DIFFICULTY; seed++) {
+            new SudokuFactory(new SudokuSolver(new Random(seed))).create(29);
+        }
+    }
+
+    @AfterAll
+    void teardown() throws IOException {
+        if (!updateBaseline) return;
+
+        Path file = Path.of(System.getProperty(
+                "perf.baseline",
+                "src/test/resources/perf/baseline.properties"
+        ));
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            measured.store(stream, "Performance baseline, rewrite with -Dperf.updateBaseline=true");
+        }
+    }
+
+    @ParameterizedTest(name = "Creating puzzles with {0} clues has not regressed")
+    @ValueSource(ints = {33, 31, 29, 27, 25})
+    void creatingPuzzles(int clues) {
+        long[] nodes = new long[1];
+        double nanos = measure(() -> {
+            nodes[0] = 0;
+            for (long seed = 0; seed < PUZZLES_PER_DIFFICULTY; seed++) {
+                Solver solver = new SudokuSolver(new Random(seed));
+                Factory factory = new SudokuFactory(
+                        solver,
+                        new SudokuGrader(solver),
+                        new GenerationMetrics(),
+                        new Random(seed)
+                );
+                factory.create(clues);
+                nodes[0] += solver.getNodeCount();
+            }
+            return nodes[0];
+        });
+
+        compare("create." + clues, nodes[0], nanos);
+    }
+
+    /**
+     * Creates the same puzzles with the bitmask solver with and without a transposition table,
+     * and prints the share of nodes the table saves. The table isn't used to generate solutions,
+     * so both create the same puzzles.
+     */
+    @ParameterizedTest(name = "Creating puzzles with {0} clues and a transposition table has not "
+            + "regressed")
+    @ValueSource(ints = {25})
+    void creatingPuzzlesWithTable(int clues) {
+        long[] nodes = new long[2];
+        double[] nanos = new double[2];
+
+        for (int withTable = 0; withTable < 2; withTable++) {
+            boolean useTable = withTable == 1;
+            nanos[withTable] = measure(() -> {
+                nodes[useTable ? 1 : 0] = 0;
+                for (long seed = 0; seed < PUZZLES_PER_DIFFICULTY; seed++) {
+                    Solver solver = new BitmaskSolver(
+                            new Random(seed),
+                            useTable ? new TranspositionTable(TABLE_CAPACITY) : null
+                    );
+                    new SudokuFactory(
+                            solver,
+                            new SudokuGrader(solver),
+                            new GenerationMetrics(),
+                            new Random(seed)
+                    ).create(clues);
+                    nodes[useTable ? 1 : 0] += solver.getNodeCount();
+                }
+                return nodes[useTable ? 1 : 0];
+            });
+        }
+
+        System.out.printf("create.table.%d: %.1f%% of nodes saved%n",
+                clues, 100.0 * (nodes[0] - nodes[1]) / nodes[0]);
+        compare("create.bitmask." + clues, nodes[0], nanos[0]);
+        compare("create.table." + clues, nodes[1], nanos[1]);
+    }
+
+    /**
+     * The bitmask solver is far faster, so it solves the puzzles more times to get a time that
+     * isn't drowned out by noise. The backjumping solver learns nogoods.
+     */
+    @ParameterizedTest(name = "Solving hard puzzles with {0} has not regressed")
+    @ValueSource(strings = {"SudokuSolver", "BitmaskSolver", "BackjumpingSolver"})
+    void solvingHardPuzzles(String engine) throws IOException {
+        List<int[][]> puzzles = loadHardPuzzles();
+        int repetitions = engine.equals("BitmaskSolver") ? 200 : 1;
+        long[] nodes = new long[1];
+        double nanos = measure(() -> {
+            Solver solver;
+            switch (engine) {
+                case "SudokuSolver":
+                    solver = new SudokuSolver(new Random(0L));
+                    break;
+                case "BitmaskSolver":
+                    solver = new BitmaskSolver(new Random(0L));
+                    break;
+                default:
+                    solver = new BackjumpingSolver(new Random(0L), true);
+            }
+            for (int repetition = 0; repetition < repetitions; repetition++) {
+                for (int[][] puzzle : puzzles) {
+                    solver.isUnique(puzzle);
+                    solver.generate(puzzle);
+                }
+            }
+            nodes[0] = solver.getNodeCount();
+            return nodes[0];
+        });
+
+        compare("solve." + engine, nodes[0], nanos);
+    }
+
+    @ParameterizedTest(name = "Replaying moves on a board with {0} clues has not regressed")
+    @ValueSource(ints = {29})
+    void replayingMoves(int clues) {
+        Solver solver = new BitmaskSolver(new Random(0L));
+        Board board = new SudokuFactory(
+                solver,
+                new SudokuGrader(solver),
+                new GenerationMetrics(),
+                new Random(0L)
+        ).create(clues);
+        List<Position> editable = SudokuFactory.getPositions()
+                .stream()
+                .filter(position -> board.getTile(position).isEditable())
+                .collect(Collectors.toList());
+
+        double nanos = measure(() -> {
+            long incorrect = 0;
+            Random random = new Random(0L);
+
+            for (int move = 0; move < MOVES; move++) {
+                Position position = editable.get(random.nextInt(editable.size()));
+                board.setTile(position, random.nextInt(10));
+                if (!board.isCorrect()) incorrect += board.getIncorrectSections().size();
+            }
+            board.clear();
+            return incorrect;
+        });
+
+        compare("moves." + clues, -1, nanos);
+    }
+
+    /**
+     * Load the hard puzzles, with one 81 character puzzle per line where '.' is an empty tile.
+     */
+    private List<int[][]> loadHardPuzzles() throws IOException {
+        List<int[][]> puzzles = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/perf/hard.txt"),
+                StandardCharsets.US_ASCII
+        ))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (PuzzleText.isSkipped(line)) continue;
+
+                puzzles.add(PuzzleText.toBoard(line));
+            }
+        }
+
+        return puzzles;
+    }
+
+    /**
+     * Compare the nodes and normalized time of a part of the workload with the baseline, and
+     * store them as the new measurements.
+     *
+     * @param key the name of the part of the workload
+     * @param nodes the number of visited nodes, or -1 if the part doesn't use a solver
+     * @param nanos the fastest time of the part, in nanoseconds
+     */
+    private void compare(String key, long nodes, double nanos) {
+        double normalized = nanos / calibrationNanos;
+        if (nodes >= 0) measured.setProperty(key + ".nodes", Long.toString(nodes));
+        measured.setProperty(key + ".time", String.format("%.4f", normalized));
+        System.out.printf("%s: %d nodes, %.4f x calibration%n", key, nodes, normalized);
+
+        if (updateBaseline) return;
+
+        String baselineNodes = baseline.getProperty(key + ".nodes");
+        String baselineTime = baseline.getProperty(key + ".time");
+        assertAll(
+                () -> {
+                    if ((nodes >= 0) && (baselineNodes != null)) {
+                        long expected = Long.parseLong(baselineNodes);
+                        assertTrue(nodes <= expected, String.format(
+                                "%s visited %d nodes, but the baseline is %d",
+                                key, nodes, expected
+                        ));
+                    }
+                },
+                () -> {
+                    if (checkTimings && (baselineTime != null)) {
+                        double limit = Double.parseDouble(baselineTime) * (1 + tolerance);
+                        assertTrue(normalized <= limit, String.format(
+                                "%s took %.4f x calibration, but the limit is %.4f",
+                                key, normalized, limit
+                        ));
+                    }
+                }
+        );
+    }
+
+    /**
+     * Run a workload once to warm it up, and then a few more times to get its fastest time, which
+     * is the least affected by noise.
+     *
+     * @param workload the workload to run, which returns a result so that it isn't optimized away
+     * @return the fastest time of the workload in nanoseconds
+     */
+    private static double measure(LongSupplier workload) {
+        long fastest = Long.MAX_VALUE;
+        sink += workload.getAsLong();
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            sink += workload.getAsLong();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        return fastest;
+    }
+
+    /**
+     * A fixed workload of sorting and summing that every timing is normalized by, so that the
+     * timings can be compared between machines.
+     */
+    private static long calibrate() {
+        int[] numbers = new Random(0L).ints(1_000_000).toArray();
+        Arrays.sort(numbers);
+        return Arrays.stream(numbers).asLongStream().sum();
+    }
+}
@@ -0,0 +1,170 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static com.sim_kar.sudoku_factory.io.PuzzleText.toBoard;
+import static com.sim_kar.sudoku_factory.sudoku.BitmaskSolverTest.PUZZLE;
+import static com.sim_kar.sudoku_factory.sudoku.BitmaskSolverTest.SOLUTION;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.Arrays;
+import java.util.Random;
+
+class PropagatingSolverTest {
+    // AI Escargot
+    static final String HARD_PUZZLE =
+            "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..";
+
+    PropagatingSolver solver;
+    PropagatingSolver vectorSolver;
+    int[][] empty;
+
+    @BeforeEach
+    void setup() {
+        solver = new PropagatingSolver(new Random(0L));
+        vectorSolver = new PropagatingSolver(new Random(0L), CandidateEngine.vectorized());
+        empty = new int[9][9];
+    }
+
+    @Nested
+    @DisplayName("Generating a solution")
+    class GeneratingSolutionTest {
+        @Test
+        @DisplayName("Generating a solution with null input throws an error")
+        void nullInputThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(null));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with numbers >9 throws error")
+        void numbersGreaterThanNineThrowsError() {
+            empty[1][1] = 10;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from input with duplicates in block throws error")
+        void duplicatesInBlockThrowsError() {
+            empty[0][0] = 1;
+            empty[2][2] = 1;
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(empty));
+        }
+
+        @Test
+        @DisplayName("Generating a solution from board with wrong column size throws error")
+        void wrongColumnSizeThrowsError() {
+            assertThrows(IllegalArgumentException.class, () -> solver.generate(new int[9][8]));
+        }
+
+        @Test
+        @DisplayName("Generating a solution for a unique puzzle returns its solution")
+        void generatingSolutionForUniquePuzzleReturnsSolution() {
+            assertAll(
+                    () -> assertArrayEquals(toBoard(SOLUTION), solver.generate(toBoard(PUZZLE))),
+                    () -> assertArrayEquals(toBoard(SOLUTION),
+                            vectorSolver.generate(toBoard(PUZZLE)))
+            );
+        }
+
+        @Test
+        @DisplayName("Numbers in generated solution are randomized")
+        void solutionIsRandomized() {
+            int[][] solution = solver.generate(empty);
+            int[][] solution2 = new PropagatingSolver(new Random(1L)).generate(empty);
+
+            assertFalse(Arrays.deepEquals(solution, solution2));
+        }
+
+        @Test
+        @DisplayName("Generated solution is a complete, valid Sudoku board")
+        void generatedSolutionIsValid() {
+            int[][] solution = solver.generate(empty);
+            Grader grader = new SudokuGrader(solver);
+
+            assertEquals(0, grader.grade(solution));
+        }
+
+        @Test
+        @DisplayName("Both engines generate the same solutions")
+        void enginesGenerateSameSolutions() {
+            for (int i = 0; i < 5; i++) {
+                assertArrayEquals(solver.generate(empty), vectorSolver.generate(empty));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking if a Sudoku board is unique")
+    class BoardIsUniqueTest {
+        @Test
+        @DisplayName("Checking if a board with duplicates is unique throws an error")
+        void boardWithDuplicatesThrowsError() {
+            empty[0][0] = 1;
+            empty[0][8] = 1;
+            assertThrows(IllegalArgumentException.class, () -> solver.isUnique(empty));
+        }
+
+        @Test
+        @DisplayName("A hard puzzle with a single solution is unique")
+        void hardPuzzleIsUnique() {
+            assertAll(
+                    () -> assertTrue(solver.isUnique(toBoard(HARD_PUZZLE))),
+                    () -> assertTrue(vectorSolver.isUnique(toBoard(HARD_PUZZLE)))
+            );
+        }
+
+        @Test
+        @DisplayName("An empty board is not unique")
+        void emptyBoardIsNotUnique() {
+            assertFalse(solver.isUnique(empty));
+        }
+
+        /**
+         * Filling in all singles at once must never hide a contradiction or a second solution,
+         * so the answers are compared with the bitmask solver for boards with more and more
+         * tiles cleared.
+         */
+        @ParameterizedTest(name = "Gives the same answers as the bitmask solver with seed {0}")
+        @ValueSource(longs = {0, 1, 2, 3})
+        void sameAnswersAsBitmaskSolver(long seed) {
+            Random random = new Random(seed);
+            BitmaskSolver reference = new BitmaskSolver(new Random(seed));
+            int[][] board = reference.generate(empty);
+
+            for (int cleared = 0; cleared < 64; cleared++) {
+                int tile = random.nextInt(81);
+                board[tile / 9][tile % 9] = 0;
+
+                boolean unique = reference.isUnique(board);
+                assertEquals(unique, solver.isUnique(board));
+                assertEquals(unique, vectorSolver.isUnique(board));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Counting nodes")
+    class CountingNodesTest {
+        @Test
+        @DisplayName("Both engines visit the same nodes")
+        void enginesVisitSameNodes() {
+            solver.isUnique(toBoard(HARD_PUZZLE));
+            vectorSolver.isUnique(toBoard(HARD_PUZZLE));
+
+            assertEquals(solver.getNodeCount(), vectorSolver.getNodeCount());
+        }
+
+        @Test
+        @DisplayName("Propagating singles visits fewer nodes than the bitmask solver")
+        void fewerNodesThanBitmaskSolver() {
+            BitmaskSolver bitmask = new BitmaskSolver(new Random(0L));
+            bitmask.isUnique(toBoard(HARD_PUZZLE));
+            solver.isUnique(toBoard(HARD_PUZZLE));
+
+            assertTrue(solver.getNodeCount() < bitmask.getNodeCount());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+class PuzzleHashTest {
+    static final int[][] PUZZLE = TransformationTest.PUZZLE;
+    Random random = new Random(0L);
+
+    /**
+     * Copy a board, so that changing the copy leaves the original as it is.
+     */
+    static int[][] copy(int[][] board) {
+        int[][] copy = new int[9][];
+        for (int y = 0; y < 9; y++) {
+            copy[y] = board[y].clone();
+        }
+        return copy;
+    }
+
+    @Test
+    @DisplayName("Equal puzzles have the same hash")
+    void equalPuzzlesHaveSameHash() {
+        assertEquals(PuzzleHash.hash(PUZZLE), PuzzleHash.hash(copy(PUZZLE)));
+    }
+
+    @Test
+    @DisplayName("Puzzles that differ in a single tile have different hashes")
+    void differentPuzzlesHaveDifferentHashes() {
+        long hash = PuzzleHash.hash(PUZZLE);
+
+        for (int tile = 0; tile < 81; tile++) {
+            int[][] changed = copy(PUZZLE);
+            changed[tile / 9][tile % 9] = (changed[tile / 9][tile % 9] + 1) % 10;
+            assertNotEquals(hash, PuzzleHash.hash(changed));
+        }
+    }
+
+    @Test
+    @DisplayName("Transformed puzzles have the same canonical hash, but not the same hash")
+    void transformedPuzzlesHaveSameCanonicalHash() {
+        int[][] transformed = Transformation.random(random).apply(PUZZLE);
+
+        assertAll(
+                () -> assertEquals(PuzzleHash.canonicalHash(PUZZLE),
+                        PuzzleHash.canonicalHash(transformed)),
+                () -> assertNotEquals(PuzzleHash.hash(PUZZLE), PuzzleHash.hash(transformed))
+        );
+    }
+
+    @Test
+    @DisplayName("Hashing a board that isn't 9x9 throws exception")
+    void invalidBoardThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> PuzzleHash.hash(new int[8][9]));
+    }
+}
@@ -0,0 +1,132 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+class RecordingSolverTest {
+    Solver solver = new RecordingSolver(new BitmaskSolver(new Random(0L)));
+    Recording recording;
+
+    @BeforeEach
+    void setup() {
+        recording = new Recording();
+        recording.enable("com.sim_kar.sudoku_factory.*").withoutThreshold();
+        recording.start();
+    }
+
+    @AfterEach
+    void teardown() {
+        recording.close();
+    }
+
+    /**
+     * Stop the recording and read the events with the given name from it.
+     */
+    List<RecordedEvent> getEvents(String name) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("recording", ".jfr");
+
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file)
+                    .stream()
+                    .filter(event -> event.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Generating a solution records the clues, nodes and outcome")
+    void generatingRecordsEvent() throws IOException {
+        long nodes = solver.getNodeCount();
+        solver.generate(PuzzleText.toBoard(BitmaskSolverTest.PUZZLE));
+        List<RecordedEvent> events = getEvents("com.sim_kar.sudoku_factory.Generate");
+
+        assertEquals(1, events.size());
+        assertAll(
+                () -> assertEquals(32, events.get(0).getInt("clues")),
+                () -> assertEquals(solver.getNodeCount() - nodes, events.get(0).getLong("nodes")),
+                () -> assertEquals("solved", events.get(0).getString("outcome"))
+        );
+    }
+
+    @Test
+    @DisplayName("Checking uniqueness of an ambiguous board records it as ambiguous")
+    void checkingUniquenessRecordsEvent() throws IOException {
+        assertFalse(solver.isUnique(new int[9][9]));
+        List<RecordedEvent> events = getEvents("com.sim_kar.sudoku_factory.IsUnique");
+
+        assertEquals(1, events.size());
+        assertAll(
+                () -> assertEquals(0, events.get(0).getInt("clues")),
+                () -> assertEquals("ambiguous", events.get(0).getString("outcome"))
+        );
+    }
+
+    @Test
+    @DisplayName("A call with an invalid board is recorded as invalid")
+    void invalidCallIsRecorded() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> solver.generate(null));
+        List<RecordedEvent> events = getEvents("com.sim_kar.sudoku_factory.Generate");
+
+        assertEquals(1, events.size());
+        assertAll(
+                () -> assertEquals(-1, events.get(0).getInt("clues")),
+                () -> assertEquals("invalid", events.get(0).getString("outcome"))
+        );
+    }
+
+    @Test
+    @DisplayName("A call with a board without a solution is recorded without a solution")
+    void unsolvableCallIsRecorded() throws IOException {
+        int[][] board = new int[9][9];
+        board[0][0] = 1;
+        board[0][8] = 1;
+        assertThrows(NoSolutionException.class, () -> solver.isUnique(board));
+        List<RecordedEvent> events = getEvents("com.sim_kar.sudoku_factory.IsUnique");
+
+        assertEquals(1, events.size());
+        assertAll(
+                () -> assertEquals(2, events.get(0).getInt("clues")),
+                () -> assertEquals("no solution", events.get(0).getString("outcome"))
+        );
+    }
+
+    @Test
+    @DisplayName("Creating a puzzle records its seed, clues and the work it took")
+    void creatingPuzzleRecordsEvent() throws IOException {
+        SudokuFactory factory = new SudokuFactory(
+                solver,
+                new SudokuGrader(solver),
+                new GenerationMetrics(),
+                new Random(0L)
+        );
+        factory.create(30);
+        List<RecordedEvent> events = getEvents("com.sim_kar.sudoku_factory.Create");
+        long seed = new Random(0L).nextLong();
+
+        assertEquals(1, events.size());
+        assertAll(
+                () -> assertEquals(30, events.get(0).getInt("clues")),
+                () -> assertEquals(seed, events.get(0).getLong("seed")),
+                () -> assertTrue(events.get(0).getInt("uniquenessChecks") >= 51),
+                () -> assertTrue(events.get(0).getLong("nodes") > 0),
+                () -> assertEquals("created", events.get(0).getString("outcome"))
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SolverCacheTest {
+    SolverCache cache = new SolverCache(32, false);
+
+    @Test
+    @DisplayName("A stored entry can be looked up by its key")
+    void storedEntryIsFound() {
+        byte[] entry = {1, 2, 3};
+        cache.put(42, entry);
+
+        assertAll(
+                () -> assertSame(entry, cache.get(42)),
+                () -> assertNull(cache.get(43)),
+                () -> assertEquals(1, cache.size())
+        );
+    }
+
+    @Test
+    @DisplayName("The cache never holds more entries than its capacity")
+    void sizeIsBounded() {
+        for (long key = 0; key < 1000; key++) {
+            cache.put(key, new byte[1]);
+        }
+
+        assertAll(
+                () -> assertEquals(32, cache.size()),
+                () -> assertEquals(1000 - 32, cache.getEvictions())
+        );
+    }
+
+    @Test
+    @DisplayName("The least recently used entry of a segment is evicted first")
+    void leastRecentlyUsedIsEvicted() {
+        SolverCache small = new SolverCache(2, false);
+        // keys with the same parity share a segment, which holds a single entry
+        small.put(0, new byte[1]);
+        small.put(1, new byte[1]);
+        small.put(2, new byte[1]);
+
+        assertAll(
+                () -> assertNull(small.get(0)),
+                () -> assertNotNull(small.get(1)),
+                () -> assertNotNull(small.get(2))
+        );
+    }
+
+    @Test
+    @DisplayName("The hit rate is the share of lookups that were hits")
+    void hitRateIsShareOfHits() {
+        cache.recordHit();
+        cache.recordHit();
+        cache.recordHit();
+        cache.recordMiss();
+
+        assertAll(
+                () -> assertEquals(3, cache.getHits()),
+                () -> assertEquals(1, cache.getMisses()),
+                () -> assertEquals(0.75, cache.getHitRate())
+        );
+    }
+
+    @Test
+    @DisplayName("A capacity below 1 throws exception")
+    void invalidCapacityThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SolverCache(0, true));
+    }
+}
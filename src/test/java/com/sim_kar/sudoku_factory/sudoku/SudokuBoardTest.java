@@ -281,4 +281,96 @@ class SudokuBoardTest {
         board.clear();
         assertEquals(0, board.getTile(position).getCurrentValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("The puzzle of a board has its clues, and 0 for editable tiles")
+    void puzzleHasClues() {
+        board.getTile(new Position(4,2)).setEditable(true);
+        int[][] puzzle = board.getPuzzle();
+
+        assertAll(
+                () -> assertEquals(3, puzzle[2][0]),
+                () -> assertEquals(0, puzzle[2][4]),
+                () -> assertEquals(7, puzzle[2][7]),
+                () -> assertEquals(0, puzzle[0][0])
+        );
+    }
+
+    @Test
+    @DisplayName("The solution of a board has the correct values of all tiles")
+    void solutionHasCorrectValues() {
+        board.getTile(new Position(4,2)).setEditable(true);
+        int[][] solution = board.getSolution();
+
+        assertAll(
+                () -> assertEquals(3, solution[2][0]),
+                () -> assertEquals(1, solution[2][4]),
+                () -> assertEquals(7, solution[2][7])
+        );
+    }
+
+    @Test
+    @DisplayName("Setting a Tile updates the hash, and setting it back restores it")
+    void settingTileUpdatesHash() {
+        Position position = new Position(4,2);
+        long hash = board.getHash();
+        board.getTile(position).setEditable(true);
+        board.setTile(position,7);
+        long changed = board.getHash();
+        board.setTile(position,1);
+
+        assertAll(
+                () -> assertEquals(hash ^ Zobrist.key(22, 1) ^ Zobrist.key(22, 7), changed),
+                () -> assertEquals(hash, board.getHash())
+        );
+    }
+
+    @Test
+    @DisplayName("Setting a Tile that isn't editable leaves the hash as it is")
+    void settingFixedTileKeepsHash() {
+        long hash = board.getHash();
+        board.setTile(new Position(4,2),7);
+
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    @DisplayName("Clearing the board updates the hash")
+    void clearingBoardUpdatesHash() {
+        Position position = new Position(4,2);
+        long hash = board.getHash();
+        board.getTile(position).setEditable(true);
+        board.clear();
+
+        assertEquals(hash ^ Zobrist.key(22, 1), board.getHash());
+    }
+
+    @Test
+    @DisplayName("The hash of a 4x4 board is the hash of every tile, once")
+    void hashOfEvenSizedBoardHasEveryTileOnce() {
+        int[][] solution = {
+                {1, 2, 3, 4},
+                {3, 4, 1, 2},
+                {2, 1, 4, 3},
+                {4, 3, 2, 1}
+        };
+        int[][] puzzle = {
+                {1, 0, 0, 4},
+                {0, 4, 0, 0},
+                {0, 0, 4, 0},
+                {4, 0, 0, 1}
+        };
+        Board evenBoard = SudokuFactory.getBoard(Layout.ofBlockSize(2), solution, puzzle);
+
+        long expected = 0;
+        for (int tile = 0; tile < 16; tile++) {
+            expected ^= Zobrist.key(4, tile, puzzle[tile / 4][tile % 4]);
+        }
+        long hash = expected;
+
+        assertAll(
+                () -> assertNotEquals(0, evenBoard.getHash()),
+                () -> assertEquals(hash, evenBoard.getHash())
+        );
+    }
+}
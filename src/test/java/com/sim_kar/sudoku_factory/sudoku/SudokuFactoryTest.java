@@ -52,6 +52,32 @@ class SudokuFactoryTest {
         assertEquals(SudokuBoard.class, (factory.create(81).getClass()));
     }
 
+    @Test
+    @DisplayName("Factories with the same seeds create the same puzzle")
+    void sameSeedsCreateSamePuzzle() {
+        Solver otherSolver = new SudokuSolver(new Random(1L));
+        Solver sameSolver = new SudokuSolver(new Random(1L));
+        Factory otherFactory = new SudokuFactory(
+                otherSolver,
+                new SudokuGrader(otherSolver),
+                new GenerationMetrics(),
+                new Random(2L)
+        );
+        Factory sameFactory = new SudokuFactory(
+                sameSolver,
+                new SudokuGrader(sameSolver),
+                new GenerationMetrics(),
+                new Random(2L)
+        );
+        Board board = otherFactory.create(30);
+        Board same = sameFactory.create(30);
+
+        for (Position position : SudokuFactory.getPositions()) {
+            assertEquals(board.getTile(position).getCurrentValue(),
+                    same.getTile(position).getCurrentValue());
+        }
+    }
+
     @Test
     @DisplayName("A board created with 40 clues has 40 clues")
     void createdBoardHasCorrectNumberOfClues() {
@@ -131,6 +157,49 @@ class SudokuFactoryTest {
         assertTrue(solver.isUnique(matrixOfBoard));
     }
 
+    @Nested
+    @DisplayName("Creating a board by grade")
+    class CreatingByGradeTest {
+        Random random = new Random(0L);
+        Solver solver = new SudokuSolver(random);
+        Grader grader = new SudokuGrader(solver);
+        RatedFactory factory = new SudokuFactory(solver, grader);
+
+        @Test
+        @DisplayName("A board created with a grade has a rating within the grade")
+        void createdBoardHasRatingWithinGrade() {
+            Board board = factory.create(Grade.MEDIUM);
+
+            assertTrue(Grade.MEDIUM.contains(grader.grade(board.getPuzzle())));
+        }
+
+        @Test
+        @DisplayName("A board created with a grade has a single unique solution")
+        void createdBoardWithGradeIsUnique() {
+            Board board = factory.create(Grade.EASY);
+
+            assertTrue(solver.isUnique(board.getPuzzle()));
+        }
+
+        @Test
+        @DisplayName("The acceptance rate is 0 before any board has been created")
+        void acceptanceRateIsZeroBeforeCreatingBoards() {
+            assertEquals(0, factory.getAcceptanceRate(Grade.HARD));
+        }
+
+        @Test
+        @DisplayName("The acceptance rate is above 0 and at most 1 after creating a board")
+        void acceptanceRateIsWithinRangeAfterCreatingBoard() {
+            factory.create(Grade.VERY_EASY);
+            double rate = factory.getAcceptanceRate(Grade.VERY_EASY);
+
+            assertAll(
+                    () -> assertTrue(rate > 0),
+                    () -> assertTrue(rate <= 1)
+            );
+        }
+    }
+
     // Using the test instance annotation allows the use of non-static methods in parameterized
     // tests which allows us to use such tests in this nested class
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
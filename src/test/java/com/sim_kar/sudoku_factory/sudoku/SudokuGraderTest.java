@@ -0,0 +1,117 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static com.sim_kar.sudoku_factory.io.PuzzleText.toBoard;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.Random;
+
+class SudokuGraderTest {
+    // a puzzle that can be solved with singles alone
+    static final String EASY_PUZZLE =
+            "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..";
+    // "AI Escargot", a well known puzzle that requires several guesses with these techniques
+    static final String HARD_PUZZLE =
+            "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..";
+    static final String SOLUTION =
+            "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+    Grader grader;
+
+    @BeforeEach
+    void setup() {
+        grader = new SudokuGrader(new SudokuSolver(new Random(0L)));
+    }
+
+    @Test
+    @DisplayName("Grading a null board throws an error")
+    void gradingNullBoardThrowsError() {
+        assertThrows(IllegalArgumentException.class, () -> grader.grade(null));
+    }
+
+    @Test
+    @DisplayName("Grading a board with wrong row size throws an error")
+    void gradingBoardWithWrongSizeThrowsError() {
+        assertThrows(IllegalArgumentException.class, () -> grader.grade(new int[10][9]));
+    }
+
+    @Test
+    @DisplayName("Grading a board with numbers >9 throws an error")
+    void gradingBoardWithNumbersGreaterThanNineThrowsError() {
+        int[][] board = new int[9][9];
+        board[4][4] = 10;
+        assertThrows(IllegalArgumentException.class, () -> grader.grade(board));
+    }
+
+    @Test
+    @DisplayName("Grading a board with duplicates throws an error")
+    void gradingBoardWithDuplicatesThrowsError() {
+        int[][] board = new int[9][9];
+        board[0][0] = 1;
+        board[0][8] = 1;
+        assertThrows(IllegalArgumentException.class, () -> grader.grade(board));
+    }
+
+    @Test
+    @DisplayName("A solved board has a rating of 0")
+    void solvedBoardHasRatingZero() {
+        assertEquals(0, grader.grade(toBoard(SOLUTION)));
+    }
+
+    @Test
+    @DisplayName("A board with a single empty tile has a rating of 1")
+    void boardWithSingleEmptyTileHasRatingOne() {
+        int[][] board = toBoard(SOLUTION);
+        board[4][4] = 0;
+
+        assertEquals(1, grader.grade(board));
+    }
+
+    @Test
+    @DisplayName("Grading the same board twice gives the same rating")
+    void gradingIsDeterministic() {
+        assertEquals(grader.grade(toBoard(EASY_PUZZLE)), grader.grade(toBoard(EASY_PUZZLE)));
+    }
+
+    @Test
+    @DisplayName("Grading does not modify the board")
+    void gradingDoesNotModifyBoard() {
+        int[][] board = toBoard(EASY_PUZZLE);
+        grader.grade(board);
+
+        assertArrayEquals(toBoard(EASY_PUZZLE), board);
+    }
+
+    @Test
+    @DisplayName("A puzzle solved with singles is rated lower than one that requires guessing")
+    void puzzleRequiringGuessesIsRatedHigher() {
+        assertTrue(grader.grade(toBoard(EASY_PUZZLE)) < grader.grade(toBoard(HARD_PUZZLE)));
+    }
+
+    @Test
+    @DisplayName("A puzzle that requires several guesses is very hard")
+    void puzzleRequiringSeveralGuessesIsVeryHard() {
+        assertTrue(Grade.VERY_HARD.contains(grader.grade(toBoard(HARD_PUZZLE))));
+    }
+
+    /**
+     * The rating must not depend on the order the tiles are scanned in, so a puzzle that is
+     * relabeled, has its rows, columns, bands or stacks swapped, or is transposed, has the same
+     * rating.
+     */
+    @ParameterizedTest(name = "A transformed puzzle has the same rating with seed {0}")
+    @ValueSource(longs = {0, 1, 2, 3, 4, 5, 6, 7})
+    void transformedPuzzleHasSameRating(long seed) {
+        Transformation transformation = Transformation.random(new Random(seed));
+
+        assertAll(
+                () -> assertEquals(grader.grade(toBoard(EASY_PUZZLE)),
+                        grader.grade(transformation.apply(toBoard(EASY_PUZZLE)))),
+                () -> assertEquals(grader.grade(toBoard(HARD_PUZZLE)),
+                        grader.grade(transformation.apply(toBoard(HARD_PUZZLE))))
+        );
+    }
+}
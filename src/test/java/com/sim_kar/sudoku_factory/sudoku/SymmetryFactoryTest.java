@@ -0,0 +1,81 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import java.util.Arrays;
+import java.util.Random;
+
+class SymmetryFactoryTest {
+    static final int[][] PUZZLE = TransformationTest.PUZZLE;
+    SymmetryFactory factory =
+            new SymmetryFactory(DistinctFactoryTest.queue(PUZZLE), new Random(0L));
+
+    @Test
+    @DisplayName("A created puzzle is a transformation of the source puzzle")
+    void createdPuzzleIsTransformation() {
+        int[][] puzzle = factory.create(30).getPuzzle();
+
+        assertAll(
+                () -> assertArrayEquals(Canonicalizer.canonicalize(PUZZLE),
+                        Canonicalizer.canonicalize(puzzle)),
+                () -> assertEquals(RecordingSolver.countClues(PUZZLE),
+                        RecordingSolver.countClues(puzzle)),
+                () -> assertEquals(1, factory.getTransformed())
+        );
+    }
+
+    @Test
+    @DisplayName("The correct values of a created puzzle are its solution")
+    void correctValuesAreSolution() {
+        Board board = factory.create(Grade.MEDIUM);
+        int[][] puzzle = board.getPuzzle();
+        int[][] solution = board.getSolution();
+
+        assertAll(
+                () -> assertTrue(TransformationTest.isValidSolution(solution)),
+                () -> {
+                    for (int tile = 0; tile < 81; tile++) {
+                        int clue = puzzle[tile / 9][tile % 9];
+                        if (clue != 0) assertEquals(clue, solution[tile / 9][tile % 9]);
+                    }
+                }
+        );
+    }
+
+    @Test
+    @DisplayName("Puzzles from the same source puzzle look different")
+    void createdPuzzlesDiffer() {
+        int[][] first = factory.create(30).getPuzzle();
+        int[][] second = factory.create(30).getPuzzle();
+
+        assertAll(
+                () -> assertFalse(Arrays.deepEquals(PUZZLE, first)),
+                () -> assertFalse(Arrays.deepEquals(first, second))
+        );
+    }
+
+    @ParameterizedTest(name = "Puzzles created as {0} are rated as {0}")
+    @EnumSource(value = Grade.class, names = {"VERY_EASY", "EASY", "MEDIUM", "HARD"})
+    void createdPuzzlesAreInGrade(Grade grade) {
+        Solver solver = new BitmaskSolver(new Random(0L));
+        Grader grader = new SudokuGrader(solver);
+        SymmetryFactory symmetric = new SymmetryFactory(
+                new SudokuFactory(solver, grader, new GenerationMetrics(), new Random(0L)),
+                new Random(0L)
+        );
+
+        for (int puzzle = 0; puzzle < 10; puzzle++) {
+            int rating = grader.grade(symmetric.create(grade).getPuzzle());
+            assertTrue(grade.contains(rating), grade + " puzzle was rated " + rating);
+        }
+    }
+
+    @Test
+    @DisplayName("The acceptance rate is the rate of the source factory")
+    void acceptanceRateIsDelegated() {
+        assertEquals(0.5, factory.getAcceptanceRate(Grade.HARD));
+    }
+}
@@ -0,0 +1,118 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.sim_kar.sudoku_factory.io.PuzzleText;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+class TransformationTest {
+    static final int[][] PUZZLE = PuzzleText.toBoard(BitmaskSolverTest.PUZZLE);
+    static final int[][] SOLUTION = PuzzleText.toBoard(BitmaskSolverTest.SOLUTION);
+    static final int[] LINES = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+    static final int[] NUMBERS = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+    Random random = new Random(0L);
+
+    /**
+     * Checks that every row, column and block of a board has the numbers 1-9.
+     */
+    static boolean isValidSolution(int[][] board) {
+        for (int i = 0; i < 9; i++) {
+            int row = 0;
+            int column = 0;
+            int block = 0;
+            for (int j = 0; j < 9; j++) {
+                row |= 1 << board[i][j];
+                column |= 1 << board[j][i];
+                block |= 1 << board[(i / 3) * 3 + j / 3][(i % 3) * 3 + j % 3];
+            }
+            if ((row != 0x3FE) || (column != 0x3FE) || (block != 0x3FE)) return false;
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("The identity leaves a board as it is")
+    void identityLeavesBoard() {
+        assertArrayEquals(PUZZLE, Transformation.identity().apply(PUZZLE));
+    }
+
+    @Test
+    @DisplayName("A transposition swaps rows and columns")
+    void transpositionSwapsRowsAndColumns() {
+        int[][] transposed = new Transformation(true, LINES, LINES, NUMBERS).apply(PUZZLE);
+
+        for (int y = 0; y < 9; y++) {
+            for (int x = 0; x < 9; x++) {
+                assertEquals(PUZZLE[x][y], transposed[y][x]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A random transformation keeps a solution valid")
+    void randomTransformationKeepsSolutionValid() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(isValidSolution(Transformation.random(random).apply(SOLUTION)));
+        }
+    }
+
+    @Test
+    @DisplayName("A random transformation keeps empty tiles empty")
+    void randomTransformationKeepsEmptyTiles() {
+        int[][] transformed = Transformation.random(random).apply(PUZZLE);
+
+        assertEquals(RecordingSolver.countClues(PUZZLE), RecordingSolver.countClues(transformed));
+    }
+
+    @Test
+    @DisplayName("The inverse of a transformation undoes it")
+    void inverseUndoesTransformation() {
+        for (int i = 0; i < 20; i++) {
+            Transformation transformation = Transformation.random(random);
+            int[][] transformed = transformation.apply(PUZZLE);
+
+            assertArrayEquals(PUZZLE, transformation.inverse().apply(transformed));
+        }
+    }
+
+    @Test
+    @DisplayName("Moving a row to another band throws exception")
+    void splittingBandThrowsException() {
+        int[] rows = {0, 1, 3, 2, 4, 5, 6, 7, 8};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Transformation(false, rows, LINES, NUMBERS));
+    }
+
+    @Test
+    @DisplayName("Using a column twice throws exception")
+    void repeatedColumnThrowsException() {
+        int[] columns = {0, 0, 2, 3, 4, 5, 6, 7, 8};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Transformation(false, LINES, columns, NUMBERS));
+    }
+
+    @Test
+    @DisplayName("Relabeling empty tiles throws exception")
+    void relabelingEmptyTilesThrowsException() {
+        int[] numbers = {1, 0, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Transformation(false, LINES, LINES, numbers));
+    }
+
+    @Test
+    @DisplayName("Transformations with the same permutations are equal")
+    void samePermutationsAreEqual() {
+        Transformation transformation = Transformation.random(new Random(1L));
+
+        assertAll(
+                () -> assertEquals(Transformation.random(new Random(1L)), transformation),
+                () -> assertEquals(Transformation.random(new Random(1L)).hashCode(),
+                        transformation.hashCode()),
+                () -> assertEquals(transformation, transformation.inverse().inverse())
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+    TranspositionTable table = new TranspositionTable(1000);
+
+    @Test
+    @DisplayName("A stored board is found with its number of solutions")
+    void storedBoardIsFound() {
+        long hash = Zobrist.hash(TransformationTest.PUZZLE);
+        table.put(hash, 1);
+        table.put(hash + 2, 0);
+
+        assertAll(
+                () -> assertEquals(1, table.get(hash)),
+                () -> assertEquals(0, table.get(hash + 2)),
+                () -> assertEquals(-1, table.get(hash + 4)),
+                () -> assertEquals(2, table.getHits()),
+                () -> assertEquals(2, table.getStores())
+        );
+    }
+
+    @Test
+    @DisplayName("A board that only shares the slot of a stored board isn't found")
+    void boardInSameSlotIsNotFound() {
+        table.put(5, 0);
+
+        assertEquals(-1, table.get(5 + table.getCapacity()));
+    }
+
+    @Test
+    @DisplayName("No board is found once the table has been cleared")
+    void clearedTableIsEmpty() {
+        table.put(5, 1);
+        table.clear();
+
+        assertEquals(-1, table.get(5));
+    }
+
+    @Test
+    @DisplayName("The capacity is rounded up to a power of two")
+    void capacityIsPowerOfTwo() {
+        assertEquals(1024, table.getCapacity());
+    }
+
+    @Test
+    @DisplayName("A capacity below 1 throws exception")
+    void invalidCapacityThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+}
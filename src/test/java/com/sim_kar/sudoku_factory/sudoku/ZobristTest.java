@@ -0,0 +1,106 @@
+package com.sim_kar.sudoku_factory.sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.Set;
+
+class ZobristTest {
+    static final int[][] PUZZLE = TransformationTest.PUZZLE;
+    static final int[][] SOLUTION = TransformationTest.SOLUTION;
+
+    @Test
+    @DisplayName("The hash of a board is the hash of filling in its tiles one at a time")
+    void hashIsIncremental() {
+        long hash = 0;
+        for (int tile = 0; tile < 81; tile++) {
+            hash ^= Zobrist.key(tile, PUZZLE[tile / 9][tile % 9]);
+        }
+
+        assertEquals(Zobrist.hash(PUZZLE), hash);
+    }
+
+    @Test
+    @DisplayName("Filling in and clearing a tile gives back the same hash")
+    void clearingTileRestoresHash() {
+        long hash = Zobrist.hash(PUZZLE);
+        long filled = hash ^ Zobrist.key(0, 4);
+
+        assertAll(
+                () -> assertNotEquals(hash, filled),
+                () -> assertEquals(hash, filled ^ Zobrist.key(0, 4))
+        );
+    }
+
+    @Test
+    @DisplayName("Empty tiles have the key 0, and an empty board the hash 0")
+    void emptyTilesHaveNoKey() {
+        assertAll(
+                () -> assertEquals(0, Zobrist.key(40, 0)),
+                () -> assertEquals(0, Zobrist.hash(new int[9][9]))
+        );
+    }
+
+    @Test
+    @DisplayName("Every number in every tile has a different key")
+    void keysAreDistinct() {
+        Set<Long> keys = new HashSet<>();
+        for (int tile = 0; tile < 81; tile++) {
+            for (int value = 1; value <= 9; value++) {
+                keys.add(Zobrist.key(tile, value));
+            }
+        }
+
+        assertEquals(81 * 9, keys.size());
+    }
+
+    @Test
+    @DisplayName("A puzzle and its solution have different hashes")
+    void differentBoardsHaveDifferentHashes() {
+        assertNotEquals(Zobrist.hash(PUZZLE), Zobrist.hash(SOLUTION));
+    }
+
+    @Test
+    @DisplayName("The keys of 9x9 boards are the same when asked for with their size")
+    void sizedKeysOfStandardBoardsAreTheSame() {
+        for (int tile = 0; tile < 81; tile++) {
+            for (int value = 0; value <= 9; value++) {
+                assertEquals(Zobrist.key(tile, value), Zobrist.key(9, tile, value));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Every number in every tile of a 16x16 board has a different key")
+    void keysOfLargeBoardsAreDistinct() {
+        Set<Long> keys = new HashSet<>();
+        for (int tile = 0; tile < 256; tile++) {
+            assertEquals(0, Zobrist.key(16, tile, 0));
+            for (int value = 1; value <= 16; value++) {
+                keys.add(Zobrist.key(16, tile, value));
+            }
+        }
+
+        assertEquals(256 * 16, keys.size());
+    }
+
+    @Test
+    @DisplayName("A number higher than the size of a board throws exception")
+    void numberHigherThanSizeThrowsException() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> Zobrist.key(16, 0, 17)),
+                () -> assertThrows(IllegalArgumentException.class, () -> Zobrist.key(16, 256, 1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> Zobrist.key(65, 0, 1))
+        );
+    }
+
+    @Test
+    @DisplayName("A number outside 0-9 throws exception")
+    void invalidNumberThrowsException() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> Zobrist.key(0, 10)),
+                () -> assertThrows(IllegalArgumentException.class, () -> Zobrist.key(81, 1))
+        );
+    }
+}